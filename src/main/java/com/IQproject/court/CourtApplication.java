@@ -2,6 +2,7 @@ package com.IQproject.court;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the Tennis Court Reservation System application.
@@ -9,6 +10,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author Vojtech Zednik
  */
 @SpringBootApplication
+@EnableScheduling
 public class CourtApplication {
 
     /**
@@ -2,6 +2,15 @@ package com.IQproject.court.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Configuration class for loading custom application properties.
@@ -12,6 +21,37 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "app")
 public class AppConfig {
     private boolean dataInit;
+    private boolean verifyDatabase;
+    private String nodeId = UUID.randomUUID().toString();
+    private BookingMode bookingMode = BookingMode.DIRECT;
+    private int bookingBatchSize = 64;
+    private int eventBufferSize = 1024;
+    private Duration idempotencyTtl = Duration.ofHours(24);
+    private int idempotencyCacheSize = 10_000;
+    private Duration holdTtl = Duration.ofMinutes(10);
+    private final Admission admission = new Admission();
+    private final Rules rules = new Rules();
+    private final Journal journal = new Journal();
+    private final Replica replica = new Replica();
+    private final Tenancy tenancy = new Tenancy();
+    private final ChangeLog changeLog = new ChangeLog();
+    private final Lease lease = new Lease();
+    private final Outbox outbox = new Outbox();
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    /**
+     * How new reservations are written.
+     */
+    public enum BookingMode {
+        /**
+         * Each request checks overlaps in the database and saves its own reservation.
+         */
+        DIRECT,
+        /**
+         * Bookings are serialized per court through an in-memory mailbox and committed in batches.
+         */
+        ACTOR
+    }
 
     /**
      * Returns whether data initialization is enabled.
@@ -30,4 +70,642 @@ public class AppConfig {
     public void setDataInit(boolean dataInit) {
         this.dataInit = dataInit;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns whether a file-backed database is verified on startup.
+     *
+     * @return true if the database should be verified, false otherwise
+     */
+    public boolean isVerifyDatabase() {
+        return verifyDatabase;
+    }
+
+    /**
+     * Sets the database verification flag.
+     *
+     * @param verifyDatabase true to verify the database on startup, false to skip it
+     */
+    public void setVerifyDatabase(boolean verifyDatabase) {
+        this.verifyDatabase = verifyDatabase;
+    }
+
+    /**
+     * Returns the ID of this instance among the instances sharing the database.
+     *
+     * @return the node ID, random unless configured
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Sets the ID of this instance among the instances sharing the database.
+     *
+     * @param nodeId the node ID, unique within the cluster
+     */
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Returns the booking mode.
+     *
+     * @return the booking mode
+     */
+    public BookingMode getBookingMode() {
+        return bookingMode;
+    }
+
+    /**
+     * Sets the booking mode.
+     *
+     * @param bookingMode the booking mode
+     */
+    public void setBookingMode(BookingMode bookingMode) {
+        this.bookingMode = bookingMode;
+    }
+
+    /**
+     * Returns the maximum number of bookings committed together by a court mailbox.
+     *
+     * @return the batch size
+     */
+    public int getBookingBatchSize() {
+        return bookingBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of bookings committed together by a court mailbox.
+     *
+     * @param bookingBatchSize the batch size
+     */
+    public void setBookingBatchSize(int bookingBatchSize) {
+        this.bookingBatchSize = bookingBatchSize;
+    }
+
+    /**
+     * Returns the number of availability deltas kept for Server-Sent Events clients.
+     *
+     * @return the buffer size
+     */
+    public int getEventBufferSize() {
+        return eventBufferSize;
+    }
+
+    /**
+     * Sets the number of availability deltas kept for Server-Sent Events clients.
+     *
+     * @param eventBufferSize the buffer size, rounded up to a power of two
+     */
+    public void setEventBufferSize(int eventBufferSize) {
+        this.eventBufferSize = eventBufferSize;
+    }
+
+    /**
+     * Returns how long results of idempotent requests are kept.
+     *
+     * @return the retention period
+     */
+    public Duration getIdempotencyTtl() {
+        return idempotencyTtl;
+    }
+
+    /**
+     * Sets how long results of idempotent requests are kept.
+     *
+     * @param idempotencyTtl the retention period
+     */
+    public void setIdempotencyTtl(Duration idempotencyTtl) {
+        this.idempotencyTtl = idempotencyTtl;
+    }
+
+    /**
+     * Returns the maximum number of idempotency results kept in memory.
+     *
+     * @return the cache size
+     */
+    public int getIdempotencyCacheSize() {
+        return idempotencyCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of idempotency results kept in memory.
+     *
+     * @param idempotencyCacheSize the cache size
+     */
+    public void setIdempotencyCacheSize(int idempotencyCacheSize) {
+        this.idempotencyCacheSize = idempotencyCacheSize;
+    }
+
+    /**
+     * Returns how long a hold blocks its slot before it expires.
+     *
+     * @return the hold time-to-live
+     */
+    public Duration getHoldTtl() {
+        return holdTtl;
+    }
+
+    /**
+     * Sets how long a hold blocks its slot before it expires.
+     *
+     * @param holdTtl the hold time-to-live
+     */
+    public void setHoldTtl(Duration holdTtl) {
+        this.holdTtl = holdTtl;
+    }
+
+    /**
+     * Returns the admission control settings ({@code app.admission.*}).
+     *
+     * @return the admission settings
+     */
+    public Admission getAdmission() {
+        return admission;
+    }
+
+    /**
+     * Returns the booking rules ({@code app.rules.*}).
+     *
+     * @return the booking rules
+     */
+    public Rules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the reservation journal settings ({@code app.journal.*}).
+     *
+     * @return the journal settings
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the read replica settings ({@code app.replica.*}).
+     *
+     * @return the replica settings
+     */
+    public Replica getReplica() {
+        return replica;
+    }
+
+    /**
+     * Returns the multi-club tenancy settings ({@code app.tenancy.*}).
+     *
+     * @return the tenancy settings
+     */
+    public Tenancy getTenancy() {
+        return tenancy;
+    }
+
+    /**
+     * Returns the cross-node change log settings ({@code app.change-log.*}).
+     *
+     * @return the change log settings
+     */
+    public ChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    /**
+     * Returns the court lease settings ({@code app.lease.*}).
+     *
+     * @return the lease settings
+     */
+    public Lease getLease() {
+        return lease;
+    }
+
+    /**
+     * Returns the reservation event outbox settings ({@code app.outbox.*}).
+     *
+     * @return the outbox settings
+     */
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * Returns the group commit settings ({@code app.group-commit.*}).
+     *
+     * @return the group commit settings
+     */
+    public GroupCommit getGroupCommit() {
+        return groupCommit;
+    }
+
+    /**
+     * Rate limits per phone number and client IP, and the global booking concurrency limit.
+     */
+    public static class Admission {
+        private boolean enabled = true;
+        private int phonePerMinute = 30;
+        private int phoneBurst = 10;
+        private int ipPerMinute = 120;
+        private int ipBurst = 40;
+        private int maxConcurrentBookings = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPhonePerMinute() {
+            return phonePerMinute;
+        }
+
+        public void setPhonePerMinute(int phonePerMinute) {
+            this.phonePerMinute = phonePerMinute;
+        }
+
+        public int getPhoneBurst() {
+            return phoneBurst;
+        }
+
+        public void setPhoneBurst(int phoneBurst) {
+            this.phoneBurst = phoneBurst;
+        }
+
+        public int getIpPerMinute() {
+            return ipPerMinute;
+        }
+
+        public void setIpPerMinute(int ipPerMinute) {
+            this.ipPerMinute = ipPerMinute;
+        }
+
+        public int getIpBurst() {
+            return ipBurst;
+        }
+
+        public void setIpBurst(int ipBurst) {
+            this.ipBurst = ipBurst;
+        }
+
+        public int getMaxConcurrentBookings() {
+            return maxConcurrentBookings;
+        }
+
+        public void setMaxConcurrentBookings(int maxConcurrentBookings) {
+            this.maxConcurrentBookings = maxConcurrentBookings;
+        }
+    }
+
+    /**
+     * Club opening hours and slot rules for new reservations. The defaults accept any time range.
+     * Opening hours are given per weekday as {@code HH:mm-HH:mm} (the end may be {@code 24:00})
+     * or {@code closed}; weekdays without an entry are open all day.
+     */
+    public static class Rules {
+        private int slotMinutes;
+        private Duration minDuration = Duration.ZERO;
+        private Map<DayOfWeek, String> openingHours = new EnumMap<>(DayOfWeek.class);
+
+        public int getSlotMinutes() {
+            return slotMinutes;
+        }
+
+        public void setSlotMinutes(int slotMinutes) {
+            this.slotMinutes = slotMinutes;
+        }
+
+        public Duration getMinDuration() {
+            return minDuration;
+        }
+
+        public void setMinDuration(Duration minDuration) {
+            this.minDuration = minDuration;
+        }
+
+        public Map<DayOfWeek, String> getOpeningHours() {
+            return openingHours;
+        }
+
+        public void setOpeningHours(Map<DayOfWeek, String> openingHours) {
+            this.openingHours = openingHours;
+        }
+    }
+
+    /**
+     * Memory-mapped journal of reservation changes used to restore court schedules on a warm
+     * restart. Disabled by default.
+     */
+    public static class Journal {
+        private boolean enabled;
+        private String directory = "journal";
+        private DataSize size = DataSize.ofMegabytes(64);
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSize() {
+            return size;
+        }
+
+        public void setSize(DataSize size) {
+            this.size = size;
+        }
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+    }
+
+    /**
+     * Read replica used by read-only transactions. Disabled by default. After a write, the reads of
+     * the client that wrote go to the primary until the replica reports that it has caught up or,
+     * without a replication hook, for {@code maxLag}.
+     */
+    public static class Replica {
+        private boolean enabled;
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private Duration maxLag = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+    }
+
+    /**
+     * Clubs served by this instance. Every request works for one tenant, named by the
+     * {@code header} or by a {@code /clubs/{tenant}} path prefix; requests naming neither work for
+     * the {@code default} tenant. Tenant IDs consist of lower-case letters, digits and underscores.
+     */
+    public static class Tenancy {
+
+        /**
+         * Where the data of the tenants is kept.
+         */
+        public enum Mode {
+            /**
+             * All tenants share the tables, which carry a tenant column leading their indexes.
+             */
+            SHARED_SCHEMA,
+            /**
+             * Each tenant has its own schema, created on first use. New tenants must be appended to
+             * {@code tenants}, as the position of a tenant determines the range of its IDs.
+             */
+            SCHEMA_PER_TENANT
+        }
+
+        private Mode mode = Mode.SHARED_SCHEMA;
+        private List<String> tenants = new ArrayList<>();
+        private String header = "X-Tenant-Id";
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public List<String> getTenants() {
+            return tenants;
+        }
+
+        public void setTenants(List<String> tenants) {
+            this.tenants = tenants;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+    }
+
+    /**
+     * Change log shared by the instances of a cluster. Disabled by default. Every write of a court,
+     * surface type, reservation or blackout window also records a change log entry, and every
+     * {@code pollInterval} each instance applies the entries written by the others to its caches.
+     * An entry whose ID was skipped is waited for up to {@code gapTimeout}, after which all caches
+     * are dropped. Entries older than {@code retention} are deleted.
+     */
+    public static class ChangeLog {
+        private boolean enabled;
+        private Duration pollInterval = Duration.ofMillis(500);
+        private Duration gapTimeout = Duration.ofSeconds(10);
+        private int batchSize = 500;
+        private Duration retention = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getGapTimeout() {
+            return gapTimeout;
+        }
+
+        public void setGapTimeout(Duration gapTimeout) {
+            this.gapTimeout = gapTimeout;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * Database leases on courts for {@link BookingMode#ACTOR} mode with several instances. Disabled
+     * by default. An instance drains the mailbox of a court only while it holds the court's lease,
+     * which expires after {@code ttl} unless renewed and is released when the mailbox is empty.
+     * Bookings wait up to {@code ttl} for a lease held by another instance.
+     */
+    public static class Lease {
+        private boolean enabled;
+        private Duration ttl = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Transactional outbox of reservation events. Disabled by default. Events are written with the
+     * reservation and relayed every {@code pollInterval} in batches of up to {@code batchSize} to the
+     * {@code sink}: {@code file} appends JSON lines to {@code file}, {@code memory} keeps them in
+     * process for tests.
+     */
+    public static class Outbox {
+        private boolean enabled;
+        private Duration pollInterval = Duration.ofMillis(200);
+        private int batchSize = 500;
+        private String sink = "file";
+        private String file = "outbox/reservation-events.jsonl";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getSink() {
+            return sink;
+        }
+
+        public void setSink(String sink) {
+            this.sink = sink;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Group commit of bookings in {@link BookingMode#DIRECT} mode. Disabled by default. Bookings
+     * arriving within {@code maxWait} of the first one are written in one transaction, up to
+     * {@code maxBatchSize} at a time.
+     */
+    public static class GroupCommit {
+        private boolean enabled;
+        private Duration maxWait = Duration.ofMillis(2);
+        private int maxBatchSize = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+}
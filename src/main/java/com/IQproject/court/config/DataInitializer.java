@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 
 /**
  * Component that initializes default data in the database.
- * The initialization runs only if the `app.data-init` property is set to true.
+ * The initialization runs only if the `app.data-init` property is set to true
+ * and the database has no surface types yet, so a persistent database is seeded once.
  *
  * @author Vojtech Zednik
  */
@@ -39,7 +40,7 @@ public class DataInitializer {
 
     @PostConstruct
     public void init() {
-        if (!config.isDataInit()) return;
+        if (!config.isDataInit() || !surfaceTypeRepository.findAll().isEmpty()) return;
 
         SurfaceType clay = new SurfaceType("Clay", new BigDecimal(15));
         SurfaceType grass = new SurfaceType("Grass", new BigDecimal(10));
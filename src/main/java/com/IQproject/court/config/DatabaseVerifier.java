@@ -0,0 +1,90 @@
+package com.IQproject.court.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Component that checks a file-backed H2 database before the application starts serving.
+ * The check runs only if the `app.verify-database` property is set to true.
+ * <p>
+ * Every table, including those of tenant schemas, is scanned through its primary key and the number of rows found is compared with
+ * the row count H2 keeps in the table metadata. A scan fails on damaged pages, and a difference
+ * between the counts means the table and its primary index disagree; either stops the startup.
+ * In-memory databases are not checked.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class DatabaseVerifier {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final AppConfig config;
+
+    /**
+     * Constructor for DatabaseVerifier.
+     *
+     * @param config application configuration containing the verify-database flag
+     */
+    public DatabaseVerifier(AppConfig config) {
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!config.isVerifyDatabase()) return;
+        verify();
+    }
+
+    /**
+     * Scans all tables of the database.
+     *
+     * @return the number of rows of each table, qualified by the schema outside {@code PUBLIC},
+     * or an empty map for an in-memory database
+     * @throws IllegalStateException if a table is inconsistent
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> verify() {
+        if (em.createNativeQuery("SELECT DATABASE_PATH()").getSingleResult() == null) {
+            return Map.of();
+        }
+
+        List<Object[]> tables = em.createNativeQuery("""
+                        SELECT t.TABLE_SCHEMA, t.TABLE_NAME, t.ROW_COUNT_ESTIMATE, MIN(k.COLUMN_NAME)
+                        FROM INFORMATION_SCHEMA.TABLES t
+                        JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS c
+                          ON c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME
+                          AND c.CONSTRAINT_TYPE = 'PRIMARY KEY'
+                        JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k
+                          ON k.CONSTRAINT_SCHEMA = c.CONSTRAINT_SCHEMA AND k.CONSTRAINT_NAME = c.CONSTRAINT_NAME
+                        WHERE t.TABLE_SCHEMA <> 'INFORMATION_SCHEMA' AND t.TABLE_TYPE = 'BASE TABLE'
+                        GROUP BY t.TABLE_SCHEMA, t.TABLE_NAME, t.ROW_COUNT_ESTIMATE
+                        ORDER BY t.TABLE_SCHEMA, t.TABLE_NAME
+                        """)
+                .getResultList();
+
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (Object[] table : tables) {
+            String schema = (String) table[0];
+            String name = "PUBLIC".equals(schema) ? (String) table[1] : schema + "." + table[1];
+            long expected = ((Number) table[2]).longValue();
+            // the condition keeps H2 from answering the count from metadata
+            long scanned = ((Number) em.createNativeQuery("SELECT COUNT(*) FROM \"" + schema + "\".\"" + table[1]
+                            + "\" WHERE \"" + table[3] + "\" IS NOT NULL")
+                    .getSingleResult()).longValue();
+            if (scanned != expected) {
+                throw new IllegalStateException("Table " + name + " has " + scanned + " rows but its metadata says "
+                        + expected + "; restore the database from a backup or run the H2 Recover tool");
+            }
+            rows.put(name, scanned);
+        }
+        return rows;
+    }
+}
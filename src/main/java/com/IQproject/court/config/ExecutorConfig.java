@@ -0,0 +1,55 @@
+package com.IQproject.court.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the executors used by background work in the service layer.
+ * <p>
+ * When {@code spring.threads.virtual.enabled} is true (see the {@code virtual} profile), Tomcat
+ * serves requests on virtual threads and these executors start one virtual thread per task.
+ * Otherwise fixed pools of platform threads are used, sized by {@code app.service-threads} and
+ * {@code app.sse-threads}. Writes to Server-Sent Events clients block while a client is slow,
+ * so they get a pool of their own and cannot hold up the service work.
+ *
+ * @author Vojtech Zednik
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Creates the executor for asynchronous service-layer tasks.
+     *
+     * @param virtualThreads whether virtual threads are enabled
+     * @param serviceThreads number of platform threads used when virtual threads are disabled
+     * @return the service executor
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService serviceExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                           @Value("${app.service-threads:16}") int serviceThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(serviceThreads, Thread.ofPlatform().name("service-", 0).factory());
+    }
+
+    /**
+     * Creates the executor writing to Server-Sent Events subscribers.
+     *
+     * @param virtualThreads whether virtual threads are enabled
+     * @param sseThreads     number of platform threads used when virtual threads are disabled
+     * @return the SSE executor
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService sseExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${app.sse-threads:4}") int sseThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(sseThreads, Thread.ofPlatform().name("sse-", 0).factory());
+    }
+}
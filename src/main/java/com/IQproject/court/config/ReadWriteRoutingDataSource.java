@@ -0,0 +1,62 @@
+package com.IQproject.court.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Data source sending read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The target is chosen when a connection is first used, so it must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; by then the
+ * transaction's read-only flag is known. Read-only transactions still go to the primary while the
+ * {@link ReplicaLagTracker} reports that the replica has not caught up with the last write of the
+ * current client. Write transactions report their commit to the tracker.
+ *
+ * @author Vojtech Zednik
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Routing target.
+     */
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagTracker lagTracker;
+
+    /**
+     * Constructs a new ReadWriteRoutingDataSource.
+     *
+     * @param primary    the primary database, used for writes and as the default
+     * @param replica    the read replica
+     * @param lagTracker tracker of the replica's lag
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagTracker lagTracker) {
+        this.lagTracker = lagTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lagTracker.isReplicaCurrent() ? Target.REPLICA : Target.PRIMARY;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagTracker.recordWrite();
+            }
+        });
+        return Target.PRIMARY;
+    }
+}
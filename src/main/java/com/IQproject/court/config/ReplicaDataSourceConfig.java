@@ -0,0 +1,86 @@
+package com.IQproject.court.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the primary and replica connection pools behind a {@link ReadWriteRoutingDataSource}.
+ * Active only if the `app.replica.enabled` property is set to true; otherwise Spring Boot's single
+ * data source is used.
+ *
+ * @author Vojtech Zednik
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Connection pool of the primary database, configured by {@code spring.datasource.*}.
+     *
+     * @param properties the data source properties
+     * @return the primary pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Connection pool of the read replica, configured by {@code app.replica.*}.
+     *
+     * @param config application configuration holding the replica settings
+     * @return the replica pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource replicaDataSource(AppConfig config) {
+        AppConfig.Replica replica = config.getReplica();
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Tracker deciding when reads may go to the replica again after a write.
+     *
+     * @param config application configuration holding the maximum replica lag
+     * @return the tracker
+     */
+    @Bean
+    public ReplicaLagTracker replicaLagTracker(AppConfig config) {
+        return new ReplicaLagTracker(config.getReplica().getMaxLag());
+    }
+
+    /**
+     * The data source used by JPA, routing each transaction once it runs its first statement.
+     *
+     * @param primaryDataSource the primary pool
+     * @param replicaDataSource the replica pool
+     * @param replicaLagTracker the replica lag tracker
+     * @return the routing data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagTracker replicaLagTracker) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagTracker));
+    }
+}
@@ -0,0 +1,111 @@
+package com.IQproject.court.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether the read replica has caught up with the writes of a client, for read-your-writes.
+ * <p>
+ * Every committed write transaction gets a write version, the commit time in microseconds since the
+ * epoch, increased if needed so that versions never repeat. The client that made the write learns
+ * its version, and {@code WriteVersionFilter} lets an HTTP client carry it from request to request;
+ * other clients never wait for it. The replica is current for a client once a replication hook
+ * reports that it has applied the client's version. Deployments without such a hook instead assume
+ * that the replica applies a write within {@code maxLag}; once a hook has reported, only the hook
+ * counts.
+ *
+ * @author Vojtech Zednik
+ */
+public class ReplicaLagTracker {
+    private final long maxLagMicros;
+    private final AtomicLong writeVersion = new AtomicLong();
+    private final AtomicLong replicatedVersion = new AtomicLong();
+    private final ThreadLocal<Long> clientVersion = ThreadLocal.withInitial(() -> 0L);
+    private volatile boolean hooked;
+
+    /**
+     * Constructs a new ReplicaLagTracker.
+     *
+     * @param maxLag the longest time the replica may lag behind the primary
+     */
+    public ReplicaLagTracker(Duration maxLag) {
+        this.maxLagMicros = maxLag.toNanos() / 1000;
+    }
+
+    private static long now() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    /**
+     * Records a committed write on the primary made by the client of the current thread.
+     *
+     * @return the version of the write
+     */
+    public long recordWrite() {
+        long version = writeVersion.accumulateAndGet(now(), (last, now) -> Math.max(last + 1, now));
+        clientVersion.set(Math.max(clientVersion.get(), version));
+        return version;
+    }
+
+    /**
+     * Reports that the replica has applied all writes up to the given version.
+     *
+     * @param version a version previously returned by {@link #getWriteVersion()}
+     */
+    public void replicated(long version) {
+        hooked = true;
+        replicatedVersion.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * Returns the version of the last committed write.
+     *
+     * @return the write version, 0 if nothing was written yet
+     */
+    public long getWriteVersion() {
+        return writeVersion.get();
+    }
+
+    /**
+     * Returns the version of the last write the client of the current thread has made.
+     *
+     * @return the client's write version, 0 if it has written nothing
+     */
+    public long getClientVersion() {
+        return clientVersion.get();
+    }
+
+    /**
+     * Sets the version of the last write the client of the current thread has made.
+     *
+     * @param version the client's write version, 0 if it has written nothing
+     * @return the version set before
+     */
+    public long setClientVersion(long version) {
+        long previous = clientVersion.get();
+        clientVersion.set(version);
+        return previous;
+    }
+
+    /**
+     * Returns whether reads on the replica see every write of the client of the current thread.
+     *
+     * @return true if the replica is current, false if reads should go to the primary
+     */
+    public boolean isReplicaCurrent() {
+        return isReplicaCurrent(clientVersion.get());
+    }
+
+    /**
+     * Returns whether reads on the replica see the write of the given version.
+     *
+     * @param version a write version
+     * @return true if the replica is current, false if reads should go to the primary
+     */
+    public boolean isReplicaCurrent(long version) {
+        return replicatedVersion.get() >= version
+                || !hooked && now() - version >= maxLagMicros;
+    }
+}
@@ -0,0 +1,150 @@
+package com.IQproject.court.config;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands Hibernate connections switched to the schema of the session's tenant.
+ * <p>
+ * Schema tooling and {@link TenantContext#ROOT} sessions work in {@code PUBLIC}, whose tables
+ * Hibernate maintains. The schema of another tenant is created the first time the tenant connects,
+ * as a copy of the {@code PUBLIC} table definitions with the identities starting at the tenant's
+ * ID range. Later changes to the entities are applied to {@code PUBLIC} only.
+ *
+ * @author Vojtech Zednik
+ */
+public class SchemaPerTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+    private final DataSource dataSource;
+    private final TenantRegistry tenants;
+    private final Set<String> provisioned = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock provisionLock = new ReentrantLock();
+
+    /**
+     * Constructs a new SchemaPerTenantConnectionProvider.
+     *
+     * @param dataSource the data source of the database
+     * @param tenants    the configured tenants
+     */
+    public SchemaPerTenantConnectionProvider(DataSource dataSource, TenantRegistry tenants) {
+        this.dataSource = dataSource;
+        this.tenants = tenants;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        String schema = tenants.schemaOf(tenant);
+        provision(tenant, schema);
+        Connection connection = getAnyConnection();
+        try {
+            connection.setSchema(schema);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        try {
+            connection.setSchema(tenants.schemaOf(TenantContext.DEFAULT_TENANT));
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType);
+    }
+
+    private void provision(String tenant, String schema) throws SQLException {
+        String defaultSchema = tenants.schemaOf(TenantContext.DEFAULT_TENANT);
+        if (schema.equals(defaultSchema) || provisioned.contains(schema)) {
+            return;
+        }
+        provisionLock.lock();
+        try (Connection connection = getAnyConnection()) {
+            if (provisioned.contains(schema)) {
+                return;
+            }
+            if (!exists(connection, schema)) {
+                create(connection, defaultSchema, schema, tenants.firstIdOf(tenant));
+            }
+            provisioned.add(schema);
+        } finally {
+            provisionLock.unlock();
+        }
+    }
+
+    private static boolean exists(Connection connection, String schema) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SCHEMATA WHERE SCHEMA_NAME = ?")) {
+            query.setString(1, schema);
+            try (ResultSet result = query.executeQuery()) {
+                result.next();
+                return result.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static void create(Connection connection, String from, String schema, long firstId) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            List<String> script = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery(
+                    "SCRIPT NODATA NOPASSWORDS NOSETTINGS NOVERSION SCHEMA \"" + from + "\"")) {
+                while (result.next()) {
+                    script.add(result.getString(1));
+                }
+            }
+            statement.execute("CREATE SCHEMA \"" + schema + "\"");
+            try {
+                for (String line : script) {
+                    if (line.startsWith("CREATE USER") || line.startsWith("--")) {
+                        continue;
+                    }
+                    statement.execute(line.replace("\"" + from + "\".", "\"" + schema + "\".")
+                            .replaceAll("IDENTITY\\(START WITH \\d+( RESTART WITH \\d+)?\\)",
+                                    "IDENTITY(START WITH " + firstId + ")"));
+                }
+            } catch (SQLException e) {
+                statement.execute("DROP SCHEMA \"" + schema + "\" CASCADE");
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.IQproject.court.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Hibernate configuration for multi-club tenancy. The tenant of a session is always taken from
+ * {@link TenantContext}; in schema-per-tenant mode connections are also switched to the tenant's schema.
+ *
+ * @author Vojtech Zednik
+ */
+@Configuration
+public class TenancyConfig {
+
+    /**
+     * Registers the tenant resolver and, in schema-per-tenant mode, the schema switching connection provider.
+     *
+     * @param dataSource the data source of the database
+     * @param tenants    the configured tenants
+     * @return the customizer of the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer tenancyHibernateProperties(DataSource dataSource, TenantRegistry tenants) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+            if (tenants.isSchemaPerTenant()) {
+                properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER,
+                        new SchemaPerTenantConnectionProvider(dataSource, tenants));
+            }
+        };
+    }
+}
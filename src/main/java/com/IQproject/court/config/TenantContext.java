@@ -0,0 +1,106 @@
+package com.IQproject.court.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Holder of the tenant (club) the current thread works for.
+ * <p>
+ * Request threads get the tenant of their request from {@code TenantFilter}; threads without a
+ * tenant work for {@link #DEFAULT_TENANT}. Background jobs that maintain data of all clubs run
+ * as {@link #ROOT}, which Hibernate does not restrict to a single tenant.
+ *
+ * @author Vojtech Zednik
+ */
+public final class TenantContext {
+    /**
+     * Tenant used when a request names none. Its data lives in the {@code PUBLIC} schema.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Pseudo-tenant of background jobs that see the data of all tenants.
+     */
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Returns the tenant of the current thread.
+     *
+     * @return the tenant ID, {@link #DEFAULT_TENANT} if none is set
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    /**
+     * Sets the tenant of the current thread.
+     *
+     * @param tenant the tenant ID, or null to clear it
+     * @return the tenant set before, or null if there was none
+     */
+    public static String set(String tenant) {
+        String previous = CURRENT.get();
+        if (tenant == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(tenant);
+        }
+        return previous;
+    }
+
+    /**
+     * Runs an action for a tenant and restores the previous tenant afterwards.
+     *
+     * @param tenant the tenant ID
+     * @param action the action
+     */
+    public static void run(String tenant, Runnable action) {
+        String previous = set(tenant);
+        try {
+            action.run();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * Computes a value for a tenant and restores the previous tenant afterwards.
+     *
+     * @param tenant the tenant ID
+     * @param action the computation
+     * @param <T>    the result type
+     * @return the computed value
+     */
+    public static <T> T call(String tenant, Supplier<T> action) {
+        String previous = set(tenant);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * Binds an action to the tenant of the current thread, so that it keeps working for that tenant
+     * when it is run by an executor.
+     *
+     * @param action the action
+     * @return the bound action
+     */
+    public static Runnable wrap(Runnable action) {
+        String tenant = CURRENT.get();
+        return () -> {
+            String previous = set(tenant);
+            try {
+                action.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.IQproject.court.config;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Supplies Hibernate with the tenant of the current thread. Entities with a tenant column are
+ * stamped with it on insert and filtered by it in queries, except in {@link TenantContext#ROOT} sessions.
+ *
+ * @author Vojtech Zednik
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantIdentifier) {
+        return TenantContext.ROOT.equals(tenantIdentifier);
+    }
+}
@@ -0,0 +1,184 @@
+package com.IQproject.court.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of the tenants (clubs) configured by {@code app.tenancy.*}.
+ * <p>
+ * In shared-schema mode all tenants live in the {@code PUBLIC} schema and IDs come from one identity
+ * per table, so background jobs simply run as {@link TenantContext#ROOT}. In schema-per-tenant mode
+ * each tenant has a schema named after it, and the IDs of a tenant start at its position in the
+ * tenant list shifted by {@value #ID_RANGE_BITS} bits. IDs therefore never collide across tenants,
+ * in-memory state keyed by ID needs no tenant, and the tenant owning an ID follows from the ID.
+ * Background jobs run once per tenant there.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class TenantRegistry {
+    /**
+     * Number of ID bits available to each tenant in schema-per-tenant mode.
+     */
+    public static final int ID_RANGE_BITS = 40;
+    private static final String DEFAULT_SCHEMA = "PUBLIC";
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9_]{1,32}");
+    private static final Set<String> RESERVED = Set.of("public", "information_schema");
+
+    private final boolean schemaPerTenant;
+    private final List<String> tenants = new ArrayList<>();
+
+    /**
+     * Constructs a new TenantRegistry.
+     *
+     * @param config application configuration holding the tenancy settings
+     * @throws IllegalArgumentException if a tenant ID is invalid or listed twice
+     */
+    public TenantRegistry(AppConfig config) {
+        AppConfig.Tenancy tenancy = config.getTenancy();
+        this.schemaPerTenant = tenancy.getMode() == AppConfig.Tenancy.Mode.SCHEMA_PER_TENANT;
+        tenants.add(TenantContext.DEFAULT_TENANT);
+        for (String tenant : tenancy.getTenants()) {
+            if (!TENANT_ID.matcher(tenant).matches() || RESERVED.contains(tenant)) {
+                throw new IllegalArgumentException("Invalid tenant ID in app.tenancy.tenants: " + tenant);
+            }
+            if (tenants.contains(tenant)) {
+                throw new IllegalArgumentException("Tenant listed twice in app.tenancy.tenants: " + tenant);
+            }
+            tenants.add(tenant);
+        }
+    }
+
+    /**
+     * Resolves the tenant named by a request.
+     *
+     * @param tenant the tenant ID, or null if the request names none
+     * @return the tenant ID, {@link TenantContext#DEFAULT_TENANT} if none was named
+     * @throws IllegalArgumentException if the tenant is not configured
+     */
+    public String resolve(String tenant) {
+        if (tenant == null || tenant.isEmpty()) {
+            return TenantContext.DEFAULT_TENANT;
+        }
+        if (!tenants.contains(tenant)) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        }
+        return tenant;
+    }
+
+    /**
+     * Returns all tenants, starting with the default tenant.
+     *
+     * @return the tenant IDs
+     */
+    public List<String> getTenants() {
+        return List.copyOf(tenants);
+    }
+
+    /**
+     * Returns whether each tenant has its own schema.
+     *
+     * @return true in schema-per-tenant mode
+     */
+    public boolean isSchemaPerTenant() {
+        return schemaPerTenant;
+    }
+
+    /**
+     * Returns the schema holding the data of a tenant.
+     *
+     * @param tenant the tenant ID
+     * @return the schema name
+     */
+    public String schemaOf(String tenant) {
+        if (!schemaPerTenant || TenantContext.DEFAULT_TENANT.equals(tenant) || TenantContext.ROOT.equals(tenant)) {
+            return DEFAULT_SCHEMA;
+        }
+        return tenant.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the first ID of the range of a tenant in schema-per-tenant mode.
+     *
+     * @param tenant the tenant ID
+     * @return the first ID
+     * @throws IllegalArgumentException if the tenant is not configured
+     */
+    public long firstIdOf(String tenant) {
+        int index = tenants.indexOf(tenant);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        }
+        return index == 0 ? 1 : (long) index << ID_RANGE_BITS;
+    }
+
+    /**
+     * Returns the tenant to run as when working with an entity ID outside of a request.
+     *
+     * @param id the entity ID
+     * @return the owning tenant in schema-per-tenant mode, {@link TenantContext#ROOT} otherwise
+     * @throws IllegalArgumentException if no tenant owns the ID
+     */
+    public String tenantOf(long id) {
+        if (!schemaPerTenant) {
+            return TenantContext.ROOT;
+        }
+        long index = id >>> ID_RANGE_BITS;
+        if (index >= tenants.size()) {
+            throw new IllegalArgumentException("No tenant owns ID " + id);
+        }
+        return tenants.get((int) index);
+    }
+
+    /**
+     * Groups entity IDs by the tenant to run as when working with them.
+     *
+     * @param ids the entity IDs
+     * @return the IDs per tenant, see {@link #tenantOf(long)}
+     */
+    public Map<String, List<Long>> partition(Collection<Long> ids) {
+        Map<String, List<Long>> partitions = new LinkedHashMap<>();
+        for (Long id : ids) {
+            partitions.computeIfAbsent(tenantOf(id), tenant -> new ArrayList<>()).add(id);
+        }
+        return partitions;
+    }
+
+    /**
+     * Runs a background action over the data of all tenants: once as {@link TenantContext#ROOT} in
+     * shared-schema mode, once per tenant otherwise.
+     *
+     * @param action the action
+     */
+    public void forEach(Runnable action) {
+        if (!schemaPerTenant) {
+            TenantContext.run(TenantContext.ROOT, action);
+            return;
+        }
+        for (String tenant : tenants) {
+            TenantContext.run(tenant, action);
+        }
+    }
+
+    /**
+     * Runs a query over the data of all tenants, see {@link #forEach(Runnable)}.
+     *
+     * @param query the query
+     * @param <T>   the element type
+     * @return the results of all tenants
+     */
+    public <T> List<T> collect(Supplier<List<T>> query) {
+        List<T> results = new ArrayList<>();
+        forEach(() -> results.addAll(query.get()));
+        return results;
+    }
+}
@@ -0,0 +1,33 @@
+package com.IQproject.court.config;
+
+import com.IQproject.court.controller.AdmissionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration registering request interceptors.
+ *
+ * @author Vojtech Zednik
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final AdmissionInterceptor admissionInterceptor;
+
+    /**
+     * Constructor for WebConfig.
+     *
+     * @param admissionInterceptor interceptor enforcing admission control
+     */
+    public WebConfig(AdmissionInterceptor admissionInterceptor) {
+        this.admissionInterceptor = admissionInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/api/reservations", "/api/reservations/async", "/api/reservations/group",
+                        "/api/reservations/any-court", "/api/reservations/customer", "/api/holds",
+                        "/api/waitlist");
+    }
+}
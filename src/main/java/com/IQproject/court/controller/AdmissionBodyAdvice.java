@@ -0,0 +1,56 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.AnyCourtBookingRequest;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.GroupBookingRequest;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.service.AdmissionControl;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Applies the per-phone rate limit to reservation request bodies once they are deserialized.
+ *
+ * @author Vojtech Zednik
+ */
+@ControllerAdvice
+public class AdmissionBodyAdvice extends RequestBodyAdviceAdapter {
+    private final AdmissionControl admissionControl;
+
+    /**
+     * Constructor for AdmissionBodyAdvice.
+     *
+     * @param admissionControl the admission control service
+     */
+    public AdmissionBodyAdvice(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return Reservation.class.equals(targetType) || GroupBookingRequest.class.equals(targetType)
+                || AnyCourtBookingRequest.class.equals(targetType) || WaitlistEntry.class.equals(targetType);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Customer customer = switch (body) {
+            case GroupBookingRequest request -> request.getCustomer();
+            case AnyCourtBookingRequest request -> request.getCustomer();
+            case WaitlistEntry entry -> entry.getCustomer();
+            default -> ((Reservation) body).getCustomer();
+        };
+        if (admissionControl.isEnabled() && customer != null) {
+            admissionControl.checkPhone(customer.getPhoneNumber());
+        }
+        return body;
+    }
+}
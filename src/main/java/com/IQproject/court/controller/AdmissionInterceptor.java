@@ -0,0 +1,53 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.service.AdmissionControl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link AdmissionControl} to the booking and customer lookup endpoints:
+ * per-IP and per-phone rate limits, and the global concurrency limit for bookings.
+ * Phone numbers in request bodies are checked by {@link AdmissionBodyAdvice}.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+    private static final String BOOKING_PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admissionControl;
+
+    /**
+     * Constructor for AdmissionInterceptor.
+     *
+     * @param admissionControl the admission control service
+     */
+    public AdmissionInterceptor(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!admissionControl.isEnabled()) {
+            return true;
+        }
+        admissionControl.checkClient(request.getRemoteAddr());
+        admissionControl.checkPhone(request.getParameter("phone"));
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            admissionControl.enterBooking();
+            request.setAttribute(BOOKING_PERMIT, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(BOOKING_PERMIT) != null) {
+            request.removeAttribute(BOOKING_PERMIT);
+            admissionControl.exitBooking();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.UsageRollup;
+import com.IQproject.court.service.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST controller serving pre-aggregated usage of courts and surface types.
+ * All endpoints are prefixed with "/api/analytics".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private final AnalyticsService service;
+
+    /**
+     * Constructor for AnalyticsController.
+     *
+     * @param service the analytics service holding the rollups
+     */
+    public AnalyticsController(AnalyticsService service) {
+        this.service = service;
+    }
+
+    /**
+     * Returns the occupancy and revenue of a court.
+     * /analytics/courts/1?period=DAY&at=2030-01-31T00:00
+     *
+     * @param id     the court ID
+     * @param period HOUR, DAY or MONTH
+     * @param at     any time within the requested hour, day or month (ISO format)
+     * @return the usage in the bucket
+     */
+    @GetMapping("/courts/{id}")
+    public UsageRollup getCourtUsage(@PathVariable Long id,
+                                     @RequestParam UsageRollup.Period period,
+                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return service.getCourtUsage(id, period, at);
+    }
+
+    /**
+     * Returns the occupancy and revenue of all courts of a surface type.
+     * /analytics/surface-types/1?period=MONTH&at=2030-01-01T00:00
+     *
+     * @param id     the surface type ID
+     * @param period HOUR, DAY or MONTH
+     * @param at     any time within the requested hour, day or month (ISO format)
+     * @return the usage in the bucket
+     */
+    @GetMapping("/surface-types/{id}")
+    public UsageRollup getSurfaceTypeUsage(@PathVariable Long id,
+                                           @RequestParam UsageRollup.Period period,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return service.getSurfaceTypeUsage(id, period, at);
+    }
+
+    /**
+     * Rebuilds all rollups from the stored reservations.
+     * /analytics/backfill
+     *
+     * @return 204 No Content once the rollups are rebuilt
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<Void> backfill() {
+        service.backfill();
+        return ResponseEntity.noContent().build();
+    }
+}
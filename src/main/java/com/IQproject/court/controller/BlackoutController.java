@@ -0,0 +1,67 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.Blackout;
+import com.IQproject.court.service.BlackoutService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for court blackout windows, during which courts cannot be booked.
+ * All endpoints are prefixed with "/api/blackouts".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/blackouts")
+public class BlackoutController {
+    private final BlackoutService service;
+
+    /**
+     * Constructor for BlackoutController.
+     *
+     * @param service the blackout service handling logic
+     */
+    public BlackoutController(BlackoutService service) {
+        this.service = service;
+    }
+
+    /**
+     * Creates a one-off or recurring blackout window.
+     *
+     * @param blackout the blackout window to create
+     * @return the created blackout window, or 400 Bad Request if invalid
+     */
+    @PostMapping
+    public ResponseEntity<Blackout> create(@Valid @RequestBody Blackout blackout) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.createBlackout(blackout));
+    }
+
+    /**
+     * Retrieves the blackout windows of a court.
+     *
+     * @param courtId the court ID
+     * @return list of blackout windows, ordered by start time
+     */
+    @GetMapping("/court/{courtId}")
+    public List<Blackout> getByCourt(@PathVariable Long courtId) {
+        return service.getBlackoutsByCourtId(courtId);
+    }
+
+    /**
+     * Deletes a blackout window.
+     *
+     * @param id the ID of the blackout window
+     * @return 204 No Content if deleted, or 404 Not Found if there is no such window
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        if (!service.deleteBlackout(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.CalendarGrid;
+import com.IQproject.court.service.CourtService;
+import com.IQproject.court.service.OccupancyIndex;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller serving the day calendar of all courts.
+ * All endpoints are prefixed with "/api/calendar".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarController {
+    private final OccupancyIndex occupancyIndex;
+    private final CourtService courtService;
+
+    /**
+     * Constructor for CalendarController.
+     *
+     * @param occupancyIndex the in-memory occupancy bitmaps
+     * @param courtService   the court service listing the grid rows
+     */
+    public CalendarController(OccupancyIndex occupancyIndex, CourtService courtService) {
+        this.occupancyIndex = occupancyIndex;
+        this.courtService = courtService;
+    }
+
+    /**
+     * Returns the occupancy grid of all courts for a day.
+     * /calendar?date=2030-01-31&granularity=15
+     *
+     * @param date        the day (ISO format)
+     * @param granularity length of a grid cell in minutes, a multiple of 5 that divides a day
+     * @return the grid, or 400 Bad Request if the granularity is invalid
+     */
+    @GetMapping
+    public CalendarGrid getDay(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                               @RequestParam(required = false, defaultValue = "15") int granularity) {
+        return occupancyIndex.grid(date, granularity, courtService.getAllCourts());
+    }
+}
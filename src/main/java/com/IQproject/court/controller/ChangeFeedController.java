@@ -0,0 +1,43 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.ChangeFeedPage;
+import com.IQproject.court.service.ChangeFeedService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller serving the change feed of courts, customers and reservations.
+ * All endpoints are prefixed with "/api/changes".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+    private final ChangeFeedService service;
+
+    /**
+     * Constructor for ChangeFeedController.
+     *
+     * @param service the change feed service
+     */
+    public ChangeFeedController(ChangeFeedService service) {
+        this.service = service;
+    }
+
+    /**
+     * Returns the entities changed after a cursor.
+     * /changes?since=1520&limit=100
+     *
+     * @param since the cursor returned with the previous page, 0 to read from the start
+     * @param limit the maximum number of entities, at most {@value ChangeFeedService#MAX_LIMIT}
+     * @return the page with the next cursor, or 400 Bad Request if the cursor or limit is invalid
+     */
+    @GetMapping
+    public ChangeFeedPage getChanges(@RequestParam(required = false, defaultValue = "0") long since,
+                                     @RequestParam(required = false, defaultValue = "100") int limit) {
+        return service.getChanges(since, limit);
+    }
+}
@@ -1,12 +1,22 @@
 package com.IQproject.court.controller;
 
+import com.IQproject.court.config.TenantContext;
 import com.IQproject.court.model.Court;
+import com.IQproject.court.service.AvailabilityEventHub;
 import com.IQproject.court.service.CourtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,14 +31,20 @@ import java.util.List;
 @RequestMapping("/api/courts")
 public class CourtController {
     private final CourtService service;
+    private final AvailabilityEventHub eventHub;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor for CourtController.
      *
-     * @param service the court service handling logic
+     * @param service      the court service handling logic
+     * @param eventHub     the hub streaming availability changes
+     * @param objectMapper mapper writing streamed reservations
      */
-    public CourtController(CourtService service) {
+    public CourtController(CourtService service, AvailabilityEventHub eventHub, ObjectMapper objectMapper) {
         this.service = service;
+        this.eventHub = eventHub;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -100,4 +116,88 @@ public class CourtController {
         service.deleteCourt(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Closes a court, blacking out the given range and cancelling its reservations that start within it.
+     * The closure is committed before the response starts; the cancelled reservations are then read
+     * back in chunks and written as they are read.
+     * /courts/1/closure?from=2030-01-31T08:00&to=2030-02-01T00:00
+     *
+     * @param id   the ID of the court
+     * @param from the start of the closure (ISO format), now if omitted
+     * @param to   the end of the closure (ISO format), open-ended if omitted
+     * @return the cancelled reservations as newline-delimited JSON, or 404 Not Found if the court does not exist
+     */
+    @PostMapping(path = "/{id}/closure", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> close(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (service.getCourt(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stream(service.closeCourt(id, from, to)));
+    }
+
+    /**
+     * Closes all courts for a time range, blacking it out and cancelling every reservation that starts
+     * within it. The closure is committed before the response starts; the cancelled reservations are
+     * then read back in chunks and written as they are read.
+     * /courts/closure?from=2030-01-31T08:00&to=2030-02-01T00:00
+     *
+     * @param from the start of the closure (ISO format), now if omitted
+     * @param to   the end of the closure (ISO format)
+     * @return the cancelled reservations as newline-delimited JSON
+     */
+    @PostMapping(path = "/closure", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody closeAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return stream(service.closeAllCourts(from, to));
+    }
+
+    /**
+     * Streams availability changes of all courts as Server-Sent Events.
+     *
+     * @param lastEventId the last event ID received before a reconnect
+     * @return the event stream
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return eventHub.subscribe(null, lastEventId);
+    }
+
+    /**
+     * Streams availability changes of one court as Server-Sent Events.
+     *
+     * @param id          the ID of the court
+     * @param lastEventId the last event ID received before a reconnect
+     * @return the event stream, or 404 Not Found if the court does not exist
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> courtEvents(@PathVariable Long id,
+                                                  @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        if (service.getCourt(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(eventHub.subscribe(id, lastEventId));
+    }
+
+    private StreamingResponseBody stream(List<Long> cancelled) {
+        String tenant = TenantContext.current();
+        return out -> {
+            try {
+                TenantContext.run(tenant, () -> service.forEachReservation(cancelled, reservation -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(reservation));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
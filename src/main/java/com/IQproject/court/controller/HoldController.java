@@ -0,0 +1,70 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.service.HoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for tentative holds on court slots.
+ * A hold blocks its slot until it is confirmed, released or expires.
+ * All endpoints are prefixed with "/api/holds".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+    private final HoldService service;
+
+    /**
+     * Constructor for HoldController.
+     *
+     * @param service the hold service handling logic
+     */
+    public HoldController(HoldService service) {
+        this.service = service;
+    }
+
+    /**
+     * Holds a slot for the configured time.
+     *
+     * @param reservation the slot to hold
+     * @return the created hold with its expiry time, or 400 Bad Request if invalid
+     */
+    @PostMapping
+    public ResponseEntity<Reservation> create(@Valid @RequestBody Reservation reservation) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.createHold(reservation));
+    }
+
+    /**
+     * Confirms a hold, turning it into a regular reservation.
+     *
+     * @param id the ID of the hold
+     * @return the confirmed reservation, or 404 Not Found if there is no active hold
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<Reservation> confirm(@PathVariable Long id) {
+        Reservation confirmed = service.confirm(id);
+        if (confirmed == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(confirmed);
+    }
+
+    /**
+     * Releases a hold before it expires.
+     *
+     * @param id the ID of the hold
+     * @return 204 No Content if released, or 404 Not Found if there is no active hold
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable Long id) {
+        if (!service.release(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,13 +1,22 @@
 package com.IQproject.court.controller;
 
+import com.IQproject.court.model.AnyCourtBookingRequest;
+import com.IQproject.court.model.BookingTicket;
+import com.IQproject.court.model.GroupBookingRequest;
 import com.IQproject.court.model.Reservation;
+import com.IQproject.court.service.BookingDispatcher;
+import com.IQproject.court.service.GroupBookingService;
+import com.IQproject.court.service.GroupCommitter;
+import com.IQproject.court.service.IdempotencyService;
 import com.IQproject.court.service.ReservationService;
+import com.IQproject.court.service.ReservationViewService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -20,15 +29,35 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/reservations")
 public class ReservationController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final ReservationService service;
+    private final BookingDispatcher dispatcher;
+    private final IdempotencyService idempotencyService;
+    private final GroupBookingService groupBookingService;
+    private final ReservationViewService viewService;
+    private final GroupCommitter groupCommitter;
 
     /**
      * Constructor for ReservationController.
      *
-     * @param service the reservation service handling logic
+     * @param service             the reservation service handling logic
+     * @param dispatcher          the per-court booking dispatcher
+     * @param idempotencyService  the service deduplicating retried requests
+     * @param groupBookingService the service booking several courts at once
+     * @param viewService         the service rebuilding the reservation read model
+     * @param groupCommitter      the writer committing concurrent bookings together
      */
-    public ReservationController(ReservationService service) {
+    public ReservationController(ReservationService service, BookingDispatcher dispatcher,
+                                 IdempotencyService idempotencyService, GroupBookingService groupBookingService,
+                                 ReservationViewService viewService, GroupCommitter groupCommitter) {
         this.service = service;
+        this.dispatcher = dispatcher;
+        this.idempotencyService = idempotencyService;
+        this.groupBookingService = groupBookingService;
+        this.viewService = viewService;
+        this.groupCommitter = groupCommitter;
     }
 
     /**
@@ -58,19 +87,83 @@ public class ReservationController {
 
     /**
      * Creates a new reservation.
+     * Requests repeated with the same {@code Idempotency-Key} header return the original response
+     * without creating another reservation. Such requests are booked directly, never through the
+     * court mailboxes or group commit, so the reservation and its idempotency record commit together.
      *
-     * @param reservation the reservation to create
+     * @param reservation    the reservation to create
+     * @param idempotencyKey optional client-generated key identifying the request
      * @return reservation price, or 400 Bad Request if invalid
      */
     @PostMapping
-    public ResponseEntity<BigDecimal> create(@Valid @RequestBody Reservation reservation) {
-        Reservation created = service.createReservation(reservation);
+    public ResponseEntity<BigDecimal> create(@Valid @RequestBody Reservation reservation,
+                                             @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            IdempotencyService.Outcome outcome = idempotencyService.execute(idempotencyKey, reservation,
+                    () -> service.createReservation(reservation));
+            return ResponseEntity.status(outcome.record().getStatus())
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                    .body(outcome.record().getPrice());
+        }
+        Reservation created = book(reservation);
         if (created == null) {
             return ResponseEntity.badRequest().build();
         }
         return ResponseEntity.status(HttpStatus.CREATED).body(created.getPrice());
     }
 
+    /**
+     * Creates a reservation on the best-fitting free court of the requested surface type.
+     *
+     * @param request the surface type, time window and customer
+     * @return the created reservation with its assigned court, or 400 Bad Request if no court is free
+     */
+    @PostMapping("/any-court")
+    public ResponseEntity<Reservation> createOnAnyCourt(@Valid @RequestBody AnyCourtBookingRequest request) {
+        Reservation created = service.createReservationOnAnyCourt(request.getSurfaceTypeId(), request.toReservation());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * Reserves several courts for the same time window, all or nothing.
+     *
+     * @param request the courts, or surface type and court count, and the time window
+     * @return the created reservations, or 400 Bad Request if any court cannot be booked
+     */
+    @PostMapping("/group")
+    public ResponseEntity<List<Reservation>> createGroup(@Valid @RequestBody GroupBookingRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(groupBookingService.book(request));
+    }
+
+    /**
+     * Submits a reservation to its court's booking mailbox without waiting for the result.
+     *
+     * @param reservation the reservation to create
+     * @return 202 Accepted with the booking ticket
+     */
+    @PostMapping("/async")
+    public ResponseEntity<BookingTicket> createAsync(@Valid @RequestBody Reservation reservation) {
+        BookingTicket ticket = dispatcher.submit(reservation);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reservations/async/" + ticket.getId()))
+                .body(ticket);
+    }
+
+    /**
+     * Returns the state of an asynchronously submitted reservation.
+     *
+     * @param ticketId the ID of the booking ticket
+     * @return the ticket, or 404 Not Found if unknown or expired
+     */
+    @GetMapping("/async/{ticketId}")
+    public ResponseEntity<BookingTicket> getTicket(@PathVariable String ticketId) {
+        BookingTicket ticket = dispatcher.getTicket(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
+
     /**
      * Updates an existing reservation.
      *
@@ -127,4 +220,23 @@ public class ReservationController {
                                         @RequestParam(required = false, defaultValue = "false") boolean futureOnly) {
         return service.getReservationsByPhone(phone, futureOnly);
     }
+
+    /**
+     * Regenerates the reservation read model from the reservation table.
+     *
+     * @return the number of reservations in the rebuilt read model
+     */
+    @PostMapping("/view/rebuild")
+    public long rebuildView() {
+        return viewService.rebuild();
+    }
+
+    private Reservation book(Reservation reservation) {
+        if (dispatcher.isEnabled()) {
+            return dispatcher.book(reservation);
+        }
+        return groupCommitter.isEnabled()
+                ? groupCommitter.create(reservation)
+                : service.createReservation(reservation);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.RuleAuditReport;
+import com.IQproject.court.service.RuleAuditService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the audit of upcoming reservations against the booking rules.
+ * All endpoints are prefixed with "/api/rules/audit".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/rules/audit")
+public class RuleAuditController {
+    private final RuleAuditService service;
+
+    /**
+     * Constructor for RuleAuditController.
+     *
+     * @param service the audit service
+     */
+    public RuleAuditController(RuleAuditService service) {
+        this.service = service;
+    }
+
+    /**
+     * Returns the report of the latest audit.
+     *
+     * @return the report, or 404 Not Found if no audit has run yet
+     */
+    @GetMapping
+    public ResponseEntity<RuleAuditReport> getLastReport() {
+        RuleAuditReport report = service.getLastReport();
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Runs the audit immediately.
+     *
+     * @return the new report
+     */
+    @PostMapping
+    public RuleAuditReport audit() {
+        return service.audit();
+    }
+}
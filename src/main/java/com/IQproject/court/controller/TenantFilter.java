@@ -0,0 +1,80 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resolves the tenant (club) of a request and sets it in {@link TenantContext} while the request
+ * is handled. The tenant is named either by a path prefix, e.g. {@code /clubs/north/api/courts},
+ * which is stripped by forwarding the request once the other filters have run, or by the
+ * {@code app.tenancy.header} header. Requests naming an unknown tenant are rejected with 400.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+    /**
+     * Path prefix naming the tenant of a request.
+     */
+    public static final String PATH_PREFIX = "/clubs/";
+
+    private final TenantRegistry tenants;
+    private final String header;
+
+    /**
+     * Constructor for TenantFilter.
+     *
+     * @param tenants the configured tenants
+     * @param config  application configuration holding the tenant header name
+     */
+    public TenantFilter(TenantRegistry tenants, AppConfig config) {
+        this.tenants = tenants;
+        this.header = config.getTenancy().getHeader();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String named = request.getHeader(header);
+        String forwardTo = null;
+        if (path.startsWith(PATH_PREFIX)) {
+            int end = path.indexOf('/', PATH_PREFIX.length());
+            named = path.substring(PATH_PREFIX.length(), end < 0 ? path.length() : end);
+            forwardTo = end < 0 ? "/" : path.substring(end);
+        }
+
+        String tenant;
+        try {
+            tenant = tenants.resolve(named);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(e.getMessage());
+            return;
+        }
+
+        String previous = TenantContext.set(tenant);
+        try {
+            if (forwardTo != null) {
+                request.getRequestDispatcher(forwardTo).forward(request, response);
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            TenantContext.set(previous);
+        }
+    }
+}
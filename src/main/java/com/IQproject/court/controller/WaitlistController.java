@@ -0,0 +1,70 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for slot waitlists.
+ * A waiting entry is turned into a reservation automatically when its slot is freed by a cancellation.
+ * All endpoints are prefixed with "/api/waitlist".
+ *
+ * @author Vojtech Zednik
+ */
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+    private final WaitlistService service;
+
+    /**
+     * Constructor for WaitlistController.
+     *
+     * @param service the waitlist service handling logic
+     */
+    public WaitlistController(WaitlistService service) {
+        this.service = service;
+    }
+
+    /**
+     * Joins the waitlist of a taken slot.
+     *
+     * @param entry the slot and customer
+     * @return the created waitlist entry, or 400 Bad Request if invalid or the slot is free
+     */
+    @PostMapping
+    public ResponseEntity<WaitlistEntry> join(@Valid @RequestBody WaitlistEntry entry) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.join(entry));
+    }
+
+    /**
+     * Retrieves a waitlist entry, including the reservation it was promoted to.
+     *
+     * @param id the ID of the entry
+     * @return the entry, or 404 Not Found
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntry> getById(@PathVariable Long id) {
+        WaitlistEntry entry = service.getEntry(id);
+        if (entry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(entry);
+    }
+
+    /**
+     * Leaves the waitlist.
+     *
+     * @param id the ID of the entry
+     * @return 204 No Content if left, or 404 Not Found if the entry is not waiting
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leave(@PathVariable Long id) {
+        if (!service.leave(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.IQproject.court.controller;
+
+import com.IQproject.court.config.ReplicaLagTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Set;
+
+/**
+ * Carries a client's write version between requests, so that only the client that wrote reads
+ * from the primary until the replica has caught up.
+ * <p>
+ * Responses to writing requests ({@code POST}, {@code PUT}, {@code PATCH}, {@code DELETE}) carry
+ * the {@value #HEADER} header with the last write version; clients echo it on their following
+ * requests, which are then routed by {@link ReplicaLagTracker} for that version. Requests without
+ * the header read from the replica. Runs before {@link TenantFilter}, so requests forwarded by it
+ * are covered too.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(prefix = "app.replica", name = "enabled", havingValue = "true")
+public class WriteVersionFilter extends OncePerRequestFilter {
+    /**
+     * Header carrying the client's write version.
+     */
+    public static final String HEADER = "X-Write-Version";
+
+    private static final Set<String> WRITING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ReplicaLagTracker lagTracker;
+
+    /**
+     * Constructor for WriteVersionFilter.
+     *
+     * @param lagTracker tracker of the replica's lag
+     */
+    public WriteVersionFilter(ReplicaLagTracker lagTracker) {
+        this.lagTracker = lagTracker;
+    }
+
+    private static long parse(String version) {
+        if (version == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(version.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long previous = lagTracker.setClientVersion(parse(request.getHeader(HEADER)));
+        try {
+            if (WRITING_METHODS.contains(request.getMethod())) {
+                StampingResponse stamping = new StampingResponse(response);
+                chain.doFilter(request, stamping);
+                stamping.stamp();
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            lagTracker.setClientVersion(previous);
+        }
+    }
+
+    /**
+     * Response that sets the {@value #HEADER} header right before it is committed. The write may have
+     * been committed on another thread, e.g. by the booking dispatcher, so the header holds the last
+     * write version of the whole node, which is never older than the client's own write.
+     */
+    private final class StampingResponse extends HttpServletResponseWrapper {
+
+        StampingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void stamp() {
+            if (!isCommitted()) {
+                long version = Math.max(lagTracker.getClientVersion(), lagTracker.getWriteVersion());
+                if (version > 0) {
+                    setHeader(HEADER, Long.toString(version));
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stamp();
+            super.sendRedirect(location);
+        }
+    }
+}
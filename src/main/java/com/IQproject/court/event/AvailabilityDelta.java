@@ -0,0 +1,18 @@
+package com.IQproject.court.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact availability change pushed to calendar clients.
+ *
+ * @param seq           the position of the delta in the global event stream, used as SSE event ID
+ * @param type          the kind of change
+ * @param reservationId the ID of the changed reservation
+ * @param courtId       the ID of the affected court
+ * @param startTime     the start of the affected interval
+ * @param endTime       the end of the affected interval
+ * @author Vojtech Zednik
+ */
+public record AvailabilityDelta(long seq, ReservationChange.Type type, Long reservationId, Long courtId,
+                                LocalDateTime startTime, LocalDateTime endTime) {
+}
@@ -0,0 +1,27 @@
+package com.IQproject.court.event;
+
+import com.IQproject.court.model.ChangeLogEntry;
+
+import java.util.List;
+
+/**
+ * Application event published when changes committed by other instances are read from the change log.
+ * It is published outside of any transaction, as the tenant whose change log was read, so listeners
+ * use {@code @EventListener} and can reload what changed right away.
+ *
+ * @param changes the entries written by other instances, ordered by ID
+ * @param reset   true if changes may have been missed and all cached data should be dropped
+ * @author Vojtech Zednik
+ */
+public record RemoteChangeEvent(List<ChangeLogEntry> changes, boolean reset) {
+
+    /**
+     * Returns the entries about one kind of entity.
+     *
+     * @param entityType the kind of entity
+     * @return the matching entries, ordered by ID
+     */
+    public List<ChangeLogEntry> changesOf(ChangeLogEntry.EntityType entityType) {
+        return changes.stream().filter(change -> change.getEntityType() == entityType).toList();
+    }
+}
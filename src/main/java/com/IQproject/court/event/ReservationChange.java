@@ -0,0 +1,80 @@
+package com.IQproject.court.event;
+
+import com.IQproject.court.model.Reservation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact description of a single committed change of a {@link Reservation}.
+ *
+ * @param type          the kind of change
+ * @param reservationId the ID of the changed reservation
+ * @param courtId       the ID of the reservation's court
+ * @param startTime     the reservation start time
+ * @param endTime       the reservation end time
+ * @param price         the reservation price
+ * @param status        the reservation status
+ * @param tenantId      the tenant the reservation belongs to
+ * @param previous      the state of the reservation before the change, or null if it did not exist
+ *                      or was deleted
+ * @author Vojtech Zednik
+ */
+public record ReservationChange(Type type, Long reservationId, Long courtId,
+                                LocalDateTime startTime, LocalDateTime endTime, BigDecimal price,
+                                Reservation.Status status, String tenantId, Previous previous) {
+
+    /**
+     * Kind of reservation change.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * State of a live reservation before a change.
+     *
+     * @param courtId   the ID of the reservation's court
+     * @param startTime the reservation start time
+     * @param endTime   the reservation end time
+     * @param price     the reservation price
+     * @param status    the reservation status
+     */
+    public record Previous(Long courtId, LocalDateTime startTime, LocalDateTime endTime, BigDecimal price,
+                           Reservation.Status status) {
+
+        /**
+         * Captures the current state of a reservation.
+         *
+         * @param reservation the reservation, before it is changed
+         * @return the state
+         */
+        public static Previous of(Reservation reservation) {
+            return new Previous(reservation.getCourtId(), reservation.getStartTime(), reservation.getEndTime(),
+                    reservation.getPrice(), reservation.getStatus());
+        }
+    }
+
+    /**
+     * Creates a change describing the current state of a reservation.
+     *
+     * @param type        the kind of change
+     * @param reservation the changed reservation
+     * @param previous    the state before the change, or null if the reservation did not exist or was deleted
+     * @return the change
+     */
+    public static ReservationChange of(Type type, Reservation reservation, Previous previous) {
+        return new ReservationChange(type, reservation.getId(), reservation.getCourtId(),
+                reservation.getStartTime(), reservation.getEndTime(), reservation.getPrice(),
+                reservation.getStatus(), reservation.getTenantId(), previous);
+    }
+
+    /**
+     * Tells whether the reservation counts as booked after the change: it is live and not a mere hold.
+     *
+     * @return true if the reservation is confirmed and not deleted
+     */
+    public boolean isConfirmed() {
+        return type != Type.DELETED && status == Reservation.Status.CONFIRMED;
+    }
+}
@@ -0,0 +1,23 @@
+package com.IQproject.court.event;
+
+import java.util.List;
+
+/**
+ * Application event published by the reservation repository for every write.
+ * Listeners should use {@code @TransactionalEventListener} so they only observe committed changes.
+ *
+ * @param changes the changes made by one repository call, in order
+ * @author Vojtech Zednik
+ */
+public record ReservationChangedEvent(List<ReservationChange> changes) {
+
+    /**
+     * Creates an event holding a single change.
+     *
+     * @param change the change
+     * @return the event
+     */
+    public static ReservationChangedEvent of(ReservationChange change) {
+        return new ReservationChangedEvent(List.of(change));
+    }
+}
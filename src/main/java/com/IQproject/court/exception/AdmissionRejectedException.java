@@ -0,0 +1,35 @@
+package com.IQproject.court.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is rejected by admission control, either because a client exceeded
+ * its rate limit (429) or because the server is at its concurrency limit (503).
+ *
+ * @author Vojtech Zednik
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new AdmissionRejectedException.
+     *
+     * @param status            the HTTP status to respond with
+     * @param retryAfterSeconds the value of the {@code Retry-After} header
+     * @param message           the error message
+     */
+    public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,6 +1,9 @@
 package com.IQproject.court.exception;
 
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -48,4 +51,31 @@ public class ValidationHandler {
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles requests rejected by admission control.
+     *
+     * @param ex the exception
+     * @return 429 Too Many Requests or 503 Service Unavailable with a {@code Retry-After} header
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> handleAdmissionRejected(AdmissionRejectedException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles bookings that timed out waiting for a court lock held by concurrent bookings.
+     * The transaction was rolled back, so the request can be retried as is.
+     *
+     * @param ex the exception
+     * @return 503 Service Unavailable with a {@code Retry-After} header
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<String> handleLockTimeout(PessimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Court is busy, try again");
+    }
+}
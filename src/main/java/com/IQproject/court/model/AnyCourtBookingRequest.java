@@ -0,0 +1,86 @@
+package com.IQproject.court.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request to reserve any court of a surface type; the court is assigned by the system.
+ * This class is not persisted.
+ *
+ * @author Vojtech Zednik
+ */
+public class AnyCourtBookingRequest {
+
+    @NotNull(message = "surfaceTypeId is required")
+    private Long surfaceTypeId;
+
+    @NotNull(message = "startTime is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "endTime is required")
+    private LocalDateTime endTime;
+
+    private boolean doubles;
+
+    @Valid
+    @NotNull(message = "Customer is required")
+    private Customer customer;
+
+    /**
+     * Creates a reservation without a court from this request.
+     *
+     * @return the reservation to be assigned a court
+     */
+    public Reservation toReservation() {
+        Reservation reservation = new Reservation();
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(endTime);
+        reservation.setDoubles(doubles);
+        reservation.setCustomer(customer);
+        return reservation;
+    }
+
+    // getters and setters
+
+    public Long getSurfaceTypeId() {
+        return surfaceTypeId;
+    }
+
+    public void setSurfaceTypeId(Long surfaceTypeId) {
+        this.surfaceTypeId = surfaceTypeId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public boolean isDoubles() {
+        return doubles;
+    }
+
+    public void setDoubles(boolean doubles) {
+        this.doubles = doubles;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+}
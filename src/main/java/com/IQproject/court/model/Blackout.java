@@ -0,0 +1,114 @@
+package com.IQproject.court.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A window in which a court is closed, e.g. for resurfacing or an event.
+ * A recurring window repeats its first occurrence every day or week, optionally until a given day.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "court_blackout", indexes = @Index(columnList = "courtId"))
+public class Blackout {
+
+    /**
+     * How often a blackout window repeats.
+     */
+    public enum Recurrence {
+        NONE, DAILY, WEEKLY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "CourtId is required")
+    private Long courtId;
+
+    private String reason;
+
+    @NotNull(message = "startTime is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "endTime is required")
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Recurrence recurrence = Recurrence.NONE;
+
+    private LocalDate repeatUntil;
+
+    private boolean deleted = false;
+
+    // getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCourtId() {
+        return courtId;
+    }
+
+    public void setCourtId(Long courtId) {
+        this.courtId = courtId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public LocalDate getRepeatUntil() {
+        return repeatUntil;
+    }
+
+    public void setRepeatUntil(LocalDate repeatUntil) {
+        this.repeatUntil = repeatUntil;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,64 @@
+package com.IQproject.court.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Tracks a reservation submitted for asynchronous processing.
+ * This class is not persisted; tickets live in memory until they expire.
+ *
+ * @author Vojtech Zednik
+ */
+public class BookingTicket {
+
+    /**
+     * Processing state of a ticket.
+     */
+    public enum Status {
+        PENDING, CONFIRMED, REJECTED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final CompletableFuture<Reservation> result = new CompletableFuture<>();
+
+    // getters
+
+    public String getId() {
+        return id;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return switch (result.state()) {
+            case SUCCESS -> Status.CONFIRMED;
+            case FAILED, CANCELLED -> Status.REJECTED;
+            default -> Status.PENDING;
+        };
+    }
+
+    public Long getReservationId() {
+        return result.state() == Future.State.SUCCESS ? result.resultNow().getId() : null;
+    }
+
+    public BigDecimal getPrice() {
+        return result.state() == Future.State.SUCCESS ? result.resultNow().getPrice() : null;
+    }
+
+    public String getError() {
+        return result.state() == Future.State.FAILED ? result.exceptionNow().getMessage() : null;
+    }
+
+    @JsonIgnore
+    public CompletableFuture<Reservation> getResult() {
+        return result;
+    }
+}
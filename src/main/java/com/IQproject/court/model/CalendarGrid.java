@@ -0,0 +1,26 @@
+package com.IQproject.court.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Occupancy grid of courts for one day. This class is not persisted.
+ *
+ * @param date               the day
+ * @param granularityMinutes length of one cell in minutes; cell {@code i} starts at {@code i * granularityMinutes}
+ *                           minutes after midnight
+ * @param courts             one row per court
+ * @author Vojtech Zednik
+ */
+public record CalendarGrid(LocalDate date, int granularityMinutes, List<Row> courts) {
+
+    /**
+     * Occupancy of one court.
+     *
+     * @param courtId   the court ID
+     * @param name      the court name
+     * @param occupancy one character per cell: '1' if any part of the cell is reserved or held, '0' if free
+     */
+    public record Row(Long courtId, String name, String occupancy) {
+    }
+}
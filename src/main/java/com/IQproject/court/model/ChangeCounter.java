@@ -0,0 +1,46 @@
+package com.IQproject.court.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Named counter in the database. Incrementing it locks its row until the transaction ends, so
+ * transactions that increment the same counter receive its values in commit order.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "change_counter")
+public class ChangeCounter {
+
+    @Id
+    @Column(length = 48)
+    private String name;
+
+    @Column(name = "counter_value")
+    private long value;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public ChangeCounter() {
+    }
+
+    /**
+     * Constructs a new ChangeCounter.
+     *
+     * @param name  the counter name
+     * @param value the current value
+     */
+    public ChangeCounter(String name, long value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.IQproject.court.model;
+
+/**
+ * Current state of an entity changed since a change feed cursor. This class is not persisted.
+ *
+ * @param type      the kind of entity
+ * @param id        the entity ID
+ * @param changeSeq the sequence number of the last change of the entity
+ * @param deleted   true if the entity was deleted
+ * @param data      the entity
+ * @author Vojtech Zednik
+ */
+public record ChangeFeedEntry(Type type, Long id, long changeSeq, boolean deleted, Object data) {
+
+    /**
+     * The kinds of entities in the change feed.
+     */
+    public enum Type {
+        COURT, CUSTOMER, RESERVATION
+    }
+}
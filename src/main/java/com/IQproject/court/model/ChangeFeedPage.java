@@ -0,0 +1,15 @@
+package com.IQproject.court.model;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. This class is not persisted.
+ *
+ * @param changes   the changed entities, ordered by sequence number
+ * @param cursor    the cursor to request the next page with
+ * @param head      the highest sequence number written so far
+ * @param remaining the number of changed entities after the cursor; zero once the consumer is up to date
+ * @author Vojtech Zednik
+ */
+public record ChangeFeedPage(List<ChangeFeedEntry> changes, long cursor, long head, long remaining) {
+}
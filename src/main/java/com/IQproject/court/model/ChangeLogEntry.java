@@ -0,0 +1,114 @@
+package com.IQproject.court.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that an entity was written, so that other instances can refresh their caches of it.
+ * Entries are written in the same transaction as the entity and numbered by an identity column,
+ * which instances use as a cursor.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "change_log", indexes = @Index(columnList = "createdAt"))
+public class ChangeLogEntry {
+
+    /**
+     * The kind of entity that was written.
+     */
+    public enum EntityType {
+        COURT, SURFACE_TYPE, RESERVATION, BLACKOUT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    private Long courtId;
+
+    @Column(length = 32)
+    private String tenantId;
+
+    @Column(nullable = false, length = 64)
+    private String nodeId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public ChangeLogEntry() {
+    }
+
+    /**
+     * Constructs a new ChangeLogEntry.
+     *
+     * @param entityType the kind of entity that was written
+     * @param entityId   the ID of the entity
+     * @param courtId    the court the entity belongs to, or null if it belongs to none
+     * @param tenantId   the tenant owning the entity, or null if the entity has no tenant
+     * @param nodeId     the instance that wrote the entity
+     */
+    public ChangeLogEntry(EntityType entityType, Long entityId, Long courtId, String tenantId, String nodeId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.courtId = courtId;
+        this.tenantId = tenantId;
+        this.nodeId = nodeId;
+    }
+
+    @PrePersist
+    private void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getCourtId() {
+        return courtId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
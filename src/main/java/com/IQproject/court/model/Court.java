@@ -1,29 +1,50 @@
 package com.IQproject.court.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalTime;
 
 /**
  * Represents a tennis court in the system.
+ * A court may narrow the club opening hours with its own daily {@code opensAt}/{@code closesAt};
+ * a missing value means the club hours apply and a {@code closesAt} of 00:00 means midnight.
  *
  * @author Vojtech Zednik
  */
 @Entity
+@Table(indexes = {@Index(columnList = "tenantId"), @Index(columnList = "tenantId, changeSeq")})
 public class Court {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(length = 32)
+    @JsonIgnore
+    private String tenantId;
+
     @NotBlank(message = "Name is required")
     private String name;
 
     @NotNull(message = "SurfaceTypeId is required")
     @JoinColumn(name = "surface_type_id")
     private Long surfaceTypeId;
+
+    private LocalTime opensAt;
+    private LocalTime closesAt;
     private boolean deleted = false;
 
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
     /**
      * Default no-argument constructor required by JPA.
      */
@@ -47,6 +68,14 @@ public class Court {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -67,6 +96,22 @@ public class Court {
         this.surfaceTypeId = surfaceTypeId;
     }
 
+    public LocalTime getOpensAt() {
+        return opensAt;
+    }
+
+    public void setOpensAt(LocalTime opensAt) {
+        this.opensAt = opensAt;
+    }
+
+    public LocalTime getClosesAt() {
+        return closesAt;
+    }
+
+    public void setClosesAt(LocalTime closesAt) {
+        this.closesAt = closesAt;
+    }
+
     public boolean isDeleted() {
         return deleted;
     }
@@ -74,4 +119,8 @@ public class Court {
     public void setDeleted(boolean deleted) {
         this.deleted = deleted;
     }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
 }
@@ -0,0 +1,82 @@
+package com.IQproject.court.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-limited lease on a court, held by at most one instance at a time. The fencing token grows
+ * whenever the lease passes to another instance, so a write made under an older token can be
+ * told apart from a write of the current holder. An instance finding the lease held registers as
+ * its waiter, and a released or expired lease passes to a live waiter before its last holder can
+ * take it again.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "court_lease")
+public class CourtLease {
+
+    @Id
+    private Long courtId;
+
+    @Column(nullable = false, length = 64)
+    private String holder;
+
+    private long fencingToken;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(length = 64)
+    private String waiter;
+
+    private LocalDateTime waitingUntil;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public CourtLease() {
+    }
+
+    /**
+     * Constructs a new CourtLease.
+     *
+     * @param courtId      the ID of the leased court
+     * @param holder       the node ID of the holding instance
+     * @param fencingToken the fencing token of the holder
+     * @param expiresAt    the time the lease expires unless renewed
+     */
+    public CourtLease(Long courtId, String holder, long fencingToken, LocalDateTime expiresAt) {
+        this.courtId = courtId;
+        this.holder = holder;
+        this.fencingToken = fencingToken;
+        this.expiresAt = expiresAt;
+    }
+
+    // getters and setters
+
+    public Long getCourtId() {
+        return courtId;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getWaiter() {
+        return waiter;
+    }
+
+    public LocalDateTime getWaitingUntil() {
+        return waitingUntil;
+    }
+}
@@ -1,7 +1,10 @@
 package com.IQproject.court.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 /**
  * Represents a customer in the system.
@@ -9,13 +12,20 @@ import jakarta.validation.constraints.NotBlank;
  * @author Vojtech Zednik
  */
 @Entity
-@Table(uniqueConstraints = @UniqueConstraint(columnNames = "phoneNumber"))
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"tenantId", "phoneNumber"}),
+        indexes = @Index(columnList = "tenantId, changeSeq"))
 public class Customer {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(length = 32)
+    @JsonIgnore
+    private String tenantId;
+
     @NotBlank(message = "Name is required")
     private String name;
 
@@ -23,6 +33,10 @@ public class Customer {
     private String phoneNumber;
     private boolean deleted = false;
 
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
     /**
      * Default no-argument constructor required by JPA.
      */
@@ -47,6 +61,14 @@ public class Customer {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -74,4 +96,8 @@ public class Customer {
     public void setDeleted(boolean deleted) {
         this.deleted = deleted;
     }
-}
\ No newline at end of file
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+}
@@ -0,0 +1,94 @@
+package com.IQproject.court.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Request to reserve several courts for the same time window, all or nothing.
+ * Either lists the courts explicitly in {@code courtIds}, or asks for any
+ * {@code courtCount} courts of the surface type {@code surfaceTypeId}.
+ * This class is not persisted.
+ *
+ * @author Vojtech Zednik
+ */
+public class GroupBookingRequest {
+
+    private List<Long> courtIds;
+
+    private Long surfaceTypeId;
+
+    private Integer courtCount;
+
+    @NotNull(message = "startTime is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "endTime is required")
+    private LocalDateTime endTime;
+
+    private boolean doubles;
+
+    @Valid
+    @NotNull(message = "Customer is required")
+    private Customer customer;
+
+    // getters and setters
+
+    public List<Long> getCourtIds() {
+        return courtIds;
+    }
+
+    public void setCourtIds(List<Long> courtIds) {
+        this.courtIds = courtIds;
+    }
+
+    public Long getSurfaceTypeId() {
+        return surfaceTypeId;
+    }
+
+    public void setSurfaceTypeId(Long surfaceTypeId) {
+        this.surfaceTypeId = surfaceTypeId;
+    }
+
+    public Integer getCourtCount() {
+        return courtCount;
+    }
+
+    public void setCourtCount(Integer courtCount) {
+        this.courtCount = courtCount;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public boolean isDoubles() {
+        return doubles;
+    }
+
+    public void setDoubles(boolean doubles) {
+        this.doubles = doubles;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+}
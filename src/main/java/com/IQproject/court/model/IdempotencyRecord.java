@@ -0,0 +1,95 @@
+package com.IQproject.court.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Stores the outcome of a reservation request made with an {@code Idempotency-Key} header,
+ * so that retries of the same request return the original response.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(columnList = "createdAt"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 161)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Long reservationId;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal price;
+
+    private int status;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public IdempotencyRecord() {
+    }
+
+    /**
+     * Constructs a new IdempotencyRecord.
+     *
+     * @param idempotencyKey the key sent by the client, prefixed with {@code tenant:} outside the default tenant
+     * @param requestHash    fingerprint of the request the key was first used with
+     * @param reservationId  the ID of the created reservation
+     * @param price          the price returned to the client
+     * @param status         the HTTP status returned to the client
+     */
+    public IdempotencyRecord(String idempotencyKey, String requestHash, Long reservationId,
+                             BigDecimal price, int status) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.reservationId = reservationId;
+        this.price = price;
+        this.status = status;
+    }
+
+    @PrePersist
+    private void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // getters and setters
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
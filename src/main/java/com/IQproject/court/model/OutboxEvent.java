@@ -0,0 +1,126 @@
+package com.IQproject.court.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Reservation event waiting in the outbox to be relayed to other systems. Events are written in
+ * the same transaction as the reservation and deleted once delivered; the ID identifies an event
+ * to consumers, which may receive it more than once.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    /**
+     * The kind of reservation event.
+     */
+    public enum Type {
+        CREATED, UPDATED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long reservationId;
+
+    private Long courtId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal price;
+
+    @Column(length = 32)
+    private String tenantId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public OutboxEvent() {
+    }
+
+    /**
+     * Constructs a new OutboxEvent.
+     *
+     * @param type          the kind of event
+     * @param reservationId the ID of the reservation
+     * @param courtId       the ID of the reservation's court
+     * @param startTime     the reservation start time
+     * @param endTime       the reservation end time
+     * @param price         the reservation price
+     * @param tenantId      the tenant owning the reservation
+     */
+    public OutboxEvent(Type type, Long reservationId, Long courtId, LocalDateTime startTime,
+                       LocalDateTime endTime, BigDecimal price, String tenantId) {
+        this.type = type;
+        this.reservationId = reservationId;
+        this.courtId = courtId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.price = price;
+        this.tenantId = tenantId;
+    }
+
+    @PrePersist
+    private void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public Long getCourtId() {
+        return courtId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,8 +1,12 @@
 package com.IQproject.court.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,12 +17,36 @@ import java.time.LocalDateTime;
  * @author Vojtech Zednik
  */
 @Entity
+@Table(indexes = {
+        @Index(columnList = "tenantId, courtId, startTime"),
+        @Index(columnList = "tenantId, changeSeq")
+})
 public class Reservation {
 
+    /**
+     * Lifecycle state of a reservation.
+     */
+    public enum Status {
+        /**
+         * Tentative reservation that blocks its slot until {@code holdExpiresAt}.
+         */
+        HOLD,
+        /**
+         * Regular reservation.
+         */
+        CONFIRMED
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(length = 32)
+    @JsonIgnore
+    private String tenantId;
+
     @NotNull(message = "CourtId is required")
     @JoinColumn(name = "court_id")
     private Long courtId;
@@ -42,9 +70,21 @@ public class Reservation {
     private BigDecimal price;
     private boolean deleted = false;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Status status = Status.CONFIRMED;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime holdExpiresAt;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
     @PrePersist
     private void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -56,6 +96,14 @@ public class Reservation {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -116,8 +164,32 @@ public class Reservation {
         this.deleted = deleted;
     }
 
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
 }
 
@@ -0,0 +1,195 @@
+package com.IQproject.court.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only copy of a non-deleted reservation together with the names of its court, surface
+ * type and customer, read by the reservation list endpoints without joining other tables. The
+ * endpoints serve the rows in the shape of a {@link Reservation} with its customer.
+ * <p>
+ * Rows share the ID of their reservation and are maintained by the {@code ReservationViewRepository}
+ * in the transaction of every reservation write. The indexes start with the tenant and the filter
+ * of a list query, followed by its sort column, so each list is a single ordered index range scan.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "reservation_view", indexes = {
+        @Index(columnList = "tenantId, courtId, createdAt"),
+        @Index(columnList = "tenantId, customerPhone, startTime"),
+        @Index(columnList = "customerId")
+})
+public class ReservationView {
+
+    @Id
+    private Long id;
+
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(length = 32)
+    @JsonIgnore
+    private String tenantId;
+
+    @Column(nullable = false)
+    private Long courtId;
+
+    private String courtName;
+    private String surfaceName;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    private String customerName;
+    private String customerPhone;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    private boolean doubles;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reservation.Status status;
+
+    private LocalDateTime holdExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public ReservationView() {
+    }
+
+    /**
+     * Copies the state of a reservation and its customer into this row.
+     *
+     * @param reservation the reservation
+     */
+    public void copyReservation(Reservation reservation) {
+        this.id = reservation.getId();
+        this.tenantId = reservation.getTenantId();
+        this.courtId = reservation.getCourtId();
+        this.customerId = reservation.getCustomer().getId();
+        this.customerName = reservation.getCustomer().getName();
+        this.customerPhone = reservation.getCustomer().getPhoneNumber();
+        this.startTime = reservation.getStartTime();
+        this.endTime = reservation.getEndTime();
+        this.doubles = reservation.isDoubles();
+        this.price = reservation.getPrice();
+        this.status = reservation.getStatus();
+        this.holdExpiresAt = reservation.getHoldExpiresAt();
+        this.createdAt = reservation.getCreatedAt();
+    }
+
+    /**
+     * Returns a detached reservation with its customer holding the state of this row, as served by
+     * the reservation list endpoints.
+     *
+     * @return a new reservation, not managed by the persistence context
+     */
+    public Reservation toReservation() {
+        Customer customer = new Customer(customerPhone, customerName);
+        customer.setId(customerId);
+        customer.setTenantId(tenantId);
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setTenantId(tenantId);
+        reservation.setCourtId(courtId);
+        reservation.setCustomer(customer);
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(endTime);
+        reservation.setDoubles(doubles);
+        reservation.setPrice(price);
+        reservation.setStatus(status);
+        reservation.setHoldExpiresAt(holdExpiresAt);
+        reservation.setCreatedAt(createdAt);
+        return reservation;
+    }
+
+    /**
+     * Copies the names of the reservation's court and its surface type into this row.
+     *
+     * @param courtName   the court name, or null if the court does not exist
+     * @param surfaceName the surface type name, or null if the surface type does not exist
+     */
+    public void copyCourt(String courtName, String surfaceName) {
+        this.courtName = courtName;
+        this.surfaceName = surfaceName;
+    }
+
+    // getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public Long getCourtId() {
+        return courtId;
+    }
+
+    public String getCourtName() {
+        return courtName;
+    }
+
+    public String getSurfaceName() {
+        return surfaceName;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isDoubles() {
+        return doubles;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Reservation.Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
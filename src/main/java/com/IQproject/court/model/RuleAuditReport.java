@@ -0,0 +1,28 @@
+package com.IQproject.court.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of auditing upcoming reservations against the current booking rules.
+ *
+ * @param auditedAt  when the audit finished
+ * @param scanned    the number of upcoming reservations checked
+ * @param violations the reservations breaking a rule, ordered by reservation ID
+ * @author Vojtech Zednik
+ */
+public record RuleAuditReport(LocalDateTime auditedAt, long scanned, List<Violation> violations) {
+
+    /**
+     * An upcoming reservation that breaks a booking rule.
+     *
+     * @param reservationId the reservation ID
+     * @param courtId       the court ID
+     * @param startTime     the reservation start time
+     * @param endTime       the reservation end time
+     * @param rule          the violated rule
+     */
+    public record Violation(Long reservationId, Long courtId, LocalDateTime startTime, LocalDateTime endTime,
+                            String rule) {
+    }
+}
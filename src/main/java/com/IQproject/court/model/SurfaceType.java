@@ -1,11 +1,17 @@
 package com.IQproject.court.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 
 import java.math.BigDecimal;
 
@@ -15,11 +21,18 @@ import java.math.BigDecimal;
  * @author Vojtech Zednik
  */
 @Entity
+@Table(indexes = @Index(columnList = "tenantId"))
 public class SurfaceType {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(length = 32)
+    @JsonIgnore
+    private String tenantId;
+
     @NotBlank(message = "Name is required")
     private String name;
 
@@ -50,6 +63,14 @@ public class SurfaceType {
         return id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -0,0 +1,149 @@
+package com.IQproject.court.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated usage of a court or a surface type in one hour, day or month.
+ * Reservations are counted, and their revenue attributed, in the bucket they start in;
+ * occupied minutes are split across all buckets a reservation spans.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "usage_rollup", uniqueConstraints = @UniqueConstraint(
+        columnNames = {"period", "dimension", "dimensionId", "bucketStart"}))
+public class UsageRollup {
+
+    /**
+     * Length of a rollup bucket.
+     */
+    public enum Period {
+        HOUR, DAY, MONTH
+    }
+
+    /**
+     * What a rollup is aggregated by.
+     */
+    public enum Dimension {
+        COURT, SURFACE_TYPE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(length = 32)
+    @JsonIgnore
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Period period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Dimension dimension;
+
+    @Column(nullable = false)
+    private Long dimensionId;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    private long reservationCount;
+
+    private long occupiedMinutes;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    /**
+     * Default no-argument constructor required by JPA.
+     */
+    public UsageRollup() {
+    }
+
+    /**
+     * Constructs a new UsageRollup.
+     *
+     * @param period           the length of the bucket
+     * @param dimension        what the rollup is aggregated by
+     * @param dimensionId      the ID of the court or surface type
+     * @param bucketStart      the start of the bucket
+     * @param reservationCount the number of reservations starting in the bucket
+     * @param occupiedMinutes  the reserved minutes within the bucket
+     * @param revenue          the revenue of reservations starting in the bucket
+     */
+    public UsageRollup(Period period, Dimension dimension, Long dimensionId, LocalDateTime bucketStart,
+                       long reservationCount, long occupiedMinutes, BigDecimal revenue) {
+        this.period = period;
+        this.dimension = dimension;
+        this.dimensionId = dimensionId;
+        this.bucketStart = bucketStart;
+        this.reservationCount = reservationCount;
+        this.occupiedMinutes = occupiedMinutes;
+        this.revenue = revenue;
+    }
+
+    // getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Period getPeriod() {
+        return period;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public Long getDimensionId() {
+        return dimensionId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getReservationCount() {
+        return reservationCount;
+    }
+
+    public void setReservationCount(long reservationCount) {
+        this.reservationCount = reservationCount;
+    }
+
+    public long getOccupiedMinutes() {
+        return occupiedMinutes;
+    }
+
+    public void setOccupiedMinutes(long occupiedMinutes) {
+        this.occupiedMinutes = occupiedMinutes;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
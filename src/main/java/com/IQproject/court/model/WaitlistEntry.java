@@ -0,0 +1,133 @@
+package com.IQproject.court.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer waiting for a taken slot on a court. When a reservation overlapping the slot
+ * is cancelled, the oldest waiting entry whose slot became free is turned into a reservation.
+ *
+ * @author Vojtech Zednik
+ */
+@Entity
+@Table(name = "waitlist_entry", indexes = @Index(columnList = "courtId, startTime"))
+public class WaitlistEntry {
+
+    /**
+     * State of a waitlist entry.
+     */
+    public enum Status {
+        WAITING, PROMOTED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "CourtId is required")
+    private Long courtId;
+
+    @Valid
+    @NotNull(message = "Customer is required")
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "customer_id")
+    private Customer customer;
+
+    @NotNull(message = "startTime is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "endTime is required")
+    private LocalDateTime endTime;
+
+    private boolean doubles;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Status status = Status.WAITING;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long reservationId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    private void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // getters and setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCourtId() {
+        return courtId;
+    }
+
+    public void setCourtId(Long courtId) {
+        this.courtId = courtId;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public boolean isDoubles() {
+        return doubles;
+    }
+
+    public void setDoubles(boolean doubles) {
+        this.doubles = doubles;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.model.Blackout;
+import com.IQproject.court.model.ChangeLogEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for managing {@link Blackout} entities.
+ * Every write is recorded in the {@link ChangeLogRepository change log}.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class BlackoutRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ChangeLogRepository changeLog;
+
+    /**
+     * Constructs a new BlackoutRepository.
+     *
+     * @param changeLog change log recording every write
+     */
+    public BlackoutRepository(ChangeLogRepository changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Retrieves all non-deleted blackout windows.
+     *
+     * @return list of blackout windows
+     */
+    public List<Blackout> findAll() {
+        return em.createQuery("SELECT b FROM Blackout b WHERE b.deleted = false", Blackout.class)
+                .getResultList();
+    }
+
+    /**
+     * Finds a blackout window by its ID.
+     *
+     * @param id the blackout ID
+     * @return the blackout window, or null if not found or deleted
+     */
+    public Blackout findById(Long id) {
+        Blackout blackout = em.find(Blackout.class, id);
+        return (blackout != null && !blackout.isDeleted()) ? blackout : null;
+    }
+
+    /**
+     * Retrieves the non-deleted blackout windows of a court.
+     *
+     * @param courtId the court ID
+     * @return list of blackout windows, ordered by start time
+     */
+    public List<Blackout> findByCourtId(Long courtId) {
+        return em.createQuery("""
+                        SELECT b FROM Blackout b
+                        WHERE b.deleted = false AND b.courtId = :courtId
+                        ORDER BY b.startTime ASC
+                        """, Blackout.class)
+                .setParameter("courtId", courtId)
+                .getResultList();
+    }
+
+    /**
+     * Persists a new blackout window.
+     *
+     * @param blackout the blackout window to save
+     * @return the saved blackout window
+     */
+    @Transactional
+    public Blackout save(Blackout blackout) {
+        em.persist(blackout);
+        log(blackout);
+        return blackout;
+    }
+
+    /**
+     * Soft-deletes a blackout window.
+     *
+     * @param id the ID of the blackout window
+     * @return the deleted blackout window, or null if there was none
+     */
+    @Transactional
+    public Blackout softDelete(Long id) {
+        Blackout blackout = em.find(Blackout.class, id);
+        if (blackout == null || blackout.isDeleted()) {
+            return null;
+        }
+        blackout.setDeleted(true);
+        log(blackout);
+        return blackout;
+    }
+
+    private void log(Blackout blackout) {
+        changeLog.append(ChangeLogEntry.EntityType.BLACKOUT, blackout.getId(), blackout.getCourtId(), null);
+    }
+}
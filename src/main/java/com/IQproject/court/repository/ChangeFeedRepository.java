@@ -0,0 +1,238 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.ChangeCounter;
+import com.IQproject.court.model.ChangeFeedEntry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Repository for the change feed over courts, customers and reservations.
+ * <p>
+ * Every write of these entities marks them as changed. When the writing transaction commits, all
+ * entities it changed get the next value of their tenant's {@code change-feed} {@link ChangeCounter}
+ * as their {@code changeSeq}. The counter row stays locked from then until the commit, so sequence
+ * numbers of a tenant become visible in increasing order and a consumer that has read up to a number
+ * never misses a lower one later. A consumer only reads the entities of its own tenant, so each
+ * tenant has its own counter: writers of one club wait for each other for the duration of a commit,
+ * but never for writers of another club. A transaction changing entities of several tenants locks
+ * their counters in the order of the tenant IDs. The counter rows are created at startup, so writers
+ * never race to insert them.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class ChangeFeedRepository {
+    private static final String COUNTER = "change-feed";
+    private static final int BULK_UPDATE_SIZE = 1000;
+    private static final Comparator<ChangeFeedEntry> FEED_ORDER = Comparator
+            .comparingLong(ChangeFeedEntry::changeSeq)
+            .thenComparing(ChangeFeedEntry::type)
+            .thenComparing(ChangeFeedEntry::id);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TenantRegistry tenants;
+
+    /**
+     * Constructs a new ChangeFeedRepository.
+     *
+     * @param transactionManager transaction manager used to create the counter at startup
+     * @param tenants            the configured tenants, whose counters are created
+     */
+    public ChangeFeedRepository(PlatformTransactionManager transactionManager, TenantRegistry tenants) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tenants = tenants;
+    }
+
+    /**
+     * Creates the {@code change-feed} counter of every tenant that has none yet, so that committing
+     * writers only ever increment it and never race to insert it.
+     */
+    @PostConstruct
+    public void createCounter() {
+        tenants.forEach(() -> {
+            List<String> stored = tenants.isSchemaPerTenant() ? List.of(TenantContext.current()) : tenants.getTenants();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (String tenant : stored) {
+                    em.createNativeQuery("""
+                                    MERGE INTO change_counter c
+                                    USING (SELECT CAST(:name AS VARCHAR(48)) AS name) n ON c.name = n.name
+                                    WHEN NOT MATCHED THEN INSERT (name, counter_value) VALUES (n.name, 0)
+                                    """)
+                            .setParameter("name", counterOf(tenant))
+                            .executeUpdate();
+                }
+            });
+        });
+    }
+
+    /**
+     * Marks an entity as changed by the current transaction. Must be called inside a transaction.
+     *
+     * @param type   the kind of entity
+     * @param id     the entity ID
+     * @param tenant the tenant the entity belongs to
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void touch(ChangeFeedEntry.Type type, Long id, String tenant) {
+        Sequencing sequencing = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Sequencing s) {
+                sequencing = s;
+            }
+        }
+        if (sequencing == null) {
+            sequencing = new Sequencing();
+            TransactionSynchronizationManager.registerSynchronization(sequencing);
+        }
+        sequencing.ids.computeIfAbsent(tenant, t -> new EnumMap<>(ChangeFeedEntry.Type.class))
+                .computeIfAbsent(type, t -> new LinkedHashSet<>())
+                .add(id);
+    }
+
+    /**
+     * Retrieves the entities changed after a cursor, ordered by sequence number. Entities changed by
+     * the same transaction share a sequence number and are never split across pages, so a page
+     * may exceed the limit by the size of one transaction.
+     *
+     * @param cursor the highest sequence number already read
+     * @param limit  the maximum number of entities, unless one transaction changed more
+     * @return the changed entities
+     */
+    public List<ChangeFeedEntry> findAfter(long cursor, int limit) {
+        List<ChangeFeedEntry> found = new ArrayList<>();
+        for (ChangeFeedEntry.Type type : ChangeFeedEntry.Type.values()) {
+            found.addAll(find(type, "e.changeSeq > :seq", cursor, limit));
+        }
+        found.sort(FEED_ORDER);
+        if (found.size() <= limit) {
+            return found;
+        }
+        long last = found.get(limit - 1).changeSeq();
+        List<ChangeFeedEntry> page = new ArrayList<>(found.stream().filter(e -> e.changeSeq() < last).toList());
+        for (ChangeFeedEntry.Type type : ChangeFeedEntry.Type.values()) {
+            page.addAll(find(type, "e.changeSeq = :seq", last, Integer.MAX_VALUE));
+        }
+        page.sort(FEED_ORDER);
+        return page;
+    }
+
+    /**
+     * Returns the highest sequence number of any entity.
+     *
+     * @return the highest sequence number, or 0 if no entity has one
+     */
+    public long findHead() {
+        long head = 0;
+        for (ChangeFeedEntry.Type type : ChangeFeedEntry.Type.values()) {
+            Long max = em.createQuery("SELECT max(e.changeSeq) FROM " + entityName(type) + " e", Long.class)
+                    .getSingleResult();
+            head = Math.max(head, max == null ? 0 : max);
+        }
+        return head;
+    }
+
+    /**
+     * Counts the entities changed after a cursor.
+     *
+     * @param cursor the highest sequence number already read
+     * @return the number of entities with a higher sequence number
+     */
+    public long countAfter(long cursor) {
+        long count = 0;
+        for (ChangeFeedEntry.Type type : ChangeFeedEntry.Type.values()) {
+            count += em.createQuery("SELECT count(e) FROM " + entityName(type) + " e WHERE e.changeSeq > :seq",
+                            Long.class)
+                    .setParameter("seq", cursor)
+                    .getSingleResult();
+        }
+        return count;
+    }
+
+    private List<ChangeFeedEntry> find(ChangeFeedEntry.Type type, String condition, long seq, int limit) {
+        List<?> entities = em.createQuery("SELECT e FROM " + entityName(type) + " e WHERE " + condition
+                        + " ORDER BY e.changeSeq ASC, e.id ASC")
+                .setParameter("seq", seq)
+                .setMaxResults(limit)
+                .getResultList();
+        List<ChangeFeedEntry> entries = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            entries.add(switch (entity) {
+                case Court c -> new ChangeFeedEntry(type, c.getId(), c.getChangeSeq(), c.isDeleted(), c);
+                case Customer c -> new ChangeFeedEntry(type, c.getId(), c.getChangeSeq(), c.isDeleted(), c);
+                case Reservation r -> new ChangeFeedEntry(type, r.getId(), r.getChangeSeq(), r.isDeleted(), r);
+                default -> throw new IllegalStateException("Unexpected entity " + entity);
+            });
+        }
+        return entries;
+    }
+
+    private static String counterOf(String tenant) {
+        return COUNTER + ":" + tenant;
+    }
+
+    private static String entityName(ChangeFeedEntry.Type type) {
+        return switch (type) {
+            case COURT -> "Court";
+            case CUSTOMER -> "Customer";
+            case RESERVATION -> "Reservation";
+        };
+    }
+
+    /**
+     * Assigns the next sequence number of each tenant to its entities changed by one transaction right
+     * before it commits.
+     */
+    private final class Sequencing implements TransactionSynchronization {
+        private final Map<String, Map<ChangeFeedEntry.Type, Set<Long>>> ids = new TreeMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            em.flush();
+            ids.forEach((tenant, changedByType) -> {
+                String counter = counterOf(tenant);
+                if (em.createQuery("UPDATE ChangeCounter c SET c.value = c.value + 1 WHERE c.name = :name")
+                        .setParameter("name", counter)
+                        .executeUpdate() == 0) {
+                    throw new IllegalStateException("The " + counter + " counter does not exist");
+                }
+                long seq = em.createQuery("SELECT c.value FROM ChangeCounter c WHERE c.name = :name", Long.class)
+                        .setParameter("name", counter)
+                        .getSingleResult();
+
+                changedByType.forEach((type, changed) -> {
+                    List<Long> list = List.copyOf(changed);
+                    for (int i = 0; i < list.size(); i += BULK_UPDATE_SIZE) {
+                        em.createQuery("UPDATE " + entityName(type) + " e SET e.changeSeq = :seq WHERE e.id IN :ids")
+                                .setParameter("seq", seq)
+                                .setParameter("ids", list.subList(i, Math.min(i + BULK_UPDATE_SIZE, list.size())))
+                                .executeUpdate();
+                    }
+                });
+            });
+        }
+    }
+}
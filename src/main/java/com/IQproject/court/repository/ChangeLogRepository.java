@@ -0,0 +1,106 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.model.ChangeLogEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the {@link ChangeLogEntry} change log shared by the instances of a cluster.
+ * Entries are appended by the other repositories inside their write transactions and read by
+ * ID, which makes every poll a range scan of the primary key.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class ChangeLogRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final boolean enabled;
+    private final String nodeId;
+
+    /**
+     * Constructs a new ChangeLogRepository.
+     *
+     * @param config application configuration holding the change log settings
+     */
+    public ChangeLogRepository(AppConfig config) {
+        this.enabled = config.getChangeLog().isEnabled();
+        this.nodeId = config.getNodeId();
+    }
+
+    /**
+     * Records that an entity was written, in the caller's transaction. Does nothing if the change
+     * log is disabled.
+     *
+     * @param entityType the kind of entity that was written
+     * @param entityId   the ID of the entity
+     * @param courtId    the court the entity belongs to, or null if it belongs to none
+     * @param tenantId   the tenant owning the entity, or null if the entity has no tenant
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(ChangeLogEntry.EntityType entityType, Long entityId, Long courtId, String tenantId) {
+        if (enabled) {
+            em.persist(new ChangeLogEntry(entityType, entityId, courtId, tenantId, nodeId));
+        }
+    }
+
+    /**
+     * Returns the highest entry ID.
+     *
+     * @return the highest ID, or 0 if the log is empty
+     */
+    public long findMaxId() {
+        Long max = em.createQuery("SELECT max(e.id) FROM ChangeLogEntry e", Long.class).getSingleResult();
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Retrieves the entries following a cursor.
+     *
+     * @param after the cursor, the highest ID already read
+     * @param limit the maximum number of entries
+     * @return the entries with higher IDs, ordered by ID
+     */
+    public List<ChangeLogEntry> findAfter(long after, int limit) {
+        return em.createQuery("SELECT e FROM ChangeLogEntry e WHERE e.id > :after ORDER BY e.id ASC",
+                        ChangeLogEntry.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Retrieves the entries with the given IDs that exist.
+     *
+     * @param ids the entry IDs
+     * @return the existing entries, ordered by ID
+     */
+    public List<ChangeLogEntry> findByIds(Collection<Long> ids) {
+        return em.createQuery("SELECT e FROM ChangeLogEntry e WHERE e.id IN :ids ORDER BY e.id ASC",
+                        ChangeLogEntry.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Deletes all entries created before the given time.
+     *
+     * @param threshold entries older than this are deleted
+     * @return the number of deleted entries
+     */
+    @Transactional
+    public int deleteCreatedBefore(LocalDateTime threshold) {
+        return em.createQuery("DELETE FROM ChangeLogEntry e WHERE e.createdAt < :threshold")
+                .setParameter("threshold", threshold)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,112 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.model.CourtLease;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for {@link CourtLease} leases. A lease is taken with a single conditional update, so
+ * two instances can never both succeed, and checked under a row lock inside the write it guards.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class CourtLeaseRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Takes or renews the lease on a court if it is free, expired or already held by the holder.
+     * A free or expired lease is taken only if no other instance is waiting for it; an instance that
+     * finds the lease taken becomes its waiter until {@code until}, unless another instance already is,
+     * so that a busy instance releasing and re-taking the lease cannot starve the others.
+     * The fencing token grows only if the lease passes from another holder. Commits on return,
+     * independently of any surrounding transaction.
+     *
+     * @param courtId the court ID
+     * @param holder  the node ID of the instance taking the lease
+     * @param now     the current time
+     * @param until   the time the lease expires unless renewed
+     * @return the fencing token of the holder, or -1 if another instance holds or waits for the lease
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public long acquire(Long courtId, String holder, LocalDateTime now, LocalDateTime until) {
+        int updated = em.createQuery("""
+                        UPDATE CourtLease l
+                        SET l.fencingToken = CASE WHEN l.holder = :holder THEN l.fencingToken
+                                                  ELSE l.fencingToken + 1 END,
+                            l.holder = :holder, l.expiresAt = :until,
+                            l.waiter = CASE WHEN l.waiter = :holder THEN NULL ELSE l.waiter END
+                        WHERE l.courtId = :courtId
+                          AND (l.holder = :holder AND l.expiresAt > :now
+                               OR l.expiresAt <= :now
+                                  AND (l.waiter IS NULL OR l.waiter = :holder OR l.waitingUntil <= :now))
+                        """)
+                .setParameter("courtId", courtId)
+                .setParameter("holder", holder)
+                .setParameter("now", now)
+                .setParameter("until", until)
+                .executeUpdate();
+        if (updated == 0) {
+            if (em.find(CourtLease.class, courtId) == null) {
+                em.persist(new CourtLease(courtId, holder, 1, until));
+                return 1;
+            }
+            em.createQuery("""
+                            UPDATE CourtLease l SET l.waiter = :holder, l.waitingUntil = :until
+                            WHERE l.courtId = :courtId
+                              AND (l.waiter IS NULL OR l.waiter = :holder OR l.waitingUntil <= :now)
+                            """)
+                    .setParameter("courtId", courtId)
+                    .setParameter("holder", holder)
+                    .setParameter("now", now)
+                    .setParameter("until", until)
+                    .executeUpdate();
+            return -1;
+        }
+        return em.createQuery("SELECT l.fencingToken FROM CourtLease l WHERE l.courtId = :courtId", Long.class)
+                .setParameter("courtId", courtId)
+                .getSingleResult();
+    }
+
+    /**
+     * Checks that the holder still holds the lease under the given token, and locks the lease until
+     * the current transaction ends so that it cannot pass to another instance before the guarded
+     * write commits. Must be called inside a transaction.
+     *
+     * @param courtId      the court ID
+     * @param holder       the node ID of the holder
+     * @param fencingToken the token the holder acquired the lease with
+     * @param now          the current time
+     * @return true if the lease is held and unexpired, false otherwise
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public boolean lockIfHeld(Long courtId, String holder, long fencingToken, LocalDateTime now) {
+        CourtLease lease = em.find(CourtLease.class, courtId, LockModeType.PESSIMISTIC_WRITE);
+        return lease != null && lease.getHolder().equals(holder) && lease.getFencingToken() == fencingToken
+                && lease.getExpiresAt().isAfter(now);
+    }
+
+    /**
+     * Releases a lease held by the holder, letting other instances take it at once.
+     * The fencing token is kept, so it still grows when another instance takes the lease.
+     *
+     * @param courtId the court ID
+     * @param holder  the node ID of the holder
+     * @param now     the current time
+     */
+    @Transactional
+    public void release(Long courtId, String holder, LocalDateTime now) {
+        em.createQuery("UPDATE CourtLease l SET l.expiresAt = :now WHERE l.courtId = :courtId AND l.holder = :holder")
+                .setParameter("courtId", courtId)
+                .setParameter("holder", holder)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+}
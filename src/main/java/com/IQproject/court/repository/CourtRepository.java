@@ -1,16 +1,25 @@
 package com.IQproject.court.repository;
 
+import com.IQproject.court.model.ChangeFeedEntry;
+import com.IQproject.court.model.ChangeLogEntry;
 import com.IQproject.court.model.Court;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Repository class for accessing and managing {@link Court} entities.
  * Implements basic CRUD operations using {@link EntityManager}.
+ * Every write is recorded in the {@link ChangeLogRepository change log} and the
+ * {@link ChangeFeedRepository change feed}; renaming a court also renames it in the
+ * {@link ReservationViewRepository reservation view}.
  *
  * @author Vojtech Zednik
  */
@@ -20,6 +29,24 @@ public class CourtRepository {
     @PersistenceContext
     private EntityManager em;
 
+    private final ChangeLogRepository changeLog;
+    private final ChangeFeedRepository changeFeed;
+    private final ReservationViewRepository reservationView;
+
+    /**
+     * Constructs a new CourtRepository.
+     *
+     * @param changeLog       change log recording every write
+     * @param changeFeed      change feed sequencing every write
+     * @param reservationView read model holding the court names of reservations
+     */
+    public CourtRepository(ChangeLogRepository changeLog, ChangeFeedRepository changeFeed,
+                           ReservationViewRepository reservationView) {
+        this.changeLog = changeLog;
+        this.changeFeed = changeFeed;
+        this.reservationView = reservationView;
+    }
+
     /**
      * Retrieves all non-deleted courts from the database.
      *
@@ -41,6 +68,56 @@ public class CourtRepository {
         return (court != null && !court.isDeleted()) ? court : null;
     }
 
+    /**
+     * Retrieves all non-deleted courts with the given surface type.
+     *
+     * @param surfaceTypeId the ID of the surface type
+     * @return list of matching courts, ordered by ID
+     */
+    public List<Court> findBySurfaceTypeId(Long surfaceTypeId) {
+        return em.createQuery("""
+                        SELECT c FROM Court c
+                        WHERE c.deleted = false AND c.surfaceTypeId = :surfaceTypeId
+                        ORDER BY c.id ASC
+                        """, Court.class)
+                .setParameter("surfaceTypeId", surfaceTypeId)
+                .getResultList();
+    }
+
+    /**
+     * Returns the surface type of every court, including deleted courts.
+     *
+     * @return map of court IDs to surface type IDs
+     */
+    public Map<Long, Long> findAllSurfaceTypeIds() {
+        Map<Long, Long> surfaceTypeIds = new HashMap<>();
+        for (Object[] row : em.createQuery("SELECT c.id, c.surfaceTypeId FROM Court c", Object[].class)
+                .getResultList()) {
+            surfaceTypeIds.put((Long) row[0], (Long) row[1]);
+        }
+        return surfaceTypeIds;
+    }
+
+    /**
+     * Locks the given courts for writing until the current transaction ends.
+     * Rows are locked in ascending ID order, so transactions locking overlapping
+     * sets of courts wait for each other instead of deadlocking.
+     * Must be called inside a transaction.
+     *
+     * @param ids the IDs of the courts to lock
+     * @return the locked non-deleted courts, ordered by ID
+     */
+    public List<Court> lockAll(Collection<Long> ids) {
+        return em.createQuery("""
+                        SELECT c FROM Court c
+                        WHERE c.deleted = false AND c.id IN :ids
+                        ORDER BY c.id ASC
+                        """, Court.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
     /**
      * Saves a new or existing court.
      * Persists the court if it has no ID, otherwise merges it.
@@ -50,11 +127,15 @@ public class CourtRepository {
      */
     @Transactional
     public Court save(Court court) {
+        Court saved = court;
         if (court.getId() == null) {
             em.persist(court);
-            return court;
+        } else {
+            saved = em.merge(court);
+            reservationView.updateCourt(saved);
         }
-        return em.merge(court);
+        log(saved);
+        return saved;
     }
 
     /**
@@ -67,7 +148,12 @@ public class CourtRepository {
         Court court = em.find(Court.class, id);
         if (court != null) {
             court.setDeleted(true);
-            em.merge(court);
+            log(em.merge(court));
         }
     }
+
+    private void log(Court court) {
+        changeLog.append(ChangeLogEntry.EntityType.COURT, court.getId(), court.getId(), court.getTenantId());
+        changeFeed.touch(ChangeFeedEntry.Type.COURT, court.getId(), court.getTenantId());
+    }
 }
@@ -1,5 +1,6 @@
 package com.IQproject.court.repository;
 
+import com.IQproject.court.model.ChangeFeedEntry;
 import com.IQproject.court.model.Customer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -10,6 +11,8 @@ import java.util.List;
 
 /**
  * Repository class for managing {@link Customer} entities.
+ * Every write is recorded in the {@link ChangeFeedRepository change feed}; changes of a customer
+ * are copied to their reservations in the {@link ReservationViewRepository reservation view}.
  *
  * @author Vojtech Zednik
  */
@@ -18,6 +21,20 @@ public class CustomerRepository {
     @PersistenceContext
     private EntityManager em;
 
+    private final ChangeFeedRepository changeFeed;
+    private final ReservationViewRepository reservationView;
+
+    /**
+     * Constructs a new CustomerRepository.
+     *
+     * @param changeFeed      change feed sequencing every write
+     * @param reservationView read model holding the customer names of reservations
+     */
+    public CustomerRepository(ChangeFeedRepository changeFeed, ReservationViewRepository reservationView) {
+        this.changeFeed = changeFeed;
+        this.reservationView = reservationView;
+    }
+
     /**
      * Retrieves all customers that are not marked as deleted.
      *
@@ -37,7 +54,9 @@ public class CustomerRepository {
     public Customer findByPhoneNumber(String phoneNumber) {
         return em.createQuery("SELECT c FROM Customer c WHERE c.phoneNumber = :phone AND c.deleted = false", Customer.class)
                 .setParameter("phone", phoneNumber)
-                .getResultStream()
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
                 .findFirst()
                 .orElse(null);
     }
@@ -62,10 +81,14 @@ public class CustomerRepository {
      */
     @Transactional
     public Customer save(Customer customer) {
+        Customer saved = customer;
         if (customer.getId() == null) {
             em.persist(customer);
-            return customer;
+        } else {
+            saved = em.merge(customer);
+            reservationView.updateCustomer(saved);
         }
-        return em.merge(customer);
+        changeFeed.touch(ChangeFeedEntry.Type.CUSTOMER, saved.getId(), saved.getTenantId());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.model.IdempotencyRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for managing {@link IdempotencyRecord} entities.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class IdempotencyRecordRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Finds a record by its idempotency key.
+     *
+     * @param key the idempotency key
+     * @return the record, or null if not found
+     */
+    public IdempotencyRecord findByKey(String key) {
+        return em.find(IdempotencyRecord.class, key);
+    }
+
+    /**
+     * Persists a new record.
+     *
+     * @param record the record to save
+     * @return the saved record
+     */
+    @Transactional
+    public IdempotencyRecord save(IdempotencyRecord record) {
+        em.persist(record);
+        return record;
+    }
+
+    /**
+     * Deletes all records created before the given time.
+     *
+     * @param threshold records older than this are deleted
+     * @return the number of deleted records
+     */
+    @Transactional
+    public int deleteCreatedBefore(LocalDateTime threshold) {
+        return em.createQuery("DELETE FROM IdempotencyRecord i WHERE i.createdAt < :threshold")
+                .setParameter("threshold", threshold)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,90 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.model.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the {@link OutboxEvent} outbox. Events are appended by the
+ * {@link ReservationRepository} inside its write transactions and drained in ID order.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class OutboxRepository {
+    private static final int BULK_DELETE_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final boolean enabled;
+
+    /**
+     * Constructs a new OutboxRepository.
+     *
+     * @param config application configuration holding the outbox settings
+     */
+    public OutboxRepository(AppConfig config) {
+        this.enabled = config.getOutbox().isEnabled();
+    }
+
+    /**
+     * Adds an event per reservation change to the outbox, in the caller's transaction. Does
+     * nothing if the outbox is disabled.
+     *
+     * @param changes the reservation changes
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(List<ReservationChange> changes) {
+        if (!enabled) {
+            return;
+        }
+        for (ReservationChange change : changes) {
+            OutboxEvent.Type type = switch (change.type()) {
+                case CREATED -> OutboxEvent.Type.CREATED;
+                case UPDATED -> OutboxEvent.Type.UPDATED;
+                case DELETED -> OutboxEvent.Type.CANCELLED;
+            };
+            em.persist(new OutboxEvent(type, change.reservationId(), change.courtId(), change.startTime(),
+                    change.endTime(), change.price(), change.tenantId()));
+        }
+    }
+
+    /**
+     * Retrieves and locks the oldest events until the current transaction ends, so that no other
+     * instance relays them at the same time. Must be called inside a transaction.
+     *
+     * @param limit the maximum number of events
+     * @return the oldest events, ordered by ID
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public List<OutboxEvent> lockOldest(int limit) {
+        return em.createQuery("SELECT e FROM OutboxEvent e ORDER BY e.id ASC", OutboxEvent.class)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * Deletes delivered events.
+     *
+     * @param ids the IDs of the events
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void delete(Collection<Long> ids) {
+        List<Long> list = List.copyOf(ids);
+        for (int i = 0; i < list.size(); i += BULK_DELETE_SIZE) {
+            em.createQuery("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+                    .setParameter("ids", list.subList(i, Math.min(i + BULK_DELETE_SIZE, list.size())))
+                    .executeUpdate();
+        }
+    }
+}
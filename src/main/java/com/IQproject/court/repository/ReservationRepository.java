@@ -1,26 +1,73 @@
 package com.IQproject.court.repository;
 
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.ChangeFeedEntry;
+import com.IQproject.court.model.ChangeLogEntry;
 import com.IQproject.court.model.Reservation;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing {@link Reservation} entities.
  * Supports basic RUD operations using {@link EntityManager}.
+ * Every write publishes a {@link ReservationChangedEvent}, is recorded in the
+ * {@link ChangeLogRepository change log} and the {@link ChangeFeedRepository change feed},
+ * adds its events to the {@link OutboxRepository outbox} and updates the
+ * {@link ReservationViewRepository reservation view}.
  *
  * @author Vojtech Zednik
  */
 @Repository
 public class ReservationRepository {
+    private static final int BULK_UPDATE_SIZE = 1000;
 
     @PersistenceContext
     private EntityManager em;
 
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeLogRepository changeLog;
+    private final ChangeFeedRepository changeFeed;
+    private final OutboxRepository outbox;
+    private final ReservationViewRepository view;
+
+    /**
+     * Constructs a new ReservationRepository.
+     *
+     * @param eventPublisher publisher for reservation change events
+     * @param changeLog      change log recording every write
+     * @param changeFeed     change feed sequencing every write
+     * @param outbox         outbox of events relayed to other systems
+     * @param view           read model serving the reservation lists
+     */
+    public ReservationRepository(ApplicationEventPublisher eventPublisher, ChangeLogRepository changeLog,
+                                 ChangeFeedRepository changeFeed, OutboxRepository outbox,
+                                 ReservationViewRepository view) {
+        this.eventPublisher = eventPublisher;
+        this.changeLog = changeLog;
+        this.changeFeed = changeFeed;
+        this.outbox = outbox;
+        this.view = view;
+    }
+
     /**
      * Retrieves all non-deleted reservations.
      *
@@ -58,6 +105,71 @@ public class ReservationRepository {
                 .getResultList();
     }
 
+    /**
+     * Retrieves all reservations for several courts with a single query.
+     *
+     * @param courtIds the court IDs
+     * @return list of reservations associated with the courts, ordered by court and start time
+     */
+    public List<Reservation> findByCourtIds(Collection<Long> courtIds) {
+        return em.createQuery("""
+                        SELECT r FROM Reservation r
+                        WHERE r.deleted = false AND r.courtId IN :courtIds
+                        ORDER BY r.courtId ASC, r.startTime ASC
+                        """, Reservation.class)
+                .setParameter("courtIds", courtIds)
+                .getResultList();
+    }
+
+    /**
+     * Retrieves the reservations of all courts that overlap the given time range.
+     *
+     * @param start the start of the range
+     * @param end   the end of the range
+     * @return list of overlapping reservations
+     */
+    public List<Reservation> findBetween(LocalDateTime start, LocalDateTime end) {
+        return em.createQuery("""
+                        SELECT r FROM Reservation r
+                        WHERE r.deleted = false AND r.startTime < :end AND r.endTime > :start
+                        """, Reservation.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    /**
+     * Returns the lowest and highest reservation ID, including deleted reservations.
+     *
+     * @return the ID bounds as {@code {min, max}}, or an empty array if there are no reservations
+     */
+    public long[] findIdBounds() {
+        Object[] bounds = em.createQuery("SELECT min(r.id), max(r.id) FROM Reservation r", Object[].class)
+                .getSingleResult();
+        if (bounds[0] == null) {
+            return new long[0];
+        }
+        return new long[]{(Long) bounds[0], (Long) bounds[1]};
+    }
+
+    /**
+     * Retrieves the non-deleted reservations with IDs in the given range.
+     *
+     * @param fromId the lowest ID, inclusive
+     * @param toId   the highest ID, inclusive
+     * @return list of reservations, ordered by ID
+     */
+    public List<Reservation> findByIdRange(long fromId, long toId) {
+        return em.createQuery("""
+                        SELECT r FROM Reservation r
+                        WHERE r.deleted = false AND r.id BETWEEN :fromId AND :toId
+                        ORDER BY r.id ASC
+                        """, Reservation.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+    }
+
     /**
      * Retrieves future reservations for a customer by their phone number.
      *
@@ -101,11 +213,32 @@ public class ReservationRepository {
      */
     @Transactional
     public Reservation save(Reservation reservation) {
-        if (reservation.getId() == null) {
-            em.persist(reservation);
-            return reservation;
+        boolean created = reservation.getId() == null;
+        ReservationChange.Previous previous = storedState(reservation);
+        Reservation saved = persistOrMerge(reservation);
+        publish(List.of(changeOf(created, saved, previous)));
+        return saved;
+    }
+
+    /**
+     * Saves several reservations in a single transaction.
+     *
+     * @param reservations the reservations to save
+     * @return the persisted or updated reservations, in the same order
+     */
+    @Transactional
+    public List<Reservation> saveAll(List<Reservation> reservations) {
+        List<Reservation> saved = new ArrayList<>(reservations.size());
+        List<ReservationChange> changes = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            boolean created = reservation.getId() == null;
+            ReservationChange.Previous previous = storedState(reservation);
+            Reservation result = persistOrMerge(reservation);
+            saved.add(result);
+            changes.add(changeOf(created, result, previous));
         }
-        return em.merge(reservation);
+        publish(changes);
+        return saved;
     }
 
     /**
@@ -116,14 +249,17 @@ public class ReservationRepository {
     @Transactional
     public void softDelete(Long id) {
         Reservation reservation = em.find(Reservation.class, id);
-        if (reservation != null) {
+        if (reservation != null && !reservation.isDeleted()) {
+            ReservationChange.Previous previous = ReservationChange.Previous.of(reservation);
             reservation.setDeleted(true);
             em.merge(reservation);
+            publish(List.of(ReservationChange.of(ReservationChange.Type.DELETED, reservation, previous)));
         }
     }
 
     /**
      * Checks whether there is any overlapping reservation on a given court within the specified time range.
+     * Holds block their slot until they expire.
      *
      * @param courtId the court ID
      * @param start   the desired start time
@@ -135,10 +271,261 @@ public class ReservationRepository {
                         SELECT count(r) FROM Reservation r
                         WHERE r.deleted = false AND r.courtId = :courtId
                         AND ((r.startTime < :end) AND (r.endTime > :start))
+                        AND (r.holdExpiresAt IS NULL OR r.holdExpiresAt > :now)
                         """, Long.class)
                 .setParameter("courtId", courtId)
                 .setParameter("start", start)
                 .setParameter("end", end)
+                .setParameter("now", LocalDateTime.now())
                 .getSingleResult() > 0;
     }
+
+    /**
+     * Finds which of the given courts have a reservation overlapping the specified time range,
+     * using a single query for all courts. Holds block their slot until they expire.
+     *
+     * @param courtIds the court IDs to check
+     * @param start    the desired start time
+     * @param end      the desired end time
+     * @return IDs of the courts with an overlapping reservation
+     */
+    public List<Long> findOverlappingCourtIds(Collection<Long> courtIds, LocalDateTime start, LocalDateTime end) {
+        return em.createQuery("""
+                        SELECT DISTINCT r.courtId FROM Reservation r
+                        WHERE r.deleted = false AND r.courtId IN :courtIds
+                        AND ((r.startTime < :end) AND (r.endTime > :start))
+                        AND (r.holdExpiresAt IS NULL OR r.holdExpiresAt > :now)
+                        """, Long.class)
+                .setParameter("courtIds", courtIds)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("now", LocalDateTime.now())
+                .getResultList();
+    }
+
+    /**
+     * Retrieves all holds that have not been confirmed, released or expired yet.
+     *
+     * @return list of holds, ordered by expiry
+     */
+    public List<Reservation> findActiveHolds() {
+        return em.createQuery("""
+                        SELECT r FROM Reservation r
+                        WHERE r.deleted = false AND r.status = :hold
+                        ORDER BY r.holdExpiresAt ASC
+                        """, Reservation.class)
+                .setParameter("hold", Reservation.Status.HOLD)
+                .getResultList();
+    }
+
+    /**
+     * Confirms a hold that has not expired. Only the state changes; the slot is already reserved.
+     * The row is locked, so a confirmation and a concurrent expiry cannot both succeed.
+     *
+     * @param id  the ID of the hold
+     * @param now the current time
+     * @return the confirmed reservation, or null if there is no active hold with the ID
+     */
+    @Transactional
+    public Reservation confirmHold(Long id, LocalDateTime now) {
+        Reservation reservation = em.find(Reservation.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (reservation == null || reservation.isDeleted() || reservation.getStatus() != Reservation.Status.HOLD
+                || !reservation.getHoldExpiresAt().isAfter(now)) {
+            return null;
+        }
+        ReservationChange.Previous previous = ReservationChange.Previous.of(reservation);
+        reservation.setStatus(Reservation.Status.CONFIRMED);
+        reservation.setHoldExpiresAt(null);
+        publish(List.of(ReservationChange.of(ReservationChange.Type.UPDATED, reservation, previous)));
+        return reservation;
+    }
+
+    /**
+     * Soft-deletes a hold that has not been confirmed.
+     *
+     * @param id the ID of the hold
+     * @return true if the hold was released, false if there is no such hold
+     */
+    @Transactional
+    public boolean releaseHold(Long id) {
+        Reservation reservation = em.find(Reservation.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (reservation == null || reservation.isDeleted() || reservation.getStatus() != Reservation.Status.HOLD) {
+            return false;
+        }
+        ReservationChange.Previous previous = ReservationChange.Previous.of(reservation);
+        reservation.setDeleted(true);
+        publish(List.of(ReservationChange.of(ReservationChange.Type.DELETED, reservation, previous)));
+        return true;
+    }
+
+    /**
+     * Soft-deletes those of the given holds that are still unconfirmed and past their expiry,
+     * publishing one event for all of them.
+     *
+     * @param ids the IDs of the holds
+     * @param now the current time
+     * @return the number of expired holds
+     */
+    @Transactional
+    public int expireHolds(Collection<Long> ids, LocalDateTime now) {
+        List<Reservation> expired = em.createQuery("""
+                        SELECT r FROM Reservation r
+                        WHERE r.deleted = false AND r.status = :hold
+                        AND r.id IN :ids AND r.holdExpiresAt <= :now
+                        """, Reservation.class)
+                .setParameter("hold", Reservation.Status.HOLD)
+                .setParameter("ids", ids)
+                .setParameter("now", now)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<ReservationChange> changes = new ArrayList<>(expired.size());
+        for (Reservation reservation : expired) {
+            ReservationChange.Previous previous = ReservationChange.Previous.of(reservation);
+            reservation.setDeleted(true);
+            changes.add(ReservationChange.of(ReservationChange.Type.DELETED, reservation, previous));
+        }
+        publish(changes);
+        return expired.size();
+    }
+
+    /**
+     * Cancels every reservation starting within the given range, on one court or on all courts.
+     * The affected rows are read through a cursor and published in chunks of up to
+     * {@value #BULK_UPDATE_SIZE}, one event per chunk, then soft-deleted with a single range update.
+     * Only their IDs are kept. The caller must hold the locks of the affected courts, so that no
+     * reservation is booked into the range meanwhile.
+     *
+     * @param courtId the court ID, or null for all courts
+     * @param from    the earliest start time, inclusive
+     * @param to      the latest start time, exclusive, or null for no upper bound
+     * @return the IDs of the cancelled reservations, ordered by start time
+     */
+    @Transactional
+    public List<Long> cancelStartingBetween(Long courtId, LocalDateTime from, LocalDateTime to) {
+        String range = "r.deleted = false AND r.startTime >= :from"
+                + (courtId != null ? " AND r.courtId = :courtId" : "")
+                + (to != null ? " AND r.startTime < :to" : "");
+        TypedQuery<Reservation> query = bindRange(em.createQuery(
+                "SELECT r FROM Reservation r WHERE " + range + " ORDER BY r.startTime ASC, r.id ASC",
+                Reservation.class), courtId, from, to);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, BULK_UPDATE_SIZE);
+
+        List<Long> ids = new ArrayList<>();
+        List<ReservationChange> changes = new ArrayList<>();
+        try (Stream<Reservation> rows = query.getResultStream()) {
+            rows.forEach(reservation -> {
+                em.detach(reservation);
+                ReservationChange.Previous previous = ReservationChange.Previous.of(reservation);
+                reservation.setDeleted(true);
+                ids.add(reservation.getId());
+                changes.add(ReservationChange.of(ReservationChange.Type.DELETED, reservation, previous));
+                if (changes.size() == BULK_UPDATE_SIZE) {
+                    publish(List.copyOf(changes));
+                    changes.clear();
+                }
+            });
+        }
+        if (!changes.isEmpty()) {
+            publish(changes);
+        }
+        bindRange(em.createQuery("UPDATE Reservation r SET r.deleted = true WHERE " + range),
+                courtId, from, to).executeUpdate();
+        return ids;
+    }
+
+    /**
+     * Reads reservations by ID, including deleted ones, in chunks of up to {@value #BULK_UPDATE_SIZE},
+     * so that long lists are never held in memory at once.
+     *
+     * @param ids      the reservation IDs
+     * @param consumer receives the existing reservations, in the order of the IDs
+     */
+    public void forEachById(List<Long> ids, Consumer<Reservation> consumer) {
+        for (int i = 0; i < ids.size(); i += BULK_UPDATE_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + BULK_UPDATE_SIZE, ids.size()));
+            Map<Long, Reservation> byId = new HashMap<>();
+            for (Reservation reservation : em.createQuery("SELECT r FROM Reservation r WHERE r.id IN :ids",
+                            Reservation.class)
+                    .setParameter("ids", chunk)
+                    .getResultList()) {
+                byId.put(reservation.getId(), reservation);
+            }
+            for (Long id : chunk) {
+                Reservation reservation = byId.get(id);
+                if (reservation != null) {
+                    consumer.accept(reservation);
+                }
+            }
+        }
+    }
+
+    private static <Q extends Query> Q bindRange(Q query, Long courtId, LocalDateTime from, LocalDateTime to) {
+        query.setParameter("from", from);
+        if (courtId != null) {
+            query.setParameter("courtId", courtId);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query;
+    }
+
+    private void publish(List<ReservationChange> changes) {
+        for (ReservationChange change : changes) {
+            changeLog.append(ChangeLogEntry.EntityType.RESERVATION, change.reservationId(), change.courtId(),
+                    change.tenantId());
+            changeFeed.touch(ChangeFeedEntry.Type.RESERVATION, change.reservationId(), change.tenantId());
+        }
+        outbox.append(changes);
+        view.apply(changes);
+        eventPublisher.publishEvent(new ReservationChangedEvent(changes));
+    }
+
+    private Reservation persistOrMerge(Reservation reservation) {
+        if (reservation.getId() == null) {
+            em.persist(reservation);
+            return reservation;
+        }
+        Reservation merged = em.merge(reservation);
+        // write the new state, so that a later save in this transaction reads it as the previous one
+        em.flush();
+        return merged;
+    }
+
+    /**
+     * Reads the stored state of a reservation that is about to be saved. The query does not flush,
+     * so pending changes of the managed reservation are not seen.
+     */
+    private ReservationChange.Previous storedState(Reservation reservation) {
+        if (reservation.getId() == null) {
+            return null;
+        }
+        return em.createQuery("""
+                        SELECT r.courtId, r.startTime, r.endTime, r.price, r.status FROM Reservation r
+                        WHERE r.deleted = false AND r.id = :id
+                        """, Object[].class)
+                .setParameter("id", reservation.getId())
+                .setFlushMode(FlushModeType.COMMIT)
+                .getResultStream()
+                .findFirst()
+                .map(row -> new ReservationChange.Previous((Long) row[0], (LocalDateTime) row[1],
+                        (LocalDateTime) row[2], (BigDecimal) row[3], (Reservation.Status) row[4]))
+                .orElse(null);
+    }
+
+    private static ReservationChange changeOf(boolean created, Reservation saved,
+                                              ReservationChange.Previous previous) {
+        ReservationChange.Type type;
+        if (saved.isDeleted()) {
+            type = ReservationChange.Type.DELETED;
+        } else if (created) {
+            type = ReservationChange.Type.CREATED;
+        } else {
+            type = ReservationChange.Type.UPDATED;
+        }
+        return ReservationChange.of(type, saved, previous);
+    }
 }
@@ -0,0 +1,246 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.ReservationView;
+import com.IQproject.court.model.SurfaceType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for the {@link ReservationView} read model. The view is written by the
+ * {@link ReservationRepository}, {@link CourtRepository}, {@link CustomerRepository} and
+ * {@link SurfaceTypeRepository} inside their write transactions, so it always matches the committed reservations, and read by the reservation
+ * list queries.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class ReservationViewRepository {
+    private static final int BULK_DELETE_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Retrieves all reservations.
+     *
+     * @return list of all reservations, ordered by ID
+     */
+    public List<ReservationView> findAll() {
+        return em.createQuery("SELECT v FROM ReservationView v ORDER BY v.id ASC", ReservationView.class)
+                .getResultList();
+    }
+
+    /**
+     * Retrieves all reservations for a specific court.
+     *
+     * @param courtId the court ID
+     * @return list of reservations associated with the court, ordered by creation time
+     */
+    public List<ReservationView> findByCourtId(Long courtId) {
+        return em.createQuery("""
+                        SELECT v FROM ReservationView v
+                        WHERE v.courtId = :courtId
+                        ORDER BY v.createdAt ASC
+                        """, ReservationView.class)
+                .setParameter("courtId", courtId)
+                .getResultList();
+    }
+
+    /**
+     * Retrieves future reservations for a customer by their phone number.
+     *
+     * @param phoneNumber the customer's phone number
+     * @return list of upcoming reservations, ordered by start time
+     */
+    public List<ReservationView> findFutureByPhoneNumber(String phoneNumber) {
+        return em.createQuery("""
+                        SELECT v FROM ReservationView v
+                        WHERE v.customerPhone = :phone AND v.startTime > :now
+                        ORDER BY v.startTime ASC
+                        """, ReservationView.class)
+                .setParameter("phone", phoneNumber)
+                .setParameter("now", LocalDateTime.now())
+                .getResultList();
+    }
+
+    /**
+     * Retrieves all reservations for a customer by their phone number.
+     *
+     * @param phoneNumber the customer's phone number
+     * @return list of reservations, ordered by start time
+     */
+    public List<ReservationView> findByPhoneNumber(String phoneNumber) {
+        return em.createQuery("""
+                        SELECT v FROM ReservationView v
+                        WHERE v.customerPhone = :phone
+                        ORDER BY v.startTime ASC
+                        """, ReservationView.class)
+                .setParameter("phone", phoneNumber)
+                .getResultList();
+    }
+
+    /**
+     * Checks whether the view holds a different number of rows than there are non-deleted
+     * reservations, e.g. because the reservations were written before the view existed.
+     *
+     * @return true if the view needs to be rebuilt
+     */
+    public boolean isIncomplete() {
+        long reservations = em.createQuery("SELECT count(r) FROM Reservation r WHERE r.deleted = false", Long.class)
+                .getSingleResult();
+        long rows = em.createQuery("SELECT count(v) FROM ReservationView v", Long.class)
+                .getSingleResult();
+        return reservations != rows;
+    }
+
+    /**
+     * Applies reservation changes to the view, in the caller's transaction. Created and updated
+     * reservations are copied from the persistence context, deleted ones are removed.
+     *
+     * @param changes the reservation changes
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void apply(List<ReservationChange> changes) {
+        Map<Long, String[]> courtNames = new HashMap<>();
+        List<Long> deleted = new ArrayList<>();
+        for (ReservationChange change : changes) {
+            if (change.type() == ReservationChange.Type.DELETED) {
+                deleted.add(change.reservationId());
+                continue;
+            }
+            Reservation reservation = em.find(Reservation.class, change.reservationId());
+            ReservationView view = change.type() == ReservationChange.Type.CREATED
+                    ? null
+                    : em.find(ReservationView.class, change.reservationId());
+            if (view == null) {
+                view = new ReservationView();
+                copy(reservation, view, courtNames);
+                em.persist(view);
+            } else {
+                copy(reservation, view, courtNames);
+            }
+        }
+        delete(deleted);
+    }
+
+    /**
+     * Copies the new name and surface type of a court into its reservations, in the caller's transaction.
+     *
+     * @param court the saved court
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void updateCourt(Court court) {
+        String[] names = courtNames(court.getId(), new HashMap<>());
+        em.createQuery("""
+                        UPDATE ReservationView v SET v.courtName = :courtName, v.surfaceName = :surfaceName
+                        WHERE v.courtId = :courtId
+                        """)
+                .setParameter("courtName", names[0])
+                .setParameter("surfaceName", names[1])
+                .setParameter("courtId", court.getId())
+                .executeUpdate();
+    }
+
+    /**
+     * Copies the new name of a surface type into the reservations on its courts, in the caller's transaction.
+     *
+     * @param surfaceType the saved surface type
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void updateSurfaceType(SurfaceType surfaceType) {
+        em.createQuery("""
+                        UPDATE ReservationView v SET v.surfaceName = :name
+                        WHERE v.courtId IN (SELECT c.id FROM Court c WHERE c.surfaceTypeId = :surfaceTypeId)
+                        """)
+                .setParameter("name", surfaceType.getName())
+                .setParameter("surfaceTypeId", surfaceType.getId())
+                .executeUpdate();
+    }
+
+    /**
+     * Copies the new name and phone number of a customer into their reservations, in the caller's transaction.
+     *
+     * @param customer the saved customer
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void updateCustomer(Customer customer) {
+        em.createQuery("""
+                        UPDATE ReservationView v SET v.customerName = :name, v.customerPhone = :phone
+                        WHERE v.customerId = :customerId
+                        """)
+                .setParameter("name", customer.getName())
+                .setParameter("phone", customer.getPhoneNumber())
+                .setParameter("customerId", customer.getId())
+                .executeUpdate();
+    }
+
+    /**
+     * Regenerates the rows of the reservations with IDs in the given range from the reservation
+     * table, in the caller's transaction.
+     *
+     * @param fromId the lowest ID, inclusive
+     * @param toId   the highest ID, inclusive
+     * @return the number of rows written
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public int rebuildRange(long fromId, long toId) {
+        em.createQuery("DELETE FROM ReservationView v WHERE v.id BETWEEN :fromId AND :toId")
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+        List<Reservation> reservations = em.createQuery("""
+                        SELECT r FROM Reservation r JOIN FETCH r.customer
+                        WHERE r.deleted = false AND r.id BETWEEN :fromId AND :toId
+                        """, Reservation.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+        Map<Long, String[]> courtNames = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            ReservationView view = new ReservationView();
+            copy(reservation, view, courtNames);
+            em.persist(view);
+        }
+        return reservations.size();
+    }
+
+    private void delete(List<Long> ids) {
+        for (int i = 0; i < ids.size(); i += BULK_DELETE_SIZE) {
+            em.createQuery("DELETE FROM ReservationView v WHERE v.id IN :ids")
+                    .setParameter("ids", ids.subList(i, Math.min(i + BULK_DELETE_SIZE, ids.size())))
+                    .executeUpdate();
+        }
+    }
+
+    private void copy(Reservation reservation, ReservationView view, Map<Long, String[]> courtNames) {
+        view.copyReservation(reservation);
+        String[] names = courtNames(reservation.getCourtId(), courtNames);
+        view.copyCourt(names[0], names[1]);
+    }
+
+    /**
+     * Looks up the names of a court and its surface type, remembering them for the rest of a write.
+     */
+    private String[] courtNames(Long courtId, Map<Long, String[]> cache) {
+        return cache.computeIfAbsent(courtId, id -> {
+            Court court = em.find(Court.class, id);
+            if (court == null) {
+                return new String[2];
+            }
+            SurfaceType surface = em.find(SurfaceType.class, court.getSurfaceTypeId());
+            return new String[]{court.getName(), surface != null ? surface.getName() : null};
+        });
+    }
+}
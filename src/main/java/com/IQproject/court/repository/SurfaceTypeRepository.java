@@ -1,5 +1,6 @@
 package com.IQproject.court.repository;
 
+import com.IQproject.court.model.ChangeLogEntry;
 import com.IQproject.court.model.SurfaceType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -10,6 +11,8 @@ import java.util.List;
 
 /**
  * Repository for managing {@link SurfaceType} entities.
+ * Every write is recorded in the {@link ChangeLogRepository change log}, and renames are copied
+ * into the {@link ReservationViewRepository reservation view}.
  *
  * @author Vojtech Zednik
  */
@@ -19,6 +22,20 @@ public class SurfaceTypeRepository {
     @PersistenceContext
     private EntityManager em;
 
+    private final ChangeLogRepository changeLog;
+    private final ReservationViewRepository reservationView;
+
+    /**
+     * Constructs a new SurfaceTypeRepository.
+     *
+     * @param changeLog       change log recording every write
+     * @param reservationView read model holding the surface names of reservations
+     */
+    public SurfaceTypeRepository(ChangeLogRepository changeLog, ReservationViewRepository reservationView) {
+        this.changeLog = changeLog;
+        this.reservationView = reservationView;
+    }
+
     /**
      * Retrieves all surface types that are not marked as deleted.
      *
@@ -49,11 +66,15 @@ public class SurfaceTypeRepository {
      */
     @Transactional
     public SurfaceType save(SurfaceType surfaceType) {
+        SurfaceType saved = surfaceType;
         if (surfaceType.getId() == null) {
             em.persist(surfaceType);
-            return surfaceType;
+        } else {
+            saved = em.merge(surfaceType);
+            reservationView.updateSurfaceType(saved);
         }
-        return em.merge(surfaceType);
+        log(saved);
+        return saved;
     }
 
     /**
@@ -67,7 +88,12 @@ public class SurfaceTypeRepository {
         SurfaceType surfaceType = em.find(SurfaceType.class, id);
         if (surfaceType != null && !surfaceType.isDeleted()) {
             surfaceType.setDeleted(true);
-            em.merge(surfaceType);
+            log(em.merge(surfaceType));
         }
     }
+
+    private void log(SurfaceType surfaceType) {
+        changeLog.append(ChangeLogEntry.EntityType.SURFACE_TYPE, surfaceType.getId(), null,
+                surfaceType.getTenantId());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.model.UsageRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for managing {@link UsageRollup} entities.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class UsageRollupRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Retrieves all rollups.
+     *
+     * @return list of all rollups
+     */
+    public List<UsageRollup> findAll() {
+        return em.createQuery("SELECT u FROM UsageRollup u", UsageRollup.class).getResultList();
+    }
+
+    /**
+     * Retrieves the rollup of a bucket.
+     *
+     * @param period      the length of the bucket
+     * @param dimension   what the rollup is aggregated by
+     * @param dimensionId the ID of the court or surface type
+     * @param bucketStart the start of the bucket
+     * @return the rollup, or null if nothing was stored for the bucket
+     */
+    public UsageRollup find(UsageRollup.Period period, UsageRollup.Dimension dimension, Long dimensionId,
+                            LocalDateTime bucketStart) {
+        return em.createQuery("""
+                        SELECT u FROM UsageRollup u
+                        WHERE u.period = :period AND u.dimension = :dimension
+                        AND u.dimensionId = :dimensionId AND u.bucketStart = :bucketStart
+                        """, UsageRollup.class)
+                .setParameter("period", period)
+                .setParameter("dimension", dimension)
+                .setParameter("dimensionId", dimensionId)
+                .setParameter("bucketStart", bucketStart)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Tells whether no rollup is stored.
+     *
+     * @return true if the table is empty
+     */
+    public boolean isEmpty() {
+        return em.createQuery("SELECT u.id FROM UsageRollup u", Long.class)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Adds the given deltas to the stored rollups of their buckets, inserting the buckets not stored yet.
+     * Each stored row is incremented by a single update, so concurrent writers do not lose each other's deltas.
+     *
+     * @param deltas the changes of the rollups
+     */
+    @Transactional
+    public void addAll(Collection<UsageRollup> deltas) {
+        for (UsageRollup delta : deltas) {
+            int updated = em.createQuery("""
+                            UPDATE UsageRollup u
+                            SET u.reservationCount = u.reservationCount + :reservationCount,
+                                u.occupiedMinutes = u.occupiedMinutes + :occupiedMinutes,
+                                u.revenue = u.revenue + :revenue
+                            WHERE u.period = :period AND u.dimension = :dimension
+                            AND u.dimensionId = :dimensionId AND u.bucketStart = :bucketStart
+                            """)
+                    .setParameter("reservationCount", delta.getReservationCount())
+                    .setParameter("occupiedMinutes", delta.getOccupiedMinutes())
+                    .setParameter("revenue", delta.getRevenue())
+                    .setParameter("period", delta.getPeriod())
+                    .setParameter("dimension", delta.getDimension())
+                    .setParameter("dimensionId", delta.getDimensionId())
+                    .setParameter("bucketStart", delta.getBucketStart())
+                    .executeUpdate();
+            if (updated == 0) {
+                em.persist(delta);
+            }
+        }
+    }
+
+    /**
+     * Replaces all stored rollups with the given ones in a single transaction.
+     *
+     * @param rollups the new rollups
+     */
+    @Transactional
+    public void replaceAll(Collection<UsageRollup> rollups) {
+        em.createQuery("DELETE FROM UsageRollup").executeUpdate();
+        for (UsageRollup rollup : rollups) {
+            em.persist(rollup);
+        }
+    }
+}
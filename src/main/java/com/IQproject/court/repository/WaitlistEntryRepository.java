@@ -0,0 +1,85 @@
+package com.IQproject.court.repository;
+
+import com.IQproject.court.model.WaitlistEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for managing {@link WaitlistEntry} entities.
+ *
+ * @author Vojtech Zednik
+ */
+@Repository
+public class WaitlistEntryRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Finds a waitlist entry by its ID.
+     *
+     * @param id the entry ID
+     * @return the entry, or null if not found
+     */
+    public WaitlistEntry findById(Long id) {
+        return em.find(WaitlistEntry.class, id);
+    }
+
+    /**
+     * Finds a waitlist entry by its ID and locks it for writing until the current transaction ends.
+     *
+     * @param id the entry ID
+     * @return the locked entry, or null if not found
+     */
+    public WaitlistEntry lockById(Long id) {
+        return em.find(WaitlistEntry.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * Retrieves the waiting entries of a court whose slots overlap the given interval, oldest first.
+     * The start time is bounded on both sides, so the lookup is a range scan of the
+     * (courtId, startTime) index.
+     *
+     * @param courtId       the court ID
+     * @param start         the start of the interval
+     * @param end           the end of the interval
+     * @param earliestStart entries starting before this time are ignored
+     * @return list of waiting entries, ordered by creation time
+     */
+    public List<WaitlistEntry> findWaiting(Long courtId, LocalDateTime start, LocalDateTime end,
+                                           LocalDateTime earliestStart) {
+        return em.createQuery("""
+                        SELECT w FROM WaitlistEntry w
+                        WHERE w.courtId = :courtId AND w.status = :waiting
+                        AND w.startTime >= :earliestStart AND w.startTime < :end AND w.endTime > :start
+                        ORDER BY w.createdAt ASC, w.id ASC
+                        """, WaitlistEntry.class)
+                .setParameter("courtId", courtId)
+                .setParameter("waiting", WaitlistEntry.Status.WAITING)
+                .setParameter("earliestStart", earliestStart)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    /**
+     * Saves a new or existing waitlist entry.
+     *
+     * @param entry the entry to save
+     * @return the managed entry
+     */
+    @Transactional
+    public WaitlistEntry save(WaitlistEntry entry) {
+        if (entry.getId() == null) {
+            em.persist(entry);
+            return entry;
+        }
+        return em.merge(entry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Admission control for the booking and customer lookup endpoints.
+ * <p>
+ * Each phone number of a tenant and each client IP has its own lock-free {@link TokenBucket};
+ * a client that runs out of tokens is rejected with 429. A global semaphore caps the number of
+ * bookings processed at once and sheds excess load with 503. Rejections are counted in the
+ * {@code admission.rejections} metric, tagged by the limit that was hit.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class AdmissionControl {
+    private static final long CONCURRENCY_RETRY_AFTER_SECONDS = 1;
+
+    private final AppConfig.Admission settings;
+    private final Map<String, TokenBucket> phoneBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Semaphore bookingPermits;
+
+    private final Counter phoneRejections;
+    private final Counter ipRejections;
+    private final Counter concurrencyRejections;
+
+    /**
+     * Constructs a new AdmissionControl.
+     *
+     * @param config        application configuration holding the limits
+     * @param meterRegistry registry for rejection metrics
+     */
+    public AdmissionControl(AppConfig config, MeterRegistry meterRegistry) {
+        this.settings = config.getAdmission();
+        this.bookingPermits = new Semaphore(settings.getMaxConcurrentBookings());
+        this.phoneRejections = rejections(meterRegistry, "phone");
+        this.ipRejections = rejections(meterRegistry, "ip");
+        this.concurrencyRejections = rejections(meterRegistry, "concurrency");
+        Gauge.builder("admission.bookings.active", bookingPermits,
+                        permits -> settings.getMaxConcurrentBookings() - permits.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from the bucket of a phone number at the current tenant.
+     *
+     * @param phone the customer's phone number
+     * @throws AdmissionRejectedException with 429 if the phone number exceeded its rate limit
+     */
+    public void checkPhone(String phone) {
+        if (phone != null) {
+            check(phoneBuckets, TenantContext.current() + ":" + phone, settings.getPhoneBurst(), settings.getPhonePerMinute(), phoneRejections);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of a client IP address.
+     *
+     * @param ip the client IP address
+     * @throws AdmissionRejectedException with 429 if the client exceeded its rate limit
+     */
+    public void checkClient(String ip) {
+        if (ip != null) {
+            check(ipBuckets, ip, settings.getIpBurst(), settings.getIpPerMinute(), ipRejections);
+        }
+    }
+
+    /**
+     * Acquires a booking permit without waiting. Must be paired with {@link #exitBooking()}.
+     *
+     * @throws AdmissionRejectedException with 503 if the concurrency limit is reached
+     */
+    public void enterBooking() {
+        if (!bookingPermits.tryAcquire()) {
+            concurrencyRejections.increment();
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, CONCURRENCY_RETRY_AFTER_SECONDS,
+                    "Too many bookings in progress, please retry");
+        }
+    }
+
+    /**
+     * Releases a permit acquired by {@link #enterBooking()}.
+     */
+    public void exitBooking() {
+        bookingPermits.release();
+    }
+
+    /**
+     * Returns whether admission control is enabled.
+     *
+     * @return true if limits are enforced
+     */
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Drops buckets that are full again, so idle clients do not accumulate in memory.
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        phoneBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private static void check(Map<String, TokenBucket> buckets, String key, int burst, int perMinute, Counter rejections) {
+        long now = System.nanoTime();
+        long waitNanos = buckets.computeIfAbsent(key, k -> new TokenBucket(burst, perMinute, now)).tryConsume(now);
+        if (waitNanos > 0) {
+            rejections.increment();
+            long retryAfter = Math.max(1, (waitNanos + Duration.ofSeconds(1).toNanos() - 1) / Duration.ofSeconds(1).toNanos());
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Rate limit exceeded");
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("admission.rejections")
+                .description("Requests rejected by admission control")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,406 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.UsageRollup;
+import com.IQproject.court.model.UsageRollup.Dimension;
+import com.IQproject.court.model.UsageRollup.Period;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.UsageRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Service maintaining revenue and occupancy rollups per court and surface type by hour, day and month.
+ * <p>
+ * The rollups are stored in the {@code usage_rollup} table, so a dashboard query is a single indexed
+ * lookup. Only confirmed reservations are counted; holds start counting once they are confirmed.
+ * Committed {@link ReservationChangedEvent}s carry the previous state of each reservation, so a change
+ * subtracts what the reservation counted before and adds what it counts now. These deltas are kept in
+ * memory and added to the stored rollups every {@value #FLUSH_MILLIS} ms; queries add the deltas not
+ * written yet. Every instance writes the deltas of its own changes, so the table sums up all instances.
+ * <p>
+ * On startup the history is aggregated by a fork-join scan over reservation ID ranges only if no
+ * rollups are stored; {@link #backfill()} rebuilds them on request.
+ * Rollups are kept per tenant, so a club never sees the usage of another club's courts.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class AnalyticsService {
+    private static final long FLUSH_MILLIS = 30_000;
+    private static final int SLICE_SIZE = 2048;
+    private static final int MAX_BACKFILL_THREADS = 4;
+
+    private final ReservationRepository reservationRepository;
+    private final CourtRepository courtRepository;
+    private final UsageRollupRepository rollupRepository;
+    private final TenantRegistry tenants;
+    private final Map<Key, Totals> pending = new HashMap<>();
+    private final Map<Key, Totals> flushing = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private record Key(String tenant, Period period, Dimension dimension, long dimensionId,
+                       LocalDateTime bucketStart) {
+    }
+
+    private record Totals(long reservations, long minutes, BigDecimal revenue) {
+        private static final Totals ZERO = new Totals(0, 0, BigDecimal.ZERO);
+
+        private Totals plus(Totals other) {
+            return new Totals(reservations + other.reservations, minutes + other.minutes,
+                    revenue.add(other.revenue));
+        }
+
+        private boolean isZero() {
+            return reservations == 0 && minutes == 0 && revenue.signum() == 0;
+        }
+    }
+
+    /**
+     * What a single reservation adds to the rollups.
+     */
+    private record Contribution(String tenant, long courtId, Long surfaceTypeId, LocalDateTime start,
+                                LocalDateTime end, BigDecimal price, int sign) {
+    }
+
+    /**
+     * Aggregates the reservations in an ID range, splitting it until slices are small enough to load at once.
+     * Slices are loaded as the tenant that started the backfill.
+     */
+    private final class BackfillTask extends RecursiveTask<Map<Key, Totals>> {
+        private final String tenant;
+        private final long fromId;
+        private final long toId;
+        private final Map<Long, Long> surfaceTypeIds;
+
+        private BackfillTask(String tenant, long fromId, long toId, Map<Long, Long> surfaceTypeIds) {
+            this.tenant = tenant;
+            this.fromId = fromId;
+            this.toId = toId;
+            this.surfaceTypeIds = surfaceTypeIds;
+        }
+
+        @Override
+        protected Map<Key, Totals> compute() {
+            if (toId - fromId < SLICE_SIZE) {
+                Map<Key, Totals> totals = new HashMap<>();
+                for (Reservation reservation : TenantContext.call(tenant,
+                        () -> reservationRepository.findByIdRange(fromId, toId))) {
+                    if (reservation.getStatus() == Reservation.Status.CONFIRMED) {
+                        forEachDelta(new Contribution(reservation.getTenantId(), reservation.getCourtId(),
+                                        surfaceTypeIds.get(reservation.getCourtId()), reservation.getStartTime(),
+                                        reservation.getEndTime(), reservation.getPrice(), 1),
+                                (key, delta) -> totals.merge(key, delta, Totals::plus));
+                    }
+                }
+                return totals;
+            }
+            long middle = (fromId + toId) >>> 1;
+            BackfillTask left = new BackfillTask(tenant, fromId, middle, surfaceTypeIds);
+            left.fork();
+            Map<Key, Totals> right = new BackfillTask(tenant, middle + 1, toId, surfaceTypeIds).compute();
+            Map<Key, Totals> totals = left.join();
+            right.forEach((key, value) -> totals.merge(key, value, Totals::plus));
+            return totals;
+        }
+    }
+
+    /**
+     * Constructs a new AnalyticsService.
+     *
+     * @param reservationRepository the reservation repository scanned by the backfill
+     * @param courtRepository       the court repository resolving surface types
+     * @param rollupRepository      the repository storing rollups
+     * @param tenants               the configured tenants, whose history is aggregated
+     */
+    public AnalyticsService(ReservationRepository reservationRepository,
+                            CourtRepository courtRepository,
+                            UsageRollupRepository rollupRepository,
+                            TenantRegistry tenants) {
+        this.reservationRepository = reservationRepository;
+        this.courtRepository = courtRepository;
+        this.rollupRepository = rollupRepository;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Aggregates the history of the tenants whose rollups are not stored yet.
+     */
+    @PostConstruct
+    public void init() {
+        flushLock.lock();
+        lock.lock();
+        try (ForkJoinPool pool = newBackfillPool()) {
+            tenants.forEach(() -> {
+                if (rollupRepository.isEmpty()) {
+                    rebuild(pool);
+                }
+            });
+        } finally {
+            lock.unlock();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds all rollups from the stored reservations and replaces the stored rollups with them.
+     * Deltas not written yet are dropped, as the scan includes their changes. Changes committed while
+     * the scan runs are applied once it has finished and may be counted twice, so a rebuild is meant
+     * for repairs rather than for regular use.
+     */
+    public void backfill() {
+        flushLock.lock();
+        lock.lock();
+        try (ForkJoinPool pool = newBackfillPool()) {
+            pending.clear();
+            tenants.forEach(() -> rebuild(pool));
+        } finally {
+            lock.unlock();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Applies committed reservation changes to the rollups.
+     *
+     * @param event the committed event
+     */
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        List<Contribution> contributions = new ArrayList<>();
+        for (ReservationChange change : event.changes()) {
+            ReservationChange.Previous previous = change.previous();
+            if (previous != null && previous.status() == Reservation.Status.CONFIRMED) {
+                contributions.add(new Contribution(change.tenantId(), previous.courtId(),
+                        surfaceTypeOf(previous.courtId()), previous.startTime(), previous.endTime(),
+                        previous.price(), -1));
+            }
+            if (change.isConfirmed()) {
+                contributions.add(new Contribution(change.tenantId(), change.courtId(),
+                        surfaceTypeOf(change.courtId()), change.startTime(), change.endTime(), change.price(), 1));
+            }
+        }
+        if (contributions.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (Contribution contribution : contributions) {
+                forEachDelta(contribution, (key, delta) -> pending.merge(key, delta, (current, change) -> {
+                    Totals sum = current.plus(change);
+                    return sum.isZero() ? null : sum;
+                }));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the usage of a court of the current tenant in the hour, day or month containing the given time.
+     *
+     * @param courtId the court ID
+     * @param period  the length of the bucket
+     * @param at      any time within the bucket
+     * @return the usage, with zero counts if the court was not used
+     */
+    public UsageRollup getCourtUsage(Long courtId, Period period, LocalDateTime at) {
+        return usage(new Key(TenantContext.current(), period, Dimension.COURT, courtId, bucketStart(period, at)));
+    }
+
+    /**
+     * Returns the usage of all courts of a surface type of the current tenant in the hour, day or month
+     * containing the given time.
+     *
+     * @param surfaceTypeId the surface type ID
+     * @param period        the length of the bucket
+     * @param at            any time within the bucket
+     * @return the usage, with zero counts if no court of the surface type was used
+     */
+    public UsageRollup getSurfaceTypeUsage(Long surfaceTypeId, Period period, LocalDateTime at) {
+        return usage(new Key(TenantContext.current(), period, Dimension.SURFACE_TYPE, surfaceTypeId,
+                bucketStart(period, at)));
+    }
+
+    /**
+     * Adds the deltas collected since the last write to the stored rollups.
+     * If the write fails, the deltas not written are retried with the next flush.
+     */
+    @Scheduled(fixedDelay = FLUSH_MILLIS)
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Key, Totals> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                flushing.putAll(pending);
+                pending.clear();
+                batch = Map.copyOf(flushing);
+            } finally {
+                lock.unlock();
+            }
+            try {
+                tenants.forEach(() -> {
+                    List<Key> stored = storedHere(batch.keySet());
+                    if (!stored.isEmpty()) {
+                        rollupRepository.addAll(toRollups(stored, batch));
+                        lock.lock();
+                        try {
+                            stored.forEach(flushing::remove);
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    flushing.forEach((key, delta) -> pending.merge(key, delta, Totals::plus));
+                    flushing.clear();
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Scans the reservations visible to the current tenant and replaces the rollups stored here with the result.
+     */
+    private void rebuild(ForkJoinPool pool) {
+        Map<Key, Totals> history = Map.of();
+        long[] bounds = reservationRepository.findIdBounds();
+        if (bounds.length == 2) {
+            history = pool.invoke(new BackfillTask(TenantContext.current(), bounds[0], bounds[1],
+                    courtRepository.findAllSurfaceTypeIds()));
+        }
+        rollupRepository.replaceAll(toRollups(history.keySet(), history));
+    }
+
+    private static ForkJoinPool newBackfillPool() {
+        return new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), MAX_BACKFILL_THREADS));
+    }
+
+    private UsageRollup usage(Key key) {
+        UsageRollup stored = rollupRepository.find(key.period(), key.dimension(), key.dimensionId(),
+                key.bucketStart());
+        Totals value = stored == null ? Totals.ZERO : new Totals(stored.getReservationCount(),
+                stored.getOccupiedMinutes(), stored.getRevenue());
+        lock.lock();
+        try {
+            value = value.plus(flushing.getOrDefault(key, Totals.ZERO)).plus(pending.getOrDefault(key, Totals.ZERO));
+        } finally {
+            lock.unlock();
+        }
+        return toRollup(key, value);
+    }
+
+    private Long surfaceTypeOf(long courtId) {
+        Court court = courtRepository.findById(courtId);
+        return court != null ? court.getSurfaceTypeId() : null;
+    }
+
+    /**
+     * Returns the keys whose rollups are stored in the schema of the current tenant; all of them for
+     * {@link TenantContext#ROOT}, which works in the shared schema.
+     */
+    private static List<Key> storedHere(Collection<Key> keys) {
+        String tenant = TenantContext.current();
+        if (TenantContext.ROOT.equals(tenant)) {
+            return List.copyOf(keys);
+        }
+        return keys.stream().filter(key -> key.tenant().equals(tenant)).toList();
+    }
+
+    private static List<UsageRollup> toRollups(Collection<Key> keys, Map<Key, Totals> totals) {
+        List<UsageRollup> rollups = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            rollups.add(toRollup(key, totals.get(key)));
+        }
+        return rollups;
+    }
+
+    private static UsageRollup toRollup(Key key, Totals value) {
+        UsageRollup rollup = new UsageRollup(key.period(), key.dimension(), key.dimensionId(), key.bucketStart(),
+                value.reservations(), value.minutes(), value.revenue());
+        rollup.setTenantId(key.tenant());
+        return rollup;
+    }
+
+    /**
+     * Emits the changes a reservation makes to each bucket it touches: one reservation and its price in the
+     * bucket it starts in, and its minutes in every bucket it overlaps.
+     */
+    private static void forEachDelta(Contribution contribution, BiConsumer<Key, Totals> consumer) {
+        int sign = contribution.sign();
+        BigDecimal price = contribution.price() != null ? contribution.price() : BigDecimal.ZERO;
+        Totals started = new Totals(sign, 0, sign < 0 ? price.negate() : price);
+        for (Period period : Period.values()) {
+            LocalDateTime first = bucketStart(period, contribution.start());
+            emit(period, contribution, first, started, consumer);
+            for (LocalDateTime bucket = first; bucket.isBefore(contribution.end()); bucket = next(period, bucket)) {
+                LocalDateTime from = bucket.isAfter(contribution.start()) ? bucket : contribution.start();
+                LocalDateTime next = next(period, bucket);
+                LocalDateTime to = next.isBefore(contribution.end()) ? next : contribution.end();
+                long minutes = Duration.between(from, to).toMinutes();
+                if (minutes > 0) {
+                    emit(period, contribution, bucket, new Totals(0, sign * minutes, BigDecimal.ZERO), consumer);
+                }
+            }
+        }
+    }
+
+    private static void emit(Period period, Contribution contribution, LocalDateTime bucket, Totals delta,
+                             BiConsumer<Key, Totals> consumer) {
+        consumer.accept(new Key(contribution.tenant(), period, Dimension.COURT, contribution.courtId(), bucket), delta);
+        if (contribution.surfaceTypeId() != null) {
+            consumer.accept(new Key(contribution.tenant(), period, Dimension.SURFACE_TYPE, contribution.surfaceTypeId(),
+                    bucket), delta);
+        }
+    }
+
+    private static LocalDateTime bucketStart(Period period, LocalDateTime time) {
+        return switch (period) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDateTime next(Period period, LocalDateTime bucketStart) {
+        return switch (period) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,216 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.event.AvailabilityDelta;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans out committed reservation changes to Server-Sent Events subscribers.
+ * <p>
+ * Deltas are stored in a bounded ring buffer with a global sequence number. Each subscriber
+ * reads from its own cursor, so a slow client never blocks publishing or other clients; when a
+ * client falls behind by more than the buffer size, the oldest deltas are dropped for it and it
+ * receives a {@code gap} event telling it to reload the calendar. Clients resume after a
+ * reconnect by sending the last received sequence number as {@code Last-Event-ID}. Subscribers
+ * only receive the deltas of their own tenant.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class AvailabilityEventHub {
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final AtomicReferenceArray<Published> ring;
+    private final int mask;
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile long head;
+
+    private final Executor executor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private record Published(String tenant, AvailabilityDelta delta) {
+    }
+
+    /**
+     * A range of buffered deltas returned to a reader.
+     *
+     * @param deltas the deltas after the requested position, oldest first
+     * @param gap    true if deltas the reader had not seen were already dropped
+     * @param last   the sequence number the reader has now caught up to
+     */
+    public record Batch(List<AvailabilityDelta> deltas, boolean gap, long last) {
+    }
+
+    /**
+     * Constructs a new AvailabilityEventHub.
+     *
+     * @param config   application configuration holding the buffer size
+     * @param executor executor used to write to subscribers, separate from the service executor
+     *                 as writes block while a client is slow
+     */
+    public AvailabilityEventHub(AppConfig config, @Qualifier("sseExecutor") Executor executor) {
+        int capacity = Integer.highestOneBit(Math.max(2, config.getEventBufferSize() - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.executor = executor;
+    }
+
+    /**
+     * Publishes committed reservation changes to all subscribers.
+     *
+     * @param event the committed event
+     */
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        publishLock.lock();
+        try {
+            long seq = head;
+            for (ReservationChange change : event.changes()) {
+                seq++;
+                ring.set((int) (seq & mask), new Published(change.tenantId(), new AvailabilityDelta(seq,
+                        change.type(), change.reservationId(), change.courtId(), change.startTime(), change.endTime())));
+            }
+            head = seq;
+        } finally {
+            publishLock.unlock();
+        }
+        subscribers.forEach(Subscriber::signal);
+    }
+
+    /**
+     * Returns the buffered deltas of the current tenant after the given sequence number.
+     *
+     * @param after   the last sequence number already seen by the reader
+     * @param courtId court to filter on, or null for all courts
+     * @return the deltas and whether some were dropped
+     */
+    public Batch readAfter(long after, Long courtId) {
+        return readAfter(after, TenantContext.current(), courtId);
+    }
+
+    private Batch readAfter(long after, String tenant, Long courtId) {
+        long last = head;
+        long oldest = Math.max(1, last - mask);
+        boolean gap = after > last || after + 1 < oldest;
+        long from = gap ? oldest : after + 1;
+
+        List<AvailabilityDelta> deltas = new ArrayList<>();
+        for (long seq = from; seq <= last; seq++) {
+            Published published = ring.get((int) (seq & mask));
+            if (published == null || published.delta().seq() != seq) {
+                gap = true;
+                continue;
+            }
+            AvailabilityDelta delta = published.delta();
+            if (tenant.equals(published.tenant()) && (courtId == null || courtId.equals(delta.courtId()))) {
+                deltas.add(delta);
+            }
+        }
+        return new Batch(deltas, gap, last);
+    }
+
+    /**
+     * Opens an event stream for one court or for all courts of the current tenant.
+     *
+     * @param courtId     the court to stream, or null for all courts
+     * @param lastEventId the {@code Last-Event-ID} sent by a reconnecting client, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long courtId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        long cursor = head;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                cursor = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Last-Event-ID must be a number");
+            }
+        }
+        Subscriber subscriber = new Subscriber(emitter, TenantContext.current(), courtId, cursor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return emitter;
+    }
+
+    /**
+     * Returns the number of connected subscribers.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String tenant;
+        private final Long courtId;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long cursor;
+
+        private Subscriber(SseEmitter emitter, String tenant, Long courtId, long cursor) {
+            this.emitter = emitter;
+            this.tenant = tenant;
+            this.courtId = courtId;
+            this.cursor = cursor;
+        }
+
+        private void signal() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                while (cursor != head) {
+                    if (!send(readAfter(cursor, tenant, courtId))) {
+                        return;
+                    }
+                }
+                scheduled.set(false);
+            } while (cursor != head && scheduled.compareAndSet(false, true));
+        }
+
+        private boolean send(Batch batch) {
+            try {
+                if (batch.gap()) {
+                    emitter.send(SseEmitter.event().name("gap").data(batch.last()));
+                }
+                for (AvailabilityDelta delta : batch.deltas()) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(delta.seq()))
+                            .name(delta.type().name().toLowerCase())
+                            .data(delta, MediaType.APPLICATION_JSON));
+                }
+                cursor = batch.last();
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
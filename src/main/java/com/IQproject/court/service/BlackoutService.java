@@ -0,0 +1,311 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.RemoteChangeEvent;
+import com.IQproject.court.model.Blackout;
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.repository.BlackoutRepository;
+import com.IQproject.court.repository.CourtRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service managing court blackout windows.
+ * <p>
+ * All windows are kept in memory per court, so checking them adds no database query to booking.
+ * One-off windows are held in a {@link CourtSchedule}; recurring windows are checked arithmetically,
+ * finding the first occurrence that could intersect an interval in constant time. Occurrences are
+ * returned as {@link CourtSchedule.Slot}s with negated blackout IDs, so they can be merged into
+ * reservation schedules. Readers take no lock; changes replace the snapshot of a court. The windows
+ * of a court changed by another instance are reloaded from the database.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class BlackoutService {
+    private static final CourtBlackouts NONE = new CourtBlackouts(CourtSchedule.empty(), List.of());
+
+    private final BlackoutRepository blackoutRepository;
+    private final CourtRepository courtRepository;
+    private final TenantRegistry tenants;
+    private final Map<Long, CourtBlackouts> byCourt = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * A window repeating every {@code periodDays} days, with occurrences numbered from 0.
+     */
+    private record Recurring(long id, LocalDateTime first, Duration length, long periodDays, long lastIndex) {
+
+        /**
+         * Returns the index of the first occurrence ending after the time.
+         */
+        private long firstEndingAfter(LocalDateTime time) {
+            long periodSeconds = periodDays * 24 * 60 * 60;
+            long sinceFirstEnd = Duration.between(first.plus(length), time).getSeconds();
+            return Math.max(0, Math.floorDiv(sinceFirstEnd, periodSeconds) + 1);
+        }
+
+        private LocalDateTime start(long index) {
+            return first.plusDays(index * periodDays);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the blackout windows of one court.
+     */
+    private record CourtBlackouts(CourtSchedule oneOff, List<Recurring> recurring) {
+
+        private boolean isFree(LocalDateTime start, LocalDateTime end) {
+            if (!oneOff.isFree(start, end, null)) {
+                return false;
+            }
+            for (Recurring window : recurring) {
+                long index = window.firstEndingAfter(start);
+                if (index <= window.lastIndex() && window.start(index).isBefore(end)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private CourtBlackouts without(long id) {
+            return new CourtBlackouts(oneOff.without(id),
+                    recurring.stream().filter(window -> window.id() != id).toList());
+        }
+    }
+
+    /**
+     * Constructs a new BlackoutService.
+     *
+     * @param blackoutRepository the blackout repository
+     * @param courtRepository    the court repository
+     * @param tenants            the configured tenants, whose windows are loaded
+     */
+    public BlackoutService(BlackoutRepository blackoutRepository, CourtRepository courtRepository,
+                           TenantRegistry tenants) {
+        this.blackoutRepository = blackoutRepository;
+        this.courtRepository = courtRepository;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Loads the blackout windows of all tenants into memory.
+     */
+    @PostConstruct
+    public void load() {
+        lock.lock();
+        try {
+            Map<Long, CourtBlackouts> loaded = new HashMap<>();
+            for (Blackout blackout : tenants.collect(blackoutRepository::findAll)) {
+                loaded.put(blackout.getCourtId(), with(loaded.getOrDefault(blackout.getCourtId(), NONE), blackout));
+            }
+            byCourt.clear();
+            byCourt.putAll(loaded);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the windows of the courts whose windows other instances changed.
+     *
+     * @param event the remote changes
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        if (event.reset()) {
+            load();
+            return;
+        }
+        for (Long courtId : new TreeSet<>(event.changesOf(ChangeLogEntry.EntityType.BLACKOUT).stream()
+                .map(ChangeLogEntry::getCourtId).toList())) {
+            lock.lock();
+            try {
+                CourtBlackouts reloaded = NONE;
+                for (Blackout blackout : blackoutRepository.findByCourtId(courtId)) {
+                    reloaded = with(reloaded, blackout);
+                }
+                byCourt.put(courtId, reloaded);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the blackout windows of a court.
+     *
+     * @param courtId the court ID
+     * @return list of blackout windows, ordered by start time
+     */
+    public List<Blackout> getBlackoutsByCourtId(Long courtId) {
+        return blackoutRepository.findByCourtId(courtId);
+    }
+
+    /**
+     * Creates a blackout window. Existing reservations in the window are kept. Inside a transaction,
+     * the window applies at once and is dropped again if the transaction rolls back.
+     *
+     * @param blackout the blackout window to create
+     * @return the created blackout window
+     * @throws IllegalArgumentException if the court does not exist or the window is invalid
+     */
+    public Blackout createBlackout(Blackout blackout) {
+        Court court = courtRepository.findById(blackout.getCourtId());
+        if (court == null) {
+            throw new IllegalArgumentException("Court does not exist");
+        }
+        if (!blackout.getStartTime().isBefore(blackout.getEndTime())) {
+            throw new IllegalArgumentException("StartTime must be before endTime");
+        }
+        if (blackout.getRecurrence() == null) {
+            blackout.setRecurrence(Blackout.Recurrence.NONE);
+        }
+        if (blackout.getRecurrence() != Blackout.Recurrence.NONE) {
+            if (Duration.between(blackout.getStartTime(), blackout.getEndTime()).toDays() >= periodDays(blackout)) {
+                throw new IllegalArgumentException("A recurring blackout must be shorter than its period");
+            }
+            if (blackout.getRepeatUntil() != null
+                    && blackout.getRepeatUntil().isBefore(blackout.getStartTime().toLocalDate())) {
+                throw new IllegalArgumentException("RepeatUntil is before startTime");
+            }
+        }
+        blackout.setId(null);
+        blackout.setDeleted(false);
+        Blackout saved = blackoutRepository.save(blackout);
+
+        lock.lock();
+        try {
+            byCourt.put(saved.getCourtId(), with(byCourt.getOrDefault(saved.getCourtId(), NONE), saved));
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // created in the caller's transaction, which closes the court right away and may still roll back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        forget(saved);
+                    }
+                }
+            });
+        }
+        return saved;
+    }
+
+    /**
+     * Deletes a blackout window. Inside a transaction the window keeps blocking the court until the
+     * transaction commits.
+     *
+     * @param id the ID of the blackout window
+     * @return true if the window was deleted, false if it did not exist
+     */
+    public boolean deleteBlackout(Long id) {
+        Blackout deleted = blackoutRepository.softDelete(id);
+        if (deleted == null) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the deletion may still roll back, reopen the court only once it is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(deleted);
+                }
+            });
+        } else {
+            forget(deleted);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a court is open for the whole interval.
+     *
+     * @param courtId the court ID
+     * @param start   the start of the interval
+     * @param end     the end of the interval
+     * @return true if no blackout window intersects the interval
+     */
+    public boolean isFree(Long courtId, LocalDateTime start, LocalDateTime end) {
+        return byCourt.getOrDefault(courtId, NONE).isFree(start, end);
+    }
+
+    /**
+     * Returns the blackout occurrences of a court that intersect the interval, as schedule slots
+     * with negated blackout IDs.
+     *
+     * @param courtId the court ID
+     * @param from    the start of the interval
+     * @param to      the end of the interval
+     * @return the occurrences
+     */
+    public List<CourtSchedule.Slot> occurrences(Long courtId, LocalDateTime from, LocalDateTime to) {
+        CourtBlackouts blackouts = byCourt.get(courtId);
+        if (blackouts == null) {
+            return List.of();
+        }
+        List<CourtSchedule.Slot> occurrences = new ArrayList<>();
+        for (CourtSchedule.Slot slot : blackouts.oneOff().slots()) {
+            if (slot.start().isBefore(to) && slot.end().isAfter(from)) {
+                occurrences.add(new CourtSchedule.Slot(-slot.id(), slot.start(), slot.end()));
+            }
+        }
+        for (Recurring window : blackouts.recurring()) {
+            for (long index = window.firstEndingAfter(from); index <= window.lastIndex(); index++) {
+                LocalDateTime start = window.start(index);
+                if (!start.isBefore(to)) {
+                    break;
+                }
+                occurrences.add(new CourtSchedule.Slot(-window.id(), start, start.plus(window.length())));
+            }
+        }
+        return occurrences;
+    }
+
+    private void forget(Blackout blackout) {
+        lock.lock();
+        try {
+            CourtBlackouts current = byCourt.get(blackout.getCourtId());
+            if (current != null) {
+                byCourt.put(blackout.getCourtId(), current.without(blackout.getId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static CourtBlackouts with(CourtBlackouts current, Blackout blackout) {
+        if (blackout.getRecurrence() == Blackout.Recurrence.NONE) {
+            return new CourtBlackouts(current.oneOff().with(new CourtSchedule.Slot(blackout.getId(),
+                    blackout.getStartTime(), blackout.getEndTime())), current.recurring());
+        }
+        long periodDays = periodDays(blackout);
+        long lastIndex = blackout.getRepeatUntil() == null ? Long.MAX_VALUE
+                : ChronoUnit.DAYS.between(blackout.getStartTime().toLocalDate(), blackout.getRepeatUntil()) / periodDays;
+        List<Recurring> recurring = new ArrayList<>(current.recurring());
+        recurring.add(new Recurring(blackout.getId(), blackout.getStartTime(),
+                Duration.between(blackout.getStartTime(), blackout.getEndTime()), periodDays, lastIndex));
+        return new CourtBlackouts(current.oneOff(), List.copyOf(recurring));
+    }
+
+    private static long periodDays(Blackout blackout) {
+        return blackout.getRecurrence() == Blackout.Recurrence.WEEKLY ? 7 : 1;
+    }
+}
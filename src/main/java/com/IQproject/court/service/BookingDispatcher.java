@@ -0,0 +1,295 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.model.BookingTicket;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serializes reservation bookings per court through in-memory mailboxes.
+ * <p>
+ * Each court has a single writer: its mailbox is drained by at most one task at a time, which
+ * checks overlaps against the court's {@link CourtSchedule} and commits the accepted bookings
+ * of one drain in a single transaction. The schedule only sees bookings of this instance's
+ * mailboxes, so the transaction also locks the court row, as the other write paths do, and
+ * re-checks each booking against the database; a booking overlapping a reservation written
+ * elsewhere is rejected and the schedule is reloaded. Different courts are processed in parallel. A batch only
+ * holds bookings submitted for the same tenant and is processed as that tenant.
+ * <p>
+ * With several instances, {@link CourtLeaseService} leases make the mailbox writer single across
+ * the cluster: a batch is processed only under the court's lease and committed only if the lease
+ * was not lost meanwhile. The other write paths do not take the lease, so the fenced transaction
+ * locks the court and re-checks overlaps in the database as well. When the lease comes back after another instance held it, the court's
+ * schedule is reloaded, as it may have changed there. The lease is released once the mailbox is empty.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class BookingDispatcher {
+    private static final Duration TICKET_RETENTION = Duration.ofMinutes(10);
+    private static final int MAX_TICKETS = 10_000;
+    private static final long AWAIT_TIMEOUT_SECONDS = 30;
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final CourtRepository courtRepository;
+    private final CourtScheduleRegistry scheduleRegistry;
+    private final CourtLeaseService leaseService;
+    private final AppConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Map<String, BookingTicket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new BookingDispatcher.
+     *
+     * @param reservationService    service used to validate and price bookings
+     * @param reservationRepository repository used to re-check overlaps and commit bookings
+     * @param courtRepository       repository used to lock the court while committing
+     * @param scheduleRegistry      in-memory court schedules
+     * @param leaseService          cluster-wide court leases
+     * @param config                application configuration
+     * @param transactionManager    transaction manager for batches
+     * @param executor              executor running the mailboxes
+     */
+    public BookingDispatcher(ReservationService reservationService,
+                             ReservationRepository reservationRepository,
+                             CourtRepository courtRepository,
+                             CourtScheduleRegistry scheduleRegistry,
+                             CourtLeaseService leaseService,
+                             AppConfig config,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("serviceExecutor") Executor executor) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.courtRepository = courtRepository;
+        this.scheduleRegistry = scheduleRegistry;
+        this.leaseService = leaseService;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * Returns whether all bookings should go through the court mailboxes.
+     *
+     * @return true in {@link AppConfig.BookingMode#ACTOR} mode
+     */
+    public boolean isEnabled() {
+        return config.getBookingMode() == AppConfig.BookingMode.ACTOR;
+    }
+
+    /**
+     * Submits a reservation to its court's mailbox.
+     *
+     * @param reservation the reservation to book
+     * @return the ticket tracking the booking
+     */
+    public BookingTicket submit(Reservation reservation) {
+        evictExpiredTickets();
+        BookingTicket ticket = new BookingTicket();
+        tickets.put(ticket.getId(), ticket);
+        mailboxes.computeIfAbsent(reservation.getCourtId(), Mailbox::new)
+                .post(new Booking(reservation, ticket, TenantContext.current()));
+        return ticket;
+    }
+
+    /**
+     * Finds a ticket by its ID.
+     *
+     * @param ticketId the ticket ID
+     * @return the ticket, or null if unknown or expired
+     */
+    public BookingTicket getTicket(String ticketId) {
+        return tickets.get(ticketId);
+    }
+
+    /**
+     * Submits a reservation and waits for the booking to finish.
+     *
+     * @param reservation the reservation to book
+     * @return the created reservation
+     * @throws IllegalArgumentException if the booking was rejected
+     * @throws IllegalStateException    if the booking did not finish in time
+     */
+    public Reservation book(Reservation reservation) {
+        BookingTicket ticket = submit(reservation);
+        try {
+            return ticket.getResult().get(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Booking " + ticket.getId() + " is still pending");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void evictExpiredTickets() {
+        if (tickets.size() < MAX_TICKETS) {
+            return;
+        }
+        LocalDateTime threshold = LocalDateTime.now().minus(TICKET_RETENTION);
+        tickets.values().removeIf(t -> t.getStatus() != BookingTicket.Status.PENDING
+                && t.getSubmittedAt().isBefore(threshold));
+    }
+
+    private record Booking(Reservation reservation, BookingTicket ticket, String tenant) {
+    }
+
+    /**
+     * Mailbox of one court. At most one drain task runs at a time.
+     */
+    private final class Mailbox {
+        private final Long courtId;
+        private final Queue<Booking> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long leaseToken;
+
+        private Mailbox(Long courtId) {
+            this.courtId = courtId;
+        }
+
+        private void post(Booking booking) {
+            queue.add(booking);
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                List<Booking> batch;
+                while (!(batch = poll()).isEmpty()) {
+                    List<Booking> tenantBatch = batch;
+                    TenantContext.run(batch.getFirst().tenant(), () -> process(tenantBatch));
+                }
+                scheduled.set(false);
+            } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        private List<Booking> poll() {
+            List<Booking> batch = new ArrayList<>();
+            Booking booking;
+            while (batch.size() < config.getBookingBatchSize() && (booking = queue.peek()) != null
+                    && (batch.isEmpty() || booking.tenant().equals(batch.getFirst().tenant()))) {
+                batch.add(queue.poll());
+            }
+            return batch;
+        }
+
+        private void process(List<Booking> batch) {
+            CourtSchedule schedule;
+            long token;
+            try {
+                token = leaseService.isEnabled() ? leaseService.acquire(courtId) : 0;
+                if (token != leaseToken) {
+                    scheduleRegistry.invalidate(courtId);
+                    leaseToken = token;
+                }
+                schedule = scheduleRegistry.get(courtId);
+            } catch (RuntimeException e) {
+                batch.forEach(b -> b.ticket().getResult().completeExceptionally(e));
+                releaseIfIdle();
+                return;
+            }
+
+            List<Booking> accepted = new ArrayList<>(batch.size());
+            long pendingId = -1;
+            for (Booking booking : batch) {
+                try {
+                    Reservation reservation = reservationService.prepareReservation(booking.reservation());
+                    if (!schedule.isFree(reservation.getStartTime(), reservation.getEndTime(), null)) {
+                        throw new IllegalArgumentException("Reservation time is overlapping with another reservation");
+                    }
+                    schedule = schedule.with(new CourtSchedule.Slot(pendingId--,
+                            reservation.getStartTime(), reservation.getEndTime()));
+                    accepted.add(booking);
+                } catch (RuntimeException e) {
+                    booking.ticket().getResult().completeExceptionally(e);
+                }
+            }
+            if (accepted.isEmpty()) {
+                releaseIfIdle();
+                return;
+            }
+
+            List<Booking> stale = new ArrayList<>();
+            try {
+                List<Reservation> saved = leaseService.isEnabled()
+                        ? leaseService.callFenced(courtId, token, () -> write(accepted, stale))
+                        : transactionTemplate.execute(status -> write(accepted, stale));
+                int i = 0;
+                for (Booking booking : accepted) {
+                    if (stale.contains(booking)) {
+                        booking.ticket().getResult().completeExceptionally(
+                                new IllegalArgumentException("Reservation time is overlapping with another reservation"));
+                    } else {
+                        booking.ticket().getResult().complete(saved.get(i++));
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    scheduleRegistry.invalidate(courtId);
+                }
+            } catch (RuntimeException e) {
+                scheduleRegistry.invalidate(courtId);
+                accepted.forEach(b -> b.ticket().getResult().completeExceptionally(e));
+            }
+            releaseIfIdle();
+        }
+
+        /**
+         * Locks the court and saves the bookings not overlapping a reservation in the database.
+         * Bookings overlapping one, written past this mailbox, are added to {@code stale}.
+         */
+        private List<Reservation> write(List<Booking> accepted, List<Booking> stale) {
+            courtRepository.lockAll(List.of(courtId));
+            List<Reservation> free = new ArrayList<>(accepted.size());
+            for (Booking booking : accepted) {
+                Reservation reservation = booking.reservation();
+                if (reservationRepository.isOverlapping(courtId, reservation.getStartTime(), reservation.getEndTime())) {
+                    stale.add(booking);
+                } else {
+                    free.add(reservation);
+                }
+            }
+            return free.isEmpty() ? List.of() : reservationRepository.saveAll(free);
+        }
+
+        private void releaseIfIdle() {
+            if (leaseService.isEnabled() && queue.isEmpty()) {
+                try {
+                    leaseService.release(courtId);
+                } catch (RuntimeException e) {
+                    // the lease expires on its own
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.RemoteChangeEvent;
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.repository.CourtRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opening hours and slot rules that new reservations must satisfy.
+ * <p>
+ * The club hours from {@link AppConfig.Rules} are compiled on startup into one opening window
+ * per weekday. Courts with their own hours get their own compiled table, the intersection of the
+ * club and court hours, which is rebuilt when the court is saved here or by another instance.
+ * A court closing at 00:00 is open until midnight. Checking a reservation is a few arithmetic
+ * comparisons and touches no database, so it runs before any query of a booking.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class BookingRules {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final Window ALL_DAY = new Window(0, MINUTES_PER_DAY);
+
+    private final CourtRepository courtRepository;
+    private final TenantRegistry tenants;
+    private final int slotMinutes;
+    private final Duration minDuration;
+    private final Window[] clubHours = new Window[7];
+    private final Map<Long, Window[]> courtHours = new ConcurrentHashMap<>();
+
+    /**
+     * Opening window of one weekday in minutes from midnight. A closed day opens and closes at 0.
+     */
+    private record Window(int opensAt, int closesAt) {
+
+        private Window intersect(Window other) {
+            int opens = Math.max(opensAt, other.opensAt);
+            int closes = Math.min(closesAt, other.closesAt);
+            return closes > opens ? new Window(opens, closes) : new Window(0, 0);
+        }
+
+        private boolean isClosed() {
+            return closesAt == 0;
+        }
+    }
+
+    /**
+     * Constructs new BookingRules and compiles the club hours.
+     *
+     * @param config          application configuration holding the rules
+     * @param courtRepository repository used to load court hours
+     * @param tenants         the configured tenants, whose courts are loaded
+     * @throws IllegalArgumentException if the configured rules are invalid
+     */
+    public BookingRules(AppConfig config, CourtRepository courtRepository, TenantRegistry tenants) {
+        this.courtRepository = courtRepository;
+        this.tenants = tenants;
+        AppConfig.Rules rules = config.getRules();
+        if (rules.getSlotMinutes() < 0
+                || (rules.getSlotMinutes() > 0 && MINUTES_PER_DAY % rules.getSlotMinutes() != 0)) {
+            throw new IllegalArgumentException("app.rules.slot-minutes must divide a day");
+        }
+        this.slotMinutes = rules.getSlotMinutes();
+        this.minDuration = rules.getMinDuration();
+        rules.getOpeningHours().forEach((day, hours) -> clubHours[day.ordinal()] = parse(day, hours));
+    }
+
+    /**
+     * Compiles the hours of all courts of all tenants that have their own, dropping those of
+     * courts that no longer exist.
+     */
+    @PostConstruct
+    public void load() {
+        List<Court> courts = tenants.collect(courtRepository::findAll);
+        courts.forEach(this::updateCourt);
+        courtHours.keySet().retainAll(courts.stream().map(Court::getId).toList());
+    }
+
+    /**
+     * Recompiles the hours of courts saved or deleted by other instances.
+     *
+     * @param event the remote changes
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        if (event.reset()) {
+            load();
+            return;
+        }
+        for (ChangeLogEntry change : event.changesOf(ChangeLogEntry.EntityType.COURT)) {
+            Court court = courtRepository.findById(change.getEntityId());
+            if (court != null) {
+                updateCourt(court);
+            } else {
+                removeCourt(change.getEntityId());
+            }
+        }
+    }
+
+    /**
+     * Recompiles the hours of a court after it was saved.
+     *
+     * @param court the saved court
+     */
+    public void updateCourt(Court court) {
+        if (court.isDeleted() || (court.getOpensAt() == null && court.getClosesAt() == null)) {
+            courtHours.remove(court.getId());
+            return;
+        }
+        int closesAt = court.getClosesAt() == null ? 0 : minuteOf(court.getClosesAt());
+        Window own = new Window(court.getOpensAt() == null ? 0 : minuteOf(court.getOpensAt()),
+                closesAt == 0 ? MINUTES_PER_DAY : closesAt);
+        Window[] compiled = new Window[7];
+        for (int day = 0; day < compiled.length; day++) {
+            compiled[day] = own.intersect(clubHours[day] == null ? ALL_DAY : clubHours[day]);
+        }
+        courtHours.put(court.getId(), compiled);
+    }
+
+    /**
+     * Drops the compiled hours of a deleted court.
+     *
+     * @param courtId the court ID
+     */
+    public void removeCourt(Long courtId) {
+        courtHours.remove(courtId);
+    }
+
+    /**
+     * Checks a reservation interval against the rules.
+     *
+     * @param courtId the court ID, or null to check only the club rules
+     * @param start   the start of the reservation
+     * @param end     the end of the reservation
+     * @throws IllegalArgumentException if a rule is violated
+     */
+    public void check(Long courtId, LocalDateTime start, LocalDateTime end) {
+        String violation = violation(courtId, start, end);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation);
+        }
+    }
+
+    /**
+     * Describes the first rule a reservation interval violates.
+     *
+     * @param courtId the court ID, or null to check only the club rules
+     * @param start   the start of the reservation
+     * @param end     the end of the reservation
+     * @return the violated rule, or null if the interval satisfies all rules
+     */
+    public String violation(Long courtId, LocalDateTime start, LocalDateTime end) {
+        if (slotMinutes > 0 && (!isOnSlotBoundary(start) || !isOnSlotBoundary(end))) {
+            return "Reservations must start and end on a " + slotMinutes + "-minute boundary";
+        }
+        if (Duration.between(start, end).compareTo(minDuration) < 0) {
+            return "Reservations must be at least " + minDuration.toMinutes() + " minutes long";
+        }
+
+        Window[] hours = courtId == null ? clubHours : courtHours.getOrDefault(courtId, clubHours);
+        Window window = hours[start.getDayOfWeek().ordinal()];
+        if (window == null) {
+            return null;
+        }
+        if (window.isClosed()) {
+            return "Court is closed on " + start.getDayOfWeek();
+        }
+        Duration sinceMidnight = Duration.between(start.toLocalDate().atStartOfDay(), end);
+        if (start.toLocalTime().toSecondOfDay() < window.opensAt() * 60
+                || sinceMidnight.compareTo(Duration.ofMinutes(window.closesAt())) > 0) {
+            return "Court is open from " + format(window.opensAt()) + " to " + format(window.closesAt())
+                    + " on " + start.getDayOfWeek();
+        }
+        return null;
+    }
+
+    private boolean isOnSlotBoundary(LocalDateTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0 && minuteOf(time.toLocalTime()) % slotMinutes == 0;
+    }
+
+    private static Window parse(DayOfWeek day, String hours) {
+        if (hours.equalsIgnoreCase("closed")) {
+            return new Window(0, 0);
+        }
+        String[] bounds = hours.split("-");
+        if (bounds.length != 2) {
+            throw new IllegalArgumentException("Opening hours of " + day + " must be HH:mm-HH:mm or closed");
+        }
+        int opens = minuteOf(LocalTime.parse(bounds[0].trim()));
+        int closes = bounds[1].trim().equals("24:00") ? MINUTES_PER_DAY : minuteOf(LocalTime.parse(bounds[1].trim()));
+        if (closes <= opens) {
+            throw new IllegalArgumentException("Opening hours of " + day + " must end after they start");
+        }
+        return new Window(opens, closes);
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static String format(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+}
@@ -0,0 +1,61 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.model.ChangeFeedEntry;
+import com.IQproject.court.model.ChangeFeedPage;
+import com.IQproject.court.repository.ChangeFeedRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service serving the change feed of courts, customers and reservations, so that downstream
+ * systems can pull only what changed since they last synced instead of downloading everything.
+ * <p>
+ * A consumer starts with cursor 0 and passes the cursor of each page to the next request. Each
+ * entity appears with its current state once per page in which it changed; an entity changed
+ * again later reappears with a higher sequence number. The remaining count tells the consumer how
+ * far behind the head it is.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class ChangeFeedService {
+    /**
+     * The largest page size a consumer may request.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeFeedRepository repository;
+
+    /**
+     * Constructs a new ChangeFeedService.
+     *
+     * @param repository the change feed repository
+     */
+    public ChangeFeedService(ChangeFeedRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Returns the entities changed after a cursor.
+     *
+     * @param since the cursor returned with the previous page, or 0 to read from the start
+     * @param limit the maximum number of entities, unless one transaction changed more
+     * @return the page with the next cursor
+     * @throws IllegalArgumentException if the cursor is negative or the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedPage getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Cursor must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<ChangeFeedEntry> changes = repository.findAfter(since, limit);
+        long cursor = changes.isEmpty() ? since : changes.getLast().changeSeq();
+        return new ChangeFeedPage(changes, cursor, Math.max(cursor, repository.findHead()),
+                repository.countAfter(cursor));
+    }
+}
@@ -0,0 +1,232 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.RemoteChangeEvent;
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.repository.ChangeLogRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tails the change log written by all instances and publishes the entries written by other
+ * instances as {@link RemoteChangeEvent}s, so that each instance refreshes its caches.
+ * <p>
+ * Each tenant's log is read every {@code app.change-log.poll-interval} from a cursor, the highest ID
+ * read so far, with a range scan of the primary key. Identities are assigned when an entry is
+ * inserted but become visible when its transaction commits, so an ID lower than the cursor may
+ * still appear. IDs skipped by the cursor are therefore looked up again on every poll until they
+ * show up or {@code app.change-log.gap-timeout} passes; a skipped ID is usually a rolled back
+ * transaction. When a gap times out, when more than {@value #MAX_GAPS} IDs are open, or when no
+ * poll ran for longer than {@code app.change-log.retention}, a change may have been missed and a
+ * reset is published instead, dropping all cached data.
+ * <p>
+ * A change committed by another instance is thus visible here within one poll interval, or the
+ * caches are reset at most a gap timeout later. The time from writing an entry to applying it is
+ * exported as the {@code changelog.invalidation.lag} timer, which compares clocks of different
+ * instances; the time since the last completed poll as {@code changelog.staleness}.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class ChangeLogTailer {
+    private static final int MAX_GAPS = 10_000;
+
+    private final ChangeLogRepository repository;
+    private final TenantRegistry tenants;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+    private final Timer lag;
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastPollNanos = System.nanoTime();
+
+    /**
+     * Read position in the change log of one tenant. Guarded by the poll lock.
+     */
+    private static final class Cursor {
+        private long position;
+        private long polledAtNanos;
+        private final Map<Long, Long> gaps = new HashMap<>();
+
+        private Cursor(long position, long polledAtNanos) {
+            this.position = position;
+            this.polledAtNanos = polledAtNanos;
+        }
+    }
+
+    /**
+     * Constructs a new ChangeLogTailer.
+     *
+     * @param config         application configuration holding the change log settings
+     * @param repository     the change log repository
+     * @param tenants        the configured tenants, whose logs are read
+     * @param eventPublisher publisher for remote change events
+     * @param meterRegistry  registry for lag metrics
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public ChangeLogTailer(AppConfig config, ChangeLogRepository repository, TenantRegistry tenants,
+                           ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        AppConfig.ChangeLog changeLog = config.getChangeLog();
+        if (changeLog.getBatchSize() < 1) {
+            throw new IllegalArgumentException("app.change-log.batch-size must be positive");
+        }
+        this.repository = repository;
+        this.tenants = tenants;
+        this.eventPublisher = eventPublisher;
+        this.enabled = changeLog.isEnabled();
+        this.nodeId = config.getNodeId();
+        this.batchSize = changeLog.getBatchSize();
+        this.gapTimeoutNanos = changeLog.getGapTimeout().toNanos();
+        this.retention = changeLog.getRetention();
+        this.lag = Timer.builder("changelog.invalidation.lag")
+                .description("Time from a change on another instance until it is applied here")
+                .register(meterRegistry);
+        Gauge.builder("changelog.staleness", this, tailer -> tailer.getStaleness().toMillis() / 1000.0)
+                .description("Seconds since the change log was last read")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("changelog.gaps", this, ChangeLogTailer::getOpenGaps)
+                .description("Skipped change log IDs still awaited")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts every tenant's cursor at the end of its log. Earlier changes are already in the
+     * database that the caches are loaded from.
+     */
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            poll();
+        }
+    }
+
+    /**
+     * Reads the new entries of every tenant's log and publishes those written by other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.change-log.poll-interval:500ms}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            tenants.forEach(this::pollCurrentTenant);
+            lastPollNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes entries older than the retention from every tenant's log.
+     */
+    @Scheduled(fixedDelayString = "PT1M", initialDelayString = "PT1M")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        tenants.forEach(() -> repository.deleteCreatedBefore(cutoff));
+    }
+
+    /**
+     * Returns the time since every tenant's log was last read.
+     *
+     * @return the time since the last completed poll, zero if the change log is disabled
+     */
+    public Duration getStaleness() {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(System.nanoTime() - lastPollNanos);
+    }
+
+    /**
+     * Returns the number of skipped IDs still awaited in all tenants' logs.
+     *
+     * @return the number of open gaps
+     */
+    public int getOpenGaps() {
+        lock.lock();
+        try {
+            return cursors.values().stream().mapToInt(cursor -> cursor.gaps.size()).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pollCurrentTenant() {
+        long now = System.nanoTime();
+        String tenant = TenantContext.current();
+        Cursor cursor = cursors.get(tenant);
+        if (cursor == null) {
+            cursors.put(tenant, new Cursor(repository.findMaxId(), now));
+            return;
+        }
+        boolean reset = now - cursor.polledAtNanos > retention.toNanos();
+
+        List<ChangeLogEntry> read = new ArrayList<>();
+        if (!cursor.gaps.isEmpty()) {
+            for (ChangeLogEntry entry : repository.findByIds(List.copyOf(cursor.gaps.keySet()))) {
+                cursor.gaps.remove(entry.getId());
+                read.add(entry);
+            }
+        }
+        List<ChangeLogEntry> batch;
+        do {
+            batch = repository.findAfter(cursor.position, batchSize);
+            for (ChangeLogEntry entry : batch) {
+                long skipped = entry.getId() - cursor.position - 1;
+                if (cursor.gaps.size() + skipped > MAX_GAPS) {
+                    reset = true;
+                } else {
+                    for (long id = cursor.position + 1; id < entry.getId(); id++) {
+                        cursor.gaps.put(id, now);
+                    }
+                }
+                cursor.position = entry.getId();
+            }
+            read.addAll(batch);
+        } while (batch.size() == batchSize);
+        if (cursor.gaps.values().removeIf(skippedAt -> now - skippedAt > gapTimeoutNanos)) {
+            reset = true;
+        }
+        cursor.polledAtNanos = now;
+
+        List<ChangeLogEntry> remote = read.stream()
+                .filter(entry -> !nodeId.equals(entry.getNodeId()))
+                .sorted(Comparator.comparing(ChangeLogEntry::getId))
+                .toList();
+        if (remote.isEmpty() && !reset) {
+            return;
+        }
+        eventPublisher.publishEvent(new RemoteChangeEvent(remote, reset));
+        LocalDateTime applied = LocalDateTime.now();
+        for (ChangeLogEntry entry : remote) {
+            Duration delay = Duration.between(entry.getCreatedAt(), applied);
+            lag.record(delay.isNegative() ? Duration.ZERO : delay);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.repository.CourtLeaseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide mutual exclusion per court through database leases with fencing tokens.
+ * <p>
+ * A lease is taken with one atomic conditional update and lasts {@code app.lease.ttl}, so a
+ * crashed instance blocks its courts for at most that long. Writes made under a lease run in a
+ * transaction that first locks the lease row and checks that the token is still current; an
+ * instance that lost its lease, e.g. after a long pause, therefore cannot commit, and nobody can
+ * take the lease while a guarded write is committing. Leases of different courts are independent.
+ * <p>
+ * A lease only excludes other lease holders. Writers that do not take it, such as direct mode
+ * bookings, are kept apart by the court row lock, which guarded writes must take as well.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class CourtLeaseService {
+    private static final long MAX_BACKOFF_MILLIS = 50;
+
+    private final CourtLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration ttl;
+
+    /**
+     * Constructs a new CourtLeaseService.
+     *
+     * @param config             application configuration holding the lease settings
+     * @param leaseRepository    the lease repository
+     * @param transactionManager transaction manager for guarded writes
+     * @throws IllegalArgumentException if the TTL is not positive
+     */
+    public CourtLeaseService(AppConfig config, CourtLeaseRepository leaseRepository,
+                             PlatformTransactionManager transactionManager) {
+        if (!config.getLease().getTtl().isPositive()) {
+            throw new IllegalArgumentException("app.lease.ttl must be positive");
+        }
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = config.getLease().isEnabled();
+        this.nodeId = config.getNodeId();
+        this.ttl = config.getLease().getTtl();
+    }
+
+    /**
+     * Returns whether courts are leased before their bookings are processed.
+     *
+     * @return true if leases are enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes or renews the lease on a court, waiting up to the lease TTL while another instance holds it.
+     *
+     * @param courtId the court ID
+     * @return the fencing token
+     * @throws IllegalStateException if the lease could not be taken in time
+     */
+    public long acquire(Long courtId) {
+        long deadline = System.nanoTime() + ttl.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                long token = leaseRepository.acquire(courtId, nodeId, now, now.plus(ttl));
+                if (token > 0) {
+                    return token;
+                }
+            } catch (RuntimeException e) {
+                // another instance created or holds a lock on the lease row; retry like a busy lease
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Court " + courtId + " is being booked by another instance");
+            }
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(1, MAX_BACKOFF_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Runs a write in a transaction that commits only if the lease is still held under the token.
+     *
+     * @param courtId      the court ID
+     * @param fencingToken the token returned by {@link #acquire(Long)}
+     * @param write        the write
+     * @param <T>          the result type
+     * @return the result of the write
+     * @throws IllegalStateException if the lease was lost; the write is not run
+     */
+    public <T> T callFenced(Long courtId, long fencingToken, Supplier<T> write) {
+        return transactionTemplate.execute(status -> {
+            if (!leaseRepository.lockIfHeld(courtId, nodeId, fencingToken, LocalDateTime.now())) {
+                throw new IllegalStateException("Lease on court " + courtId + " was lost");
+            }
+            return write.get();
+        });
+    }
+
+    /**
+     * Releases the lease on a court held by this instance.
+     *
+     * @param courtId the court ID
+     */
+    public void release(Long courtId) {
+        leaseRepository.release(courtId, nodeId, LocalDateTime.now());
+    }
+}
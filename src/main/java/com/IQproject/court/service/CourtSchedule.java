@@ -0,0 +1,178 @@
+package com.IQproject.court.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the busy intervals of one court, sorted by start time.
+ * <p>
+ * Updates return a new snapshot, so readers never need a lock. Overlap checks use a binary
+ * search plus a prefix maximum of end times and only visit slots that may intersect.
+ *
+ * @author Vojtech Zednik
+ */
+public final class CourtSchedule {
+    private static final Comparator<Slot> ORDER = Comparator.comparing(Slot::start).thenComparingLong(Slot::id);
+
+    private final Slot[] slots;
+    private final LocalDateTime[] maxEnd;
+
+    /**
+     * A busy interval of a court.
+     *
+     * @param id    the ID of the reservation occupying the interval
+     * @param start the start of the interval (inclusive)
+     * @param end   the end of the interval (exclusive)
+     */
+    public record Slot(long id, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * A free interval between two busy slots.
+     *
+     * @param start the end of the preceding slot, or null if no slot precedes the interval
+     * @param end   the start of the following slot, or null if no slot follows the interval
+     */
+    public record Gap(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private CourtSchedule(Slot[] sortedSlots) {
+        this.slots = sortedSlots;
+        this.maxEnd = new LocalDateTime[sortedSlots.length];
+        for (int i = 0; i < sortedSlots.length; i++) {
+            LocalDateTime end = sortedSlots[i].end();
+            maxEnd[i] = (i > 0 && maxEnd[i - 1].isAfter(end)) ? maxEnd[i - 1] : end;
+        }
+    }
+
+    /**
+     * Creates a schedule from unsorted slots.
+     *
+     * @param slots the busy intervals
+     * @return the schedule
+     */
+    public static CourtSchedule of(List<Slot> slots) {
+        Slot[] sorted = slots.toArray(Slot[]::new);
+        Arrays.sort(sorted, ORDER);
+        return new CourtSchedule(sorted);
+    }
+
+    /**
+     * Returns an empty schedule.
+     *
+     * @return the schedule
+     */
+    public static CourtSchedule empty() {
+        return new CourtSchedule(new Slot[0]);
+    }
+
+    /**
+     * Checks whether the interval is free.
+     *
+     * @param start     the desired start time
+     * @param end       the desired end time
+     * @param excludeId ID of a reservation to ignore (e.g. the one being updated), or null
+     * @return true if no other slot intersects the interval
+     */
+    public boolean isFree(LocalDateTime start, LocalDateTime end, Long excludeId) {
+        for (int i = lastStartingBefore(end); i >= 0 && maxEnd[i].isAfter(start); i--) {
+            Slot slot = slots[i];
+            if (slot.end().isAfter(start) && (excludeId == null || slot.id() != excludeId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the free gap that would contain the interval.
+     *
+     * @param start the desired start time
+     * @param end   the desired end time
+     * @return the enclosing gap, or null if the interval is not free
+     */
+    public Gap gapAround(LocalDateTime start, LocalDateTime end) {
+        if (!isFree(start, end, null)) {
+            return null;
+        }
+        // every slot starting before the end finishes by the start, so the prefix maximum is the preceding end
+        int before = lastStartingBefore(end);
+        return new Gap(before >= 0 ? maxEnd[before] : null,
+                before + 1 < slots.length ? slots[before + 1].start() : null);
+    }
+
+    /**
+     * Returns a schedule that additionally contains (or replaces) the given slot.
+     *
+     * @param slot the slot to add
+     * @return the new schedule
+     */
+    public CourtSchedule with(Slot slot) {
+        List<Slot> copy = new ArrayList<>(slots.length + 1);
+        for (Slot existing : slots) {
+            if (existing.id() != slot.id()) {
+                copy.add(existing);
+            }
+        }
+        copy.add(slot);
+        return of(copy);
+    }
+
+    /**
+     * Returns a schedule that additionally contains the given slots, e.g. blackout occurrences.
+     *
+     * @param extra the slots to add
+     * @return the new schedule, or this schedule if there are no slots to add
+     */
+    public CourtSchedule withAll(List<Slot> extra) {
+        if (extra.isEmpty()) {
+            return this;
+        }
+        List<Slot> copy = new ArrayList<>(slots.length + extra.size());
+        copy.addAll(Arrays.asList(slots));
+        copy.addAll(extra);
+        return of(copy);
+    }
+
+    /**
+     * Returns a schedule without the slot of the given reservation.
+     *
+     * @param id the reservation ID
+     * @return the new schedule, or this schedule if the slot is not present
+     */
+    public CourtSchedule without(long id) {
+        List<Slot> copy = new ArrayList<>(slots.length);
+        for (Slot existing : slots) {
+            if (existing.id() != id) {
+                copy.add(existing);
+            }
+        }
+        return copy.size() == slots.length ? this : new CourtSchedule(copy.toArray(Slot[]::new));
+    }
+
+    /**
+     * Returns all slots ordered by start time.
+     *
+     * @return the slots
+     */
+    public List<Slot> slots() {
+        return List.of(slots);
+    }
+
+    private int lastStartingBefore(LocalDateTime time) {
+        int low = 0;
+        int high = slots.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (slots[mid].start().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,323 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.event.RemoteChangeEvent;
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ReservationRepository;
+import org.springframework.core.Ordered;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps an in-memory {@link CourtSchedule} per court.
+ * <p>
+ * A court's schedule is loaded from the database on first use and then kept up to date from
+ * committed {@link ReservationChangedEvent}s. Reads are lock-free; loads and updates of one court
+ * are serialized by a per-court {@link ReentrantLock}. Schedules restored from the
+ * {@link ReservationJournal} on startup are served right away and checked against the database
+ * later with {@link #verify(Long)}. Schedules changed by other instances are dropped and reloaded
+ * on next use. Schedules are loaded as the tenant owning the court
+ * (see {@link TenantRegistry#tenantOf(long)}), so they are complete whichever tenant asks first.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class CourtScheduleRegistry {
+    private final ReservationRepository reservationRepository;
+    private final TenantRegistry tenants;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile CourtSchedule schedule;
+        private volatile boolean verified = true;
+    }
+
+    /**
+     * Constructs a new CourtScheduleRegistry.
+     *
+     * @param reservationRepository repository used to load schedules
+     * @param tenants               the configured tenants owning the courts
+     */
+    public CourtScheduleRegistry(ReservationRepository reservationRepository, TenantRegistry tenants) {
+        this.reservationRepository = reservationRepository;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Returns the current schedule of a court, loading it if needed.
+     *
+     * @param courtId the court ID
+     * @return the schedule snapshot
+     */
+    public CourtSchedule get(Long courtId) {
+        Entry entry = entries.computeIfAbsent(courtId, id -> new Entry());
+        CourtSchedule schedule = entry.schedule;
+        if (schedule != null) {
+            return schedule;
+        }
+        entry.lock.lock();
+        try {
+            if (entry.schedule == null) {
+                entry.schedule = load(courtId);
+            }
+            return entry.schedule;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current schedules of several courts. Schedules that are not loaded yet are
+     * loaded together with a single query.
+     *
+     * @param courtIds the court IDs
+     * @return the schedule snapshot of each court
+     */
+    public Map<Long, CourtSchedule> getAll(Collection<Long> courtIds) {
+        Map<Long, CourtSchedule> schedules = new HashMap<>(courtIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long courtId : new TreeSet<>(courtIds)) {
+            CourtSchedule schedule = entries.computeIfAbsent(courtId, id -> new Entry()).schedule;
+            if (schedule != null) {
+                schedules.put(courtId, schedule);
+            } else {
+                missing.add(courtId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            schedules.putAll(loadAll(missing));
+        }
+        return schedules;
+    }
+
+    /**
+     * Drops the cached schedule of a court so that it is reloaded on next use.
+     *
+     * @param courtId the court ID
+     */
+    public void invalidate(Long courtId) {
+        entries.remove(courtId);
+    }
+
+    /**
+     * Installs schedules restored from outside the database for courts that are not loaded yet.
+     * The schedules are used immediately and stay unverified until {@link #verify(Long)} is called.
+     *
+     * @param schedules the restored schedule of each court
+     */
+    public void restore(Map<Long, CourtSchedule> schedules) {
+        schedules.forEach((courtId, schedule) -> {
+            Entry entry = entries.computeIfAbsent(courtId, id -> new Entry());
+            entry.lock.lock();
+            try {
+                if (entry.schedule == null) {
+                    entry.schedule = schedule;
+                    entry.verified = false;
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Checks a restored schedule against the database and replaces it if they differ.
+     *
+     * @param courtId the court ID
+     * @return false if the restored schedule differed from the database, true otherwise
+     */
+    public boolean verify(Long courtId) {
+        Entry entry = entries.get(courtId);
+        if (entry == null || entry.verified) {
+            return true;
+        }
+        entry.lock.lock();
+        try {
+            if (entry.verified || entry.schedule == null) {
+                return true;
+            }
+            CourtSchedule stored = load(courtId);
+            boolean matches = stored.slots().equals(entry.schedule.slots());
+            if (!matches) {
+                entry.schedule = stored;
+            }
+            entry.verified = true;
+            return matches;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the schedules of all loaded courts.
+     *
+     * @return the schedule snapshot of each loaded court
+     */
+    public Map<Long, CourtSchedule> getLoaded() {
+        Map<Long, CourtSchedule> loaded = new HashMap<>(entries.size() * 2);
+        entries.forEach((courtId, entry) -> {
+            CourtSchedule schedule = entry.schedule;
+            if (schedule != null) {
+                loaded.put(courtId, schedule);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Applies committed reservation changes to loaded schedules. Runs before other listeners,
+     * so a change is in the schedules before the {@link ReservationJournal} records it.
+     *
+     * @param event the committed event
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        for (ReservationChange change : event.changes()) {
+            apply(change);
+        }
+    }
+
+    /**
+     * Drops the schedules that reservation changes of other instances made stale. A reservation may
+     * have moved from another court, so every loaded schedule holding it is dropped as well.
+     *
+     * @param event the remote changes
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        if (event.reset()) {
+            entries.clear();
+            return;
+        }
+        Set<Long> reservationIds = new HashSet<>();
+        for (ChangeLogEntry change : event.changesOf(ChangeLogEntry.EntityType.RESERVATION)) {
+            invalidate(change.getCourtId());
+            reservationIds.add(change.getEntityId());
+        }
+        if (reservationIds.isEmpty()) {
+            return;
+        }
+        entries.forEach((courtId, entry) -> {
+            CourtSchedule schedule = entry.schedule;
+            if (schedule != null && schedule.slots().stream().anyMatch(slot -> reservationIds.contains(slot.id()))) {
+                entries.remove(courtId, entry);
+            }
+        });
+    }
+
+    /**
+     * Applies a single change to the schedule of its court if that schedule is loaded.
+     *
+     * @param change the change
+     */
+    public void apply(ReservationChange change) {
+        Entry entry = entries.get(change.courtId());
+        if (entry == null) {
+            return;
+        }
+        entry.lock.lock();
+        try {
+            CourtSchedule schedule = entry.schedule;
+            if (schedule == null) {
+                return;
+            }
+            if (change.type() == ReservationChange.Type.DELETED) {
+                entry.schedule = schedule.without(change.reservationId());
+            } else {
+                entry.schedule = schedule.with(new CourtSchedule.Slot(change.reservationId(),
+                        change.startTime(), change.endTime()));
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+        if (change.type() == ReservationChange.Type.UPDATED) {
+            removeFromOtherCourts(change);
+        }
+    }
+
+    private void removeFromOtherCourts(ReservationChange change) {
+        entries.forEach((courtId, entry) -> {
+            if (!courtId.equals(change.courtId()) && entry.schedule != null) {
+                entry.lock.lock();
+                try {
+                    entry.schedule = entry.schedule.without(change.reservationId());
+                } finally {
+                    entry.lock.unlock();
+                }
+            }
+        });
+    }
+
+    private CourtSchedule load(Long courtId) {
+        return toSchedule(TenantContext.call(tenants.tenantOf(courtId),
+                () -> reservationRepository.findByCourtId(courtId)));
+    }
+
+    /**
+     * Loads the schedules of several courts with one query. The entries are locked in ascending
+     * court order for the duration of the query, like {@link #get(Long)} locks a single entry,
+     * so changes committed meanwhile are applied after the load instead of being lost.
+     */
+    private Map<Long, CourtSchedule> loadAll(List<Long> sortedCourtIds) {
+        Map<Long, Entry> locked = new LinkedHashMap<>(sortedCourtIds.size() * 2);
+        try {
+            List<Long> toLoad = new ArrayList<>(sortedCourtIds.size());
+            Map<Long, CourtSchedule> schedules = new HashMap<>(sortedCourtIds.size() * 2);
+            for (Long courtId : sortedCourtIds) {
+                Entry entry = entries.computeIfAbsent(courtId, id -> new Entry());
+                entry.lock.lock();
+                locked.put(courtId, entry);
+                if (entry.schedule != null) {
+                    schedules.put(courtId, entry.schedule);
+                } else {
+                    toLoad.add(courtId);
+                }
+            }
+            if (toLoad.isEmpty()) {
+                return schedules;
+            }
+
+            Map<Long, List<Reservation>> byCourt = new HashMap<>(toLoad.size() * 2);
+            tenants.partition(toLoad).forEach((tenant, courtIds) -> {
+                for (Reservation reservation : TenantContext.call(tenant,
+                        () -> reservationRepository.findByCourtIds(courtIds))) {
+                    byCourt.computeIfAbsent(reservation.getCourtId(), id -> new ArrayList<>()).add(reservation);
+                }
+            });
+            for (Long courtId : toLoad) {
+                CourtSchedule schedule = toSchedule(byCourt.getOrDefault(courtId, List.of()));
+                locked.get(courtId).schedule = schedule;
+                schedules.put(courtId, schedule);
+            }
+            return schedules;
+        } finally {
+            locked.values().forEach(entry -> entry.lock.unlock());
+        }
+    }
+
+    private static CourtSchedule toSchedule(List<Reservation> reservations) {
+        return CourtSchedule.of(reservations.stream()
+                .map(r -> new CourtSchedule.Slot(r.getId(), r.getStartTime(), r.getEndTime()))
+                .toList());
+    }
+}
@@ -1,12 +1,18 @@
 package com.IQproject.court.service;
 
+import com.IQproject.court.model.Blackout;
 import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Reservation;
 import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
 import com.IQproject.court.repository.SurfaceTypeRepository;
-import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for managing {@link Court} entities.
@@ -16,18 +22,34 @@ import java.util.List;
  */
 @Service
 public class CourtService {
+    /**
+     * End of the blackout window of a closure without an end.
+     */
+    private static final LocalDateTime OPEN_ENDED = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final CourtRepository courtRepository;
     private final SurfaceTypeRepository surfaceRepository;
+    private final ReservationRepository reservationRepository;
+    private final BookingRules bookingRules;
+    private final BlackoutService blackoutService;
 
     /**
      * Constructs a new CourtService with the given repositories.
      *
      * @param repository            the court repository
      * @param surfaceTypeRepository the surface type repository
+     * @param reservationRepository the reservation repository, used to cancel reservations of closed courts
+     * @param bookingRules          booking rules compiling the court opening hours
+     * @param blackoutService       blackout service, used to keep closed courts closed
      */
-    public CourtService(CourtRepository repository, SurfaceTypeRepository surfaceTypeRepository) {
+    public CourtService(CourtRepository repository, SurfaceTypeRepository surfaceTypeRepository,
+                        ReservationRepository reservationRepository, BookingRules bookingRules,
+                        BlackoutService blackoutService) {
         this.courtRepository = repository;
         this.surfaceRepository = surfaceTypeRepository;
+        this.reservationRepository = reservationRepository;
+        this.bookingRules = bookingRules;
+        this.blackoutService = blackoutService;
     }
 
     /**
@@ -35,6 +57,7 @@ public class CourtService {
      *
      * @return a list of all available courts
      */
+    @Transactional(readOnly = true)
     public List<Court> getAllCourts() {
         return courtRepository.findAll();
     }
@@ -45,23 +68,27 @@ public class CourtService {
      * @param id the ID of the court to retrieve
      * @return the Court with the specified ID, or null if not found or deleted
      */
+    @Transactional(readOnly = true)
     public Court getCourt(Long id) {
         return courtRepository.findById(id);
     }
 
     /**
      * Creates a new court.
-     * Validates that the specified surface type exists.
+     * Validates that the specified surface type exists and the opening hours are ordered.
      *
      * @param court the court to create
      * @return the created Court
-     * @throws IllegalArgumentException if the specified surface type does not exist
+     * @throws IllegalArgumentException if the specified surface type does not exist or the hours are invalid
      */
     public Court createCourt(Court court) {
         if (surfaceRepository.findById(court.getSurfaceTypeId()) == null) {
             throw new IllegalArgumentException("SurfaceType with ID " + court.getSurfaceTypeId() + " does not exist.");
         }
-        return courtRepository.save(court);
+        validateHours(court);
+        Court saved = courtRepository.save(court);
+        bookingRules.updateCourt(saved);
+        return saved;
     }
 
     /**
@@ -70,25 +97,114 @@ public class CourtService {
      * @param id           the ID of the court to update
      * @param updatedCourt the new court data
      * @return the updated Court
-     * @throws IllegalArgumentException if the court with the specified ID does not exist
+     * @throws IllegalArgumentException if the court with the specified ID does not exist or the hours are invalid
      */
     public Court updateCourt(Long id, Court updatedCourt) {
         Court existing = getCourt(id);
         if (existing == null) {
             throw new IllegalArgumentException("Court does not exist");
         }
+        validateHours(updatedCourt);
         existing.setName(updatedCourt.getName());
         existing.setSurfaceTypeId(updatedCourt.getSurfaceTypeId());
+        existing.setOpensAt(updatedCourt.getOpensAt());
+        existing.setClosesAt(updatedCourt.getClosesAt());
 
-        return courtRepository.save(existing);
+        Court saved = courtRepository.save(existing);
+        bookingRules.updateCourt(saved);
+        return saved;
     }
 
     /**
-     * Soft-deletes a court by marking it as deleted.
+     * Soft-deletes a court by marking it as deleted and cancels its future reservations.
      *
      * @param id the ID of the court to delete
      */
+    @Transactional
     public void deleteCourt(Long id) {
         courtRepository.softDelete(id);
+        reservationRepository.cancelStartingBetween(id, LocalDateTime.now(), null);
+        bookingRules.removeCourt(id);
+    }
+
+    /**
+     * Closes a court, blacking out the given range so that it cannot be booked again and cancelling all
+     * its reservations that start within it, in one transaction. Reservations that have already started
+     * are kept.
+     *
+     * @param id   the ID of the court
+     * @param from the start of the closure, or null for now
+     * @param to   the end of the closure, or null for no end
+     * @return the IDs of the cancelled reservations, ordered by start time
+     * @throws IllegalArgumentException if the court does not exist or the range is empty
+     */
+    @Transactional
+    public List<Long> closeCourt(Long id, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = closureStart(from, to);
+        List<Court> courts = courtRepository.lockAll(List.of(id));
+        if (courts.isEmpty()) {
+            throw new IllegalArgumentException("Court does not exist");
+        }
+        return close(courts, id, start, to);
+    }
+
+    /**
+     * Closes all courts for a time range, blacking it out on every court and cancelling every
+     * reservation starting within it, in one transaction. Reservations that have already started are kept.
+     *
+     * @param from the start of the closure, or null for now
+     * @param to   the end of the closure
+     * @return the IDs of the cancelled reservations, ordered by start time
+     * @throws IllegalArgumentException if the range is empty
+     */
+    @Transactional
+    public List<Long> closeAllCourts(LocalDateTime from, LocalDateTime to) {
+        if (to == null) {
+            throw new IllegalArgumentException("Closing all courts requires an end time");
+        }
+        LocalDateTime start = closureStart(from, to);
+        List<Long> ids = courtRepository.findAll().stream().map(Court::getId).toList();
+        return close(ids.isEmpty() ? List.of() : courtRepository.lockAll(ids), null, start, to);
+    }
+
+    /**
+     * Reads the reservations with the given IDs, e.g. those cancelled by a closure, without holding
+     * them all in memory.
+     *
+     * @param ids      the reservation IDs
+     * @param consumer receives the reservations, in the order of the IDs
+     */
+    public void forEachReservation(List<Long> ids, Consumer<Reservation> consumer) {
+        reservationRepository.forEachById(ids, consumer);
+    }
+
+    private List<Long> close(List<Court> courts, Long courtId, LocalDateTime from, LocalDateTime to) {
+        for (Court court : courts) {
+            Blackout blackout = new Blackout();
+            blackout.setCourtId(court.getId());
+            blackout.setReason("Closure");
+            blackout.setStartTime(from);
+            blackout.setEndTime(to != null ? to : OPEN_ENDED);
+            blackoutService.createBlackout(blackout);
+        }
+        return reservationRepository.cancelStartingBetween(courtId, from, to);
+    }
+
+    private static LocalDateTime closureStart(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        if (to != null && !to.isAfter(start)) {
+            throw new IllegalArgumentException("Closure must end in the future and after it starts");
+        }
+        return start;
+    }
+
+    private static void validateHours(Court court) {
+        LocalTime opensAt = court.getOpensAt() == null ? LocalTime.MIDNIGHT : court.getOpensAt();
+        LocalTime closesAt = court.getClosesAt();
+        // closing at 00:00 means midnight, later hours would span two days
+        if (closesAt != null && !closesAt.equals(LocalTime.MIDNIGHT) && !closesAt.isAfter(opensAt)) {
+            throw new IllegalArgumentException("ClosesAt must be after opensAt, hours cannot span midnight");
+        }
     }
 }
\ No newline at end of file
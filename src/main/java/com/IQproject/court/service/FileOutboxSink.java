@@ -0,0 +1,71 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends reservation events to a local file, one JSON object per line, and forces each batch to
+ * disk before it is reported delivered.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new FileOutboxSink.
+     *
+     * @param config       application configuration holding the file path
+     * @param objectMapper mapper writing the events
+     */
+    public FileOutboxSink(AppConfig config, ObjectMapper objectMapper) {
+        this.file = Path.of(config.getOutbox().getFile());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        try {
+            for (OutboxEvent event : events) {
+                lines.writeBytes(objectMapper.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.GroupBookingRequest;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Service booking several courts for the same time window in a single transaction.
+ * <p>
+ * The requested courts are locked in ascending ID order, so concurrent group bookings over
+ * overlapping sets of courts queue up instead of deadlocking. Overlaps on all courts are checked
+ * with one query, and the reservations are written together: either all are created or none.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class GroupBookingService {
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final CourtRepository courtRepository;
+
+    /**
+     * Constructs a new GroupBookingService.
+     *
+     * @param reservationService    service validating and pricing single reservations
+     * @param reservationRepository the reservation repository
+     * @param courtRepository       the court repository
+     */
+    public GroupBookingService(ReservationService reservationService,
+                               ReservationRepository reservationRepository,
+                               CourtRepository courtRepository) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.courtRepository = courtRepository;
+    }
+
+    /**
+     * Reserves all requested courts for the requested time window, or none of them.
+     *
+     * @param request the group booking request
+     * @return the created reservations, ordered by court ID
+     * @throws IllegalArgumentException if the request is invalid, a court does not exist,
+     *                                  or not enough courts are free
+     */
+    @Transactional
+    public List<Reservation> book(GroupBookingRequest request) {
+        if (request.getStartTime().isAfter(request.getEndTime())) {
+            throw new IllegalArgumentException("StartTime is after endTime");
+        }
+
+        boolean explicit = request.getCourtIds() != null && !request.getCourtIds().isEmpty();
+        boolean bySurface = request.getSurfaceTypeId() != null && request.getCourtCount() != null;
+        if (explicit == bySurface) {
+            throw new IllegalArgumentException("Either courtIds or surfaceTypeId with courtCount is required");
+        }
+
+        List<Court> courts = explicit ? lockRequestedCourts(request) : lockCourtsBySurface(request);
+
+        List<Reservation> reservations = new ArrayList<>(courts.size());
+        for (Court court : courts) {
+            reservations.add(reservationService.prepareReservation(toReservation(request, court)));
+        }
+        return reservationRepository.saveAll(reservations);
+    }
+
+    private List<Court> lockRequestedCourts(GroupBookingRequest request) {
+        SortedSet<Long> ids = new TreeSet<>(request.getCourtIds());
+        List<Court> courts = courtRepository.lockAll(ids);
+        if (courts.size() != ids.size()) {
+            throw new IllegalArgumentException("Court does not exist");
+        }
+
+        List<Long> busy = reservationRepository.findOverlappingCourtIds(ids,
+                request.getStartTime(), request.getEndTime());
+        if (!busy.isEmpty()) {
+            throw new IllegalArgumentException("Reservation time is overlapping with another reservation on courts "
+                    + new TreeSet<>(busy));
+        }
+        return courts;
+    }
+
+    private List<Court> lockCourtsBySurface(GroupBookingRequest request) {
+        int count = request.getCourtCount();
+        if (count < 1) {
+            throw new IllegalArgumentException("courtCount must be positive");
+        }
+
+        SortedSet<Long> ids = new TreeSet<>();
+        courtRepository.findBySurfaceTypeId(request.getSurfaceTypeId()).stream()
+                .filter(court -> reservationService.isOpen(court.getId(), request.getStartTime(), request.getEndTime()))
+                .forEach(court -> ids.add(court.getId()));
+        if (ids.size() < count) {
+            throw new IllegalArgumentException("Not enough courts with the requested surface are open");
+        }
+
+        List<Court> candidates = courtRepository.lockAll(ids);
+        Set<Long> busy = new HashSet<>(reservationRepository.findOverlappingCourtIds(ids,
+                request.getStartTime(), request.getEndTime()));
+        List<Court> free = candidates.stream()
+                .filter(court -> !busy.contains(court.getId()))
+                .limit(count)
+                .toList();
+        if (free.size() < count) {
+            throw new IllegalArgumentException("Only " + free.size() + " courts with the requested surface are free");
+        }
+        return free;
+    }
+
+    private static Reservation toReservation(GroupBookingRequest request, Court court) {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(court.getId());
+        reservation.setStartTime(request.getStartTime());
+        reservation.setEndTime(request.getEndTime());
+        reservation.setDoubles(request.isDoubles());
+        reservation.setCustomer(new Customer(request.getCustomer().getPhoneNumber(), request.getCustomer().getName()));
+        return reservation;
+    }
+}
@@ -0,0 +1,273 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes bookings of {@link AppConfig.BookingMode#DIRECT} mode in groups, so that a burst of
+ * bookings pays for one commit instead of one per booking.
+ * <p>
+ * Bookings are checked against the booking rules on the caller's thread and queued. A single
+ * writer takes the first queued booking, waits up to {@code app.group-commit.max-wait} from its
+ * arrival for more, up to {@code app.group-commit.max-batch-size}, and writes them in one
+ * transaction: the courts of the batch are locked in ID order, each booking is validated and checked
+ * for overlaps with the database and with the bookings before it in the batch, and the accepted
+ * ones are saved together. A rejected booking fails only its own caller. If the transaction as a
+ * whole fails, its bookings are retried one by one, each in its own transaction. Bookings arriving
+ * while a batch is being written are queued for the next one.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class GroupCommitter {
+    private static final long AWAIT_TIMEOUT_SECONDS = 30;
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final CourtRepository courtRepository;
+    private final BookingRules bookingRules;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final int maxBatchSize;
+    private final Counter batches;
+    private final Counter retries;
+
+    private final BlockingQueue<Booking> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Constructs a new GroupCommitter.
+     *
+     * @param config                application configuration holding the group commit settings
+     * @param reservationService    service used to validate, price and retry bookings
+     * @param reservationRepository repository used to check overlaps and save bookings
+     * @param courtRepository       repository used to lock the courts of a batch
+     * @param bookingRules          opening hours and slot rules checked before queueing
+     * @param transactionManager    transaction manager for batches
+     * @param meterRegistry         registry for batch metrics
+     * @param executor              executor running the writer
+     * @throws IllegalArgumentException if the batch size is not positive or the wait is negative
+     */
+    public GroupCommitter(AppConfig config,
+                          ReservationService reservationService,
+                          ReservationRepository reservationRepository,
+                          CourtRepository courtRepository,
+                          BookingRules bookingRules,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("serviceExecutor") Executor executor) {
+        AppConfig.GroupCommit settings = config.getGroupCommit();
+        if (settings.getMaxBatchSize() < 1) {
+            throw new IllegalArgumentException("app.group-commit.max-batch-size must be positive");
+        }
+        if (settings.getMaxWait().isNegative()) {
+            throw new IllegalArgumentException("app.group-commit.max-wait must not be negative");
+        }
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.courtRepository = courtRepository;
+        this.bookingRules = bookingRules;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.enabled = settings.isEnabled();
+        this.maxWait = settings.getMaxWait();
+        this.maxBatchSize = settings.getMaxBatchSize();
+        this.batches = Counter.builder("groupcommit.batches")
+                .description("Transactions written by group commit")
+                .register(meterRegistry);
+        this.retries = Counter.builder("groupcommit.retries")
+                .description("Bookings retried on their own after their batch failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether bookings of direct mode are written in groups.
+     *
+     * @return true if group commit is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks a reservation against the booking rules and queues it for the next batch.
+     *
+     * @param reservation the reservation to create
+     * @return future completed with the created reservation, or with the exception rejecting it
+     * @throws IllegalArgumentException if the time range or the booking rules are violated
+     */
+    public CompletableFuture<Reservation> submit(Reservation reservation) {
+        if (reservation.getStartTime().isAfter(reservation.getEndTime())) {
+            throw new IllegalArgumentException("StartTime is after endTime");
+        }
+        bookingRules.check(reservation.getCourtId(), reservation.getStartTime(), reservation.getEndTime());
+
+        Booking booking = new Booking(reservation, TenantContext.current(), System.nanoTime(),
+                new CompletableFuture<>());
+        queue.add(booking);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return booking.result();
+    }
+
+    /**
+     * Submits a reservation and waits until its batch has been written.
+     *
+     * @param reservation the reservation to create
+     * @return the created reservation
+     * @throws IllegalArgumentException if the booking was rejected
+     * @throws IllegalStateException    if the booking did not finish in time
+     */
+    public Reservation create(Reservation reservation) {
+        CompletableFuture<Reservation> result = submit(reservation);
+        try {
+            return result.get(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Booking is still pending");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void drain() {
+        do {
+            List<Booking> batch;
+            while (!(batch = collect()).isEmpty()) {
+                Map<String, List<Booking>> byTenant = new LinkedHashMap<>();
+                for (Booking booking : batch) {
+                    byTenant.computeIfAbsent(booking.tenant(), tenant -> new ArrayList<>()).add(booking);
+                }
+                byTenant.forEach((tenant, bookings) -> TenantContext.run(tenant, () -> write(bookings)));
+            }
+            scheduled.set(false);
+        } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Takes the oldest booking and the bookings arriving within the wait after it.
+     */
+    private List<Booking> collect() {
+        List<Booking> batch = new ArrayList<>();
+        Booking first = queue.poll();
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = first.arrivedAt() + maxWait.toNanos();
+        try {
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                Booking next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch;
+    }
+
+    private void write(List<Booking> batch) {
+        List<Booking> accepted = new ArrayList<>(batch.size());
+        List<Reservation> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<Long> courtIds = batch.stream()
+                        .map(b -> b.reservation().getCourtId())
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList();
+                if (!courtIds.isEmpty()) {
+                    courtRepository.lockAll(courtIds);
+                }
+                for (Booking booking : batch) {
+                    try {
+                        Reservation reservation = reservationService.prepareReservation(booking.reservation());
+                        if (overlapsAccepted(reservation, accepted) || reservationRepository.isOverlapping(
+                                reservation.getCourtId(), reservation.getStartTime(), reservation.getEndTime())) {
+                            throw new IllegalArgumentException(
+                                    "Reservation time is overlapping with another reservation");
+                        }
+                        accepted.add(booking);
+                    } catch (RuntimeException e) {
+                        booking.result().completeExceptionally(e);
+                    }
+                }
+                return accepted.isEmpty()
+                        ? List.of()
+                        : reservationRepository.saveAll(accepted.stream().map(Booking::reservation).toList());
+            });
+        } catch (RuntimeException e) {
+            retryOneByOne(batch.stream().filter(b -> !b.result().isDone()).toList());
+            return;
+        }
+        batches.increment();
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).result().complete(saved.get(i));
+        }
+    }
+
+    private void retryOneByOne(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            retries.increment();
+            // the ID was assigned in the rolled back transaction
+            booking.reservation().setId(null);
+            try {
+                booking.result().complete(reservationService.createReservation(booking.reservation()));
+            } catch (RuntimeException e) {
+                booking.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static boolean overlapsAccepted(Reservation reservation, List<Booking> accepted) {
+        for (Booking booking : accepted) {
+            Reservation other = booking.reservation();
+            if (other.getCourtId().equals(reservation.getCourtId())
+                    && other.getStartTime().isBefore(reservation.getEndTime())
+                    && reservation.getStartTime().isBefore(other.getEndTime())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Booking(Reservation reservation, String tenant, long arrivedAt,
+                           CompletableFuture<Reservation> result) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service managing tentative holds on court slots.
+ * <p>
+ * A hold is a {@link Reservation} in the {@link Reservation.Status#HOLD} state. It blocks its slot
+ * in overlap checks like any reservation until it is confirmed, released or expires. Expiry is
+ * driven by an in-memory {@link TimingWheel} advanced every {@value #TICK_MILLIS} ms, so no query
+ * runs until a hold is actually due. The wheel holds the holds of all tenants and is rebuilt from
+ * the database on startup.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class HoldService {
+    private static final long TICK_MILLIS = 100;
+    private static final long RETRY_MILLIS = 1000;
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final TenantRegistry tenants;
+    private final Duration holdTtl;
+    private final TimingWheel<Long> wheel = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    private final Map<Long, TimingWheel.Timeout<Long>> timeouts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new HoldService.
+     *
+     * @param reservationService    service validating and creating reservations
+     * @param reservationRepository the reservation repository
+     * @param config                application configuration holding the hold TTL
+     * @param tenants               the configured tenants, whose holds are tracked
+     */
+    public HoldService(ReservationService reservationService,
+                       ReservationRepository reservationRepository,
+                       AppConfig config,
+                       TenantRegistry tenants) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.tenants = tenants;
+        this.holdTtl = config.getHoldTtl();
+    }
+
+    /**
+     * Re-registers the expiry of every active hold after a restart. Holds that expired while
+     * the application was down expire at the first tick.
+     */
+    @PostConstruct
+    public void rebuild() {
+        tenants.forEach(() -> reservationRepository.findActiveHolds().forEach(this::track));
+    }
+
+    /**
+     * Creates a hold on a slot. The hold is validated and checked for overlaps like a reservation.
+     *
+     * @param reservation the slot to hold
+     * @return the created hold
+     * @throws IllegalArgumentException if any validation fails
+     */
+    public Reservation createHold(Reservation reservation) {
+        reservation.setStatus(Reservation.Status.HOLD);
+        reservation.setHoldExpiresAt(LocalDateTime.now().plus(holdTtl).truncatedTo(ChronoUnit.MILLIS));
+        Reservation held = reservationService.createReservation(reservation);
+        track(held);
+        return held;
+    }
+
+    /**
+     * Confirms a hold, turning it into a regular reservation.
+     *
+     * @param id the ID of the hold
+     * @return the confirmed reservation, or null if there is no active hold with the ID
+     */
+    public Reservation confirm(Long id) {
+        Reservation confirmed = reservationRepository.confirmHold(id, LocalDateTime.now());
+        if (confirmed != null) {
+            untrack(id);
+        }
+        return confirmed;
+    }
+
+    /**
+     * Releases a hold before it expires.
+     *
+     * @param id the ID of the hold
+     * @return true if the hold was released, false if there is no such hold
+     */
+    public boolean release(Long id) {
+        boolean released = reservationRepository.releaseHold(id);
+        if (released) {
+            untrack(id);
+        }
+        return released;
+    }
+
+    /**
+     * Advances the timing wheel to the current time.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void tick() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    /**
+     * Expires the holds whose deadlines have passed at the given time.
+     * If the database update fails, the holds are retried a second later.
+     *
+     * @param nowMillis the current time in milliseconds
+     * @return the number of holds expired
+     */
+    public int expireDue(long nowMillis) {
+        List<Long> due = wheel.advance(nowMillis);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        due.forEach(timeouts::remove);
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+        try {
+            int expired = 0;
+            for (Map.Entry<String, List<Long>> partition : tenants.partition(due).entrySet()) {
+                expired += TenantContext.call(partition.getKey(),
+                        () -> reservationRepository.expireHolds(partition.getValue(), now));
+            }
+            return expired;
+        } catch (RuntimeException e) {
+            due.forEach(id -> timeouts.put(id, wheel.schedule(id, nowMillis + RETRY_MILLIS)));
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of holds waiting for expiry.
+     *
+     * @return the number of tracked holds
+     */
+    public int getPendingCount() {
+        return timeouts.size();
+    }
+
+    private void track(Reservation hold) {
+        long deadline = hold.getHoldExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        TimingWheel.Timeout<Long> previous = timeouts.put(hold.getId(), wheel.schedule(hold.getId(), deadline));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void untrack(Long id) {
+        TimingWheel.Timeout<Long> timeout = timeouts.remove(id);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
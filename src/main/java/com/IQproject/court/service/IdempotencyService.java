@@ -0,0 +1,185 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.IdempotencyRecord;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.IdempotencyRecordRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Makes reservation creation idempotent per client-supplied {@code Idempotency-Key}.
+ * <p>
+ * Results are kept in a bounded, TTL-evicted in-memory map backed by the {@code idempotency_key}
+ * table. The first request with a key runs the booking and stores its result in the same
+ * transaction; concurrent duplicates wait for that in-flight result, and later retries are served
+ * from memory or the table without booking again. Failed attempts are not remembered, so a retry
+ * after a failure runs the booking again. Keys are scoped to the tenant, so clubs may use the same keys.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppConfig config;
+    private final TenantRegistry tenants;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Result of an idempotent call.
+     *
+     * @param record   the stored result
+     * @param replayed true if the result was produced by an earlier request with the same key
+     */
+    public record Outcome(IdempotencyRecord record, boolean replayed) {
+    }
+
+    private record Entry(CompletableFuture<IdempotencyRecord> result, long createdAtNanos) {
+    }
+
+    /**
+     * Constructs a new IdempotencyService.
+     *
+     * @param repository         repository persisting results
+     * @param transactionManager transaction manager used to store results with the booking
+     * @param config             application configuration holding TTL and cache size
+     * @param tenants            the configured tenants, whose results are purged
+     */
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              AppConfig config,
+                              TenantRegistry tenants) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = config;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Runs a booking at most once per idempotency key.
+     *
+     * @param key     the idempotency key sent by the client
+     * @param request the reservation request, used to detect reuse of a key for another request
+     * @param booking creates the reservation; it must write in the current transaction, not hand the
+     *                booking to another thread, or the result would not commit with it
+     * @return the original result and whether it was replayed
+     * @throws IllegalArgumentException if the key is invalid or was used for a different request
+     */
+    public Outcome execute(String key, Reservation request, Supplier<Reservation> booking) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(request);
+        String tenant = TenantContext.current();
+        String scopedKey = TenantContext.DEFAULT_TENANT.equals(tenant) ? key : tenant + ":" + key;
+
+        Entry entry = new Entry(new CompletableFuture<>(), System.nanoTime());
+        Entry existing;
+        while ((existing = cache.putIfAbsent(scopedKey, entry)) != null) {
+            if (!isExpired(existing)) {
+                return new Outcome(verify(await(existing), requestHash), true);
+            }
+            cache.remove(scopedKey, existing);
+        }
+        evictIfFull();
+
+        try {
+            IdempotencyRecord stored = repository.findByKey(scopedKey);
+            if (stored != null) {
+                entry.result().complete(stored);
+                return new Outcome(verify(stored, requestHash), true);
+            }
+            IdempotencyRecord record = transactionTemplate.execute(status -> {
+                Reservation created = booking.get();
+                if (created == null) {
+                    throw new IllegalArgumentException("Reservation could not be created");
+                }
+                return repository.save(new IdempotencyRecord(scopedKey, requestHash, created.getId(),
+                        created.getPrice(), HttpStatus.CREATED.value()));
+            });
+            entry.result().complete(record);
+            return new Outcome(record, false);
+        } catch (RuntimeException e) {
+            cache.remove(scopedKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes expired results from memory and from the database.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1H")
+    public void purgeExpired() {
+        cache.values().removeIf(this::isExpired);
+        LocalDateTime cutoff = LocalDateTime.now().minus(config.getIdempotencyTtl());
+        tenants.forEach(() -> repository.deleteCreatedBefore(cutoff));
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.createdAtNanos() > config.getIdempotencyTtl().toNanos();
+    }
+
+    private void evictIfFull() {
+        int max = config.getIdempotencyCacheSize();
+        if (cache.size() <= max) {
+            return;
+        }
+        cache.values().removeIf(this::isExpired);
+        cache.entrySet().stream()
+                .filter(e -> e.getValue().result().isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().createdAtNanos()))
+                .limit(Math.max(0, cache.size() - max * 9L / 10))
+                .forEach(e -> cache.remove(e.getKey(), e.getValue()));
+    }
+
+    private static IdempotencyRecord await(Entry entry) {
+        try {
+            return entry.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static IdempotencyRecord verify(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+        return record;
+    }
+
+    private static String fingerprint(Reservation request) {
+        String phone = request.getCustomer() != null ? request.getCustomer().getPhoneNumber() : null;
+        String canonical = request.getCourtId() + "|" + request.getStartTime() + "|" + request.getEndTime()
+                + "|" + request.isDoubles() + "|" + phone;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
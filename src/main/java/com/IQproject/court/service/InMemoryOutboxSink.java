@@ -0,0 +1,33 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps delivered reservation events in memory. A stand-in for a real destination in tests.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxEvent> delivered = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        delivered.addAll(events);
+    }
+
+    /**
+     * Returns the events delivered so far.
+     *
+     * @return the delivered events, in delivery order
+     */
+    public List<OutboxEvent> getDelivered() {
+        return List.copyOf(delivered);
+    }
+}
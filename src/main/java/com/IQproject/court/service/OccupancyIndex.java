@@ -0,0 +1,305 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.event.RemoteChangeEvent;
+import com.IQproject.court.model.CalendarGrid;
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ReservationRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory occupancy bitmaps of courts per day.
+ * <p>
+ * A day is split into {@value #SLOT_MINUTES}-minute base slots, and each court has one bit per
+ * slot (288 bits, five longs). A slot is occupied if any reservation or unexpired hold touches it.
+ * Blackout windows are kept by {@link BlackoutService} and merged into the rows when a grid is built.
+ * A day is loaded with one query the first time it is requested. From then on it is kept up to
+ * date from committed {@link ReservationChangedEvent}s, recomputing only the bitmaps of the courts
+ * a change touches. Bitmaps are replaced rather than modified, so grid reads take no lock.
+ * Days are kept per tenant, each loaded with the reservations its tenant can see, and changes are
+ * applied to the days of the reservation's tenant. Reservation changes of other instances drop the
+ * days of their tenant, which are reloaded on next use. At most {@value #MAX_DAYS} days are kept per
+ * tenant; the day furthest from today is dropped first.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class OccupancyIndex {
+    /**
+     * Length of a base slot in minutes. Grid granularities must be multiples of it.
+     */
+    public static final int SLOT_MINUTES = 5;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+    private static final int MAX_DAYS = 62;
+    private static final long[] EMPTY = new long[WORDS_PER_DAY];
+
+    private final ReservationRepository reservationRepository;
+    private final BlackoutService blackoutService;
+    private final Map<String, Map<LocalDate, Day>> tenantDays = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private record Interval(long courtId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Occupancy of one day. Bitmaps are read without locking; everything else is guarded by the write lock.
+     */
+    private static final class Day {
+        private final LocalDateTime start;
+        private final Map<Long, long[]> bits = new ConcurrentHashMap<>();
+        private final Map<Long, Interval> reservations = new HashMap<>();
+
+        private Day(LocalDate date) {
+            this.start = date.atStartOfDay();
+        }
+
+        private LocalDateTime end() {
+            return start.plusDays(1);
+        }
+
+        private boolean touches(LocalDateTime from, LocalDateTime to) {
+            return from.isBefore(end()) && to.isAfter(start);
+        }
+
+        private void recompute(long courtId) {
+            long[] words = new long[WORDS_PER_DAY];
+            for (Interval interval : reservations.values()) {
+                if (interval.courtId() == courtId) {
+                    setRange(words, slotOf(interval.start(), false), slotOf(interval.end(), true));
+                }
+            }
+            bits.put(courtId, words);
+        }
+
+        /**
+         * Returns the base slot containing the time, clipped to this day. With {@code exclusiveEnd},
+         * a time inside a slot rounds up so that the slot counts as touched.
+         */
+        private int slotOf(LocalDateTime time, boolean exclusiveEnd) {
+            if (!time.isAfter(start)) {
+                return 0;
+            }
+            if (!time.isBefore(end())) {
+                return SLOTS_PER_DAY;
+            }
+            long seconds = Duration.between(start, time).toSeconds();
+            long slotSeconds = SLOT_MINUTES * 60L;
+            return (int) (exclusiveEnd ? (seconds + slotSeconds - 1) / slotSeconds : seconds / slotSeconds);
+        }
+    }
+
+    /**
+     * Constructs a new OccupancyIndex.
+     *
+     * @param reservationRepository repository used to load days
+     * @param blackoutService       in-memory court blackout windows
+     */
+    public OccupancyIndex(ReservationRepository reservationRepository, BlackoutService blackoutService) {
+        this.reservationRepository = reservationRepository;
+        this.blackoutService = blackoutService;
+    }
+
+    /**
+     * Builds the occupancy grid of a day for the given courts of the current tenant.
+     *
+     * @param date               the day
+     * @param granularityMinutes length of a grid cell, a multiple of {@value #SLOT_MINUTES} dividing a day
+     * @param courts             the courts to include, in row order
+     * @return the grid
+     * @throws IllegalArgumentException if the granularity is invalid
+     */
+    public CalendarGrid grid(LocalDate date, int granularityMinutes, List<Court> courts) {
+        if (granularityMinutes <= 0 || granularityMinutes % SLOT_MINUTES != 0
+                || (24 * 60) % granularityMinutes != 0) {
+            throw new IllegalArgumentException("Granularity must be a multiple of " + SLOT_MINUTES
+                    + " minutes that divides a day");
+        }
+        Day day = day(TenantContext.current(), date);
+        int slotsPerCell = granularityMinutes / SLOT_MINUTES;
+        int cells = SLOTS_PER_DAY / slotsPerCell;
+
+        List<CalendarGrid.Row> rows = new ArrayList<>(courts.size());
+        char[] row = new char[cells];
+        for (Court court : courts) {
+            long[] words = withBlackouts(day, court.getId(), day.bits.getOrDefault(court.getId(), EMPTY));
+            for (int cell = 0; cell < cells; cell++) {
+                row[cell] = anySet(words, cell * slotsPerCell, (cell + 1) * slotsPerCell) ? '1' : '0';
+            }
+            rows.add(new CalendarGrid.Row(court.getId(), court.getName(), new String(row)));
+        }
+        return new CalendarGrid(date, granularityMinutes, rows);
+    }
+
+    /**
+     * Applies committed reservation changes to the loaded days.
+     *
+     * @param event the committed event
+     */
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        writeLock.lock();
+        try {
+            for (ReservationChange change : event.changes()) {
+                apply(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the days of the tenants whose reservations other instances changed, and the days
+     * loaded as {@link TenantContext#ROOT}, which include every tenant's reservations.
+     *
+     * @param event the remote changes
+     */
+    @EventListener
+    public void onRemoteChange(RemoteChangeEvent event) {
+        writeLock.lock();
+        try {
+            if (event.reset()) {
+                tenantDays.clear();
+                return;
+            }
+            List<ChangeLogEntry> changes = event.changesOf(ChangeLogEntry.EntityType.RESERVATION);
+            for (ChangeLogEntry change : changes) {
+                tenantDays.remove(change.getTenantId());
+            }
+            if (!changes.isEmpty()) {
+                tenantDays.remove(TenantContext.ROOT);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of days currently held in memory for all tenants.
+     *
+     * @return the number of loaded days
+     */
+    public int getLoadedDays() {
+        return tenantDays.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private void apply(ReservationChange change) {
+        Map<LocalDate, Day> days = tenantDays.get(change.tenantId());
+        if (days == null) {
+            return;
+        }
+        for (Day day : days.values()) {
+            Set<Long> touched = new HashSet<>(2);
+            Interval previous = day.reservations.remove(change.reservationId());
+            if (previous != null) {
+                touched.add(previous.courtId());
+            }
+            if (change.type() != ReservationChange.Type.DELETED
+                    && day.touches(change.startTime(), change.endTime())) {
+                day.reservations.put(change.reservationId(),
+                        new Interval(change.courtId(), change.startTime(), change.endTime()));
+                touched.add(change.courtId());
+            }
+            touched.forEach(day::recompute);
+        }
+    }
+
+    private long[] withBlackouts(Day day, Long courtId, long[] words) {
+        List<CourtSchedule.Slot> blackouts = blackoutService.occurrences(courtId, day.start, day.end());
+        if (blackouts.isEmpty()) {
+            return words;
+        }
+        long[] merged = words.clone();
+        for (CourtSchedule.Slot blackout : blackouts) {
+            setRange(merged, day.slotOf(blackout.start(), false), day.slotOf(blackout.end(), true));
+        }
+        return merged;
+    }
+
+    private Day day(String tenant, LocalDate date) {
+        Map<LocalDate, Day> days = tenantDays.computeIfAbsent(tenant, t -> new ConcurrentHashMap<>());
+        Day day = days.get(date);
+        if (day != null) {
+            return day;
+        }
+        writeLock.lock();
+        try {
+            day = days.get(date);
+            if (day == null) {
+                day = load(date);
+                evictIfNeeded(days, date);
+                days.put(date, day);
+            }
+            return day;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Day load(LocalDate date) {
+        Day day = new Day(date);
+        Set<Long> courts = new HashSet<>();
+        for (Reservation reservation : reservationRepository.findBetween(day.start, day.end())) {
+            day.reservations.put(reservation.getId(), new Interval(reservation.getCourtId(),
+                    reservation.getStartTime(), reservation.getEndTime()));
+            courts.add(reservation.getCourtId());
+        }
+        courts.forEach(day::recompute);
+        return day;
+    }
+
+    private static void evictIfNeeded(Map<LocalDate, Day> days, LocalDate keep) {
+        LocalDate today = LocalDate.now();
+        while (days.size() >= MAX_DAYS) {
+            LocalDate furthest = null;
+            for (LocalDate date : days.keySet()) {
+                if (!date.equals(keep) && (furthest == null || Math.abs(ChronoUnit.DAYS.between(today, date))
+                        > Math.abs(ChronoUnit.DAYS.between(today, furthest)))) {
+                    furthest = date;
+                }
+            }
+            days.remove(furthest);
+        }
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        for (int slot = from; slot < to; slot++) {
+            words[slot >>> 6] |= 1L << (slot & 63);
+        }
+    }
+
+    private static boolean anySet(long[] words, int from, int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long mask = -1L;
+            if (word == from >>> 6) {
+                mask &= -1L << (from & 63);
+            }
+            if (word == (to - 1) >>> 6) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            if ((words[word] & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
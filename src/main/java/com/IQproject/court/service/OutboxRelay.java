@@ -0,0 +1,106 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.OutboxEvent;
+import com.IQproject.court.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relays reservation events from the outbox to the {@link OutboxSink} in the background, so that
+ * bookings only pay for one insert per reservation in their own transaction.
+ * <p>
+ * Every {@code app.outbox.poll-interval} each tenant's outbox is drained in batches of up to
+ * {@code app.outbox.batch-size} events. A batch is locked, delivered and deleted in one
+ * transaction, so a batch that fails to deliver, or whose deletion does not commit, stays in the
+ * outbox and is delivered again on the next poll: delivery is at least once, in ID order. Instances
+ * sharing the database relay different batches because of the lock.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class OutboxRelay {
+    private final OutboxRepository repository;
+    private final OutboxSink sink;
+    private final TenantRegistry tenants;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter delivered;
+    private final Counter failures;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs a new OutboxRelay.
+     *
+     * @param config             application configuration holding the outbox settings
+     * @param repository         the outbox repository
+     * @param sink               the destination of the events
+     * @param tenants            the configured tenants, whose outboxes are drained
+     * @param transactionManager transaction manager for relayed batches
+     * @param meterRegistry      registry for delivery metrics
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public OutboxRelay(AppConfig config, OutboxRepository repository, OutboxSink sink, TenantRegistry tenants,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        if (config.getOutbox().getBatchSize() < 1) {
+            throw new IllegalArgumentException("app.outbox.batch-size must be positive");
+        }
+        this.repository = repository;
+        this.sink = sink;
+        this.tenants = tenants;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = config.getOutbox().isEnabled();
+        this.batchSize = config.getOutbox().getBatchSize();
+        this.delivered = Counter.builder("outbox.delivered")
+                .description("Reservation events delivered from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.failures")
+                .description("Outbox batches that failed to deliver and will be retried")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delivers all events in every tenant's outbox.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:200ms}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            tenants.forEach(this::relayCurrentTenant);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void relayCurrentTenant() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> {
+                    List<OutboxEvent> batch = repository.lockOldest(batchSize);
+                    if (!batch.isEmpty()) {
+                        sink.deliver(batch);
+                        repository.delete(batch.stream().map(OutboxEvent::getId).toList());
+                    }
+                    return batch.size();
+                });
+                delivered.increment(relayed == null ? 0 : relayed);
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            // the batch stays in the outbox and is retried on the next poll
+            failures.increment();
+        }
+    }
+}
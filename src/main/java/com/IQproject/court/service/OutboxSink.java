@@ -0,0 +1,24 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} delivers reservation events to, selected with
+ * {@code app.outbox.sink}.
+ *
+ * @author Vojtech Zednik
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch of events. The events must be stored durably when this method returns;
+     * they are then deleted from the outbox. Events of a failed batch are delivered again, so a
+     * sink may receive an event more than once.
+     *
+     * @param events the events, ordered by ID
+     * @throws RuntimeException if the batch could not be delivered
+     */
+    void deliver(List<OutboxEvent> events);
+}
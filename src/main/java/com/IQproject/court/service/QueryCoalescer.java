@@ -0,0 +1,147 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.event.ReservationChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent read queries.
+ * <p>
+ * Concurrent calls of the same tenant with the same method name and arguments share one in-flight
+ * query and its result. Every reservation write increments a version that is part of the flight key
+ * right before it commits, so a read that starts after a write has committed never joins a query
+ * started before the write began to commit. A query started while a write is committing may miss
+ * it, so it is not shared at all.
+ * The share of calls served by another call's query is exported as {@code query.coalescing.ratio}.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class QueryCoalescer {
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger committing = new AtomicInteger();
+    private final Counter requests;
+    private final Counter executions;
+
+    private record Key(String tenant, String method, List<Object> args, long version) {
+    }
+
+    /**
+     * Constructs a new QueryCoalescer.
+     *
+     * @param meterRegistry registry for coalescing metrics
+     */
+    public QueryCoalescer(MeterRegistry meterRegistry) {
+        this.requests = Counter.builder("query.coalescing.requests")
+                .description("Read queries requested")
+                .register(meterRegistry);
+        this.executions = Counter.builder("query.coalescing.executions")
+                .description("Read queries executed against the database")
+                .register(meterRegistry);
+        Gauge.builder("query.coalescing.ratio", this, QueryCoalescer::getCoalescingRatio)
+                .description("Share of read queries served by another in-flight query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a query, or joins an identical query already in flight.
+     *
+     * @param method name identifying the query
+     * @param query  the query to run
+     * @param args   the query arguments
+     * @param <T>    the result type
+     * @return the query result, possibly shared with concurrent callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, Supplier<T> query, Object... args) {
+        requests.increment();
+        // a write increments committing before version, so a flight that sees no write committing
+        // under this version cannot miss a write committed before a joiner with the same version starts
+        long current = version.get();
+        boolean shared = committing.get() == 0;
+        Key key = new Key(TenantContext.current(), method, Arrays.asList(args), current);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = shared ? inFlight.putIfAbsent(key, flight) : inFlight.get(key);
+        if (existing != null) {
+            return (T) join(existing);
+        }
+
+        executions.increment();
+        try {
+            T result = query.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (shared) {
+                inFlight.remove(key, flight);
+            }
+        }
+    }
+
+    /**
+     * Starts a new version right before a write commits, and stops sharing new flights until the
+     * write has completed, so later reads do not join flights that may miss it.
+     *
+     * @param event the event of the committing write
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        committing.incrementAndGet();
+        invalidate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                committing.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Starts a new version, so later reads do not join older flights.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the share of requested queries that were served by another in-flight query.
+     *
+     * @return the coalescing ratio between 0 and 1
+     */
+    public double getCoalescingRatio() {
+        double requested = requests.count();
+        return requested == 0 ? 0 : 1 - executions.count() / requested;
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only journal of committed reservation changes, used to restore court schedules on a
+ * warm restart without scanning the reservation table.
+ * <p>
+ * Every change is appended as a fixed-size, checksummed record to a memory-mapped file. Every
+ * {@code app.journal.snapshot-interval}, on shutdown and whenever the file is full, the schedules of
+ * all loaded courts are written to a compact snapshot and the journal is cleared. On startup the
+ * snapshot is read, the records written after it are replayed, and the result is handed to
+ * {@link CourtScheduleRegistry}. The restored schedules are then verified court by court against
+ * the database in the background. Courts that were not loaded when the snapshot was taken are
+ * loaded from the database on first use, as without the journal.
+ * <p>
+ * Records are not forced to disk on every append: they survive a crash of the application but not
+ * of the machine. Anything lost that way is corrected by the verification.
+ *
+ * @author Vojtech Zednik
+ */
+@Component
+public class ReservationJournal {
+    private static final String JOURNAL_FILE = "reservations.journal";
+    private static final String SNAPSHOT_FILE = "reservations.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x52534E50;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    /**
+     * Sequence, type, reservation ID, court ID, start and end (seconds and nanos) and a CRC32.
+     */
+    private static final int RECORD_SIZE = 8 + 1 + 8 + 8 + 12 + 12 + 4;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int capacity;
+    private final CourtScheduleRegistry scheduleRegistry;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger mismatches = new AtomicInteger();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private long sequence;
+    private int restoredCourts;
+
+    private record Snapshot(long sequence, Map<Long, Map<Long, CourtSchedule.Slot>> courts) {
+    }
+
+    /**
+     * Constructs a new ReservationJournal.
+     *
+     * @param config           application configuration holding the journal settings
+     * @param scheduleRegistry registry of in-memory court schedules
+     * @param executor         executor verifying restored schedules
+     */
+    public ReservationJournal(AppConfig config, CourtScheduleRegistry scheduleRegistry,
+                              @Qualifier("serviceExecutor") Executor executor) {
+        AppConfig.Journal journal = config.getJournal();
+        this.enabled = journal.isEnabled();
+        this.directory = Path.of(journal.getDirectory());
+        long records = journal.getSize().toBytes() / RECORD_SIZE;
+        if (enabled && records < 1) {
+            throw new IllegalArgumentException("Journal size must hold at least one record");
+        }
+        this.capacity = (int) Math.min(records, Integer.MAX_VALUE / RECORD_SIZE) * RECORD_SIZE;
+        this.scheduleRegistry = scheduleRegistry;
+        this.executor = executor;
+    }
+
+    /**
+     * Maps the journal file and restores the court schedules from the latest snapshot and the
+     * journal tail. Verification against the database is left to the executor.
+     *
+     * @throws IOException if the journal cannot be opened
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Snapshot snapshot = readSnapshot();
+        channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        sequence = snapshot == null ? 0 : snapshot.sequence();
+        replay(snapshot);
+        if (snapshot == null) {
+            return;
+        }
+
+        Map<Long, CourtSchedule> schedules = new HashMap<>(snapshot.courts().size() * 2);
+        snapshot.courts().forEach((courtId, slots) ->
+                schedules.put(courtId, CourtSchedule.of(new ArrayList<>(slots.values()))));
+        scheduleRegistry.restore(schedules);
+        restoredCourts = schedules.size();
+        List<Long> courtIds = List.copyOf(schedules.keySet());
+        executor.execute(() -> courtIds.forEach(courtId -> {
+            if (!scheduleRegistry.verify(courtId)) {
+                mismatches.incrementAndGet();
+            }
+        }));
+    }
+
+    /**
+     * Appends committed reservation changes. Runs after {@link CourtScheduleRegistry} has applied
+     * them, so a snapshot never misses a change the journal has already recorded.
+     *
+     * @param event the committed event
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (ReservationChange change : event.changes()) {
+                if (position + RECORD_SIZE > capacity) {
+                    snapshotLocked();
+                }
+                append(change);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the loaded court schedules and clears the journal.
+     */
+    @Scheduled(fixedDelayString = "${app.journal.snapshot-interval:5m}")
+    public void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            snapshotLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a final snapshot and unmaps the journal.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            snapshotLocked();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the sequence number of the last recorded change.
+     *
+     * @return the sequence number, 0 if nothing has been recorded
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of court schedules restored on startup.
+     *
+     * @return the number of restored courts
+     */
+    public int getRestoredCourts() {
+        return restoredCourts;
+    }
+
+    /**
+     * Returns the number of restored schedules that differed from the database and were replaced.
+     *
+     * @return the number of mismatches found so far
+     */
+    public int getMismatches() {
+        return mismatches.get();
+    }
+
+    private void append(ReservationChange change) {
+        ByteBuffer record = buffer.slice(position, RECORD_SIZE);
+        record.putLong(++sequence)
+                .put(change.type() == ReservationChange.Type.DELETED ? DELETE : UPSERT)
+                .putLong(change.reservationId())
+                .putLong(change.courtId());
+        putTime(record, change.startTime());
+        putTime(record, change.endTime());
+        record.putInt(checksum(record));
+        position += RECORD_SIZE;
+    }
+
+    /**
+     * Scans the journal from the start and applies the records newer than the snapshot. The scan
+     * stops at the first record that is torn, empty or older than its predecessor, which is where
+     * the next record will be written.
+     */
+    private void replay(Snapshot snapshot) {
+        Map<Long, Long> courtOf = new HashMap<>();
+        if (snapshot != null) {
+            snapshot.courts().forEach((courtId, slots) -> slots.keySet().forEach(id -> courtOf.put(id, courtId)));
+        }
+        long previous = 0;
+        position = 0;
+        while (position + RECORD_SIZE <= capacity) {
+            ByteBuffer record = buffer.slice(position, RECORD_SIZE);
+            long recordSequence = record.getLong(0);
+            if (recordSequence <= previous || record.getInt(RECORD_SIZE - 4) != checksum(record)) {
+                break;
+            }
+            byte type = record.get(8);
+            long id = record.getLong(9);
+            long courtId = record.getLong(17);
+            LocalDateTime start = getTime(record.position(25));
+            LocalDateTime end = getTime(record);
+            previous = recordSequence;
+            position += RECORD_SIZE;
+            if (snapshot == null || recordSequence <= snapshot.sequence()) {
+                continue;
+            }
+
+            Long oldCourt = courtOf.remove(id);
+            if (oldCourt != null) {
+                snapshot.courts().get(oldCourt).remove(id);
+            }
+            Map<Long, CourtSchedule.Slot> slots = snapshot.courts().get(courtId);
+            if (type == UPSERT && slots != null) {
+                slots.put(id, new CourtSchedule.Slot(id, start, end));
+                courtOf.put(id, courtId);
+            }
+        }
+        sequence = Math.max(sequence, previous);
+    }
+
+    private Snapshot readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return null;
+            }
+            long snapshotSequence = in.readLong();
+            int courtCount = in.readInt();
+            Map<Long, Map<Long, CourtSchedule.Slot>> courts = new HashMap<>(courtCount * 2);
+            for (int i = 0; i < courtCount; i++) {
+                long courtId = in.readLong();
+                int slotCount = in.readInt();
+                Map<Long, CourtSchedule.Slot> slots = new HashMap<>(slotCount * 2);
+                for (int j = 0; j < slotCount; j++) {
+                    long id = in.readLong();
+                    slots.put(id, new CourtSchedule.Slot(id, readTime(in), readTime(in)));
+                }
+                courts.put(courtId, slots);
+            }
+            long expected = crc.getValue();
+            return in.readLong() == expected ? new Snapshot(snapshotSequence, courts) : null;
+        } catch (IOException e) {
+            // a truncated snapshot is ignored like a missing one
+            return null;
+        }
+    }
+
+    private void snapshotLocked() {
+        Map<Long, CourtSchedule> schedules = scheduleRegistry.getLoaded();
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream data = new DataOutputStream(new CheckedOutputStream(
+                         new BufferedOutputStream(Channels.newOutputStream(out)), crc))) {
+                data.writeInt(SNAPSHOT_MAGIC);
+                data.writeInt(SNAPSHOT_VERSION);
+                data.writeLong(sequence);
+                data.writeInt(schedules.size());
+                for (Map.Entry<Long, CourtSchedule> court : schedules.entrySet()) {
+                    List<CourtSchedule.Slot> slots = court.getValue().slots();
+                    data.writeLong(court.getKey());
+                    data.writeInt(slots.size());
+                    for (CourtSchedule.Slot slot : slots) {
+                        data.writeLong(slot.id());
+                        writeTime(data, slot.start());
+                        writeTime(data, slot.end());
+                    }
+                }
+                data.writeLong(crc.getValue());
+                data.flush();
+                out.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write journal snapshot", e);
+        }
+
+        byte[] zeros = new byte[Math.min(position, 64 * 1024)];
+        for (int offset = 0; offset < position; offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, position - offset));
+        }
+        buffer.force();
+        position = 0;
+    }
+
+    private static int checksum(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.slice(0, RECORD_SIZE - 4));
+        return (int) crc.getValue();
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -3,48 +3,94 @@ package com.IQproject.court.service;
 import com.IQproject.court.model.Court;
 import com.IQproject.court.model.Customer;
 import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.ReservationView;
 import com.IQproject.court.repository.CourtRepository;
 import com.IQproject.court.repository.CustomerRepository;
 import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.ReservationViewRepository;
 import com.IQproject.court.repository.SurfaceTypeRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing court {@link Reservation}.
  * Handles business logic related to creating, updating, retrieving, and deleting reservations.
+ * Reservation lists are read from the {@link ReservationView} read model and returned as reservations
+ * with their customers, the shape the list endpoints have always served.
  *
  * @author Vojtech Zednik
  */
 @Service
 public class ReservationService {
     private static final double DOUBLES_PRICE_MULTIPLIER = 1.5;
+    private static final long MIN_USABLE_GAP_MINUTES = 30;
 
     private final ReservationRepository reservationRepository;
+    private final ReservationViewRepository viewRepository;
     private final CourtRepository courtRepository;
     private final CustomerRepository customerRepository;
     private final SurfaceTypeRepository surfaceTypeRepository;
+    private final QueryCoalescer queryCoalescer;
+    private final CourtScheduleRegistry scheduleRegistry;
+    private final BlackoutService blackoutService;
+    private final BookingRules bookingRules;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * A court that can take a reservation, with the cost of placing it there.
+     *
+     * @param courtId        the court ID
+     * @param unusableMinutes minutes left before and after the reservation that are too short to book
+     * @param gapMinutes      length of the free gap the reservation would be placed in
+     */
+    private record Placement(Long courtId, long unusableMinutes, long gapMinutes) {
+    }
 
     /**
      * Constructs a new ReservationService with the required repositories.
      *
      * @param reservationRepository the reservation repository
+     * @param viewRepository        the read model serving reservation lists
      * @param courtRepository       the court repository
      * @param customerRepository    the customer repository
      * @param surfaceTypeRepository the surface type repository
+     * @param queryCoalescer        coalescer sharing identical concurrent reads
+     * @param scheduleRegistry      in-memory court schedules used to assign courts
+     * @param blackoutService       in-memory court blackout windows
+     * @param bookingRules          opening hours and slot rules
+     * @param transactionManager    transaction manager for court assignment attempts
      */
     public ReservationService(
             ReservationRepository reservationRepository,
+            ReservationViewRepository viewRepository,
             CourtRepository courtRepository,
             CustomerRepository customerRepository,
-            SurfaceTypeRepository surfaceTypeRepository) {
+            SurfaceTypeRepository surfaceTypeRepository,
+            QueryCoalescer queryCoalescer,
+            CourtScheduleRegistry scheduleRegistry,
+            BlackoutService blackoutService,
+            BookingRules bookingRules,
+            PlatformTransactionManager transactionManager) {
         this.reservationRepository = reservationRepository;
+        this.viewRepository = viewRepository;
         this.courtRepository = courtRepository;
         this.customerRepository = customerRepository;
         this.surfaceTypeRepository = surfaceTypeRepository;
+        this.queryCoalescer = queryCoalescer;
+        this.scheduleRegistry = scheduleRegistry;
+        this.blackoutService = blackoutService;
+        this.bookingRules = bookingRules;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -52,8 +98,9 @@ public class ReservationService {
      *
      * @return a list of all reservations
      */
+    @Transactional(readOnly = true)
     public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+        return queryCoalescer.execute("findAll", () -> toReservations(viewRepository.findAll()));
     }
 
     /**
@@ -62,18 +109,22 @@ public class ReservationService {
      * @param id the ID of the reservation
      * @return the reservation with the given ID, or null if not found or deleted
      */
+    @Transactional(readOnly = true)
     public Reservation getReservationById(Long id) {
         return reservationRepository.findById(id);
     }
 
     /**
      * Retrieves all reservations for a specific court.
+     * Identical concurrent calls share a single database query.
      *
      * @param courtId the ID of the court
      * @return a list of reservations for the court
      */
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsByCourtId(Long courtId) {
-        return reservationRepository.findByCourtId(courtId);
+        return queryCoalescer.execute("findByCourtId",
+                () -> toReservations(viewRepository.findByCourtId(courtId)), courtId);
     }
 
     /**
@@ -83,115 +134,271 @@ public class ReservationService {
      * @param futureOnly if true, returns only future reservations
      * @return a list of reservations for the customer
      */
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsByPhone(String phone, boolean futureOnly) {
         if (futureOnly) {
-            return reservationRepository.findFutureByPhoneNumber(phone);
+            return queryCoalescer.execute("findFutureByPhoneNumber",
+                    () -> toReservations(viewRepository.findFutureByPhoneNumber(phone)), phone);
         }
-        return reservationRepository.findByPhoneNumber(phone);
+        return queryCoalescer.execute("findByPhoneNumber",
+                () -> toReservations(viewRepository.findByPhoneNumber(phone)), phone);
+    }
+
+    private static List<Reservation> toReservations(List<ReservationView> rows) {
+        return rows.stream().map(ReservationView::toReservation).toList();
     }
 
     /**
-     * Creates a new reservation. Validates the court, customer, time validity, and overlap.
+     * Creates a new reservation. Validates the booking rules, court, customer, time validity, blackout
+     * windows and overlap. The rules are checked before any database access.
+     * The court is locked until the transaction commits, so the overlap check cannot race with other
+     * bookings of the same court, including group bookings. The customer and price are resolved before
+     * the lock is taken, so the lock only covers the overlap check and the insert.
      *
      * @param reservation the reservation to create
      * @return the created reservation
      * @throws IllegalArgumentException if any validation fails
      */
+    @Transactional
     public Reservation createReservation(Reservation reservation) {
-        Court court = courtRepository.findById(reservation.getCourtId());
-        if (court == null) {
-            throw new IllegalArgumentException("Court does not exist");
+        Court court = validateNewReservation(reservation);
+        completeReservation(reservation, court);
+        courtRepository.lockAll(List.of(court.getId()));
+
+        if (reservationRepository.isOverlapping(court.getId(),
+                reservation.getStartTime(), reservation.getEndTime())) {
+            throw new IllegalArgumentException("Reservation time is overlapping with another reservation");
         }
 
+        return reservationRepository.save(reservation);
+    }
+
+    /**
+     * Creates a new reservation on any court with the given surface type, ignoring the court ID
+     * of the reservation.
+     * <p>
+     * Courts are ranked by best fit using their in-memory schedules merged with their blackout
+     * windows: the reservation goes where it leaves the fewest minutes that are too short to book,
+     * and then into the smallest free gap, keeping long gaps on other courts open. Each attempt
+     * locks the court and re-checks the overlap in the database in its own transaction; if a
+     * concurrent booking took the court, the next-best court is tried.
+     *
+     * @param surfaceTypeId the surface type of the court
+     * @param reservation   the reservation to create
+     * @return the created reservation, with the assigned court ID
+     * @throws IllegalArgumentException if the time range is invalid or no matching court is free
+     */
+    public Reservation createReservationOnAnyCourt(Long surfaceTypeId, Reservation reservation) {
         if (reservation.getStartTime().isAfter(reservation.getEndTime())) {
             throw new IllegalArgumentException("StartTime is after endTime");
         }
+        bookingRules.check(null, reservation.getStartTime(), reservation.getEndTime());
 
-        if (reservationRepository.isOverlapping(court.getId(),
-                reservation.getStartTime(), reservation.getEndTime())) {
-            throw new IllegalArgumentException("Reservation time is overlapping with another reservation");
+        List<Long> courtIds = courtRepository.findBySurfaceTypeId(surfaceTypeId).stream()
+                .map(Court::getId)
+                .toList();
+        if (courtIds.isEmpty()) {
+            throw new IllegalArgumentException("No court with the requested surface exists");
         }
 
-        Customer customer = customerRepository.findByPhoneNumber(reservation.getCustomer().getPhoneNumber());
-        if (customer == null) {
-            customer = new Customer(reservation.getCustomer().getPhoneNumber(),
-                    reservation.getCustomer().getName());
-            customerRepository.save(customer);
+        for (Placement placement : rankPlacements(scheduleRegistry.getAll(courtIds),
+                reservation.getStartTime(), reservation.getEndTime())) {
+            reservation.setCourtId(placement.courtId());
+            Reservation created = transactionTemplate.execute(status -> createIfFree(reservation));
+            if (created != null) {
+                return created;
+            }
+            // the in-memory schedule missed a booking, reload it on next use
+            scheduleRegistry.invalidate(placement.courtId());
         }
+        throw new IllegalArgumentException("No court with the requested surface is free at the requested time");
+    }
 
-        reservation.setCourtId(court.getId());
-        reservation.setCustomer(customer);
-        reservation.setPrice(calculatePrice(reservation));
-
-        return reservationRepository.save(reservation);
+    /**
+     * Validates a new reservation and fills in its customer and price without checking overlaps
+     * or saving it. Used by callers that check overlaps and persist reservations themselves.
+     *
+     * @param reservation the reservation to prepare
+     * @return the prepared reservation
+     * @throws IllegalArgumentException if the court or time range is invalid
+     */
+    public Reservation prepareReservation(Reservation reservation) {
+        Court court = validateNewReservation(reservation);
+        return completeReservation(reservation, court);
     }
 
     /**
-     * Updates an existing reservation with new data. Validates time, overlap, court, and customer.
+     * Updates an existing reservation with new data. Validates time, booking rules, blackout windows,
+     * overlap, court, and customer.
      *
      * @param id      the ID of the reservation to update
      * @param updated the updated reservation data
      * @return the updated reservation
      * @throws IllegalArgumentException if the reservation, court, or customer is invalid
      */
+    @Transactional
     public Reservation updateReservation(Long id, Reservation updated) {
-        Reservation existing = reservationRepository.findById(id);
-        if (existing == null) {
-            throw new IllegalArgumentException("Reservation does not exist");
-        }
-
         if (updated.getStartTime().isAfter(updated.getEndTime())) {
             throw new IllegalArgumentException("StartTime is after endTime");
         }
+        bookingRules.check(updated.getCourtId(), updated.getStartTime(), updated.getEndTime());
 
-        if (reservationRepository.isOverlapping(updated.getCourtId(),
-                updated.getStartTime(), updated.getEndTime())) {
-            throw new IllegalArgumentException("Reservation time is overlapping with another reservation");
+        Reservation existing = reservationRepository.findById(id);
+        if (existing == null) {
+            throw new IllegalArgumentException("Reservation does not exist");
         }
 
-        existing.setStartTime(updated.getStartTime());
-        existing.setEndTime(updated.getEndTime());
-        existing.setDoubles(updated.isDoubles());
-
         Court court = courtRepository.findById(updated.getCourtId());
         if (court == null) {
             throw new IllegalArgumentException("Court does not exist");
         }
+        checkOpen(court.getId(), updated.getStartTime(), updated.getEndTime());
 
         Customer customer = customerRepository.findById(updated.getCustomer().getId());
         if (customer == null) {
             throw new IllegalArgumentException("Customer does not exist");
         }
+        BigDecimal price = calculatePrice(court, updated.getStartTime(), updated.getEndTime(), updated.isDoubles());
 
+        courtRepository.lockAll(List.of(court.getId()));
+        if (reservationRepository.isOverlapping(court.getId(),
+                updated.getStartTime(), updated.getEndTime())) {
+            throw new IllegalArgumentException("Reservation time is overlapping with another reservation");
+        }
+
+        existing.setStartTime(updated.getStartTime());
+        existing.setEndTime(updated.getEndTime());
+        existing.setDoubles(updated.isDoubles());
         existing.setCourtId(court.getId());
         existing.setCustomer(customer);
-        existing.setPrice(calculatePrice(existing));
+        existing.setPrice(price);
 
         return reservationRepository.save(existing);
     }
 
+    /**
+     * Checks whether a court can be booked for the interval according to the booking rules and
+     * blackout windows. Uses in-memory data only; overlaps with reservations are not checked.
+     *
+     * @param courtId the court ID
+     * @param start   the start of the interval
+     * @param end     the end of the interval
+     * @return true if the court is open for the whole interval
+     */
+    public boolean isOpen(Long courtId, LocalDateTime start, LocalDateTime end) {
+        return bookingRules.violation(courtId, start, end) == null && blackoutService.isFree(courtId, start, end);
+    }
+
     /**
      * Soft-deletes a reservation by marking it as deleted.
+     * The deletion is published as a reservation change, which promotes waiters of the freed slot
+     * after the commit.
      *
      * @param id the ID of the reservation to delete
      */
+    @Transactional
     public void deleteReservation(Long id) {
         reservationRepository.softDelete(id);
     }
 
+    private Reservation createIfFree(Reservation reservation) {
+        Court court = validateNewReservation(reservation);
+        completeReservation(reservation, court);
+        courtRepository.lockAll(List.of(court.getId()));
+        if (reservationRepository.isOverlapping(court.getId(),
+                reservation.getStartTime(), reservation.getEndTime())) {
+            return null;
+        }
+        return reservationRepository.save(reservation);
+    }
+
+    /**
+     * Ranks the courts free for the interval from best to worst fit. Gaps are bounded by the days
+     * the interval falls into, so an empty court counts as one whole-day gap.
+     */
+    private List<Placement> rankPlacements(Map<Long, CourtSchedule> schedules,
+                                                  LocalDateTime start, LocalDateTime end) {
+        LocalDateTime dayStart = start.toLocalDate().atStartOfDay();
+        LocalDateTime dayEnd = end.toLocalDate().plusDays(1).atStartOfDay();
+
+        List<Placement> placements = new ArrayList<>(schedules.size());
+        schedules.forEach((courtId, schedule) -> {
+            if (bookingRules.violation(courtId, start, end) != null) {
+                return;
+            }
+            CourtSchedule.Gap gap = schedule.withAll(blackoutService.occurrences(courtId, dayStart, dayEnd))
+                    .gapAround(start, end);
+            if (gap == null) {
+                return;
+            }
+            LocalDateTime gapStart = gap.start() == null || gap.start().isBefore(dayStart) ? dayStart : gap.start();
+            LocalDateTime gapEnd = gap.end() == null || gap.end().isAfter(dayEnd) ? dayEnd : gap.end();
+            long before = Duration.between(gapStart, start).toMinutes();
+            long after = Duration.between(end, gapEnd).toMinutes();
+            placements.add(new Placement(courtId, unusable(before) + unusable(after),
+                    Duration.between(gapStart, gapEnd).toMinutes()));
+        });
+        placements.sort(Comparator.comparingLong(Placement::unusableMinutes)
+                .thenComparingLong(Placement::gapMinutes)
+                .thenComparing(Placement::courtId));
+        return placements;
+    }
+
+    private static long unusable(long minutes) {
+        return minutes > 0 && minutes < MIN_USABLE_GAP_MINUTES ? minutes : 0;
+    }
+
+    private Court validateNewReservation(Reservation reservation) {
+        if (reservation.getStartTime().isAfter(reservation.getEndTime())) {
+            throw new IllegalArgumentException("StartTime is after endTime");
+        }
+        bookingRules.check(reservation.getCourtId(), reservation.getStartTime(), reservation.getEndTime());
+
+        Court court = courtRepository.findById(reservation.getCourtId());
+        if (court == null) {
+            throw new IllegalArgumentException("Court does not exist");
+        }
+        checkOpen(court.getId(), reservation.getStartTime(), reservation.getEndTime());
+        return court;
+    }
+
+    private void checkOpen(Long courtId, LocalDateTime start, LocalDateTime end) {
+        if (!blackoutService.isFree(courtId, start, end)) {
+            throw new IllegalArgumentException("Court is closed at the requested time");
+        }
+    }
+
+    private Reservation completeReservation(Reservation reservation, Court court) {
+        Customer customer = customerRepository.findByPhoneNumber(reservation.getCustomer().getPhoneNumber());
+        if (customer == null) {
+            customer = new Customer(reservation.getCustomer().getPhoneNumber(),
+                    reservation.getCustomer().getName());
+            customerRepository.save(customer);
+        }
+
+        reservation.setCourtId(court.getId());
+        reservation.setCustomer(customer);
+        reservation.setPrice(calculatePrice(court, reservation.getStartTime(), reservation.getEndTime(),
+                reservation.isDoubles()));
+        return reservation;
+    }
+
     /**
      * Calculates the price of a reservation based on duration and surface type price.
      * Applies a multiplier if the reservation is for doubles.
      *
-     * @param reservation the reservation for which to calculate the price
+     * @param court   the reserved court
+     * @param start   the start of the reservation
+     * @param end     the end of the reservation
+     * @param doubles whether the reservation is for doubles
      * @return the calculated price
      */
-    private BigDecimal calculatePrice(Reservation reservation) {
-        long minutes = Duration.between(reservation.getStartTime(), reservation.getEndTime()).toMinutes();
-        BigDecimal basePrice = surfaceTypeRepository.findById(courtRepository.findById(reservation.getCourtId()).getSurfaceTypeId())
+    private BigDecimal calculatePrice(Court court, LocalDateTime start, LocalDateTime end, boolean doubles) {
+        long minutes = Duration.between(start, end).toMinutes();
+        BigDecimal basePrice = surfaceTypeRepository.findById(court.getSurfaceTypeId())
                 .getPricePerMinute().multiply(BigDecimal.valueOf(minutes));
 
-        if (reservation.isDoubles()) {
+        if (doubles) {
             return basePrice.multiply(BigDecimal.valueOf(DOUBLES_PRICE_MULTIPLIER));
         }
         return basePrice;
@@ -0,0 +1,109 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.ReservationViewRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service rebuilding the {@code reservation_view} read model from the reservation table.
+ * <p>
+ * The view is kept up to date by every reservation write, so a rebuild is only needed after it was
+ * changed by hand or when reservations were written before it existed, which is checked on startup.
+ * The reservation ID range of each tenant is split into slices of {@value #SLICE_SIZE} IDs that are
+ * regenerated in parallel on the service executor, each in its own transaction.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class ReservationViewService {
+    private static final int SLICE_SIZE = 2048;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationViewRepository viewRepository;
+    private final TenantRegistry tenants;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs a new ReservationViewService.
+     *
+     * @param reservationRepository the reservation repository providing the ID range
+     * @param viewRepository        the read model repository
+     * @param tenants               the configured tenants, whose views are rebuilt
+     * @param transactionManager    transaction manager for rebuilt slices
+     * @param executor              executor rebuilding slices in parallel
+     */
+    public ReservationViewService(ReservationRepository reservationRepository,
+                                  ReservationViewRepository viewRepository,
+                                  TenantRegistry tenants,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("serviceExecutor") Executor executor) {
+        this.reservationRepository = reservationRepository;
+        this.viewRepository = viewRepository;
+        this.tenants = tenants;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * Rebuilds the view of every tenant whose view does not match its reservations.
+     */
+    @PostConstruct
+    public void rebuildIfIncomplete() {
+        tenants.forEach(() -> {
+            if (viewRepository.isIncomplete()) {
+                rebuildCurrentTenant();
+            }
+        });
+    }
+
+    /**
+     * Regenerates the whole view of every tenant from the reservation table.
+     *
+     * @return the number of rows in the rebuilt view
+     */
+    public long rebuild() {
+        AtomicLong rows = new AtomicLong();
+        tenants.forEach(() -> rows.addAndGet(rebuildCurrentTenant()));
+        return rows.get();
+    }
+
+    private long rebuildCurrentTenant() {
+        lock.lock();
+        try {
+            long[] bounds = reservationRepository.findIdBounds();
+            if (bounds.length == 0) {
+                return 0;
+            }
+            List<CompletableFuture<Integer>> slices = new ArrayList<>();
+            for (long fromId = bounds[0]; fromId <= bounds[1]; fromId += SLICE_SIZE) {
+                long from = fromId;
+                long to = Math.min(fromId + SLICE_SIZE - 1, bounds[1]);
+                String tenant = TenantContext.current();
+                slices.add(CompletableFuture.supplyAsync(() -> TenantContext.call(tenant,
+                        () -> transactionTemplate.execute(status -> viewRepository.rebuildRange(from, to))), executor));
+            }
+            long rows = 0;
+            for (CompletableFuture<Integer> slice : slices) {
+                rows += slice.join();
+            }
+            return rows;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.RuleAuditReport;
+import com.IQproject.court.repository.ReservationRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batch job reporting upcoming reservations that break the current {@link BookingRules},
+ * e.g. after the opening hours were shortened. Reservations are read in ID slices of
+ * {@value #SLICE_SIZE}, so the job never loads the whole table at once. Nothing is changed;
+ * the latest report of each tenant is kept for the audit endpoint.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class RuleAuditService {
+    private static final int SLICE_SIZE = 1000;
+
+    private final ReservationRepository reservationRepository;
+    private final BookingRules bookingRules;
+    private final TenantRegistry tenants;
+    private final Map<String, RuleAuditReport> lastReports = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new RuleAuditService.
+     *
+     * @param reservationRepository the reservation repository
+     * @param bookingRules          the rules to audit against
+     * @param tenants               the configured tenants, audited one after another
+     */
+    public RuleAuditService(ReservationRepository reservationRepository, BookingRules bookingRules,
+                            TenantRegistry tenants) {
+        this.reservationRepository = reservationRepository;
+        this.bookingRules = bookingRules;
+        this.tenants = tenants;
+    }
+
+    /**
+     * Runs the audit nightly, or on the schedule set by {@code app.rules.audit-cron}.
+     */
+    @Scheduled(cron = "${app.rules.audit-cron:0 0 3 * * *}")
+    public void scheduledAudit() {
+        for (String tenant : tenants.getTenants()) {
+            TenantContext.run(tenant, this::audit);
+        }
+    }
+
+    /**
+     * Checks all upcoming reservations of the current tenant against the booking rules.
+     *
+     * @return the report, also kept as the latest report
+     */
+    public RuleAuditReport audit() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RuleAuditReport.Violation> violations = new ArrayList<>();
+        long scanned = 0;
+
+        long[] bounds = reservationRepository.findIdBounds();
+        if (bounds.length == 2) {
+            for (long fromId = bounds[0]; fromId <= bounds[1]; fromId += SLICE_SIZE) {
+                for (Reservation reservation : reservationRepository.findByIdRange(fromId, fromId + SLICE_SIZE - 1)) {
+                    if (!reservation.getStartTime().isAfter(now)) {
+                        continue;
+                    }
+                    scanned++;
+                    String rule = bookingRules.violation(reservation.getCourtId(),
+                            reservation.getStartTime(), reservation.getEndTime());
+                    if (rule != null) {
+                        violations.add(new RuleAuditReport.Violation(reservation.getId(), reservation.getCourtId(),
+                                reservation.getStartTime(), reservation.getEndTime(), rule));
+                    }
+                }
+            }
+        }
+
+        RuleAuditReport report = new RuleAuditReport(LocalDateTime.now(), scanned, List.copyOf(violations));
+        lastReports.put(TenantContext.current(), report);
+        return report;
+    }
+
+    /**
+     * Returns the report of the latest audit of the current tenant.
+     *
+     * @return the report, or null if no audit has run yet
+     */
+    public RuleAuditReport getLastReport() {
+        return lastReports.get(TenantContext.current());
+    }
+}
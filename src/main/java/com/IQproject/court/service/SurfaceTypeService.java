@@ -4,6 +4,7 @@ import com.IQproject.court.model.Court;
 import com.IQproject.court.model.SurfaceType;
 import com.IQproject.court.repository.SurfaceTypeRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -29,6 +30,7 @@ public class SurfaceTypeService {
      *
      * @return a list of all surface types
      */
+    @Transactional(readOnly = true)
     public List<SurfaceType> getAllSurfaceTypes() {
         return surfaceTypeRepository.findAll();
     }
@@ -40,6 +42,7 @@ public class SurfaceTypeService {
      * @return the found surface type
      * @throws IllegalArgumentException if the surface type does not exist
      */
+    @Transactional(readOnly = true)
     public SurfaceType getSurfaceTypeById(Long id) {
         SurfaceType toFind = surfaceTypeRepository.findById(id);
         if (toFind == null) {
@@ -0,0 +1,203 @@
+package com.IQproject.court.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel for deadlines that are usually cancelled or far apart.
+ * <p>
+ * Time is divided into ticks. Level 0 has one bucket per tick for the current block of 64 ticks,
+ * level 1 one bucket per 64 ticks, and so on for {@value #LEVELS} levels. A deadline goes into
+ * the lowest level whose current block contains it, and is moved down a level each time time
+ * reaches the start of its bucket. Scheduling and cancelling are O(1). Advancing costs one step
+ * per elapsed tick plus the entries that move; an empty wheel jumps straight to the new time.
+ * Deadlines beyond the top level wait in an overflow list that is re-examined once per top-level
+ * rotation.
+ * <p>
+ * The wheel does not run a thread of its own: the owner calls {@link #advance(long)} periodically
+ * and handles the returned items. Deadlines fire at the first advance at or after them.
+ *
+ * @param <T> the type of item attached to a deadline
+ * @author Vojtech Zednik
+ */
+public final class TimingWheel<T> {
+    private static final int LEVELS = 4;
+    private static final int BITS = 6;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+
+    private final long tickMillis;
+    private final Deque<Timeout<T>>[][] buckets;
+    private final List<Timeout<T>> overflow = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Handle of a scheduled deadline.
+     *
+     * @param <T> the type of item attached to the deadline
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Returns the item attached to the deadline.
+         *
+         * @return the item
+         */
+        public T item() {
+            return item;
+        }
+
+        /**
+         * Cancels the deadline so that it never fires. The entry is discarded when reached.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Returns whether the deadline was cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Constructs a new TimingWheel.
+     *
+     * @param tickMillis  length of one tick in milliseconds
+     * @param startMillis the current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.buckets = new Deque[LEVELS][SIZE];
+        for (Deque<Timeout<T>>[] level : buckets) {
+            for (int i = 0; i < SIZE; i++) {
+                level[i] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Schedules an item to fire at the given time. Deadlines in the past fire at the next tick.
+     *
+     * @param item           the item
+     * @param deadlineMillis the deadline in milliseconds
+     * @return handle that can cancel the deadline
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        lock.lock();
+        try {
+            long deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+            Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+            place(timeout);
+            size++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time and returns the items whose deadlines have passed.
+     *
+     * @param nowMillis the current time in milliseconds
+     * @return items of the expired, non-cancelled deadlines, in deadline order
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            if (size == 0) {
+                currentTick = Math.max(currentTick, targetTick);
+                return expired;
+            }
+            while (currentTick < targetTick && size > 0) {
+                currentTick++;
+                cascade();
+                Deque<Timeout<T>> due = buckets[0][(int) (currentTick & MASK)];
+                for (Timeout<T> timeout; (timeout = due.poll()) != null; ) {
+                    size--;
+                    if (!timeout.isCancelled()) {
+                        expired.add(timeout.item());
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, targetTick);
+            return expired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of scheduled deadlines, including cancelled ones not yet discarded.
+     *
+     * @return the number of entries in the wheel
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the entries of every higher-level bucket that starts at the current tick one or more
+     * levels down.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Deque<Timeout<T>> bucket = buckets[level][(int) ((currentTick >>> (BITS * level)) & MASK)];
+            List<Timeout<T>> moved = new ArrayList<>(bucket);
+            bucket.clear();
+            moved.forEach(this::place);
+        }
+        if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0 && !overflow.isEmpty()) {
+            List<Timeout<T>> moved = new ArrayList<>(overflow);
+            overflow.clear();
+            moved.forEach(this::place);
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        if (timeout.isCancelled()) {
+            size--;
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((timeout.deadlineTick >>> shift) == (currentTick >>> shift)) {
+                buckets[level][(int) ((timeout.deadlineTick >>> (BITS * level)) & MASK)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+}
@@ -0,0 +1,65 @@
+package com.IQproject.court.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. Tokens refill continuously at a fixed rate up to the capacity;
+ * state changes are published with a compare-and-set on an immutable snapshot.
+ *
+ * @author Vojtech Zednik
+ */
+public final class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    private record State(double tokens, long updatedAt) {
+    }
+
+    /**
+     * Constructs a new full TokenBucket.
+     *
+     * @param capacity        the maximum number of tokens (burst size)
+     * @param tokensPerMinute the refill rate
+     * @param now             the current {@link System#nanoTime()}
+     */
+    public TokenBucket(int capacity, int tokensPerMinute, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerMinute / 60e9;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, now);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt())))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the bucket is full, i.e. it has not been used recently.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return true if the bucket holds its full capacity
+     */
+    public boolean isFull(long now) {
+        return refill(state.get(), now) >= capacity;
+    }
+
+    private double refill(State current, long now) {
+        long elapsed = Math.max(0, now - current.updatedAt());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+}
@@ -0,0 +1,211 @@
+package com.IQproject.court.service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.WaitlistEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Service managing per-slot waitlists.
+ * <p>
+ * Customers join the waitlist of a taken slot. When a reservation is deleted, the waiting
+ * entries overlapping the freed interval are looked up through the (courtId, startTime) index
+ * and promoted oldest first on the service executor. Each promotion creates the reservation and
+ * marks the entry as promoted in one transaction; a waiter whose slot is still partly taken is
+ * skipped. Waitlist slots are limited to {@link #MAX_SLOT_LENGTH}, which bounds the index scan.
+ *
+ * @author Vojtech Zednik
+ */
+@Service
+public class WaitlistService {
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+    private static final Duration MAX_SLOT_LENGTH = Duration.ofDays(1);
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final CourtRepository courtRepository;
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    /**
+     * Constructs a new WaitlistService.
+     *
+     * @param waitlistRepository    the waitlist entry repository
+     * @param reservationService    service creating promoted reservations
+     * @param reservationRepository the reservation repository
+     * @param courtRepository       the court repository
+     * @param customerRepository    the customer repository
+     * @param transactionManager    transaction manager for promotions
+     * @param executor              executor running promotions
+     */
+    public WaitlistService(WaitlistEntryRepository waitlistRepository,
+                           ReservationService reservationService,
+                           ReservationRepository reservationRepository,
+                           CourtRepository courtRepository,
+                           CustomerRepository customerRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("serviceExecutor") Executor executor) {
+        this.waitlistRepository = waitlistRepository;
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.courtRepository = courtRepository;
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a customer to the waitlist of a taken slot.
+     *
+     * @param entry the slot and customer
+     * @return the saved waitlist entry
+     * @throws IllegalArgumentException if the court or time range is invalid, or the slot is free
+     */
+    public WaitlistEntry join(WaitlistEntry entry) {
+        Court court = courtRepository.findById(entry.getCourtId());
+        if (court == null) {
+            throw new IllegalArgumentException("Court does not exist");
+        }
+        if (entry.getStartTime().isAfter(entry.getEndTime())) {
+            throw new IllegalArgumentException("StartTime is after endTime");
+        }
+        if (Duration.between(entry.getStartTime(), entry.getEndTime()).compareTo(MAX_SLOT_LENGTH) > 0) {
+            throw new IllegalArgumentException("Waitlist slots cannot be longer than one day");
+        }
+        if (!reservationRepository.isOverlapping(court.getId(), entry.getStartTime(), entry.getEndTime())) {
+            throw new IllegalArgumentException("The slot is free, book it directly");
+        }
+
+        Customer customer = customerRepository.findByPhoneNumber(entry.getCustomer().getPhoneNumber());
+        if (customer == null) {
+            customer = customerRepository.save(new Customer(entry.getCustomer().getPhoneNumber(),
+                    entry.getCustomer().getName()));
+        }
+        entry.setCustomer(customer);
+        entry.setStatus(WaitlistEntry.Status.WAITING);
+        entry.setReservationId(null);
+        return waitlistRepository.save(entry);
+    }
+
+    /**
+     * Retrieves a waitlist entry by its ID.
+     *
+     * @param id the entry ID
+     * @return the entry, or null if not found
+     */
+    public WaitlistEntry getEntry(Long id) {
+        return waitlistRepository.findById(id);
+    }
+
+    /**
+     * Removes a waiting entry from the waitlist.
+     *
+     * @param id the entry ID
+     * @return true if the entry was waiting and is now cancelled, false otherwise
+     */
+    @Transactional
+    public boolean leave(Long id) {
+        WaitlistEntry entry = waitlistRepository.lockById(id);
+        if (entry == null || entry.getStatus() != WaitlistEntry.Status.WAITING) {
+            return false;
+        }
+        entry.setStatus(WaitlistEntry.Status.CANCELLED);
+        return true;
+    }
+
+    /**
+     * Schedules the promotion of waiters once reservations have been deleted, whether cancelled by
+     * their customers, released or expired as holds, or cancelled by a closure. The promotion runs
+     * as the tenant that deleted them; failures other than a still taken slot are logged.
+     *
+     * @param event the committed reservation changes
+     */
+    @TransactionalEventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        List<ReservationChange> deleted = event.changes().stream()
+                .filter(change -> change.type() == ReservationChange.Type.DELETED)
+                .toList();
+        if (deleted.isEmpty()) {
+            return;
+        }
+        executor.execute(TenantContext.wrap(() -> {
+            for (ReservationChange change : deleted) {
+                try {
+                    promote(change.courtId(), change.startTime(), change.endTime());
+                } catch (RuntimeException e) {
+                    log.warn("Promoting waiters for reservation {} failed", change.reservationId(), e);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Promotes the oldest waiters whose slots overlap the freed interval and are now free.
+     *
+     * @param courtId   the ID of the court
+     * @param startTime the start of the freed interval
+     * @param endTime   the end of the freed interval
+     * @return the number of promoted entries
+     */
+    public int promote(Long courtId, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime earliestStart = startTime.minus(MAX_SLOT_LENGTH);
+        LocalDateTime now = LocalDateTime.now();
+        List<WaitlistEntry> candidates = waitlistRepository.findWaiting(courtId,
+                startTime, endTime, earliestStart.isAfter(now) ? earliestStart : now);
+
+        int promoted = 0;
+        for (WaitlistEntry candidate : candidates) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> tryPromote(candidate.getId())))) {
+                    promoted++;
+                }
+            } catch (IllegalArgumentException e) {
+                // the waiter's slot is still partly taken, try the next one
+            } catch (RuntimeException e) {
+                log.warn("Promoting waitlist entry {} failed", candidate.getId(), e);
+            }
+        }
+        return promoted;
+    }
+
+    private boolean tryPromote(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.lockById(entryId);
+        if (entry == null || entry.getStatus() != WaitlistEntry.Status.WAITING) {
+            return false;
+        }
+
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(entry.getCourtId());
+        reservation.setCustomer(entry.getCustomer());
+        reservation.setStartTime(entry.getStartTime());
+        reservation.setEndTime(entry.getEndTime());
+        reservation.setDoubles(entry.isDoubles());
+        Reservation created = reservationService.createReservation(reservation);
+
+        entry.setStatus(WaitlistEntry.Status.PROMOTED);
+        entry.setReservationId(created.getId());
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package controller;
+
+import com.IQproject.court.controller.AnalyticsController;
+import com.IQproject.court.model.UsageRollup;
+import com.IQproject.court.service.AnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AnalyticsControllerTest {
+    private static final LocalDateTime AT = LocalDateTime.of(2030, 1, 31, 10, 0);
+
+    @Mock
+    private AnalyticsService service;
+
+    @InjectMocks
+    private AnalyticsController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getCourtUsageReturnsRollup() {
+        UsageRollup rollup = new UsageRollup(UsageRollup.Period.DAY, UsageRollup.Dimension.COURT, 1L,
+                AT.toLocalDate().atStartOfDay(), 3, 180, BigDecimal.TEN);
+        when(service.getCourtUsage(1L, UsageRollup.Period.DAY, AT)).thenReturn(rollup);
+
+        assertSame(rollup, controller.getCourtUsage(1L, UsageRollup.Period.DAY, AT));
+    }
+
+    @Test
+    void getSurfaceTypeUsageReturnsRollup() {
+        UsageRollup rollup = new UsageRollup(UsageRollup.Period.MONTH, UsageRollup.Dimension.SURFACE_TYPE, 2L,
+                AT.withDayOfMonth(1).toLocalDate().atStartOfDay(), 0, 0, BigDecimal.ZERO);
+        when(service.getSurfaceTypeUsage(2L, UsageRollup.Period.MONTH, AT)).thenReturn(rollup);
+
+        assertSame(rollup, controller.getSurfaceTypeUsage(2L, UsageRollup.Period.MONTH, AT));
+    }
+
+    @Test
+    void backfillRebuildsRollups() {
+        assertEquals(HttpStatus.NO_CONTENT, controller.backfill().getStatusCode());
+        verify(service).backfill();
+    }
+}
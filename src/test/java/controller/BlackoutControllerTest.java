@@ -0,0 +1,57 @@
+package controller;
+
+import com.IQproject.court.controller.BlackoutController;
+import com.IQproject.court.model.Blackout;
+import com.IQproject.court.service.BlackoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BlackoutControllerTest {
+
+    @Mock
+    private BlackoutService service;
+
+    @InjectMocks
+    private BlackoutController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void createReturnsCreated() {
+        Blackout blackout = new Blackout();
+        when(service.createBlackout(blackout)).thenReturn(blackout);
+
+        ResponseEntity<Blackout> response = controller.create(blackout);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertSame(blackout, response.getBody());
+    }
+
+    @Test
+    void getByCourtReturnsBlackouts() {
+        List<Blackout> blackouts = List.of(new Blackout());
+        when(service.getBlackoutsByCourtId(3L)).thenReturn(blackouts);
+
+        assertEquals(blackouts, controller.getByCourt(3L));
+    }
+
+    @Test
+    void deleteReturnsNotFoundForUnknownBlackout() {
+        when(service.deleteBlackout(1L)).thenReturn(true);
+        when(service.deleteBlackout(2L)).thenReturn(false);
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.delete(1L).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.delete(2L).getStatusCode());
+    }
+}
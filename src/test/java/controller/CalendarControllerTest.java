@@ -0,0 +1,44 @@
+package controller;
+
+import com.IQproject.court.controller.CalendarController;
+import com.IQproject.court.model.CalendarGrid;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.service.CourtService;
+import com.IQproject.court.service.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CalendarControllerTest {
+
+    @Mock
+    private OccupancyIndex occupancyIndex;
+
+    @Mock
+    private CourtService courtService;
+
+    @InjectMocks
+    private CalendarController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getDayBuildsGridForAllCourts() {
+        LocalDate date = LocalDate.of(2030, 1, 1);
+        List<Court> courts = List.of(new Court("A", 1L));
+        CalendarGrid grid = new CalendarGrid(date, 30, List.of());
+        when(courtService.getAllCourts()).thenReturn(courts);
+        when(occupancyIndex.grid(date, 30, courts)).thenReturn(grid);
+
+        assertSame(grid, controller.getDay(date, 30));
+    }
+}
@@ -2,14 +2,23 @@ package controller;
 
 import com.IQproject.court.controller.CourtController;
 import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.service.AvailabilityEventHub;
 import com.IQproject.court.service.CourtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,6 +28,12 @@ public class CourtControllerTest {
     @Mock
     private CourtService courtService;
 
+    @Mock
+    private AvailabilityEventHub eventHub;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private CourtController controller;
 
@@ -132,4 +147,65 @@ public class CourtControllerTest {
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void courtEventsSubscribesToExistingCourt() {
+        long id = 4L;
+        SseEmitter emitter = new SseEmitter();
+
+        when(courtService.getCourt(id)).thenReturn(new Court("Center", 1L));
+        when(eventHub.subscribe(id, "17")).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = controller.courtEvents(id, "17");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(emitter, response.getBody());
+    }
+
+    @Test
+    void courtEventsReturnsNotFoundIfCourtDoesNotExist() {
+        when(courtService.getCourt(5L)).thenReturn(null);
+
+        ResponseEntity<SseEmitter> response = controller.courtEvents(5L, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(eventHub);
+    }
+
+    @Test
+    void closeStreamsCancelledReservationsAsNdjson() throws Exception {
+        Reservation first = new Reservation();
+        first.setId(7L);
+        Reservation second = new Reservation();
+        second.setId(8L);
+        LocalDateTime to = LocalDateTime.of(2030, 2, 1, 0, 0);
+        when(courtService.getCourt(1L)).thenReturn(new Court("Court A", 1L));
+        when(courtService.closeCourt(1L, null, to)).thenReturn(List.of(7L, 8L));
+        doAnswer(invocation -> {
+            Consumer<Reservation> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(courtService).forEachReservation(eq(List.of(7L, 8L)), any());
+
+        ResponseEntity<StreamingResponseBody> response = controller.close(1L, null, to);
+        // the closure is committed before anything is written
+        verify(courtService).closeCourt(1L, null, to);
+        verify(courtService, never()).forEachReservation(any(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(7L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(8L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void closeReturnsNotFoundForMissingCourt() {
+        when(courtService.getCourt(1L)).thenReturn(null);
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.close(1L, null, null).getStatusCode());
+        verify(courtService, never()).closeCourt(any(), any(), any());
+    }
+}
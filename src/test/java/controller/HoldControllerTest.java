@@ -0,0 +1,66 @@
+package controller;
+
+import com.IQproject.court.controller.HoldController;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.service.HoldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class HoldControllerTest {
+
+    @Mock
+    private HoldService service;
+
+    @InjectMocks
+    private HoldController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void createReturnsCreatedHold() {
+        Reservation hold = new Reservation();
+        hold.setStatus(Reservation.Status.HOLD);
+        when(service.createHold(hold)).thenReturn(hold);
+
+        ResponseEntity<Reservation> response = controller.create(hold);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(Reservation.Status.HOLD, response.getBody().getStatus());
+    }
+
+    @Test
+    void confirmReturnsNotFoundForMissingHold() {
+        when(service.confirm(1L)).thenReturn(null);
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.confirm(1L).getStatusCode());
+    }
+
+    @Test
+    void confirmReturnsConfirmedReservation() {
+        Reservation confirmed = new Reservation();
+        when(service.confirm(1L)).thenReturn(confirmed);
+
+        ResponseEntity<Reservation> response = controller.confirm(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(confirmed, response.getBody());
+    }
+
+    @Test
+    void releaseReturnsNoContentOrNotFound() {
+        when(service.release(1L)).thenReturn(true);
+        when(service.release(2L)).thenReturn(false);
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.release(1L).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.release(2L).getStatusCode());
+    }
+}
@@ -1,8 +1,17 @@
 package controller;
 
 import com.IQproject.court.controller.ReservationController;
+import com.IQproject.court.model.AnyCourtBookingRequest;
+import com.IQproject.court.model.BookingTicket;
+import com.IQproject.court.model.GroupBookingRequest;
 import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.IdempotencyRecord;
+import com.IQproject.court.service.BookingDispatcher;
+import com.IQproject.court.service.GroupBookingService;
+import com.IQproject.court.service.GroupCommitter;
+import com.IQproject.court.service.IdempotencyService;
 import com.IQproject.court.service.ReservationService;
+import com.IQproject.court.service.ReservationViewService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -12,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +31,21 @@ public class ReservationControllerTest {
     @Mock
     private ReservationService service;
 
+    @Mock
+    private BookingDispatcher dispatcher;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private GroupBookingService groupBookingService;
+
+    @Mock
+    private ReservationViewService viewService;
+
+    @Mock
+    private GroupCommitter groupCommitter;
+
     @InjectMocks
     private ReservationController controller;
 
@@ -78,7 +103,7 @@ public class ReservationControllerTest {
 
         when(service.createReservation(input)).thenReturn(saved);
 
-        ResponseEntity<BigDecimal> response = controller.create(input);
+        ResponseEntity<BigDecimal> response = controller.create(input, null);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(saved.getPrice(), response.getBody());
@@ -89,7 +114,7 @@ public class ReservationControllerTest {
         Reservation input = createReservation(null, false);
         when(service.createReservation(input)).thenReturn(null);
 
-        ResponseEntity<BigDecimal> response = controller.create(input);
+        ResponseEntity<BigDecimal> response = controller.create(input, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
@@ -166,4 +191,127 @@ public class ReservationControllerTest {
         assertEquals(1, result.size());
         verify(service).getReservationsByPhone(phoneNumber, true);
     }
+
+    @Test
+    void rebuildViewReturnsRowCount() {
+        when(viewService.rebuild()).thenReturn(12L);
+
+        assertEquals(12L, controller.rebuildView());
+    }
+
+    @Test
+    void createAwaitsDispatcherInActorMode() {
+        Reservation input = createReservation(null, false);
+        Reservation saved = createReservation(5L, false);
+
+        when(dispatcher.isEnabled()).thenReturn(true);
+        when(dispatcher.book(input)).thenReturn(saved);
+
+        ResponseEntity<BigDecimal> response = controller.create(input, null);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(saved.getPrice(), response.getBody());
+        verify(service, never()).createReservation(any());
+    }
+
+    @Test
+    void createGoesThroughGroupCommitWhenEnabled() {
+        Reservation input = createReservation(null, false);
+        Reservation saved = createReservation(6L, false);
+
+        when(groupCommitter.isEnabled()).thenReturn(true);
+        when(groupCommitter.create(input)).thenReturn(saved);
+
+        ResponseEntity<BigDecimal> response = controller.create(input, null);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(saved.getPrice(), response.getBody());
+        verify(service, never()).createReservation(any());
+    }
+
+    @Test
+    void createAsyncReturnsAcceptedTicket() {
+        Reservation input = createReservation(null, false);
+        BookingTicket ticket = new BookingTicket();
+
+        when(dispatcher.submit(input)).thenReturn(ticket);
+
+        ResponseEntity<BookingTicket> response = controller.createAsync(input);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(ticket, response.getBody());
+        assertEquals(BookingTicket.Status.PENDING, response.getBody().getStatus());
+    }
+
+    @Test
+    void getTicketReturns404IfUnknown() {
+        when(dispatcher.getTicket("missing")).thenReturn(null);
+
+        ResponseEntity<BookingTicket> response = controller.getTicket("missing");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void createWithIdempotencyKeyReturnsStoredResponse() {
+        Reservation input = createReservation(null, false);
+        IdempotencyRecord record = new IdempotencyRecord("key-1", "hash", 5L, BigDecimal.valueOf(42), 201);
+
+        when(idempotencyService.execute(eq("key-1"), eq(input), any()))
+                .thenReturn(new IdempotencyService.Outcome(record, true));
+
+        ResponseEntity<BigDecimal> response = controller.create(input, "key-1");
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(BigDecimal.valueOf(42), response.getBody());
+        assertEquals("true", response.getHeaders().getFirst("Idempotent-Replayed"));
+        verify(service, never()).createReservation(any());
+    }
+
+    @Test
+    void createWithIdempotencyKeyBooksInsideTheIdempotentCall() {
+        Reservation input = createReservation(null, false);
+        Reservation saved = createReservation(6L, false);
+        when(dispatcher.isEnabled()).thenReturn(true);
+        when(groupCommitter.isEnabled()).thenReturn(true);
+        when(service.createReservation(input)).thenReturn(saved);
+        when(idempotencyService.execute(eq("key-2"), eq(input), any())).thenAnswer(invocation -> {
+            Reservation created = invocation.<Supplier<Reservation>>getArgument(2).get();
+            return new IdempotencyService.Outcome(new IdempotencyRecord("key-2", "hash", created.getId(),
+                    created.getPrice(), 201), false);
+        });
+
+        ResponseEntity<BigDecimal> response = controller.create(input, "key-2");
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(saved.getPrice(), response.getBody());
+        verify(dispatcher, never()).book(any());
+        verify(groupCommitter, never()).create(any());
+    }
+
+    @Test
+    void createGroupReturnsCreatedReservations() {
+        GroupBookingRequest request = new GroupBookingRequest();
+        List<Reservation> created = List.of(createReservation(1L, false), createReservation(2L, false));
+        when(groupBookingService.book(request)).thenReturn(created);
+
+        ResponseEntity<List<Reservation>> response = controller.createGroup(request);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(created, response.getBody());
+    }
+
+    @Test
+    void createOnAnyCourtReturnsAssignedReservation() {
+        AnyCourtBookingRequest request = new AnyCourtBookingRequest();
+        request.setSurfaceTypeId(3L);
+        Reservation created = createReservation(1L, false);
+        created.setCourtId(7L);
+        when(service.createReservationOnAnyCourt(eq(3L), any())).thenReturn(created);
+
+        ResponseEntity<Reservation> response = controller.createOnAnyCourt(request);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(7L, response.getBody().getCourtId());
+    }
 }
@@ -0,0 +1,46 @@
+package controller;
+
+import com.IQproject.court.controller.RuleAuditController;
+import com.IQproject.court.model.RuleAuditReport;
+import com.IQproject.court.service.RuleAuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RuleAuditControllerTest {
+
+    @Mock
+    private RuleAuditService service;
+
+    @InjectMocks
+    private RuleAuditController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getLastReportReturnsNotFoundBeforeFirstAudit() {
+        when(service.getLastReport()).thenReturn(null);
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.getLastReport().getStatusCode());
+    }
+
+    @Test
+    void auditRunsImmediately() {
+        RuleAuditReport report = new RuleAuditReport(LocalDateTime.now(), 0, List.of());
+        when(service.audit()).thenReturn(report);
+
+        assertSame(report, controller.audit());
+        when(service.getLastReport()).thenReturn(report);
+        assertSame(report, controller.getLastReport().getBody());
+    }
+}
@@ -0,0 +1,87 @@
+package controller;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.controller.TenantFilter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantFilterTest {
+
+    private TenantFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig config = new AppConfig();
+        config.getTenancy().setTenants(List.of("north", "south"));
+        filter = new TenantFilter(new TenantRegistry(config), config);
+    }
+
+    @Test
+    void headerSetsTenantWhileTheRequestIsHandled() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courts");
+        request.addHeader("X-Tenant-Id", "north");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                        seen.set(TenantContext.current());
+                    }
+                });
+
+        assertEquals("north", seen.get());
+        assertEquals(TenantContext.DEFAULT_TENANT, TenantContext.current());
+    }
+
+    @Test
+    void pathPrefixWinsOverHeaderAndIsStripped() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/clubs/south/api/courts");
+        request.addHeader("X-Tenant-Id", "north");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("/api/courts", response.getForwardedUrl());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void requestWithoutTenantUsesDefaultTenant() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/courts"), new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                        seen.set(TenantContext.current());
+                    }
+                });
+
+        assertEquals(TenantContext.DEFAULT_TENANT, seen.get());
+    }
+
+    @Test
+    void unknownTenantIsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/clubs/east/api/courts"), response, chain);
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+        assertEquals("Unknown tenant: east", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+}
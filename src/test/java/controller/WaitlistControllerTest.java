@@ -0,0 +1,54 @@
+package controller;
+
+import com.IQproject.court.controller.WaitlistController;
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WaitlistControllerTest {
+
+    @Mock
+    private WaitlistService service;
+
+    @InjectMocks
+    private WaitlistController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void joinReturnsCreatedEntry() {
+        WaitlistEntry entry = new WaitlistEntry();
+        when(service.join(entry)).thenReturn(entry);
+
+        ResponseEntity<WaitlistEntry> response = controller.join(entry);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertSame(entry, response.getBody());
+    }
+
+    @Test
+    void getByIdReturnsNotFoundForMissingEntry() {
+        when(service.getEntry(1L)).thenReturn(null);
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.getById(1L).getStatusCode());
+    }
+
+    @Test
+    void leaveReturnsNoContentOrNotFound() {
+        when(service.leave(1L)).thenReturn(true);
+        when(service.leave(2L)).thenReturn(false);
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.leave(1L).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.leave(2L).getStatusCode());
+    }
+}
@@ -0,0 +1,105 @@
+package controller;
+
+import com.IQproject.court.config.ReplicaLagTracker;
+import com.IQproject.court.controller.WriteVersionFilter;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteVersionFilterTest {
+
+    private ReplicaLagTracker lagTracker;
+    private WriteVersionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        lagTracker = new ReplicaLagTracker(Duration.ofHours(1));
+        filter = new WriteVersionFilter(lagTracker);
+    }
+
+    @Test
+    void echoedVersionRoutesTheRequestForThatClient() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courts");
+        request.addHeader(WriteVersionFilter.HEADER, "42");
+        AtomicLong seen = new AtomicLong();
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen.set(lagTracker.getClientVersion());
+            }
+        });
+
+        assertEquals(42, seen.get());
+        assertEquals(0, lagTracker.getClientVersion());
+    }
+
+    @Test
+    void malformedVersionIsIgnored() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courts");
+        request.addHeader(WriteVersionFilter.HEADER, "soon");
+        AtomicLong seen = new AtomicLong(-1);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen.set(lagTracker.getClientVersion());
+            }
+        });
+
+        assertEquals(0, seen.get());
+    }
+
+    @Test
+    void writeResponseCarriesTheWriteVersion() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicLong written = new AtomicLong();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/courts"), response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                written.set(lagTracker.recordWrite());
+                res.getWriter().write("{}");
+                res.flushBuffer();
+            }
+        });
+
+        assertTrue(response.isCommitted());
+        assertEquals(Long.toString(written.get()), response.getHeader(WriteVersionFilter.HEADER));
+    }
+
+    @Test
+    void emptyWriteResponseCarriesTheWriteVersion() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicLong written = new AtomicLong();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/courts/1"), response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                written.set(lagTracker.recordWrite());
+            }
+        });
+
+        assertEquals(Long.toString(written.get()), response.getHeader(WriteVersionFilter.HEADER));
+    }
+
+    @Test
+    void readResponseHasNoVersion() throws Exception {
+        lagTracker.recordWrite();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/courts"), response, new MockFilterChain());
+
+        assertNull(response.getHeader(WriteVersionFilter.HEADER));
+    }
+}
@@ -1,8 +1,10 @@
 package exeption;
 
+import com.IQproject.court.exception.AdmissionRejectedException;
 import com.IQproject.court.exception.ValidationHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BeanPropertyBindingResult;
@@ -55,6 +57,28 @@ class ValidationHandlerTest {
         assertEquals(error, body);
     }
 
+    @Test
+    void handleAdmissionRejectedException() {
+        AdmissionRejectedException ex = new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, 3, "Rate limit exceeded");
+
+        ResponseEntity<String> response = handler.handleAdmissionRejected(ex);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Rate limit exceeded", response.getBody());
+    }
+
+    @Test
+    void handleLockTimeout() {
+        PessimisticLockingFailureException ex = new PessimisticLockingFailureException("Timeout trying to lock table");
+
+        ResponseEntity<String> response = handler.handleLockTimeout(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Court is busy, try again", response.getBody());
+    }
+
     // Dummy class for testing purpose
     static class TestObject {
         private String name;
@@ -0,0 +1,58 @@
+package repository;
+
+import com.IQproject.court.model.Blackout;
+import com.IQproject.court.repository.BlackoutRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class)
+@Transactional
+public class BlackoutRepositoryTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 6, 1, 9, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private BlackoutRepository blackoutRepository;
+
+    @BeforeEach
+    void setUp() {
+        em.createQuery("DELETE FROM Blackout").executeUpdate();
+    }
+
+    private Blackout save(long courtId, LocalDateTime start) {
+        Blackout blackout = new Blackout();
+        blackout.setCourtId(courtId);
+        blackout.setStartTime(start);
+        blackout.setEndTime(start.plusHours(1));
+        return blackoutRepository.save(blackout);
+    }
+
+    @Test
+    void testFindByCourtIdSkipsDeletedAndOtherCourts() {
+        Blackout later = save(1L, NINE.plusDays(1));
+        Blackout earlier = save(1L, NINE);
+        Blackout deleted = save(1L, NINE.plusDays(2));
+        save(2L, NINE);
+
+        assertSame(deleted, blackoutRepository.softDelete(deleted.getId()));
+        assertNull(blackoutRepository.softDelete(deleted.getId()));
+        em.flush();
+
+        assertEquals(List.of(earlier.getId(), later.getId()),
+                blackoutRepository.findByCourtId(1L).stream().map(Blackout::getId).toList());
+        assertEquals(3, blackoutRepository.findAll().size());
+        assertNull(blackoutRepository.findById(deleted.getId()));
+        assertEquals(Blackout.Recurrence.NONE, blackoutRepository.findById(earlier.getId()).getRecurrence());
+    }
+}
@@ -0,0 +1,167 @@
+package repository;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.model.ChangeFeedEntry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ChangeFeedRepository;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class,
+        properties = {"spring.datasource.url=jdbc:h2:mem:change-feed;DB_CLOSE_DELAY=-1",
+                "app.tenancy.tenants=north"})
+public class ChangeFeedTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 8, 5, 9, 0);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeFeedRepository changeFeedRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private long head;
+
+    @BeforeEach
+    void setUp() {
+        head = changeFeedRepository.findHead();
+    }
+
+    private List<Reservation> reservations(Court court, Customer customer, int count) {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setCourtId(court.getId());
+            reservation.setCustomer(customer);
+            reservation.setStartTime(NINE.plusHours(i));
+            reservation.setEndTime(NINE.plusHours(i + 1));
+            reservations.add(reservation);
+        }
+        return reservations;
+    }
+
+    @Test
+    void feedHoldsTheLatestStateOfEveryChangedEntity() {
+        Court court = courtRepository.save(new Court("Fed Court", 1L));
+        Customer customer = customerRepository.save(new Customer("+420777000470", "Feed"));
+        reservationRepository.saveAll(reservations(court, customer, 3));
+        courtRepository.softDelete(court.getId());
+
+        List<ChangeFeedEntry> changes = changeFeedRepository.findAfter(head, 100);
+
+        assertEquals(List.of(ChangeFeedEntry.Type.CUSTOMER, ChangeFeedEntry.Type.RESERVATION,
+                        ChangeFeedEntry.Type.RESERVATION, ChangeFeedEntry.Type.RESERVATION, ChangeFeedEntry.Type.COURT),
+                changes.stream().map(ChangeFeedEntry::type).toList());
+        assertEquals(List.of(head + 2, head + 3, head + 3, head + 3, head + 4),
+                changes.stream().map(ChangeFeedEntry::changeSeq).toList());
+        assertTrue(changes.getLast().deleted());
+        assertEquals(court.getId(), changes.getLast().id());
+        assertEquals(head + 4, changeFeedRepository.findHead());
+    }
+
+    @Test
+    void rolledBackWritesAreNotInTheFeed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            courtRepository.save(new Court("Rolled Back Court", 1L));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(changeFeedRepository.findAfter(head, 100).isEmpty());
+        assertEquals(0, changeFeedRepository.countAfter(head));
+    }
+
+    @Test
+    void pagesNeverSplitATransaction() {
+        Court court = courtRepository.save(new Court("Paged Court", 1L));
+        Customer customer = customerRepository.save(new Customer("+420777000471", "Pager"));
+        reservationRepository.saveAll(reservations(court, customer, 3));
+        customerRepository.save(new Customer("+420777000472", "Last"));
+        long cursor = head + 2;
+
+        List<ChangeFeedEntry> page = changeFeedRepository.findAfter(cursor, 2);
+        assertEquals(3, page.size());
+        assertTrue(page.stream().allMatch(entry -> entry.changeSeq() == head + 3));
+        assertEquals(1, changeFeedRepository.countAfter(head + 3));
+
+        page = changeFeedRepository.findAfter(head + 3, 2);
+        assertEquals(1, page.size());
+        assertEquals("Last", ((Customer) page.getFirst().data()).getName());
+    }
+
+    @Test
+    void concurrentTransactionsGetDistinctSequenceNumbers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        customerRepository.save(new Customer("+42060" + thread + "0000" + (10 + i), "Writer"));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<ChangeFeedEntry> changes = changeFeedRepository.findAfter(head, 1000);
+        assertEquals(160, changes.size());
+        assertEquals(160, changes.stream().map(ChangeFeedEntry::changeSeq).distinct().count());
+        assertEquals(head + 160, changeFeedRepository.findHead());
+    }
+
+    @Test
+    void creatingTheCounterAgainKeepsItsValue() {
+        courtRepository.save(new Court("Counted Court", 1L));
+        long before = changeFeedRepository.findHead();
+
+        changeFeedRepository.createCounter();
+        courtRepository.save(new Court("Counted Court 2", 1L));
+
+        assertEquals(before + 1, changeFeedRepository.findHead());
+    }
+
+    @Test
+    void tenantsAreSequencedIndependently() {
+        long northHead = TenantContext.call("north", changeFeedRepository::findHead);
+
+        TenantContext.run("north", () -> courtRepository.save(new Court("North Court", 1L)));
+        courtRepository.save(new Court("Home Court", 1L));
+
+        assertEquals(head + 1, changeFeedRepository.findHead());
+        assertEquals(northHead + 1, TenantContext.call("north", changeFeedRepository::findHead));
+        List<ChangeFeedEntry> north = TenantContext.call("north", () -> changeFeedRepository.findAfter(northHead, 100));
+        assertEquals(1, north.size());
+        assertEquals("North Court", ((Court) north.getFirst().data()).getName());
+    }
+}
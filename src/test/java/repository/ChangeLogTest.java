@@ -0,0 +1,136 @@
+package repository;
+
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ChangeLogRepository;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.BookingRules;
+import com.IQproject.court.service.ChangeLogTailer;
+import com.IQproject.court.service.CourtSchedule;
+import com.IQproject.court.service.CourtScheduleRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-log;DB_CLOSE_DELAY=-1",
+        "app.change-log.enabled=true",
+        "app.node-id=this-node"
+})
+public class ChangeLogTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 6, 3, 9, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ChangeLogTailer tailer;
+
+    @Autowired
+    private BookingRules bookingRules;
+
+    @Autowired
+    private CourtScheduleRegistry scheduleRegistry;
+
+    private TransactionTemplate transaction;
+    private Court court;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        court = courtRepository.save(new Court("Replicated Court", 1L));
+        tailer.poll();
+    }
+
+    /**
+     * Writes like another instance would: the row directly, plus its change log entry.
+     */
+    private void writeOnOtherNode(String sql, ChangeLogEntry.EntityType type, long entityId) {
+        transaction.executeWithoutResult(status -> {
+            em.createNativeQuery(sql).executeUpdate();
+            em.persist(new ChangeLogEntry(type, entityId, court.getId(), court.getTenantId(), "other-node"));
+        });
+    }
+
+    @Test
+    void entriesAreWrittenInTheTransactionOfTheWrite() {
+        long before = changeLogRepository.findMaxId();
+        Court saved = courtRepository.save(new Court("Logged Court", 1L));
+
+        List<ChangeLogEntry> logged = changeLogRepository.findAfter(before, 10);
+        assertEquals(1, logged.size());
+        assertEquals(ChangeLogEntry.EntityType.COURT, logged.getFirst().getEntityType());
+        assertEquals(saved.getId(), logged.getFirst().getEntityId());
+        assertEquals("this-node", logged.getFirst().getNodeId());
+
+        long afterSave = changeLogRepository.findMaxId();
+        transaction.executeWithoutResult(status -> {
+            courtRepository.save(new Court("Rolled Back Court", 1L));
+            status.setRollbackOnly();
+        });
+        assertTrue(changeLogRepository.findAfter(afterSave, 10).isEmpty());
+    }
+
+    @Test
+    void courtHoursChangedOnOtherNodeAreRecompiled() {
+        assertNull(bookingRules.violation(court.getId(), NINE, NINE.plusHours(1)));
+
+        writeOnOtherNode("UPDATE court SET opens_at = TIME '10:00:00' WHERE id = " + court.getId(),
+                ChangeLogEntry.EntityType.COURT, court.getId());
+        tailer.poll();
+
+        assertEquals(LocalTime.of(10, 0), courtRepository.findById(court.getId()).getOpensAt());
+        assertNotNull(bookingRules.violation(court.getId(), NINE, NINE.plusHours(1)));
+    }
+
+    @Test
+    void scheduleChangedOnOtherNodeIsReloaded() {
+        Customer customer = customerRepository.save(new Customer("+420777000111", "Replica"));
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(court.getId());
+        reservation.setCustomer(customer);
+        reservation.setStartTime(NINE);
+        reservation.setEndTime(NINE.plusHours(1));
+        Long id = reservationRepository.save(reservation).getId();
+        assertFalse(scheduleRegistry.get(court.getId()).isFree(NINE, NINE.plusHours(1), null));
+        tailer.poll();
+
+        writeOnOtherNode("UPDATE reservation SET start_time = TIMESTAMP '2030-06-03 15:00:00', "
+                        + "end_time = TIMESTAMP '2030-06-03 16:00:00' WHERE id = " + id,
+                ChangeLogEntry.EntityType.RESERVATION, id);
+        tailer.poll();
+
+        CourtSchedule schedule = scheduleRegistry.get(court.getId());
+        assertTrue(schedule.isFree(NINE, NINE.plusHours(1), null));
+        assertFalse(schedule.isFree(NINE.withHour(15), NINE.withHour(16), null));
+    }
+}
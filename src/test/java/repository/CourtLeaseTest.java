@@ -0,0 +1,222 @@
+package repository;
+
+import com.IQproject.court.CourtApplication;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtLeaseRepository;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.BookingDispatcher;
+import com.IQproject.court.service.CourtScheduleRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = CourtApplication.class, properties = "app.data-init=false")
+public class CourtLeaseTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 7, 1, 12, 0);
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 7, 1, 8, 0);
+    private static final int SLOTS = 12;
+    private static final String PHONE = "+420777000246";
+    private static final Path DIRECTORY = Paths.get("target", "lease-test", UUID.randomUUID().toString());
+    private static final String URL = "jdbc:h2:file:" + DIRECTORY.toAbsolutePath() + "/db;AUTO_SERVER=TRUE";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourtLeaseRepository leaseRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @DynamicPropertySource
+    static void sharedDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void leaseIsRenewedByItsHolderAndTakenOverOnlyOnceExpired() {
+        long courtId = 1_000_001;
+        assertEquals(1, leaseRepository.acquire(courtId, "a", NOW, NOW.plusSeconds(5)));
+        assertEquals(-1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(1), NOW.plusSeconds(6)));
+        assertEquals(1, leaseRepository.acquire(courtId, "a", NOW.plusSeconds(2), NOW.plusSeconds(7)));
+        assertEquals(-1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(6), NOW.plusSeconds(11)));
+
+        assertEquals(2, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(7), NOW.plusSeconds(12)));
+        assertEquals(-1, leaseRepository.acquire(courtId, "a", NOW.plusSeconds(8), NOW.plusSeconds(13)));
+    }
+
+    @Test
+    void staleHolderCannotLockTheLeaseForItsWrite() {
+        long courtId = 1_000_002;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long token = leaseRepository.acquire(courtId, "a", NOW, NOW.plusSeconds(5));
+        assertEquals(Boolean.TRUE, transaction.execute(status ->
+                leaseRepository.lockIfHeld(courtId, "a", token, NOW.plusSeconds(1))));
+        assertEquals(Boolean.FALSE, transaction.execute(status ->
+                leaseRepository.lockIfHeld(courtId, "a", token, NOW.plusSeconds(5))));
+
+        long takenOver = leaseRepository.acquire(courtId, "b", NOW.plusSeconds(5), NOW.plusSeconds(10));
+        assertEquals(token + 1, takenOver);
+        assertEquals(Boolean.FALSE, transaction.execute(status ->
+                leaseRepository.lockIfHeld(courtId, "a", token, NOW.plusSeconds(6))));
+        assertEquals(Boolean.TRUE, transaction.execute(status ->
+                leaseRepository.lockIfHeld(courtId, "b", takenOver, NOW.plusSeconds(6))));
+    }
+
+    @Test
+    void releasedLeaseCanBeTakenAtOnce() {
+        long courtId = 1_000_003;
+        long token = leaseRepository.acquire(courtId, "a", NOW, NOW.plusSeconds(5));
+        leaseRepository.release(courtId, "b", NOW.plusSeconds(1));
+        assertEquals(-1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(1), NOW.plusSeconds(6)));
+
+        leaseRepository.release(courtId, "a", NOW.plusSeconds(1));
+        assertEquals(token + 1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(1), NOW.plusSeconds(6)));
+    }
+
+    @Test
+    void releasedLeasePassesToTheWaitingInstanceFirst() {
+        long courtId = 1_000_004;
+        long token = leaseRepository.acquire(courtId, "a", NOW, NOW.plusSeconds(5));
+        assertEquals(-1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(1), NOW.plusSeconds(6)));
+        leaseRepository.release(courtId, "a", NOW.plusSeconds(2));
+
+        assertEquals(-1, leaseRepository.acquire(courtId, "a", NOW.plusSeconds(2), NOW.plusSeconds(7)));
+        assertEquals(token + 1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(2), NOW.plusSeconds(7)));
+        assertEquals(-1, leaseRepository.acquire(courtId, "a", NOW.plusSeconds(3), NOW.plusSeconds(8)));
+        leaseRepository.release(courtId, "b", NOW.plusSeconds(4));
+
+        // a waiter that stopped asking is passed over
+        assertEquals(token + 1, leaseRepository.acquire(courtId, "b", NOW.plusSeconds(9), NOW.plusSeconds(14)));
+    }
+
+    /**
+     * Two JVMs book the same slots of one court in actor mode against the shared database;
+     * each slot must be booked exactly once.
+     */
+    @Test
+    void instancesInSeparateJvmsNeverDoubleBookACourt() throws Exception {
+        SurfaceType surface = surfaceTypeRepository.save(new SurfaceType("Lease Clay", new BigDecimal("1.00")));
+        Court court = courtRepository.save(new Court("Leased Court", surface.getId()));
+        customerRepository.save(new Customer(PHONE, "Leaseholder"));
+
+        Files.createDirectories(DIRECTORY);
+        List<Process> nodes = new ArrayList<>();
+        for (String node : List.of("node-1", "node-2")) {
+            nodes.add(new ProcessBuilder(
+                    Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    Node.class.getName(),
+                    "--spring.datasource.url=" + URL,
+                    "--spring.jpa.show-sql=false",
+                    "--app.data-init=false",
+                    "--app.booking-mode=actor",
+                    "--app.lease.enabled=true",
+                    // a cold instance can spend seconds on its first booking, and the other one waits at most one TTL
+                    "--app.lease.ttl=30s",
+                    "--app.node-id=" + node,
+                    "--app.lease-test.court-id=" + court.getId(),
+                    "--app.lease-test.directory=" + DIRECTORY.toAbsolutePath(),
+                    "--app.lease-test.reversed=" + node.equals("node-2"))
+                    .redirectErrorStream(true)
+                    .redirectOutput(DIRECTORY.resolve(node + ".log").toFile())
+                    .start());
+        }
+        for (Process node : nodes) {
+            assertTrue(node.waitFor(3, TimeUnit.MINUTES), "node did not finish");
+            assertEquals(0, node.exitValue(), "node failed, see " + DIRECTORY);
+        }
+
+        assertEquals((long) SLOTS, em.createQuery(
+                        "SELECT count(r) FROM Reservation r WHERE r.courtId = :courtId", Long.class)
+                .setParameter("courtId", court.getId())
+                .getSingleResult());
+        assertEquals(0L, em.createQuery("""
+                        SELECT count(a) FROM Reservation a, Reservation b
+                        WHERE a.courtId = :courtId AND b.courtId = :courtId AND a.id < b.id
+                          AND a.startTime < b.endTime AND b.startTime < a.endTime
+                        """, Long.class)
+                .setParameter("courtId", court.getId())
+                .getSingleResult());
+    }
+
+    /**
+     * One instance of the application in its own JVM. Waits until every node has started, then
+     * books each slot once, in reverse order if asked to, so that the nodes meet half way.
+     */
+    public static class Node {
+        public static void main(String[] args) throws Exception {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CourtApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(args)) {
+                Environment env = context.getEnvironment();
+                Path dir = Paths.get(env.getRequiredProperty("app.lease-test.directory"));
+                long courtId = env.getRequiredProperty("app.lease-test.court-id", Long.class);
+                // load the schedule up front, so it is stale unless the lease reloads it
+                context.getBean(CourtScheduleRegistry.class).get(courtId);
+                Files.createFile(dir.resolve(env.getRequiredProperty("app.node-id") + ".ready"));
+                long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+                while (countReady(dir) < 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+
+                BookingDispatcher dispatcher = context.getBean(BookingDispatcher.class);
+                boolean reversed = env.getRequiredProperty("app.lease-test.reversed", Boolean.class);
+                for (int i = 0; i < SLOTS; i++) {
+                    LocalDateTime start = FIRST_SLOT.plusHours(reversed ? SLOTS - 1 - i : i);
+                    Reservation reservation = new Reservation();
+                    reservation.setCourtId(courtId);
+                    reservation.setCustomer(new Customer(PHONE, "Leaseholder"));
+                    reservation.setStartTime(start);
+                    reservation.setEndTime(start.plusHours(1));
+                    try {
+                        dispatcher.book(reservation);
+                    } catch (IllegalArgumentException e) {
+                        // the other node booked the slot first
+                    }
+                }
+            }
+        }
+
+        private static long countReady(Path dir) {
+            File[] ready = dir.toFile().listFiles((d, name) -> name.endsWith(".ready"));
+            return ready == null ? 0 : ready.length;
+        }
+    }
+}
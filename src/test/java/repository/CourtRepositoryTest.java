@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -95,4 +96,43 @@ public class CourtRepositoryTest {
         Court updated = em.find(Court.class, court.getId());
         assertTrue(updated.isDeleted());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindBySurfaceTypeIdReturnsOnlyNotDeleted() {
+        Court clay = new Court("Clay", 1L);
+        Court grass = new Court("Grass", 2L);
+        Court deletedClay = new Court("Old Clay", 1L);
+        deletedClay.setDeleted(true);
+
+        em.persist(clay);
+        em.persist(grass);
+        em.persist(deletedClay);
+        em.flush();
+
+        List<Court> courts = courtRepository.findBySurfaceTypeId(1L);
+        assertEquals(1, courts.size());
+        assertEquals(clay.getId(), courts.get(0).getId());
+    }
+
+    @Test
+    void testLockAllReturnsCourtsOrderedById() {
+        Court first = new Court("First", 1L);
+        Court second = new Court("Second", 1L);
+        em.persist(first);
+        em.persist(second);
+        em.flush();
+
+        List<Court> locked = courtRepository.lockAll(List.of(second.getId(), first.getId(), 999_999L));
+        assertEquals(List.of(first.getId(), second.getId()), locked.stream().map(Court::getId).toList());
+    }
+
+    @Test
+    void testFindAllSurfaceTypeIdsIncludesDeletedCourts() {
+        Court active = courtRepository.save(new Court("A", 1L));
+        Court deleted = new Court("B", 2L);
+        deleted.setDeleted(true);
+        courtRepository.save(deleted);
+
+        assertEquals(Map.of(active.getId(), 1L, deleted.getId(), 2L), courtRepository.findAllSurfaceTypeIds());
+    }
+}
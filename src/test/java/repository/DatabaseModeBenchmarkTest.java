@@ -0,0 +1,166 @@
+package repository;
+
+import com.IQproject.court.CourtApplication;
+import com.IQproject.court.config.DatabaseVerifier;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the in-memory database with the {@code persistent} profile at 1M reservations.
+ * Skipped unless run with {@code -Dbenchmark=true}, e.g.
+ * {@code mvn test -Dtest=DatabaseModeBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DatabaseModeBenchmarkTest {
+    private static final int RESERVATIONS = 1_000_000;
+    private static final int COURTS = 50;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int READS = 5_000;
+    private static final int WRITES = 10_000;
+    private static final int THREADS = 8;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void inMemoryVersusPersistent() throws Exception {
+        run("in-memory", "--spring.datasource.url=jdbc:h2:mem:benchmark");
+
+        Path database = directory.resolve("benchmark");
+        String[] persistent = {"--spring.profiles.active=persistent", "--app.database-path=" + database};
+        run("persistent", persistent);
+        System.out.printf("persistent file size: %,d MB%n",
+                Files.size(Path.of(database + ".mv.db")) / (1024 * 1024));
+
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(persistent)) {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long rows = context.getBean(DatabaseVerifier.class).verify().get("RESERVATION");
+            System.out.printf("persistent restart with verification: %.2f s, %,d reservations kept%n", seconds, rows);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        String[] common = {"--app.data-init=false", "--spring.jpa.show-sql=false", "--app.admission.enabled=false"};
+        String[] all = new String[common.length + args.length];
+        System.arraycopy(common, 0, all, 0, common.length);
+        System.arraycopy(args, 0, all, common.length, args.length);
+        return new SpringApplicationBuilder(CourtApplication.class).web(WebApplicationType.NONE).run(all);
+    }
+
+    private void run(String name, String... args) throws Exception {
+        try (ConfigurableApplicationContext context = start(args)) {
+            SurfaceType surface = context.getBean(SurfaceTypeRepository.class)
+                    .save(new SurfaceType("Benchmark", new BigDecimal(5)));
+            List<Long> courtIds = new ArrayList<>(COURTS);
+            for (int i = 0; i < COURTS; i++) {
+                courtIds.add(context.getBean(CourtRepository.class).save(new Court("Court " + i, surface.getId())).getId());
+            }
+            Customer customer = context.getBean(CustomerRepository.class).save(new Customer("777000111", "Benchmark"));
+
+            long started = System.nanoTime();
+            load(context.getBean(DataSource.class), courtIds, customer.getId());
+            report(name, "bulk insert", RESERVATIONS, started);
+
+            ReservationRepository repository = context.getBean(ReservationRepository.class);
+            int hoursPerCourt = RESERVATIONS / COURTS;
+            started = System.nanoTime();
+            parallel(READS, i -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDateTime start = BASE.plusHours(random.nextInt(hoursPerCourt)).plusMinutes(30);
+                repository.isOverlapping(courtIds.get(random.nextInt(COURTS)), start, start.plusHours(1));
+            });
+            report(name, "overlap reads", READS, started);
+
+            AtomicInteger next = new AtomicInteger();
+            started = System.nanoTime();
+            parallel(WRITES, i -> {
+                int n = next.getAndIncrement();
+                Reservation reservation = new Reservation();
+                reservation.setCourtId(courtIds.get(n % COURTS));
+                reservation.setCustomer(customer);
+                reservation.setStartTime(BASE.plusHours(hoursPerCourt + n / COURTS));
+                reservation.setEndTime(reservation.getStartTime().plusHours(1));
+                reservation.setPrice(BigDecimal.TEN);
+                repository.save(reservation);
+            });
+            report(name, "saves", WRITES, started);
+        }
+    }
+
+    private static void load(DataSource dataSource, List<Long> courtIds, long customerId) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("""
+                     INSERT INTO reservation (court_id, customer_id, start_time, end_time, doubles, price,
+                                              deleted, status, created_at)
+                     VALUES (?, ?, ?, ?, FALSE, 10, FALSE, 'CONFIRMED', CURRENT_TIMESTAMP)
+                     """)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < RESERVATIONS; i++) {
+                LocalDateTime start = BASE.plusHours(i / COURTS);
+                insert.setLong(1, courtIds.get(i % COURTS));
+                insert.setLong(2, customerId);
+                insert.setTimestamp(3, Timestamp.valueOf(start));
+                insert.setTimestamp(4, Timestamp.valueOf(start.plusHours(1)));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void parallel(int operations, IntConsumer operation) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = thread; i < operations; i += THREADS) {
+                        operation.accept(i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static void report(String name, String operation, int count, long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-10s %-13s %,d in %.2f s = %,.0f ops/s%n", name, operation, count, seconds, count / seconds);
+    }
+}
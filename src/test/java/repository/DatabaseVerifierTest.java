@@ -0,0 +1,55 @@
+package repository;
+
+import com.IQproject.court.config.DatabaseVerifier;
+import com.IQproject.court.model.Court;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class,
+        properties = "app.database-path=./target/persistent-test/${random.uuid}")
+@ActiveProfiles("persistent")
+@Transactional
+public class DatabaseVerifierTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DatabaseVerifier verifier;
+
+    @Test
+    void persistentProfileUsesTunedFileDatabase() {
+        assertNotNull(em.createNativeQuery("SELECT DATABASE_PATH()").getSingleResult());
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> settings = em.createNativeQuery("""
+                SELECT SETTING_NAME, SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS
+                WHERE SETTING_NAME IN ('CACHE_SIZE', 'COMPRESS', 'AUTO_COMPACT_FILL_RATE')
+                ORDER BY SETTING_NAME
+                """).getResultList();
+        assertEquals(List.of("AUTO_COMPACT_FILL_RATE=80", "CACHE_SIZE=131072", "COMPRESS=TRUE"),
+                settings.stream().map(row -> row[0] + "=" + row[1]).toList());
+    }
+
+    @Test
+    void verifyCountsRowsOfEveryTable() {
+        em.persist(new Court("Verified Court", 1L));
+        em.flush();
+        long courts = (Long) em.createQuery("SELECT count(c) FROM Court c").getSingleResult();
+
+        Map<String, Long> rows = verifier.verify();
+
+        assertEquals(courts, rows.get("COURT"));
+        assertTrue(rows.containsKey("RESERVATION"));
+        assertTrue(rows.containsKey("IDEMPOTENCY_KEY"));
+    }
+}
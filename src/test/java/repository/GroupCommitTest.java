@@ -0,0 +1,85 @@
+package repository;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.GroupCommitter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit;DB_CLOSE_DELAY=-1",
+        "app.group-commit.enabled=true",
+        "app.group-commit.max-wait=500ms"
+})
+public class GroupCommitTest {
+    private static final LocalDateTime TEN = LocalDateTime.of(2031, 4, 7, 10, 0);
+    private static final int BOOKINGS = 8;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private GroupCommitter committer;
+
+    private Reservation reservation(Court court, LocalDateTime start, String phone) {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(court.getId());
+        reservation.setCustomer(new Customer(phone, "Rush"));
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusHours(1));
+        return reservation;
+    }
+
+    @Test
+    void burstIsCommittedTogetherAndOnlyTheConflictingBookingFails() throws Exception {
+        SurfaceType surface = surfaceTypeRepository.save(new SurfaceType("Rush Clay", new BigDecimal("1.00")));
+        Court court = courtRepository.save(new Court("Rush Court", surface.getId()));
+
+        List<CompletableFuture<Reservation>> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(committer.submit(reservation(court, TEN.plusHours(i), "+42077705000" + i)));
+        }
+        CompletableFuture<Reservation> conflicting = committer.submit(reservation(court, TEN, "+420777050099"));
+
+        List<Long> ids = new ArrayList<>();
+        for (CompletableFuture<Reservation> booking : bookings) {
+            ids.add(booking.get().getId());
+        }
+        ExecutionException error = assertThrows(ExecutionException.class, conflicting::get);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+
+        List<Long> changeSeqs = em.createQuery("""
+                        SELECT DISTINCT r.changeSeq FROM Reservation r
+                        WHERE r.courtId = :courtId AND r.deleted = false
+                        """, Long.class)
+                .setParameter("courtId", court.getId())
+                .getResultList();
+        assertEquals(1, changeSeqs.size(), "all bookings of the burst share one transaction");
+        assertEquals((long) BOOKINGS, em.createQuery(
+                        "SELECT count(r) FROM Reservation r WHERE r.courtId = :courtId", Long.class)
+                .setParameter("courtId", court.getId())
+                .getSingleResult());
+        assertEquals(BOOKINGS, ids.stream().distinct().count());
+    }
+}
@@ -0,0 +1,118 @@
+package repository;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.OutboxEvent;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.InMemoryOutboxSink;
+import com.IQproject.court.service.OutboxRelay;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "app.outbox.enabled=true",
+        "app.outbox.sink=memory",
+        "app.outbox.poll-interval=1h"
+})
+public class OutboxTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 9, 2, 9, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    private Court court;
+    private Customer customer;
+    private int delivered;
+
+    @BeforeEach
+    void setUp() {
+        court = courtRepository.save(new Court("Outbox Court", 1L));
+        customer = customerRepository.findByPhoneNumber("+420777000480");
+        if (customer == null) {
+            customer = customerRepository.save(new Customer("+420777000480", "Outbox"));
+        }
+        relay.relay();
+        delivered = sink.getDelivered().size();
+    }
+
+    private Reservation reservation() {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(court.getId());
+        reservation.setCustomer(customer);
+        reservation.setStartTime(NINE);
+        reservation.setEndTime(NINE.plusHours(1));
+        return reservation;
+    }
+
+    private List<OutboxEvent> newlyDelivered() {
+        List<OutboxEvent> all = sink.getDelivered();
+        return all.subList(delivered, all.size());
+    }
+
+    private long pending() {
+        return em.createQuery("SELECT count(e) FROM OutboxEvent e", Long.class).getSingleResult();
+    }
+
+    @Test
+    void eventsAreWrittenWithTheReservationAndRelayedInOrder() {
+        Reservation saved = reservationRepository.save(reservation());
+        reservationRepository.softDelete(saved.getId());
+        assertEquals(2, pending());
+        assertTrue(newlyDelivered().isEmpty());
+
+        relay.relay();
+
+        List<OutboxEvent> events = newlyDelivered();
+        assertEquals(List.of(OutboxEvent.Type.CREATED, OutboxEvent.Type.CANCELLED),
+                events.stream().map(OutboxEvent::getType).toList());
+        assertTrue(events.stream().allMatch(event -> saved.getId().equals(event.getReservationId())));
+        assertEquals(NINE, events.getFirst().getStartTime());
+        assertTrue(events.getFirst().getId() < events.get(1).getId());
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void rolledBackReservationLeavesNoEvent() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reservationRepository.save(reservation());
+            status.setRollbackOnly();
+        });
+
+        relay.relay();
+
+        assertEquals(0, pending());
+        assertTrue(newlyDelivered().isEmpty());
+    }
+}
@@ -0,0 +1,191 @@
+package repository;
+
+import com.IQproject.court.config.ReplicaLagTracker;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.service.CourtService;
+import com.IQproject.court.service.ReservationService;
+import com.IQproject.court.service.SurfaceTypeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class, properties = {
+        "app.replica.enabled=true",
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "app.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "app.replica.max-lag=1h"
+})
+public class ReadWriteRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ReplicaLagTracker lagTracker;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private SurfaceTypeService surfaceTypeService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * Test replication hook: copies the whole primary database to the replica and reports the
+     * write version it has caught up with.
+     */
+    private void replicate() throws Exception {
+        long version = lagTracker.getWriteVersion();
+        Path script = Files.createTempFile("replication", ".sql");
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement fromPrimary = primary.createStatement();
+             Statement toReplica = replica.createStatement()) {
+            fromPrimary.execute("SCRIPT TO '" + script + "'");
+            toReplica.execute("DROP ALL OBJECTS");
+            toReplica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.delete(script);
+        }
+        lagTracker.replicated(version);
+    }
+
+    private static long countOnReplica(String sql) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void onReplica(String sql) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replicate();
+    }
+
+    @Test
+    void readOnlyTransactionsUseCurrentReplica() throws Exception {
+        onReplica("UPDATE court SET name = 'Replica copy' WHERE deleted = false");
+
+        List<Court> courts = courtService.getAllCourts();
+        assertFalse(courts.isEmpty());
+        assertTrue(courts.stream().allMatch(c -> c.getName().equals("Replica copy")));
+        // reads outside a read-only transaction stay on the primary
+        assertTrue(courtRepository.findAll().stream().noneMatch(c -> c.getName().equals("Replica copy")));
+    }
+
+    @Test
+    void readsAfterWriteGoToPrimaryUntilReplicaCatchesUp() throws Exception {
+        SurfaceType surface = surfaceTypeService.getAllSurfaceTypes().get(0);
+        Court court = courtService.createCourt(new Court("Fresh Court", surface.getId()));
+
+        assertFalse(lagTracker.isReplicaCurrent());
+        assertNotNull(courtService.getCourt(court.getId()));
+
+        replicate();
+        onReplica("UPDATE court SET name = 'Replicated' WHERE id = " + court.getId());
+        assertEquals("Replicated", courtService.getCourt(court.getId()).getName());
+    }
+
+    @Test
+    void otherClientsKeepReadingTheReplicaAfterAWrite() throws Exception {
+        SurfaceType surface = surfaceTypeService.getAllSurfaceTypes().get(0);
+        Court court = courtService.createCourt(new Court("Writer's Court", surface.getId()));
+        onReplica("UPDATE court SET name = 'Replica copy' WHERE deleted = false");
+
+        List<Court> seenByOthers = CompletableFuture.supplyAsync(courtService::getAllCourts).get();
+        assertTrue(seenByOthers.stream().allMatch(c -> c.getName().equals("Replica copy")));
+        assertTrue(seenByOthers.stream().noneMatch(c -> c.getId().equals(court.getId())));
+        assertEquals("Writer's Court", courtService.getCourt(court.getId()).getName());
+    }
+
+    @Test
+    void bookingIsVisibleToItsCustomerBeforeReplication() throws Exception {
+        Court court = courtService.getAllCourts().get(0);
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(court.getId());
+        reservation.setCustomer(new Customer("420777888999", "Replica Reader"));
+        reservation.setStartTime(LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS));
+        reservation.setEndTime(reservation.getStartTime().plusHours(1));
+        Reservation created = reservationService.createReservation(reservation);
+        assertEquals(0, countOnReplica("SELECT COUNT(*) FROM reservation WHERE id = " + created.getId()));
+
+        assertEquals(1, reservationService.getReservationsByPhone("420777888999", true).size());
+        assertEquals(created.getId(), reservationService.getReservationById(created.getId()).getId());
+    }
+
+    @Test
+    void trackerFallsBackToMaxLagWithoutReplicationHook() throws InterruptedException {
+        ReplicaLagTracker tracker = new ReplicaLagTracker(Duration.ofMillis(50));
+        assertTrue(tracker.isReplicaCurrent());
+
+        tracker.recordWrite();
+        assertFalse(tracker.isReplicaCurrent());
+        Thread.sleep(60);
+        assertTrue(tracker.isReplicaCurrent());
+
+        tracker.recordWrite();
+        tracker.replicated(tracker.getWriteVersion());
+        assertTrue(tracker.isReplicaCurrent());
+    }
+
+    @Test
+    void trackerWaitsForTheHookOnceItHasReported() throws InterruptedException {
+        ReplicaLagTracker tracker = new ReplicaLagTracker(Duration.ofMillis(50));
+        tracker.replicated(tracker.getWriteVersion());
+
+        long version = tracker.recordWrite();
+        Thread.sleep(60);
+        assertFalse(tracker.isReplicaCurrent());
+
+        tracker.replicated(version);
+        assertTrue(tracker.isReplicaCurrent());
+    }
+
+    @Test
+    void trackerRoutesOnlyTheWritingClientToThePrimary() {
+        ReplicaLagTracker tracker = new ReplicaLagTracker(Duration.ofHours(1));
+        long version = tracker.recordWrite();
+        assertEquals(version, tracker.getClientVersion());
+        assertFalse(tracker.isReplicaCurrent());
+
+        long previous = tracker.setClientVersion(0);
+        assertTrue(tracker.isReplicaCurrent());
+        tracker.setClientVersion(previous);
+        assertFalse(tracker.isReplicaCurrent(version));
+        assertTrue(tracker.recordWrite() > version);
+    }
+}
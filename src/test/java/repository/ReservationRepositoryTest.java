@@ -1,5 +1,7 @@
 package repository;
 
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
 import com.IQproject.court.model.Court;
 import com.IQproject.court.model.Customer;
 import com.IQproject.court.model.Reservation;
@@ -10,14 +12,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(classes = com.IQproject.court.CourtApplication.class)
 @Transactional
+@RecordApplicationEvents
 public class ReservationRepositoryTest {
     private final static String COURT_NAME = "Test Court";
     private final static String PHONE_NUMBER = "123456789";
@@ -29,6 +36,9 @@ public class ReservationRepositoryTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ApplicationEvents events;
+
     private final Court court = new Court(COURT_NAME, 1L);
     private final Customer customer = new Customer(PHONE_NUMBER, USER_NAME);
 
@@ -61,6 +71,32 @@ public class ReservationRepositoryTest {
         assertEquals(PHONE_NUMBER, found.getCustomer().getPhoneNumber());
     }
 
+    @Test
+    void testSaveReportsCreatedThenUpdated() {
+        Reservation res = new Reservation();
+        res.setCourtId(court.getId());
+        res.setCustomer(customer);
+        res.setStartTime(LocalDateTime.now().plusHours(1));
+        res.setEndTime(LocalDateTime.now().plusHours(2));
+
+        Reservation saved = reservationRepository.save(res);
+        saved.setEndTime(saved.getEndTime().plusHours(1));
+        reservationRepository.save(saved);
+        Reservation other = new Reservation();
+        other.setCourtId(court.getId());
+        other.setCustomer(customer);
+        other.setStartTime(LocalDateTime.now().plusDays(1));
+        other.setEndTime(LocalDateTime.now().plusDays(1).plusHours(1));
+        reservationRepository.saveAll(List.of(other));
+
+        assertEquals(List.of(ReservationChange.Type.CREATED, ReservationChange.Type.UPDATED,
+                        ReservationChange.Type.CREATED),
+                events.stream(ReservationChangedEvent.class)
+                        .flatMap(event -> event.changes().stream())
+                        .map(ReservationChange::type)
+                        .toList());
+    }
+
     @Test
     void testFindAllOnlyNotDeleted() {
         Reservation r1 = new Reservation();
@@ -194,4 +230,162 @@ public class ReservationRepositoryTest {
         Reservation updated = em.find(Reservation.class, r.getId());
         assertTrue(updated.isDeleted());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindOverlappingCourtIds() {
+        Court other = new Court("Other Court", 1L);
+        em.persist(other);
+
+        LocalDateTime start = LocalDateTime.now().plusHours(2).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = start.plusHours(1);
+
+        Reservation existing = new Reservation();
+        existing.setCourtId(court.getId());
+        existing.setCustomer(customer);
+        existing.setStartTime(start);
+        existing.setEndTime(end);
+
+        em.persist(existing);
+        em.flush();
+
+        List<Long> busy = reservationRepository.findOverlappingCourtIds(List.of(court.getId(), other.getId()),
+                start.minusMinutes(30), end.plusMinutes(30));
+        assertEquals(List.of(court.getId()), busy);
+
+        busy = reservationRepository.findOverlappingCourtIds(List.of(court.getId(), other.getId()),
+                end, end.plusHours(1));
+        assertTrue(busy.isEmpty());
+    }
+
+    @Test
+    void testFindByCourtIds() {
+        Court other = new Court("Other Court", 1L);
+        Court ignored = new Court("Ignored Court", 1L);
+        em.persist(other);
+        em.persist(ignored);
+
+        for (Court c : List.of(court, other, ignored)) {
+            Reservation r = new Reservation();
+            r.setCourtId(c.getId());
+            r.setCustomer(customer);
+            r.setStartTime(LocalDateTime.now().plusHours(1));
+            r.setEndTime(LocalDateTime.now().plusHours(2));
+            em.persist(r);
+        }
+        em.flush();
+
+        List<Reservation> results = reservationRepository.findByCourtIds(List.of(court.getId(), other.getId()));
+        assertEquals(2, results.size());
+        assertTrue(results.stream().noneMatch(r -> r.getCourtId().equals(ignored.getId())));
+    }
+
+    @Test
+    void testFindByIdRangeAndIdBounds() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Reservation first = persistHold(start, start);
+        Reservation second = persistHold(start.plusHours(1), start);
+        Reservation deleted = persistHold(start.plusHours(2), start);
+        deleted.setDeleted(true);
+        em.flush();
+
+        assertArrayEquals(new long[]{first.getId(), deleted.getId()}, reservationRepository.findIdBounds());
+        assertEquals(List.of(first.getId(), second.getId()),
+                reservationRepository.findByIdRange(first.getId(), deleted.getId()).stream()
+                        .map(Reservation::getId).toList());
+        assertEquals(List.of(second.getId()),
+                reservationRepository.findByIdRange(second.getId(), second.getId()).stream()
+                        .map(Reservation::getId).toList());
+    }
+
+    private Reservation persistHold(LocalDateTime start, LocalDateTime expiresAt) {
+        Reservation hold = new Reservation();
+        hold.setCourtId(court.getId());
+        hold.setCustomer(customer);
+        hold.setStartTime(start);
+        hold.setEndTime(start.plusHours(1));
+        hold.setStatus(Reservation.Status.HOLD);
+        hold.setHoldExpiresAt(expiresAt);
+        em.persist(hold);
+        em.flush();
+        return hold;
+    }
+
+    @Test
+    void testExpiredHoldDoesNotOverlap() {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        persistHold(start, LocalDateTime.now().minusSeconds(1));
+
+        assertFalse(reservationRepository.isOverlapping(court.getId(), start, start.plusHours(1)));
+
+        persistHold(start, LocalDateTime.now().plusMinutes(5));
+        assertTrue(reservationRepository.isOverlapping(court.getId(), start, start.plusHours(1)));
+    }
+
+    @Test
+    void testConfirmHold() {
+        Reservation hold = persistHold(LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(5));
+
+        Reservation confirmed = reservationRepository.confirmHold(hold.getId(), LocalDateTime.now());
+
+        assertNotNull(confirmed);
+        assertEquals(Reservation.Status.CONFIRMED, confirmed.getStatus());
+        assertNull(confirmed.getHoldExpiresAt());
+        assertNull(reservationRepository.confirmHold(hold.getId(), LocalDateTime.now()));
+        assertEquals(List.of(), reservationRepository.findActiveHolds());
+    }
+
+    @Test
+    void testExpireHoldsSkipsHoldsNotYetDue() {
+        Reservation due = persistHold(LocalDateTime.now().plusHours(2), LocalDateTime.now().minusSeconds(1));
+        Reservation notDue = persistHold(LocalDateTime.now().plusHours(4), LocalDateTime.now().plusMinutes(5));
+
+        int expired = reservationRepository.expireHolds(List.of(due.getId(), notDue.getId()), LocalDateTime.now());
+        em.flush();
+
+        assertEquals(1, expired);
+        assertTrue(em.find(Reservation.class, due.getId()).isDeleted());
+        assertNull(reservationRepository.confirmHold(due.getId(), LocalDateTime.now()));
+        assertEquals(List.of(notDue.getId()),
+                reservationRepository.findActiveHolds().stream().map(Reservation::getId).toList());
+    }
+
+    @Test
+    void testCancelStartingBetween() {
+        Court other = new Court("Other Court", 1L);
+        em.persist(other);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Reservation started = reservation(court.getId(), base.minusHours(1));
+        Reservation first = reservation(court.getId(), base);
+        Reservation second = reservation(court.getId(), base.plusHours(3));
+        Reservation later = reservation(court.getId(), base.plusDays(2));
+        Reservation otherCourt = reservation(other.getId(), base.plusHours(1));
+        em.flush();
+
+        List<Long> cancelledIds = reservationRepository.cancelStartingBetween(court.getId(), base, base.plusDays(1));
+        em.flush();
+        em.clear();
+        List<Reservation> cancelled = new ArrayList<>();
+        reservationRepository.forEachById(cancelledIds, cancelled::add);
+
+        assertEquals(List.of(first.getId(), second.getId()), cancelled.stream().map(Reservation::getId).toList());
+        assertTrue(cancelled.stream().allMatch(Reservation::isDeleted));
+        em.clear();
+        assertEquals(List.of(started.getId(), later.getId(), otherCourt.getId()),
+                reservationRepository.findAll().stream().map(Reservation::getId).sorted().toList());
+
+        assertEquals(List.of(otherCourt.getId(), later.getId()),
+                reservationRepository.cancelStartingBetween(null, base, null));
+        em.clear();
+        assertEquals(List.of(started.getId()), reservationRepository.findAll().stream().map(Reservation::getId).toList());
+    }
+
+    private Reservation reservation(Long courtId, LocalDateTime start) {
+        Reservation r = new Reservation();
+        r.setCourtId(courtId);
+        r.setCustomer(customer);
+        r.setStartTime(start);
+        r.setEndTime(start.plusHours(1));
+        em.persist(r);
+        return r;
+    }
+}
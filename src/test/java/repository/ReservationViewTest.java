@@ -0,0 +1,145 @@
+package repository;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.ReservationView;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.ReservationViewRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.ReservationViewService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class,
+        properties = "spring.datasource.url=jdbc:h2:mem:reservation-view;DB_CLOSE_DELAY=-1")
+public class ReservationViewTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2031, 3, 3, 9, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationViewRepository viewRepository;
+
+    @Autowired
+    private ReservationViewService viewService;
+
+    private SurfaceType surface;
+    private Court court;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        surface = surfaceTypeRepository.save(new SurfaceType("View Clay", new BigDecimal("1.00")));
+        court = courtRepository.save(new Court("View Court", surface.getId()));
+        customer = customerRepository.save(new Customer("+420777" + court.getId(), "Viewer"));
+    }
+
+    private Reservation reservation(LocalDateTime start) {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(court.getId());
+        reservation.setCustomer(customer);
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusHours(1));
+        reservation.setPrice(new BigDecimal("60.00"));
+        return reservation;
+    }
+
+    @Test
+    void writesKeepTheViewInStep() {
+        Reservation saved = reservationRepository.save(reservation(NINE));
+
+        ReservationView row = viewRepository.findByCourtId(court.getId()).getFirst();
+        assertEquals(saved.getId(), row.getId());
+        assertEquals("View Court", row.getCourtName());
+        assertEquals("View Clay", row.getSurfaceName());
+        assertEquals("Viewer", row.getCustomerName());
+        assertEquals(customer.getPhoneNumber(), row.getCustomerPhone());
+        assertEquals(0, new BigDecimal("60.00").compareTo(row.getPrice()));
+
+        saved.setStartTime(NINE.plusHours(2));
+        saved.setEndTime(NINE.plusHours(3));
+        reservationRepository.save(saved);
+        court.setName("Renamed Court");
+        courtRepository.save(court);
+        customer.setName("Renamed Viewer");
+        customerRepository.save(customer);
+        surface.setName("Renamed Clay");
+        surfaceTypeRepository.save(surface);
+
+        em.clear();
+        row = viewRepository.findByPhoneNumber(customer.getPhoneNumber()).getFirst();
+        assertEquals(NINE.plusHours(2), row.getStartTime());
+        assertEquals("Renamed Court", row.getCourtName());
+        assertEquals("Renamed Viewer", row.getCustomerName());
+        assertEquals("Renamed Clay", row.getSurfaceName());
+
+        reservationRepository.softDelete(saved.getId());
+        assertTrue(viewRepository.findByCourtId(court.getId()).isEmpty());
+        assertFalse(viewRepository.isIncomplete());
+    }
+
+    @Test
+    void bulkCancellationRemovesRows() {
+        reservationRepository.saveAll(List.of(reservation(NINE), reservation(NINE.plusHours(1))));
+        assertEquals(2, viewRepository.findByCourtId(court.getId()).size());
+
+        reservationRepository.cancelStartingBetween(court.getId(), NINE, null);
+
+        assertTrue(viewRepository.findByCourtId(court.getId()).isEmpty());
+    }
+
+    @Test
+    void rebuildRegeneratesTheWholeView() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            reservations.add(reservation(NINE.plusHours(i)));
+        }
+        List<Reservation> saved = reservationRepository.saveAll(reservations);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("DELETE FROM ReservationView v WHERE mod(v.id, 3) = 0").executeUpdate();
+            em.createQuery("UPDATE ReservationView v SET v.courtName = 'stale'").executeUpdate();
+        });
+        assertTrue(viewRepository.isIncomplete());
+
+        long rows = viewService.rebuild();
+
+        assertFalse(viewRepository.isIncomplete());
+        assertEquals(rows, viewRepository.findAll().size());
+        List<ReservationView> view = viewRepository.findByCourtId(court.getId());
+        assertEquals(saved.stream().map(Reservation::getId).sorted().toList(),
+                view.stream().map(ReservationView::getId).sorted().toList());
+        assertTrue(view.stream().allMatch(row -> "View Court".equals(row.getCourtName())));
+    }
+}
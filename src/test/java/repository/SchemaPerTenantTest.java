@@ -0,0 +1,44 @@
+package repository;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.repository.CourtRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenancy-schemas;DB_CLOSE_DELAY=-1",
+        "app.tenancy.mode=schema-per-tenant",
+        "app.tenancy.tenants=north,south"
+})
+public class SchemaPerTenantTest {
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private TenantRegistry tenants;
+
+    @Test
+    void eachClubGetsItsOwnSchemaAndIdRange() {
+        int seeded = courtRepository.findAll().size();
+        Court north = TenantContext.call("north", () -> courtRepository.save(new Court("North Court", 1L)));
+        Court south = TenantContext.call("south", () -> courtRepository.save(new Court("South Court", 1L)));
+        Court home = courtRepository.save(new Court("Home Court", 1L));
+
+        assertEquals(1L << TenantRegistry.ID_RANGE_BITS, north.getId());
+        assertEquals(2L << TenantRegistry.ID_RANGE_BITS, south.getId());
+        assertEquals("north", tenants.tenantOf(north.getId()));
+        assertEquals(TenantContext.DEFAULT_TENANT, tenants.tenantOf(home.getId()));
+
+        assertEquals("North Court", TenantContext.call("north", () -> courtRepository.findById(north.getId())).getName());
+        assertNull(TenantContext.call("south", () -> courtRepository.findById(north.getId())));
+        assertNull(courtRepository.findById(north.getId()));
+        assertEquals(1, TenantContext.call("north", courtRepository::findAll).size());
+        assertEquals(seeded + 3, tenants.collect(courtRepository::findAll).size());
+    }
+}
@@ -0,0 +1,82 @@
+package repository;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenancy-shared;DB_CLOSE_DELAY=-1",
+        "app.tenancy.tenants=north,south"
+})
+public class TenantIsolationTest {
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void courtsOfOneClubAreInvisibleToAnother() {
+        Court north = TenantContext.call("north", () -> courtRepository.save(new Court("North Court", 1L)));
+
+        assertEquals("north", north.getTenantId());
+        assertNotNull(TenantContext.call("north", () -> courtRepository.findById(north.getId())));
+        assertNull(TenantContext.call("south", () -> courtRepository.findById(north.getId())));
+        assertTrue(TenantContext.call("south", courtRepository::findAll).stream()
+                .noneMatch(court -> court.getId().equals(north.getId())));
+        assertNull(courtRepository.findById(north.getId()));
+
+        TenantContext.run("south", () -> courtRepository.softDelete(north.getId()));
+        assertNotNull(TenantContext.call("north", () -> courtRepository.findById(north.getId())));
+        assertNotNull(TenantContext.call(TenantContext.ROOT, () -> courtRepository.findById(north.getId())));
+    }
+
+    @Test
+    void phoneNumbersAreUniquePerClub() {
+        TenantContext.run("north", () -> customerRepository.save(new Customer("+420111222333", "Anna")));
+        TenantContext.run("south", () -> customerRepository.save(new Customer("+420111222333", "Petr")));
+
+        assertEquals("Anna", TenantContext.call("north",
+                () -> customerRepository.findByPhoneNumber("+420111222333")).getName());
+        assertEquals("Petr", TenantContext.call("south",
+                () -> customerRepository.findByPhoneNumber("+420111222333")).getName());
+        assertNull(customerRepository.findByPhoneNumber("+420111222333"));
+    }
+
+    @Test
+    void reservationIndexLeadsWithTenant() throws Exception {
+        List<String> columns = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("""
+                     SELECT c.COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS c
+                     WHERE c.TABLE_NAME = 'RESERVATION' AND c.INDEX_NAME IN (
+                         SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+                         WHERE TABLE_NAME = 'RESERVATION' AND COLUMN_NAME = 'START_TIME')
+                     ORDER BY c.ORDINAL_POSITION
+                     """)) {
+            while (result.next()) {
+                columns.add(result.getString(1));
+            }
+        }
+        assertEquals(List.of("TENANT_ID", "COURT_ID", "START_TIME"), columns);
+    }
+}
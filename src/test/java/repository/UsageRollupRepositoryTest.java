@@ -0,0 +1,71 @@
+package repository;
+
+import com.IQproject.court.model.UsageRollup;
+import com.IQproject.court.repository.UsageRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class)
+@Transactional
+public class UsageRollupRepositoryTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 5, 1, 0, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private UsageRollupRepository rollupRepository;
+
+    @BeforeEach
+    void setUp() {
+        em.createQuery("DELETE FROM UsageRollup").executeUpdate();
+    }
+
+    private static UsageRollup rollup(long courtId, LocalDateTime bucket, long count) {
+        return new UsageRollup(UsageRollup.Period.DAY, UsageRollup.Dimension.COURT, courtId, bucket,
+                count, count * 60, BigDecimal.valueOf(count * 10));
+    }
+
+    @Test
+    void testAddAllAddsToExistingBucketsAndInsertsNewOnes() {
+        assertTrue(rollupRepository.isEmpty());
+        rollupRepository.addAll(List.of(rollup(1L, DAY, 1)));
+        em.flush();
+
+        rollupRepository.addAll(List.of(rollup(1L, DAY, 3), rollup(1L, DAY.plusDays(1), 2)));
+        em.flush();
+        em.clear();
+
+        assertEquals(2, rollupRepository.findAll().size());
+        UsageRollup first = rollupRepository.find(UsageRollup.Period.DAY, UsageRollup.Dimension.COURT, 1L, DAY);
+        assertEquals(4, first.getReservationCount());
+        assertEquals(240, first.getOccupiedMinutes());
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(first.getRevenue()));
+        assertNull(rollupRepository.find(UsageRollup.Period.DAY, UsageRollup.Dimension.COURT, 2L, DAY));
+        assertFalse(rollupRepository.isEmpty());
+    }
+
+    @Test
+    void testReplaceAllDropsPreviousRollups() {
+        rollupRepository.addAll(List.of(rollup(1L, DAY, 1), rollup(2L, DAY, 1)));
+        em.flush();
+
+        rollupRepository.replaceAll(List.of(rollup(3L, DAY, 5)));
+        em.flush();
+        em.clear();
+
+        List<UsageRollup> stored = rollupRepository.findAll();
+        assertEquals(1, stored.size());
+        assertEquals(3L, stored.get(0).getDimensionId());
+    }
+}
@@ -0,0 +1,63 @@
+package repository;
+
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.repository.WaitlistEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class)
+@Transactional
+public class WaitlistEntryRepositoryTest {
+    private static final LocalDateTime NINE = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    private final Customer customer = new Customer("555000111", "Waiter");
+
+    @BeforeEach
+    void setUp() {
+        em.createQuery("DELETE FROM WaitlistEntry").executeUpdate();
+        em.persist(customer);
+        em.flush();
+    }
+
+    private WaitlistEntry persist(long courtId, LocalDateTime start, LocalDateTime end, WaitlistEntry.Status status) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCourtId(courtId);
+        entry.setCustomer(customer);
+        entry.setStartTime(start);
+        entry.setEndTime(end);
+        entry.setStatus(status);
+        return waitlistRepository.save(entry);
+    }
+
+    @Test
+    void testFindWaitingReturnsOverlappingWaitingEntriesOfCourt() {
+        WaitlistEntry inside = persist(1L, NINE, NINE.plusHours(1), WaitlistEntry.Status.WAITING);
+        WaitlistEntry overlapping = persist(1L, NINE.minusMinutes(30), NINE.plusMinutes(30), WaitlistEntry.Status.WAITING);
+        persist(1L, NINE.plusHours(2), NINE.plusHours(3), WaitlistEntry.Status.WAITING);
+        persist(1L, NINE, NINE.plusHours(1), WaitlistEntry.Status.CANCELLED);
+        persist(2L, NINE, NINE.plusHours(1), WaitlistEntry.Status.WAITING);
+        em.flush();
+
+        List<WaitlistEntry> found = waitlistRepository.findWaiting(1L, NINE, NINE.plusHours(1), NINE.minusDays(1));
+
+        assertEquals(List.of(inside.getId(), overlapping.getId()),
+                found.stream().map(WaitlistEntry::getId).toList());
+    }
+}
@@ -0,0 +1,55 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.exception.AdmissionRejectedException;
+import com.IQproject.court.service.AdmissionControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig config = new AppConfig();
+        config.getAdmission().setPhoneBurst(2);
+        config.getAdmission().setPhonePerMinute(1);
+        config.getAdmission().setMaxConcurrentBookings(1);
+        meterRegistry = new SimpleMeterRegistry();
+        admissionControl = new AdmissionControl(config, meterRegistry);
+    }
+
+    @Test
+    void phoneOverRateLimitIsRejectedWithRetryAfter() {
+        admissionControl.checkPhone("123");
+        admissionControl.checkPhone("123");
+
+        AdmissionRejectedException ex = assertThrows(AdmissionRejectedException.class,
+                () -> admissionControl.checkPhone("123"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertDoesNotThrow(() -> admissionControl.checkPhone("456"));
+        assertEquals(1.0, meterRegistry.get("admission.rejections").tag("limit", "phone").counter().count());
+    }
+
+    @Test
+    void bookingsOverConcurrencyLimitAreShed() {
+        admissionControl.enterBooking();
+
+        AdmissionRejectedException ex = assertThrows(AdmissionRejectedException.class,
+                () -> admissionControl.enterBooking());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        assertEquals(1.0, meterRegistry.get("admission.bookings.active").gauge().value());
+
+        admissionControl.exitBooking();
+        assertDoesNotThrow(() -> admissionControl.enterBooking());
+        assertEquals(1.0, meterRegistry.get("admission.rejections").tag("limit", "concurrency").counter().count());
+    }
+}
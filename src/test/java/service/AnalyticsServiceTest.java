@@ -0,0 +1,228 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.UsageRollup;
+import com.IQproject.court.model.UsageRollup.Period;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.UsageRollupRepository;
+import com.IQproject.court.service.AnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AnalyticsServiceTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    private ReservationRepository reservationRepo;
+    private CourtRepository courtRepo;
+    private UsageRollupRepository rollupRepo;
+    private AnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepo = mock(ReservationRepository.class);
+        courtRepo = mock(CourtRepository.class);
+        rollupRepo = mock(UsageRollupRepository.class);
+        service = new AnalyticsService(reservationRepo, courtRepo, rollupRepo, new TenantRegistry(new AppConfig()));
+
+        Court court = new Court("Center", 7L);
+        court.setId(1L);
+        when(courtRepo.findById(1L)).thenReturn(court);
+        when(reservationRepo.findIdBounds()).thenReturn(new long[0]);
+    }
+
+    private static ReservationChangedEvent change(ReservationChange.Type type, long id, LocalDateTime start,
+                                                  LocalDateTime end, String price) {
+        return change(type, id, start, end, price, Reservation.Status.CONFIRMED, null);
+    }
+
+    private static ReservationChangedEvent change(ReservationChange.Type type, long id, LocalDateTime start,
+                                                  LocalDateTime end, String price, Reservation.Status status,
+                                                  ReservationChange.Previous previous) {
+        return ReservationChangedEvent.of(new ReservationChange(type, id, 1L, start, end, new BigDecimal(price),
+                status, TenantContext.DEFAULT_TENANT, previous));
+    }
+
+    private static ReservationChange.Previous previous(LocalDateTime start, LocalDateTime end, String price,
+                                                       Reservation.Status status) {
+        return new ReservationChange.Previous(1L, start, end, new BigDecimal(price), status);
+    }
+
+    @Test
+    void createdReservationIsCountedInEveryPeriod() {
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE.plusMinutes(30),
+                NINE.plusMinutes(150), "40"));
+
+        UsageRollup startHour = service.getCourtUsage(1L, Period.HOUR, NINE.plusMinutes(45));
+        assertEquals(1, startHour.getReservationCount());
+        assertEquals(30, startHour.getOccupiedMinutes());
+        assertEquals(0, new BigDecimal("40").compareTo(startHour.getRevenue()));
+
+        UsageRollup nextHour = service.getCourtUsage(1L, Period.HOUR, NINE.plusHours(1));
+        assertEquals(0, nextHour.getReservationCount());
+        assertEquals(60, nextHour.getOccupiedMinutes());
+
+        UsageRollup month = service.getSurfaceTypeUsage(7L, Period.MONTH, NINE.withDayOfMonth(20));
+        assertEquals(1, month.getReservationCount());
+        assertEquals(120, month.getOccupiedMinutes());
+        assertEquals(NINE.withDayOfMonth(1).withHour(0), month.getBucketStart());
+    }
+
+    @Test
+    void updateMovesThePreviousStateAndDeleteRemovesIt() {
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE, NINE.plusHours(1), "20"));
+        service.onReservationChanged(change(ReservationChange.Type.UPDATED, 1, NINE.plusDays(1),
+                NINE.plusDays(1).plusHours(2), "30", Reservation.Status.CONFIRMED,
+                previous(NINE, NINE.plusHours(1), "20", Reservation.Status.CONFIRMED)));
+
+        assertEquals(0, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+        UsageRollup moved = service.getCourtUsage(1L, Period.DAY, NINE.plusDays(1));
+        assertEquals(1, moved.getReservationCount());
+        assertEquals(120, moved.getOccupiedMinutes());
+        assertEquals(0, new BigDecimal("30").compareTo(moved.getRevenue()));
+
+        service.onReservationChanged(change(ReservationChange.Type.DELETED, 1, NINE.plusDays(1),
+                NINE.plusDays(1).plusHours(2), "30", Reservation.Status.CONFIRMED,
+                previous(NINE.plusDays(1), NINE.plusDays(1).plusHours(2), "30", Reservation.Status.CONFIRMED)));
+
+        UsageRollup month = service.getSurfaceTypeUsage(7L, Period.MONTH, NINE);
+        assertEquals(0, month.getReservationCount());
+        assertEquals(0, month.getOccupiedMinutes());
+        assertEquals(0, month.getRevenue().signum());
+    }
+
+    @Test
+    void holdsAreCountedOnceConfirmed() {
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE, NINE.plusHours(1), "20",
+                Reservation.Status.HOLD, null));
+        assertEquals(0, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+
+        service.onReservationChanged(change(ReservationChange.Type.UPDATED, 1, NINE, NINE.plusHours(1), "20",
+                Reservation.Status.CONFIRMED, previous(NINE, NINE.plusHours(1), "20", Reservation.Status.HOLD)));
+        assertEquals(1, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+
+        // an expired hold was never counted, so nothing is subtracted
+        service.onReservationChanged(change(ReservationChange.Type.DELETED, 2, NINE, NINE.plusHours(1), "20",
+                Reservation.Status.HOLD, previous(NINE, NINE.plusHours(1), "20", Reservation.Status.HOLD)));
+        assertEquals(1, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+    }
+
+    @Test
+    void usageAddsDeltasNotWrittenYetToTheStoredRollup() {
+        when(rollupRepo.find(Period.DAY, UsageRollup.Dimension.COURT, 1L, NINE.withHour(0))).thenReturn(
+                new UsageRollup(Period.DAY, UsageRollup.Dimension.COURT, 1L, NINE.withHour(0), 2, 120, BigDecimal.TEN));
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE, NINE.plusHours(1), "20"));
+
+        UsageRollup day = service.getCourtUsage(1L, Period.DAY, NINE);
+        assertEquals(3, day.getReservationCount());
+        assertEquals(180, day.getOccupiedMinutes());
+        assertEquals(0, new BigDecimal("30").compareTo(day.getRevenue()));
+
+        service.flush();
+
+        // the mocked table does not see the written delta
+        assertEquals(2, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+    }
+
+    @Test
+    void startupAggregatesHistoryOnlyWithoutStoredRollups() {
+        when(rollupRepo.isEmpty()).thenReturn(false);
+        service.init();
+        verify(reservationRepo, never()).findIdBounds();
+        verify(rollupRepo, never()).replaceAll(any());
+
+        when(rollupRepo.isEmpty()).thenReturn(true);
+        service.init();
+        verify(reservationRepo).findIdBounds();
+        verify(rollupRepo).replaceAll(argThat(Collection::isEmpty));
+    }
+
+    @Test
+    void backfillAggregatesConfirmedReservationsOfAllSlicesAndReplacesStoredRollups() {
+        List<Reservation> history = new ArrayList<>();
+        for (long id = 1; id <= 5000; id += 10) {
+            Reservation reservation = new Reservation();
+            reservation.setId(id);
+            reservation.setTenantId(TenantContext.DEFAULT_TENANT);
+            reservation.setCourtId(1L);
+            reservation.setStartTime(NINE);
+            reservation.setEndTime(NINE.plusHours(1));
+            reservation.setPrice(BigDecimal.TEN);
+            if (id == 4991) {
+                reservation.setStatus(Reservation.Status.HOLD);
+            }
+            history.add(reservation);
+        }
+        when(reservationRepo.findIdBounds()).thenReturn(new long[]{1, 5000});
+        when(courtRepo.findAllSurfaceTypeIds()).thenReturn(Map.of(1L, 7L));
+        when(reservationRepo.findByIdRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            return history.stream().filter(r -> r.getId() >= from && r.getId() <= to).toList();
+        });
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE, NINE.plusHours(1), "20"));
+
+        service.backfill();
+
+        ArgumentCaptor<Collection<UsageRollup>> captor = rollupCaptor();
+        verify(rollupRepo).replaceAll(captor.capture());
+        assertEquals(6, captor.getValue().size());
+        UsageRollup hour = captor.getValue().stream()
+                .filter(r -> r.getDimension() == UsageRollup.Dimension.SURFACE_TYPE && r.getPeriod() == Period.HOUR)
+                .findFirst().orElseThrow();
+        assertEquals(499, hour.getReservationCount());
+        assertEquals(29_940, hour.getOccupiedMinutes());
+        assertEquals(0, new BigDecimal("4990").compareTo(hour.getRevenue()));
+        assertEquals(TenantContext.DEFAULT_TENANT, hour.getTenantId());
+        verify(reservationRepo, atLeast(3)).findByIdRange(anyLong(), anyLong());
+        // the pending delta is part of the scanned history
+        assertEquals(0, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+    }
+
+    @Test
+    void flushWritesOnlyChangedRollups() {
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE, NINE.plusHours(1), "20"));
+
+        service.flush();
+        service.flush();
+
+        ArgumentCaptor<Collection<UsageRollup>> captor = rollupCaptor();
+        verify(rollupRepo, times(1)).addAll(captor.capture());
+        assertEquals(6, captor.getValue().size());
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        service.onReservationChanged(change(ReservationChange.Type.CREATED, 1, NINE, NINE.plusHours(1), "20"));
+        doThrow(new IllegalStateException("down")).doNothing().when(rollupRepo).addAll(any());
+
+        assertThrows(IllegalStateException.class, () -> service.flush());
+        assertEquals(1, service.getCourtUsage(1L, Period.DAY, NINE).getReservationCount());
+        service.flush();
+
+        verify(rollupRepo, times(2)).addAll(argThat(rollups -> rollups.size() == 6));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<UsageRollup>> rollupCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+}
@@ -0,0 +1,81 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.event.AvailabilityDelta;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.service.AvailabilityEventHub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityEventHubTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 1, 10, 0);
+
+    private AvailabilityEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig config = new AppConfig();
+        config.setEventBufferSize(4);
+        hub = new AvailabilityEventHub(config, Runnable::run);
+    }
+
+    private void publish(long reservationId, long courtId) {
+        hub.onReservationChanged(ReservationChangedEvent.of(new ReservationChange(
+                ReservationChange.Type.CREATED, reservationId, courtId, START, START.plusHours(1), BigDecimal.ONE,
+                Reservation.Status.CONFIRMED, TenantContext.DEFAULT_TENANT, null)));
+    }
+
+    @Test
+    void readAfterReturnsNewDeltasForCourt() {
+        publish(1, 1);
+        publish(2, 2);
+        publish(3, 1);
+
+        AvailabilityEventHub.Batch all = hub.readAfter(0, null);
+        AvailabilityEventHub.Batch court = hub.readAfter(1, 1L);
+
+        assertFalse(all.gap());
+        assertEquals(3, all.deltas().size());
+        assertEquals(3, all.last());
+        assertEquals(List.of(3L), court.deltas().stream().map(AvailabilityDelta::reservationId).toList());
+    }
+
+    @Test
+    void slowReaderLosesOldestDeltasAndSeesGap() {
+        for (long i = 1; i <= 6; i++) {
+            publish(i, 1);
+        }
+
+        AvailabilityEventHub.Batch batch = hub.readAfter(1, null);
+
+        assertTrue(batch.gap());
+        assertEquals(List.of(3L, 4L, 5L, 6L), batch.deltas().stream().map(AvailabilityDelta::seq).toList());
+    }
+
+    @Test
+    void resumeFromUnknownFutureIdIsReportedAsGap() {
+        publish(1, 1);
+
+        AvailabilityEventHub.Batch batch = hub.readAfter(50, null);
+
+        assertTrue(batch.gap());
+        assertEquals(1, batch.last());
+    }
+
+    @Test
+    void subscribeRegistersSubscriber() {
+        hub.subscribe(1L, null);
+
+        assertEquals(1, hub.getSubscriberCount());
+        assertThrows(IllegalArgumentException.class, () -> hub.subscribe(1L, "abc"));
+    }
+}
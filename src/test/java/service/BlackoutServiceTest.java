@@ -0,0 +1,165 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Blackout;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.repository.BlackoutRepository;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.service.BlackoutService;
+import com.IQproject.court.service.CourtSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BlackoutServiceTest {
+    private static final LocalDateTime MONDAY_NINE = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    private BlackoutRepository blackoutRepo;
+    private CourtRepository courtRepo;
+    private BlackoutService service;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        blackoutRepo = mock(BlackoutRepository.class);
+        courtRepo = mock(CourtRepository.class);
+        service = new BlackoutService(blackoutRepo, courtRepo, new TenantRegistry(new AppConfig()));
+
+        when(courtRepo.findById(1L)).thenReturn(new Court("Center", 1L));
+        when(blackoutRepo.save(any())).thenAnswer(invocation -> {
+            Blackout blackout = invocation.getArgument(0);
+            blackout.setId(ids.incrementAndGet());
+            return blackout;
+        });
+    }
+
+    private static Blackout blackout(LocalDateTime start, LocalDateTime end, Blackout.Recurrence recurrence,
+                                     LocalDate repeatUntil) {
+        Blackout blackout = new Blackout();
+        blackout.setCourtId(1L);
+        blackout.setStartTime(start);
+        blackout.setEndTime(end);
+        blackout.setRecurrence(recurrence);
+        blackout.setRepeatUntil(repeatUntil);
+        return blackout;
+    }
+
+    @Test
+    void oneOffBlackoutBlocksOnlyItsWindow() {
+        service.createBlackout(blackout(MONDAY_NINE, MONDAY_NINE.plusHours(2), Blackout.Recurrence.NONE, null));
+
+        assertFalse(service.isFree(1L, MONDAY_NINE.plusHours(1), MONDAY_NINE.plusHours(3)));
+        assertTrue(service.isFree(1L, MONDAY_NINE.plusHours(2), MONDAY_NINE.plusHours(3)));
+        assertTrue(service.isFree(2L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+    }
+
+    @Test
+    void blackoutOfARolledBackTransactionIsDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.createBlackout(blackout(MONDAY_NINE, MONDAY_NINE.plusHours(2), Blackout.Recurrence.NONE, null));
+            assertFalse(service.isFree(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(service.isFree(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+    }
+
+    @Test
+    void weeklyBlackoutRepeatsUntilTheLastDay() {
+        service.createBlackout(blackout(MONDAY_NINE, MONDAY_NINE.plusHours(1), Blackout.Recurrence.WEEKLY,
+                MONDAY_NINE.toLocalDate().plusWeeks(2)));
+
+        assertFalse(service.isFree(1L, MONDAY_NINE.plusWeeks(1).plusMinutes(30), MONDAY_NINE.plusWeeks(1).plusHours(2)));
+        assertFalse(service.isFree(1L, MONDAY_NINE.plusWeeks(2), MONDAY_NINE.plusWeeks(2).plusMinutes(5)));
+        assertTrue(service.isFree(1L, MONDAY_NINE.plusWeeks(3), MONDAY_NINE.plusWeeks(3).plusHours(1)));
+        assertTrue(service.isFree(1L, MONDAY_NINE.plusDays(1), MONDAY_NINE.plusDays(1).plusHours(1)));
+        assertTrue(service.isFree(1L, MONDAY_NINE.minusWeeks(1), MONDAY_NINE.minusWeeks(1).plusHours(1)));
+        // a long reservation spanning a later occurrence is blocked as well
+        assertFalse(service.isFree(1L, MONDAY_NINE.plusDays(1), MONDAY_NINE.plusDays(10)));
+    }
+
+    @Test
+    void occurrencesAreReturnedAsNegatedSlots() {
+        Blackout daily = service.createBlackout(blackout(MONDAY_NINE.withHour(22), MONDAY_NINE.withHour(23).plusHours(1),
+                Blackout.Recurrence.DAILY, null));
+
+        List<CourtSchedule.Slot> occurrences = service.occurrences(1L, MONDAY_NINE.plusDays(1).withHour(0),
+                MONDAY_NINE.plusDays(3).withHour(0));
+
+        // the occurrence ending exactly at midnight on Tuesday does not intersect
+        assertEquals(List.of(
+                new CourtSchedule.Slot(-daily.getId(), MONDAY_NINE.plusDays(1).withHour(22), MONDAY_NINE.plusDays(2).withHour(0)),
+                new CourtSchedule.Slot(-daily.getId(), MONDAY_NINE.plusDays(2).withHour(22), MONDAY_NINE.plusDays(3).withHour(0))),
+                occurrences);
+    }
+
+    @Test
+    void deletedBlackoutNoLongerBlocks() {
+        Blackout created = service.createBlackout(blackout(MONDAY_NINE, MONDAY_NINE.plusHours(1),
+                Blackout.Recurrence.DAILY, null));
+        when(blackoutRepo.softDelete(created.getId())).thenReturn(created);
+
+        assertTrue(service.deleteBlackout(created.getId()));
+
+        assertTrue(service.isFree(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+        assertFalse(service.deleteBlackout(99L));
+    }
+
+    @Test
+    void blackoutDeletedInATransactionBlocksUntilTheCommit() {
+        Blackout created = service.createBlackout(blackout(MONDAY_NINE, MONDAY_NINE.plusHours(1),
+                Blackout.Recurrence.NONE, null));
+        when(blackoutRepo.softDelete(created.getId())).thenReturn(created);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(service.deleteBlackout(created.getId()));
+            assertFalse(service.isFree(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(service.isFree(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+    }
+
+    @Test
+    void loadRestoresStoredBlackouts() {
+        Blackout stored = blackout(MONDAY_NINE, MONDAY_NINE.plusHours(1), Blackout.Recurrence.NONE, null);
+        stored.setId(7L);
+        when(blackoutRepo.findAll()).thenReturn(List.of(stored));
+
+        service.load();
+
+        assertFalse(service.isFree(1L, MONDAY_NINE, MONDAY_NINE.plusMinutes(10)));
+    }
+
+    @Test
+    void createRejectsInvalidWindows() {
+        assertThrows(IllegalArgumentException.class, () -> service.createBlackout(
+                blackout(MONDAY_NINE, MONDAY_NINE, Blackout.Recurrence.NONE, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.createBlackout(
+                blackout(MONDAY_NINE, MONDAY_NINE.plusDays(1), Blackout.Recurrence.DAILY, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.createBlackout(
+                blackout(MONDAY_NINE, MONDAY_NINE.plusHours(1), Blackout.Recurrence.WEEKLY,
+                        MONDAY_NINE.toLocalDate().minusDays(1))));
+        Blackout otherCourt = blackout(MONDAY_NINE, MONDAY_NINE.plusHours(1), Blackout.Recurrence.NONE, null);
+        otherCourt.setCourtId(2L);
+        assertThrows(IllegalArgumentException.class, () -> service.createBlackout(otherCourt));
+        verify(blackoutRepo, never()).save(any());
+    }
+}
@@ -0,0 +1,171 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.BookingTicket;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.BookingDispatcher;
+import com.IQproject.court.service.CourtLeaseService;
+import com.IQproject.court.service.CourtScheduleRegistry;
+import com.IQproject.court.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BookingDispatcherTest {
+
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepository;
+    private CourtRepository courtRepository;
+    private CourtLeaseService leaseService;
+    private List<Runnable> tasks;
+    private BookingDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(ReservationService.class);
+        reservationRepository = mock(ReservationRepository.class);
+        courtRepository = mock(CourtRepository.class);
+        leaseService = mock(CourtLeaseService.class);
+        tasks = new ArrayList<>();
+        Executor executor = tasks::add;
+
+        AppConfig config = new AppConfig();
+        config.setBookingMode(AppConfig.BookingMode.ACTOR);
+
+        dispatcher = new BookingDispatcher(reservationService, reservationRepository, courtRepository,
+                new CourtScheduleRegistry(reservationRepository, new TenantRegistry(config)), leaseService,
+                config, mock(PlatformTransactionManager.class), executor);
+
+        when(reservationRepository.findByCourtId(anyLong())).thenReturn(List.of());
+        when(reservationService.prepareReservation(any())).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setPrice(BigDecimal.TEN);
+            return reservation;
+        });
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private Reservation reservation(LocalDateTime start) {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(1L);
+        reservation.setCustomer(new Customer("123456789", "Alice"));
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusHours(1));
+        return reservation;
+    }
+
+    @Test
+    void mailboxCommitsNonOverlappingBookingsInOneBatch() {
+        LocalDateTime start = LocalDateTime.of(2030, 5, 1, 10, 0);
+
+        BookingTicket first = dispatcher.submit(reservation(start));
+        BookingTicket overlapping = dispatcher.submit(reservation(start.plusMinutes(30)));
+        BookingTicket later = dispatcher.submit(reservation(start.plusHours(1)));
+
+        assertEquals(1, tasks.size());
+        assertEquals(BookingTicket.Status.PENDING, first.getStatus());
+
+        tasks.get(0).run();
+
+        assertEquals(BookingTicket.Status.CONFIRMED, first.getStatus());
+        assertEquals(BookingTicket.Status.REJECTED, overlapping.getStatus());
+        assertEquals(BookingTicket.Status.CONFIRMED, later.getStatus());
+        assertEquals(BigDecimal.TEN, later.getPrice());
+        verify(reservationRepository, times(1)).saveAll(argThat(list -> list.size() == 2));
+        verify(courtRepository).lockAll(List.of(1L));
+        verify(reservationRepository, times(2)).isOverlapping(eq(1L), any(), any());
+    }
+
+    @Test
+    void bookingsOverlappingReservationsWrittenElsewhereAreRejected() {
+        LocalDateTime start = LocalDateTime.of(2030, 5, 1, 10, 0);
+        when(reservationRepository.isOverlapping(1L, start, start.plusHours(1))).thenReturn(true);
+
+        BookingTicket taken = dispatcher.submit(reservation(start));
+        BookingTicket free = dispatcher.submit(reservation(start.plusHours(1)));
+        tasks.removeFirst().run();
+
+        assertEquals(BookingTicket.Status.REJECTED, taken.getStatus());
+        assertEquals("Reservation time is overlapping with another reservation", taken.getError());
+        assertEquals(BookingTicket.Status.CONFIRMED, free.getStatus());
+        verify(reservationRepository).saveAll(argThat(list -> list.size() == 1));
+
+        dispatcher.submit(reservation(start.plusHours(2)));
+        tasks.removeFirst().run();
+        verify(reservationRepository, times(2)).findByCourtId(1L);
+    }
+
+    @Test
+    void rejectedValidationDoesNotStopOtherBookings() {
+        LocalDateTime start = LocalDateTime.of(2030, 5, 1, 10, 0);
+        Reservation invalid = reservation(start);
+        when(reservationService.prepareReservation(invalid))
+                .thenThrow(new IllegalArgumentException("Court does not exist"));
+
+        BookingTicket rejected = dispatcher.submit(invalid);
+        BookingTicket accepted = dispatcher.submit(reservation(start.plusHours(2)));
+        tasks.get(0).run();
+
+        assertEquals("Court does not exist", rejected.getError());
+        assertEquals(BookingTicket.Status.CONFIRMED, accepted.getStatus());
+    }
+
+    @Test
+    void leasedCourtReloadsScheduleWhenTheLeaseComesBack() {
+        LocalDateTime start = LocalDateTime.of(2030, 5, 1, 10, 0);
+        when(leaseService.isEnabled()).thenReturn(true);
+        when(leaseService.acquire(1L)).thenReturn(1L, 1L, 2L);
+        when(leaseService.callFenced(eq(1L), anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+
+        for (int i = 0; i < 3; i++) {
+            BookingTicket ticket = dispatcher.submit(reservation(start.plusHours(i)));
+            tasks.removeFirst().run();
+            assertEquals(BookingTicket.Status.CONFIRMED, ticket.getStatus());
+        }
+
+        verify(reservationRepository, times(2)).findByCourtId(1L);
+        verify(leaseService).callFenced(eq(1L), eq(2L), any());
+        verify(leaseService, times(3)).release(1L);
+        verify(courtRepository, times(3)).lockAll(List.of(1L));
+        verify(reservationRepository, times(3)).isOverlapping(eq(1L), any(), any());
+    }
+
+    @Test
+    void bookingsFailWhenTheLeaseIsLostBeforeCommit() {
+        when(leaseService.isEnabled()).thenReturn(true);
+        when(leaseService.acquire(1L)).thenReturn(1L);
+        when(leaseService.callFenced(eq(1L), eq(1L), any()))
+                .thenThrow(new IllegalStateException("Lease on court 1 was lost"));
+
+        BookingTicket ticket = dispatcher.submit(reservation(LocalDateTime.of(2030, 5, 1, 10, 0)));
+        tasks.removeFirst().run();
+
+        assertEquals(BookingTicket.Status.REJECTED, ticket.getStatus());
+        assertEquals("Lease on court 1 was lost", ticket.getError());
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void ticketsCanBeLookedUpById() {
+        BookingTicket ticket = dispatcher.submit(reservation(LocalDateTime.of(2030, 5, 1, 10, 0)));
+
+        assertSame(ticket, dispatcher.getTicket(ticket.getId()));
+        assertNull(dispatcher.getTicket("unknown"));
+    }
+}
@@ -0,0 +1,129 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.service.BookingRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BookingRulesTest {
+    private static final LocalDateTime MONDAY_NINE = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    private CourtRepository courtRepo;
+    private AppConfig config;
+
+    @BeforeEach
+    void setUp() {
+        courtRepo = mock(CourtRepository.class);
+        config = new AppConfig();
+    }
+
+    private BookingRules rules() {
+        return new BookingRules(config, courtRepo, new TenantRegistry(config));
+    }
+
+    private static Court court(long id, LocalTime opensAt, LocalTime closesAt) {
+        Court court = new Court("Court " + id, 1L);
+        court.setId(id);
+        court.setOpensAt(opensAt);
+        court.setClosesAt(closesAt);
+        return court;
+    }
+
+    @Test
+    void defaultRulesAcceptAnyInterval() {
+        BookingRules rules = rules();
+
+        assertNull(rules.violation(1L, MONDAY_NINE.withHour(3).plusSeconds(17), MONDAY_NINE.withHour(3).plusMinutes(7)));
+        assertNull(rules.violation(null, MONDAY_NINE.withHour(23), MONDAY_NINE.plusDays(1).withHour(1)));
+    }
+
+    @Test
+    void slotGranularityAndMinimumDurationAreEnforced() {
+        config.getRules().setSlotMinutes(15);
+        config.getRules().setMinDuration(Duration.ofMinutes(30));
+        BookingRules rules = rules();
+
+        assertNull(rules.violation(1L, MONDAY_NINE.plusMinutes(15), MONDAY_NINE.plusMinutes(45)));
+        assertNotNull(rules.violation(1L, MONDAY_NINE.plusMinutes(7), MONDAY_NINE.plusMinutes(45)));
+        assertNotNull(rules.violation(1L, MONDAY_NINE, MONDAY_NINE.plusMinutes(30).plusSeconds(1)));
+        assertEquals("Reservations must be at least 30 minutes long",
+                rules.violation(1L, MONDAY_NINE, MONDAY_NINE.plusMinutes(15)));
+    }
+
+    @Test
+    void clubHoursApplyPerWeekday() {
+        config.getRules().getOpeningHours().put(DayOfWeek.MONDAY, "08:00-22:00");
+        config.getRules().getOpeningHours().put(DayOfWeek.SUNDAY, "closed");
+        config.getRules().getOpeningHours().put(DayOfWeek.SATURDAY, "10:00-24:00");
+        BookingRules rules = rules();
+
+        assertNull(rules.violation(1L, MONDAY_NINE.withHour(8), MONDAY_NINE.withHour(22)));
+        assertEquals("Court is open from 08:00 to 22:00 on MONDAY",
+                rules.violation(1L, MONDAY_NINE.withHour(21), MONDAY_NINE.withHour(23)));
+        assertNotNull(rules.violation(1L, MONDAY_NINE.withHour(7).withMinute(59), MONDAY_NINE));
+        assertEquals("Court is closed on SUNDAY", rules.violation(1L, MONDAY_NINE.minusDays(1), MONDAY_NINE.minusDays(1).plusHours(1)));
+        assertNull(rules.violation(1L, MONDAY_NINE.minusDays(2).withHour(23), MONDAY_NINE.minusDays(1).withHour(0)));
+        // tuesday has no entry and stays open all day
+        assertNull(rules.violation(1L, MONDAY_NINE.plusDays(1).withHour(2), MONDAY_NINE.plusDays(1).withHour(3)));
+    }
+
+    @Test
+    void courtHoursNarrowClubHours() {
+        config.getRules().getOpeningHours().put(DayOfWeek.MONDAY, "08:00-22:00");
+        when(courtRepo.findAll()).thenReturn(List.of(court(1L, LocalTime.of(10, 0), null), court(2L, null, null)));
+        BookingRules rules = rules();
+        rules.load();
+
+        assertNotNull(rules.violation(1L, MONDAY_NINE, MONDAY_NINE.plusHours(2)));
+        assertNull(rules.violation(1L, MONDAY_NINE.withHour(20), MONDAY_NINE.withHour(22)));
+        assertNull(rules.violation(2L, MONDAY_NINE, MONDAY_NINE.plusHours(2)));
+        // court hours apply on days without club hours
+        assertNotNull(rules.violation(1L, MONDAY_NINE.plusDays(1), MONDAY_NINE.plusDays(1).plusHours(1)));
+
+        rules.updateCourt(court(1L, null, null));
+        assertNull(rules.violation(1L, MONDAY_NINE, MONDAY_NINE.plusHours(2)));
+    }
+
+    @Test
+    void courtClosingAtMidnightIsOpenUntilTheEndOfTheDay() {
+        when(courtRepo.findAll()).thenReturn(List.of(court(1L, LocalTime.of(20, 0), LocalTime.MIDNIGHT),
+                court(2L, null, LocalTime.MIDNIGHT)));
+        BookingRules rules = rules();
+        rules.load();
+
+        assertNull(rules.violation(1L, MONDAY_NINE.withHour(22), MONDAY_NINE.plusDays(1).withHour(0)));
+        assertNotNull(rules.violation(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+        assertNull(rules.violation(2L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+    }
+
+    @Test
+    void checkThrowsForViolation() {
+        config.getRules().setSlotMinutes(30);
+        BookingRules rules = rules();
+
+        assertThrows(IllegalArgumentException.class, () -> rules.check(1L, MONDAY_NINE.plusMinutes(5), MONDAY_NINE.plusHours(1)));
+        assertDoesNotThrow(() -> rules.check(1L, MONDAY_NINE, MONDAY_NINE.plusHours(1)));
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        config.getRules().setSlotMinutes(7);
+        assertThrows(IllegalArgumentException.class, this::rules);
+
+        config.getRules().setSlotMinutes(0);
+        config.getRules().getOpeningHours().put(DayOfWeek.MONDAY, "22:00-08:00");
+        assertThrows(IllegalArgumentException.class, this::rules);
+    }
+}
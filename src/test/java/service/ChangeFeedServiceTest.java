@@ -0,0 +1,61 @@
+package service;
+
+import com.IQproject.court.model.ChangeFeedEntry;
+import com.IQproject.court.model.ChangeFeedPage;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.repository.ChangeFeedRepository;
+import com.IQproject.court.service.ChangeFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ChangeFeedServiceTest {
+    private ChangeFeedRepository repository;
+    private ChangeFeedService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ChangeFeedRepository.class);
+        service = new ChangeFeedService(repository);
+    }
+
+    @Test
+    void cursorMovesToTheLastReturnedChange() {
+        ChangeFeedEntry court = new ChangeFeedEntry(ChangeFeedEntry.Type.COURT, 3L, 12, false, new Court("A", 1L));
+        when(repository.findAfter(10, 2)).thenReturn(List.of(court));
+        when(repository.findHead()).thenReturn(20L);
+        when(repository.countAfter(12)).thenReturn(5L);
+
+        ChangeFeedPage page = service.getChanges(10, 2);
+
+        assertEquals(List.of(court), page.changes());
+        assertEquals(12, page.cursor());
+        assertEquals(20, page.head());
+        assertEquals(5, page.remaining());
+    }
+
+    @Test
+    void emptyPageKeepsTheCursor() {
+        when(repository.findAfter(anyLong(), anyInt())).thenReturn(List.of());
+        when(repository.findHead()).thenReturn(7L);
+
+        ChangeFeedPage page = service.getChanges(7, 100);
+
+        assertTrue(page.changes().isEmpty());
+        assertEquals(7, page.cursor());
+        assertEquals(0, page.remaining());
+    }
+
+    @Test
+    void invalidCursorOrLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges(0, ChangeFeedService.MAX_LIMIT + 1));
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,119 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.RemoteChangeEvent;
+import com.IQproject.court.model.ChangeLogEntry;
+import com.IQproject.court.repository.ChangeLogRepository;
+import com.IQproject.court.service.ChangeLogTailer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ChangeLogTailerTest {
+    private static final String THIS_NODE = "this";
+    private static final String OTHER_NODE = "other";
+
+    private ChangeLogRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private AppConfig config;
+    private final List<RemoteChangeEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ChangeLogRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        config = new AppConfig();
+        config.getChangeLog().setEnabled(true);
+        config.setNodeId(THIS_NODE);
+        config.getChangeLog().setBatchSize(2);
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findAfter(anyLong(), anyInt())).thenReturn(List.of());
+    }
+
+    private ChangeLogTailer started() {
+        ChangeLogTailer tailer = new ChangeLogTailer(config, repository, new TenantRegistry(config),
+                event -> events.add((RemoteChangeEvent) event), meterRegistry);
+        tailer.start();
+        return tailer;
+    }
+
+    private static ChangeLogEntry entry(long id, String node) {
+        ChangeLogEntry entry = new ChangeLogEntry(ChangeLogEntry.EntityType.COURT, id, id, "default", node);
+        entry.setId(id);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+
+    @Test
+    void startsAtTheEndOfTheLogAndPublishesOnlyOtherNodesChanges() {
+        ChangeLogTailer tailer = started();
+        verify(repository, never()).findAfter(anyLong(), anyInt());
+
+        when(repository.findAfter(10L, 2)).thenReturn(List.of(entry(11, THIS_NODE), entry(12, OTHER_NODE)));
+        when(repository.findAfter(12L, 2)).thenReturn(List.of(entry(13, OTHER_NODE)));
+        tailer.poll();
+
+        assertEquals(1, events.size());
+        assertFalse(events.getFirst().reset());
+        assertEquals(List.of(12L, 13L), events.getFirst().changes().stream().map(ChangeLogEntry::getId).toList());
+        assertEquals(2, meterRegistry.get("changelog.invalidation.lag").timer().count());
+        assertEquals(0, tailer.getOpenGaps());
+
+        tailer.poll();
+        assertEquals(1, events.size());
+        verify(repository).findAfter(13L, 2);
+    }
+
+    @Test
+    void skippedIdIsPublishedWhenItsTransactionCommits() {
+        ChangeLogTailer tailer = started();
+        when(repository.findAfter(10L, 2)).thenReturn(List.of(entry(11, OTHER_NODE), entry(13, OTHER_NODE)));
+        when(repository.findAfter(13L, 2)).thenReturn(List.of());
+        tailer.poll();
+        assertEquals(1, tailer.getOpenGaps());
+
+        when(repository.findByIds(List.of(12L))).thenReturn(List.of(entry(12, OTHER_NODE)));
+        tailer.poll();
+
+        assertEquals(2, events.size());
+        assertEquals(List.of(12L), events.get(1).changes().stream().map(ChangeLogEntry::getId).toList());
+        assertFalse(events.get(1).reset());
+        assertEquals(0, tailer.getOpenGaps());
+    }
+
+    @Test
+    void gapThatTimesOutResetsCaches() throws InterruptedException {
+        config.getChangeLog().setGapTimeout(Duration.ofMillis(1));
+        ChangeLogTailer tailer = started();
+        when(repository.findAfter(10L, 2)).thenReturn(List.of(entry(12, THIS_NODE)));
+        tailer.poll();
+        assertTrue(events.isEmpty());
+
+        Thread.sleep(5);
+        tailer.poll();
+
+        assertEquals(1, events.size());
+        assertTrue(events.getFirst().reset());
+        assertEquals(0, tailer.getOpenGaps());
+    }
+
+    @Test
+    void disabledTailerNeverReadsTheLog() {
+        config.getChangeLog().setEnabled(false);
+        ChangeLogTailer tailer = started();
+        tailer.poll();
+
+        verifyNoInteractions(repository);
+        assertEquals(Duration.ZERO, tailer.getStaleness());
+    }
+}
@@ -0,0 +1,63 @@
+package service;
+
+import com.IQproject.court.service.CourtSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CourtScheduleTest {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Test
+    void isFreeDetectsOverlaps() {
+        CourtSchedule schedule = CourtSchedule.of(List.of(
+                new CourtSchedule.Slot(2, NINE.plusHours(3), NINE.plusHours(4)),
+                new CourtSchedule.Slot(1, NINE, NINE.plusHours(1))));
+
+        assertFalse(schedule.isFree(NINE.plusMinutes(30), NINE.plusMinutes(90), null));
+        assertTrue(schedule.isFree(NINE.plusHours(1), NINE.plusHours(3), null));
+        assertFalse(schedule.isFree(NINE.minusHours(1), NINE.plusHours(5), null));
+        assertTrue(schedule.isFree(NINE.plusMinutes(30), NINE.plusMinutes(90), 1L));
+    }
+
+    @Test
+    void isFreeFindsLongSlotsThatStartEarlier() {
+        CourtSchedule schedule = CourtSchedule.of(List.of(
+                new CourtSchedule.Slot(1, NINE, NINE.plusHours(8)),
+                new CourtSchedule.Slot(2, NINE.plusHours(1), NINE.plusHours(2))));
+
+        assertFalse(schedule.isFree(NINE.plusHours(5), NINE.plusHours(6), null));
+    }
+
+    @Test
+    void withAndWithoutReturnNewSnapshots() {
+        CourtSchedule empty = CourtSchedule.empty();
+        CourtSchedule booked = empty.with(new CourtSchedule.Slot(7, NINE, NINE.plusHours(1)));
+        CourtSchedule moved = booked.with(new CourtSchedule.Slot(7, NINE.plusHours(2), NINE.plusHours(3)));
+
+        assertTrue(empty.slots().isEmpty());
+        assertEquals(1, moved.slots().size());
+        assertTrue(moved.isFree(NINE, NINE.plusHours(1), null));
+        assertTrue(moved.without(7).slots().isEmpty());
+        assertSame(moved, moved.without(99));
+    }
+
+    @Test
+    void gapAroundReturnsEnclosingFreeInterval() {
+        CourtSchedule schedule = CourtSchedule.of(List.of(
+                new CourtSchedule.Slot(1, NINE, NINE.plusHours(3)),
+                new CourtSchedule.Slot(2, NINE.plusHours(1), NINE.plusHours(2)),
+                new CourtSchedule.Slot(3, NINE.plusHours(5), NINE.plusHours(6))));
+
+        assertEquals(new CourtSchedule.Gap(NINE.plusHours(3), NINE.plusHours(5)),
+                schedule.gapAround(NINE.plusHours(3), NINE.plusHours(4)));
+        assertEquals(new CourtSchedule.Gap(null, NINE),
+                schedule.gapAround(NINE.minusHours(2), NINE.minusHours(1)));
+        assertEquals(new CourtSchedule.Gap(NINE.plusHours(6), null),
+                schedule.gapAround(NINE.plusHours(7), NINE.plusHours(8)));
+        assertNull(schedule.gapAround(NINE.plusHours(2), NINE.plusHours(4)));
+    }
+}
@@ -1,15 +1,25 @@
 package service;
 
+import com.IQproject.court.model.Blackout;
 import com.IQproject.court.model.Court;
 import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.model.Reservation;
 import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
 import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.BlackoutService;
+import com.IQproject.court.service.BookingRules;
 import com.IQproject.court.service.CourtService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,13 +28,20 @@ public class CourtServiceTest {
 
     private CourtRepository courtRepository;
     private SurfaceTypeRepository surfaceTypeRepository;
+    private ReservationRepository reservationRepository;
+    private BookingRules bookingRules;
+    private BlackoutService blackoutService;
     private CourtService courtService;
 
     @BeforeEach
     void setUp() {
         courtRepository = mock(CourtRepository.class);
         surfaceTypeRepository = mock(SurfaceTypeRepository.class);
-        courtService = new CourtService(courtRepository, surfaceTypeRepository);
+        reservationRepository = mock(ReservationRepository.class);
+        bookingRules = mock(BookingRules.class);
+        blackoutService = mock(BlackoutService.class);
+        courtService = new CourtService(courtRepository, surfaceTypeRepository, reservationRepository, bookingRules,
+                blackoutService);
     }
 
     @Test
@@ -112,6 +129,57 @@ public class CourtServiceTest {
         assertEquals(newSurfaceId, result.getSurfaceTypeId());
     }
 
+    @Test
+    void testUpdateCourtRecompilesOpeningHours() {
+        Court existing = new Court("Court", 1L);
+        existing.setId(10L);
+        Court updated = new Court("Court", 1L);
+        updated.setOpensAt(LocalTime.of(8, 0));
+        updated.setClosesAt(LocalTime.of(20, 0));
+
+        when(courtRepository.findById(10L)).thenReturn(existing);
+        when(courtRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Court result = courtService.updateCourt(10L, updated);
+
+        assertEquals(LocalTime.of(8, 0), result.getOpensAt());
+        assertEquals(LocalTime.of(20, 0), result.getClosesAt());
+        verify(bookingRules).updateCourt(result);
+    }
+
+    @Test
+    void testUpdateCourtRejectsHoursClosingBeforeOpening() {
+        when(courtRepository.findById(10L)).thenReturn(new Court("Court", 1L));
+        Court updated = new Court("Court", 1L);
+        updated.setOpensAt(LocalTime.of(20, 0));
+        updated.setClosesAt(LocalTime.of(8, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> courtService.updateCourt(10L, updated));
+        verify(courtRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateCourtRejectsHoursSpanningMidnight() {
+        when(courtRepository.findById(10L)).thenReturn(new Court("Court", 1L));
+        Court overnight = new Court("Court", 1L);
+        overnight.setOpensAt(LocalTime.of(22, 0));
+        overnight.setClosesAt(LocalTime.of(2, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> courtService.updateCourt(10L, overnight));
+        verify(courtRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateCourtAcceptsClosingAtMidnight() {
+        when(courtRepository.findById(10L)).thenReturn(new Court("Court", 1L));
+        when(courtRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Court updated = new Court("Court", 1L);
+        updated.setOpensAt(LocalTime.of(22, 0));
+        updated.setClosesAt(LocalTime.MIDNIGHT);
+
+        assertEquals(LocalTime.MIDNIGHT, courtService.updateCourt(10L, updated).getClosesAt());
+    }
+
     @Test
     void testUpdateCourtNotFoundThrowsException() {
         long id = 1L;
@@ -132,5 +200,89 @@ public class CourtServiceTest {
 
         courtService.deleteCourt(id);
         verify(courtRepository).softDelete(id);
+        verify(reservationRepository).cancelStartingBetween(eq(id), any(LocalDateTime.class), isNull());
+        verify(bookingRules).removeCourt(id);
+    }
+
+    @Test
+    void testCloseCourtStartsNoEarlierThanNow() {
+        long id = 4L;
+        Court court = new Court();
+        court.setId(id);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        when(courtRepository.lockAll(List.of(id))).thenReturn(List.of(court));
+        when(reservationRepository.cancelStartingBetween(eq(id), any(LocalDateTime.class), eq(to)))
+                .thenReturn(List.of(9L));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(List.of(9L), courtService.closeCourt(id, before.minusDays(3), to));
+
+        verify(reservationRepository).cancelStartingBetween(eq(id), argThat(from -> !from.isBefore(before)), eq(to));
+    }
+
+    @Test
+    void testCloseCourtRejectsMissingCourtAndPastRange() {
+        when(courtRepository.lockAll(List.of(1L))).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> courtService.closeCourt(1L, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> courtService.closeCourt(2L, null, LocalDateTime.now().minusHours(1)));
+        verifyNoInteractions(reservationRepository, blackoutService);
+    }
+
+    @Test
+    void testCloseAllCourtsRequiresEnd() {
+        assertThrows(IllegalArgumentException.class, () -> courtService.closeAllCourts(null, null));
+        verifyNoInteractions(reservationRepository, blackoutService);
+    }
+
+    @Test
+    void testCloseCourtBlacksOutTheRangeBeforeCancelling() {
+        Court court = new Court();
+        court.setId(4L);
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        when(courtRepository.lockAll(List.of(4L))).thenReturn(List.of(court));
+        when(reservationRepository.cancelStartingBetween(4L, from, null)).thenReturn(List.of(5L, 6L));
+
+        assertEquals(List.of(5L, 6L), courtService.closeCourt(4L, from, null));
+
+        ArgumentCaptor<Blackout> blackout = ArgumentCaptor.forClass(Blackout.class);
+        InOrder order = inOrder(courtRepository, blackoutService, reservationRepository);
+        order.verify(courtRepository).lockAll(List.of(4L));
+        order.verify(blackoutService).createBlackout(blackout.capture());
+        order.verify(reservationRepository).cancelStartingBetween(4L, from, null);
+        assertEquals(4L, blackout.getValue().getCourtId());
+        assertEquals(from, blackout.getValue().getStartTime());
+        assertTrue(blackout.getValue().getEndTime().isAfter(from.plusYears(1000)));
+    }
+
+    @Test
+    void testCloseAllCourtsBlacksOutEveryCourt() {
+        Court first = new Court();
+        first.setId(1L);
+        Court second = new Court();
+        second.setId(2L);
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        when(courtRepository.findAll()).thenReturn(List.of(first, second));
+        when(courtRepository.lockAll(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        courtService.closeAllCourts(from, to);
+
+        ArgumentCaptor<Blackout> blackouts = ArgumentCaptor.forClass(Blackout.class);
+        verify(blackoutService, times(2)).createBlackout(blackouts.capture());
+        assertEquals(List.of(1L, 2L), blackouts.getAllValues().stream().map(Blackout::getCourtId).toList());
+        assertTrue(blackouts.getAllValues().stream().allMatch(b -> to.equals(b.getEndTime())));
+        verify(reservationRepository).cancelStartingBetween(null, from, to);
+    }
+
+    @Test
+    void testForEachReservationReadsThroughTheRepository() {
+        Consumer<Reservation> consumer = reservation -> {
+        };
+
+        courtService.forEachReservation(List.of(3L), consumer);
+
+        verify(reservationRepository).forEachById(List.of(3L), consumer);
     }
-}
\ No newline at end of file
+}
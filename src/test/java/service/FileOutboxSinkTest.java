@@ -0,0 +1,53 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.model.OutboxEvent;
+import com.IQproject.court.service.FileOutboxSink;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileOutboxSinkTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void batchesAreAppendedAsJsonLines() throws Exception {
+        AppConfig config = new AppConfig();
+        Path file = directory.resolve("events").resolve("reservations.jsonl");
+        config.getOutbox().setFile(file.toString());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        FileOutboxSink sink = new FileOutboxSink(config, objectMapper);
+        LocalDateTime start = LocalDateTime.of(2030, 9, 2, 9, 0);
+
+        OutboxEvent created = new OutboxEvent(OutboxEvent.Type.CREATED, 7L, 1L, start, start.plusHours(1),
+                new BigDecimal("120.00"), "default");
+        created.setId(1L);
+        OutboxEvent cancelled = new OutboxEvent(OutboxEvent.Type.CANCELLED, 7L, 1L, start, start.plusHours(1),
+                new BigDecimal("120.00"), "default");
+        cancelled.setId(2L);
+        sink.deliver(List.of(created));
+        sink.deliver(List.of(cancelled));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.getFirst());
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("CREATED", first.get("type").asText());
+        assertEquals("2030-09-02T09:00:00", first.get("startTime").asText());
+        assertEquals("CANCELLED", objectMapper.readTree(lines.get(1)).get("type").asText());
+    }
+}
@@ -0,0 +1,158 @@
+package service;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.GroupBookingRequest;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.GroupBookingService;
+import com.IQproject.court.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class GroupBookingServiceTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+    private static final LocalDateTime END = START.plusHours(3);
+
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepo;
+    private CourtRepository courtRepo;
+    private GroupBookingService groupBookingService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(ReservationService.class);
+        reservationRepo = mock(ReservationRepository.class);
+        courtRepo = mock(CourtRepository.class);
+        groupBookingService = new GroupBookingService(reservationService, reservationRepo, courtRepo);
+
+        when(reservationService.isOpen(any(), any(), any())).thenReturn(true);
+
+        when(reservationService.prepareReservation(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepo.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static Court court(long id, long surfaceTypeId) {
+        Court court = new Court();
+        court.setId(id);
+        court.setSurfaceTypeId(surfaceTypeId);
+        return court;
+    }
+
+    private static GroupBookingRequest request() {
+        GroupBookingRequest request = new GroupBookingRequest();
+        request.setStartTime(START);
+        request.setEndTime(END);
+        request.setCustomer(new Customer("777888999", "Team"));
+        return request;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bookShouldLockCourtsInAscendingOrderAndSaveAllAtOnce() {
+        GroupBookingRequest request = request();
+        request.setCourtIds(List.of(3L, 1L, 2L, 1L));
+        when(courtRepo.lockAll(any())).thenReturn(List.of(court(1, 1), court(2, 1), court(3, 1)));
+        when(reservationRepo.findOverlappingCourtIds(any(), eq(START), eq(END))).thenReturn(List.of());
+
+        List<Reservation> saved = groupBookingService.book(request);
+
+        ArgumentCaptor<Collection<Long>> locked = ArgumentCaptor.forClass(Collection.class);
+        verify(courtRepo).lockAll(locked.capture());
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(locked.getValue()));
+        verify(reservationRepo, times(1)).findOverlappingCourtIds(any(), eq(START), eq(END));
+        verify(reservationRepo, times(1)).saveAll(any());
+        assertEquals(List.of(1L, 2L, 3L), saved.stream().map(Reservation::getCourtId).toList());
+        assertTrue(saved.stream().allMatch(r -> START.equals(r.getStartTime()) && END.equals(r.getEndTime())));
+    }
+
+    @Test
+    void bookShouldRejectWholeGroupWhenAnyCourtIsTaken() {
+        GroupBookingRequest request = request();
+        request.setCourtIds(List.of(1L, 2L));
+        when(courtRepo.lockAll(any())).thenReturn(List.of(court(1, 1), court(2, 1)));
+        when(reservationRepo.findOverlappingCourtIds(any(), eq(START), eq(END))).thenReturn(List.of(2L));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> groupBookingService.book(request));
+
+        assertTrue(ex.getMessage().contains("[2]"));
+        verify(reservationRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void bookShouldRejectMissingCourt() {
+        GroupBookingRequest request = request();
+        request.setCourtIds(List.of(1L, 2L));
+        when(courtRepo.lockAll(any())).thenReturn(List.of(court(1, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> groupBookingService.book(request));
+        verify(reservationRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void bookShouldPickFreeCourtsOfSurface() {
+        GroupBookingRequest request = request();
+        request.setSurfaceTypeId(7L);
+        request.setCourtCount(2);
+        List<Court> clay = List.of(court(1, 7), court(2, 7), court(3, 7), court(4, 7));
+        when(courtRepo.findBySurfaceTypeId(7L)).thenReturn(clay);
+        when(courtRepo.lockAll(any())).thenReturn(clay);
+        when(reservationRepo.findOverlappingCourtIds(any(), eq(START), eq(END))).thenReturn(List.of(1L, 3L));
+
+        List<Reservation> saved = groupBookingService.book(request);
+
+        assertEquals(List.of(2L, 4L), saved.stream().map(Reservation::getCourtId).toList());
+    }
+
+    @Test
+    void bookShouldSkipClosedCourtsOfSurface() {
+        GroupBookingRequest request = request();
+        request.setSurfaceTypeId(7L);
+        request.setCourtCount(2);
+        when(courtRepo.findBySurfaceTypeId(7L)).thenReturn(List.of(court(1, 7), court(2, 7), court(3, 7)));
+        when(reservationService.isOpen(1L, START, END)).thenReturn(false);
+        when(courtRepo.lockAll(any())).thenReturn(List.of(court(2, 7), court(3, 7)));
+
+        List<Reservation> saved = groupBookingService.book(request);
+
+        assertEquals(List.of(2L, 3L), saved.stream().map(Reservation::getCourtId).toList());
+        verify(courtRepo).lockAll(new TreeSet<>(List.of(2L, 3L)));
+    }
+
+    @Test
+    void bookShouldRejectWhenTooFewCourtsOfSurfaceAreFree() {
+        GroupBookingRequest request = request();
+        request.setSurfaceTypeId(7L);
+        request.setCourtCount(2);
+        List<Court> clay = List.of(court(1, 7), court(2, 7));
+        when(courtRepo.findBySurfaceTypeId(7L)).thenReturn(clay);
+        when(courtRepo.lockAll(any())).thenReturn(clay);
+        when(reservationRepo.findOverlappingCourtIds(any(), eq(START), eq(END))).thenReturn(List.of(2L));
+
+        assertThrows(IllegalArgumentException.class, () -> groupBookingService.book(request));
+        verify(reservationRepo, never()).saveAll(any());
+    }
+
+    @Test
+    void bookShouldRequireExactlyOneWayOfSelectingCourts() {
+        GroupBookingRequest request = request();
+        assertThrows(IllegalArgumentException.class, () -> groupBookingService.book(request));
+
+        request.setCourtIds(List.of(1L));
+        request.setSurfaceTypeId(7L);
+        request.setCourtCount(1);
+        assertThrows(IllegalArgumentException.class, () -> groupBookingService.book(request));
+    }
+}
@@ -0,0 +1,154 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.BookingRules;
+import com.IQproject.court.service.GroupCommitter;
+import com.IQproject.court.service.ReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitterTest {
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 5, 1, 10, 0);
+
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepository;
+    private CourtRepository courtRepository;
+    private List<Runnable> tasks;
+    private GroupCommitter committer;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(ReservationService.class);
+        reservationRepository = mock(ReservationRepository.class);
+        courtRepository = mock(CourtRepository.class);
+        tasks = new ArrayList<>();
+        Executor executor = tasks::add;
+
+        AppConfig config = new AppConfig();
+        config.getGroupCommit().setEnabled(true);
+        config.getGroupCommit().setMaxWait(Duration.ZERO);
+        config.getGroupCommit().setMaxBatchSize(3);
+
+        committer = new GroupCommitter(config, reservationService, reservationRepository, courtRepository,
+                new BookingRules(config, courtRepository, new TenantRegistry(config)),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), executor);
+
+        when(reservationService.prepareReservation(any())).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setPrice(BigDecimal.TEN);
+            return reservation;
+        });
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            long id = 100;
+            for (Reservation reservation : reservations) {
+                reservation.setId(id++);
+            }
+            return reservations;
+        });
+    }
+
+    private Reservation reservation(long courtId, LocalDateTime start) {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(courtId);
+        reservation.setCustomer(new Customer("123456789", "Alice"));
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusHours(1));
+        return reservation;
+    }
+
+    @Test
+    void concurrentBookingsAreWrittenInOneTransaction() throws Exception {
+        CompletableFuture<Reservation> first = committer.submit(reservation(1, TEN));
+        CompletableFuture<Reservation> second = committer.submit(reservation(2, TEN));
+        CompletableFuture<Reservation> third = committer.submit(reservation(1, TEN.plusHours(1)));
+        CompletableFuture<Reservation> fourth = committer.submit(reservation(1, TEN.plusHours(2)));
+
+        assertEquals(1, tasks.size());
+        assertFalse(first.isDone());
+        tasks.getFirst().run();
+
+        assertEquals(100L, first.get().getId());
+        assertEquals(101L, second.get().getId());
+        assertEquals(102L, third.get().getId());
+        assertEquals(100L, fourth.get().getId());
+        verify(reservationRepository, times(2)).saveAll(anyList());
+        verify(reservationRepository).saveAll(argThat(list -> list.size() == 3));
+        verify(courtRepository).lockAll(List.of(1L, 2L));
+    }
+
+    @Test
+    void rejectedBookingDoesNotFailTheOthers() throws Exception {
+        Reservation invalid = reservation(1, TEN);
+        when(reservationService.prepareReservation(invalid))
+                .thenThrow(new IllegalArgumentException("Court does not exist"));
+        when(reservationRepository.isOverlapping(2L, TEN, TEN.plusHours(1))).thenReturn(true);
+
+        CompletableFuture<Reservation> rejected = committer.submit(invalid);
+        CompletableFuture<Reservation> taken = committer.submit(reservation(2, TEN));
+        CompletableFuture<Reservation> accepted = committer.submit(reservation(1, TEN.plusHours(1)));
+        tasks.getFirst().run();
+
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertEquals("Court does not exist", error.getCause().getMessage());
+        assertInstanceOf(IllegalArgumentException.class,
+                assertThrows(ExecutionException.class, taken::get).getCause());
+        assertEquals(BigDecimal.TEN, accepted.get().getPrice());
+        verify(reservationRepository).saveAll(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void bookingOverlappingAnEarlierOneOfTheBatchIsRejected() throws Exception {
+        CompletableFuture<Reservation> first = committer.submit(reservation(1, TEN));
+        CompletableFuture<Reservation> overlapping = committer.submit(reservation(1, TEN.plusMinutes(30)));
+        tasks.getFirst().run();
+
+        assertNotNull(first.get());
+        assertThrows(ExecutionException.class, overlapping::get);
+    }
+
+    @Test
+    void failedBatchIsRetriedOneByOne() throws Exception {
+        Reservation bad = reservation(2, TEN);
+        when(reservationRepository.saveAll(anyList())).thenThrow(new IllegalStateException("Constraint violation"));
+        when(reservationService.createReservation(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationService.createReservation(bad)).thenThrow(new IllegalStateException("Constraint violation"));
+
+        CompletableFuture<Reservation> good = committer.submit(reservation(1, TEN));
+        CompletableFuture<Reservation> failed = committer.submit(bad);
+        tasks.getFirst().run();
+
+        assertEquals(TEN, good.get().getStartTime());
+        assertThrows(ExecutionException.class, failed::get);
+        verify(reservationService, times(2)).createReservation(any());
+    }
+
+    @Test
+    void invalidTimeRangeIsRejectedBeforeQueueing() {
+        Reservation reversed = reservation(1, TEN);
+        reversed.setEndTime(TEN.minusHours(1));
+
+        assertThrows(IllegalArgumentException.class, () -> committer.submit(reversed));
+        assertTrue(tasks.isEmpty());
+    }
+}
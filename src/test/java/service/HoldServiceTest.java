@@ -0,0 +1,99 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.HoldService;
+import com.IQproject.court.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class HoldServiceTest {
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepo;
+    private HoldService holdService;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(ReservationService.class);
+        reservationRepo = mock(ReservationRepository.class);
+        AppConfig config = new AppConfig();
+        config.setHoldTtl(Duration.ofMinutes(5));
+        holdService = new HoldService(reservationService, reservationRepo, config, new TenantRegistry(config));
+
+        when(reservationService.createReservation(any())).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(1L);
+            return reservation;
+        });
+    }
+
+    @Test
+    void createHoldMarksReservationAsHoldWithExpiry() {
+        Reservation held = holdService.createHold(new Reservation());
+
+        assertEquals(Reservation.Status.HOLD, held.getStatus());
+        assertTrue(held.getHoldExpiresAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+        assertEquals(1, holdService.getPendingCount());
+    }
+
+    @Test
+    void expireDueExpiresHoldOnlyAfterTtl() {
+        holdService.createHold(new Reservation());
+        long now = System.currentTimeMillis();
+        when(reservationRepo.expireHolds(any(), any())).thenReturn(1);
+
+        assertEquals(0, holdService.expireDue(now + Duration.ofMinutes(4).toMillis()));
+        verify(reservationRepo, never()).expireHolds(any(), any());
+
+        assertEquals(1, holdService.expireDue(now + Duration.ofMinutes(6).toMillis()));
+        verify(reservationRepo).expireHolds(eq(List.of(1L)), any());
+        assertEquals(0, holdService.getPendingCount());
+    }
+
+    @Test
+    void confirmedHoldDoesNotExpire() {
+        holdService.createHold(new Reservation());
+        when(reservationRepo.confirmHold(eq(1L), any())).thenReturn(new Reservation());
+
+        assertNotNull(holdService.confirm(1L));
+        holdService.expireDue(System.currentTimeMillis() + Duration.ofMinutes(6).toMillis());
+
+        verify(reservationRepo, never()).expireHolds(any(), any());
+    }
+
+    @Test
+    void failedExpiryIsRetried() {
+        holdService.createHold(new Reservation());
+        long late = System.currentTimeMillis() + Duration.ofMinutes(6).toMillis();
+        when(reservationRepo.expireHolds(any(), any())).thenThrow(new IllegalStateException("db down")).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> holdService.expireDue(late));
+        assertEquals(1, holdService.getPendingCount());
+        assertEquals(1, holdService.expireDue(late + Duration.ofSeconds(2).toMillis()));
+    }
+
+    @Test
+    void rebuildTracksActiveHoldsFromDatabase() {
+        Reservation hold = new Reservation();
+        hold.setId(9L);
+        hold.setStatus(Reservation.Status.HOLD);
+        hold.setHoldExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(reservationRepo.findActiveHolds()).thenReturn(List.of(hold));
+        when(reservationRepo.expireHolds(any(), any())).thenReturn(1);
+
+        holdService.rebuild();
+
+        assertEquals(1, holdService.expireDue(System.currentTimeMillis() + 200));
+        verify(reservationRepo).expireHolds(eq(List.of(9L)), any());
+    }
+}
@@ -0,0 +1,151 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.IdempotencyRecord;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.IdempotencyRecordRepository;
+import com.IQproject.court.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyServiceTest {
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        idempotencyService = new IdempotencyService(repository, mock(PlatformTransactionManager.class),
+                new AppConfig(), new TenantRegistry(new AppConfig()));
+    }
+
+    private Reservation request() {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(1L);
+        reservation.setCustomer(new Customer("123456789", "Alice"));
+        reservation.setStartTime(LocalDateTime.of(2030, 1, 1, 10, 0));
+        reservation.setEndTime(LocalDateTime.of(2030, 1, 1, 11, 0));
+        return reservation;
+    }
+
+    private Reservation created() {
+        Reservation reservation = request();
+        reservation.setId(9L);
+        reservation.setPrice(BigDecimal.valueOf(900));
+        return reservation;
+    }
+
+    @Test
+    void retryReturnsOriginalResultWithoutBookingAgain() {
+        AtomicInteger bookings = new AtomicInteger();
+
+        IdempotencyService.Outcome first = idempotencyService.execute("key", request(), () -> {
+            bookings.incrementAndGet();
+            return created();
+        });
+        IdempotencyService.Outcome retry = idempotencyService.execute("key", request(), () -> {
+            bookings.incrementAndGet();
+            return created();
+        });
+
+        assertEquals(1, bookings.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(BigDecimal.valueOf(900), retry.record().getPrice());
+        assertEquals(201, retry.record().getStatus());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForInFlightResult() throws Exception {
+        AtomicInteger bookings = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<IdempotencyService.Outcome> first = executor.submit(() ->
+                    idempotencyService.execute("key", request(), () -> {
+                        bookings.incrementAndGet();
+                        started.countDown();
+                        await(release);
+                        return created();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyService.Outcome> duplicate = executor.submit(() ->
+                    idempotencyService.execute("key", request(), () -> {
+                        bookings.incrementAndGet();
+                        return created();
+                    }));
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            assertEquals(9L, first.get().record().getReservationId());
+            assertTrue(duplicate.get().replayed());
+        }
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void storedResultIsReturnedAfterRestart() {
+        Reservation request = request();
+        idempotencyService.execute("key", request, this::created);
+        IdempotencyRecord stored = idempotencyService.execute("key", request, this::created).record();
+
+        IdempotencyService restarted = new IdempotencyService(repository,
+                mock(PlatformTransactionManager.class), new AppConfig(),
+                new TenantRegistry(new AppConfig()));
+        when(repository.findByKey("key")).thenReturn(stored);
+
+        IdempotencyService.Outcome outcome = restarted.execute("key", request, () -> fail("must not book"));
+
+        assertTrue(outcome.replayed());
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        idempotencyService.execute("key", request(), this::created);
+
+        Reservation other = request();
+        other.setCourtId(2L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("key", other, this::created));
+    }
+
+    @Test
+    void failedAttemptIsNotRemembered() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("key", request(), () -> {
+            throw new IllegalArgumentException("Reservation time is overlapping with another reservation");
+        }));
+
+        IdempotencyService.Outcome retry = idempotencyService.execute("key", request(), this::created);
+
+        assertFalse(retry.replayed());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
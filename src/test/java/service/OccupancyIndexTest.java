@@ -0,0 +1,157 @@
+package service;
+
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.CalendarGrid;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.BlackoutService;
+import com.IQproject.court.service.CourtSchedule;
+import com.IQproject.court.service.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OccupancyIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+    private static final LocalDateTime NINE = DAY.atTime(9, 0);
+
+    private ReservationRepository reservationRepo;
+    private BlackoutService blackoutService;
+    private OccupancyIndex index;
+    private List<Court> courts;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepo = mock(ReservationRepository.class);
+        blackoutService = mock(BlackoutService.class);
+        index = new OccupancyIndex(reservationRepo, blackoutService);
+        Court first = new Court("First", 1L);
+        first.setId(1L);
+        Court second = new Court("Second", 1L);
+        second.setId(2L);
+        courts = List.of(first, second);
+    }
+
+    private static Reservation reservation(long id, long courtId, LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setCourtId(courtId);
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        return reservation;
+    }
+
+    private static ReservationChangedEvent change(ReservationChange.Type type, long id, long courtId,
+                                                  LocalDateTime start, LocalDateTime end) {
+        return change(type, id, courtId, start, end, TenantContext.DEFAULT_TENANT);
+    }
+
+    private static ReservationChangedEvent change(ReservationChange.Type type, long id, long courtId,
+                                                  LocalDateTime start, LocalDateTime end, String tenant) {
+        return ReservationChangedEvent.of(new ReservationChange(type, id, courtId, start, end, BigDecimal.ONE,
+                Reservation.Status.CONFIRMED, tenant, null));
+    }
+
+    private static String cells(CalendarGrid grid, int row, int from, int to) {
+        return grid.courts().get(row).occupancy().substring(from, to);
+    }
+
+    @Test
+    void gridMarksCellsTouchedByReservations() {
+        when(reservationRepo.findBetween(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                reservation(1, 1, NINE, NINE.plusHours(1)),
+                reservation(2, 2, NINE.plusMinutes(40), NINE.plusMinutes(50))));
+
+        CalendarGrid grid = index.grid(DAY, 15, courts);
+
+        assertEquals(96, grid.courts().get(0).occupancy().length());
+        // cells 36..39 cover 9:00-10:00
+        assertEquals("011110", cells(grid, 0, 35, 41));
+        assertEquals("0011", cells(grid, 1, 36, 40));
+    }
+
+    @Test
+    void gridClipsReservationsSpanningMidnight() {
+        when(reservationRepo.findBetween(any(), any())).thenReturn(List.of(
+                reservation(1, 1, DAY.atTime(23, 0), DAY.plusDays(1).atTime(1, 0))));
+
+        CalendarGrid grid = index.grid(DAY, 60, courts);
+
+        assertEquals("000000000000000000000001", grid.courts().get(0).occupancy());
+    }
+
+    @Test
+    void changesUpdateLoadedDaysIncrementally() {
+        when(reservationRepo.findBetween(any(), any())).thenReturn(List.of(reservation(1, 1, NINE, NINE.plusHours(1))));
+        index.grid(DAY, 60, courts);
+
+        index.onReservationChanged(change(ReservationChange.Type.CREATED, 2, 2, NINE, NINE.plusMinutes(30)));
+        index.onReservationChanged(change(ReservationChange.Type.UPDATED, 1, 1, NINE.plusHours(2), NINE.plusHours(3)));
+        CalendarGrid grid = index.grid(DAY, 60, courts);
+
+        assertEquals("001", cells(grid, 0, 9, 12));
+        assertEquals("100", cells(grid, 1, 9, 12));
+
+        index.onReservationChanged(change(ReservationChange.Type.DELETED, 1, 1, NINE.plusHours(2), NINE.plusHours(3)));
+        assertFalse(index.grid(DAY, 60, courts).courts().get(0).occupancy().contains("1"));
+        verify(reservationRepo, times(1)).findBetween(any(), any());
+    }
+
+    @Test
+    void daysAreKeptPerTenant() {
+        when(reservationRepo.findBetween(any(), any())).thenAnswer(invocation -> "north".equals(TenantContext.current())
+                ? List.of(reservation(1, 1, NINE, NINE.plusHours(1)))
+                : List.of());
+
+        assertEquals("1", cells(TenantContext.call("north", () -> index.grid(DAY, 60, courts)), 0, 9, 10));
+        assertEquals("0", cells(index.grid(DAY, 60, courts), 0, 9, 10));
+
+        index.onReservationChanged(change(ReservationChange.Type.CREATED, 2, 2, NINE, NINE.plusHours(1), "north"));
+        assertEquals("1", cells(TenantContext.call("north", () -> index.grid(DAY, 60, courts)), 1, 9, 10));
+        assertEquals("0", cells(index.grid(DAY, 60, courts), 1, 9, 10));
+        assertEquals(2, index.getLoadedDays());
+        verify(reservationRepo, times(2)).findBetween(any(), any());
+    }
+
+    @Test
+    void deletingOneOfTwoReservationsSharingASlotKeepsTheOther() {
+        when(reservationRepo.findBetween(any(), any())).thenReturn(List.of(
+                reservation(1, 1, NINE, NINE.plusMinutes(7)),
+                reservation(2, 1, NINE.plusMinutes(7), NINE.plusMinutes(20))));
+        index.grid(DAY, 5, courts);
+
+        index.onReservationChanged(change(ReservationChange.Type.DELETED, 1, 1, NINE, NINE.plusMinutes(7)));
+
+        assertEquals("00111", cells(index.grid(DAY, 5, courts), 0, 107, 112));
+    }
+
+    @Test
+    void gridMarksBlackoutsAsOccupied() {
+        when(reservationRepo.findBetween(any(), any())).thenReturn(List.of());
+        when(blackoutService.occurrences(1L, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(new CourtSchedule.Slot(-3, NINE, NINE.plusHours(2))));
+
+        CalendarGrid grid = index.grid(DAY, 60, courts);
+
+        assertEquals("0110", cells(grid, 0, 8, 12));
+        assertFalse(grid.courts().get(1).occupancy().contains("1"));
+    }
+
+    @Test
+    void gridRejectsInvalidGranularity() {
+        assertThrows(IllegalArgumentException.class, () -> index.grid(DAY, 7, courts));
+        assertThrows(IllegalArgumentException.class, () -> index.grid(DAY, 0, courts));
+        assertThrows(IllegalArgumentException.class, () -> index.grid(DAY, 25, courts));
+    }
+}
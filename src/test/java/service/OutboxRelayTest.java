@@ -0,0 +1,88 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.OutboxEvent;
+import com.IQproject.court.repository.OutboxRepository;
+import com.IQproject.court.service.OutboxRelay;
+import com.IQproject.court.service.OutboxSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayTest {
+    private OutboxRepository repository;
+    private OutboxSink sink;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private AppConfig config;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxRepository.class);
+        sink = mock(OutboxSink.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        config = new AppConfig();
+        config.getOutbox().setEnabled(true);
+        config.getOutbox().setBatchSize(2);
+    }
+
+    private OutboxRelay relay() {
+        return new OutboxRelay(config, repository, sink, new TenantRegistry(config), transactionManager,
+                meterRegistry);
+    }
+
+    private static OutboxEvent event(long id) {
+        OutboxEvent event = new OutboxEvent(OutboxEvent.Type.CREATED, id, 1L, null, null, null, "default");
+        event.setId(id);
+        return event;
+    }
+
+    @Test
+    void drainsFullBatchesAndDeletesWhatWasDelivered() {
+        List<OutboxEvent> first = List.of(event(1), event(2));
+        List<OutboxEvent> second = List.of(event(3));
+        when(repository.lockOldest(2)).thenReturn(first).thenReturn(second);
+
+        relay().relay();
+
+        verify(sink).deliver(first);
+        verify(sink).deliver(second);
+        verify(repository).delete(List.of(1L, 2L));
+        verify(repository).delete(List.of(3L));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3, meterRegistry.get("outbox.delivered").counter().count());
+    }
+
+    @Test
+    void failedDeliveryKeepsTheBatchForTheNextPoll() {
+        when(repository.lockOldest(2)).thenReturn(List.of(event(1)));
+        doThrow(new IllegalStateException("sink down")).doNothing().when(sink).deliver(anyList());
+        OutboxRelay relay = relay();
+
+        relay.relay();
+        verify(repository, never()).delete(anyCollection());
+        verify(transactionManager).rollback(any());
+        assertEquals(1, meterRegistry.get("outbox.failures").counter().count());
+
+        relay.relay();
+        verify(repository).delete(List.of(1L));
+        assertEquals(1, meterRegistry.get("outbox.delivered").counter().count());
+    }
+
+    @Test
+    void disabledRelayNeverReadsTheOutbox() {
+        config.getOutbox().setEnabled(false);
+        relay().relay();
+
+        verifyNoInteractions(repository, sink);
+    }
+}
@@ -0,0 +1,133 @@
+package service;
+
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.service.QueryCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new QueryCoalescer(meterRegistry);
+    }
+
+    @Test
+    void concurrentIdenticalQueriesShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<List<String>> first = executor.submit(() -> coalescer.execute("findByCourtId", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return List.of("a");
+            }, 1L));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<List<String>> second = executor.submit(() -> coalescer.execute("findByCourtId", () -> {
+                executions.incrementAndGet();
+                return List.of("b");
+            }, 1L));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(List.of("a"), first.get());
+            assertEquals(List.of("a"), second.get());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0.5, meterRegistry.get("query.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void readAfterWriteDoesNotJoinOlderFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> stale = executor.submit(() -> coalescer.execute("findAll", () -> {
+                started.countDown();
+                await(release);
+                return "before write";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            coalescer.invalidate();
+            String fresh = coalescer.execute("findAll", () -> "after write");
+            release.countDown();
+
+            assertEquals("after write", fresh);
+            assertEquals("before write", stale.get());
+        }
+    }
+
+    @Test
+    void queryStartedWhileAWriteCommitsIsNotShared() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            TransactionSynchronizationManager.initSynchronization();
+            Future<String> racing;
+            try {
+                coalescer.onReservationChanged(new ReservationChangedEvent(List.of()));
+                racing = executor.submit(() -> coalescer.execute("findAll", () -> {
+                    started.countDown();
+                    await(release);
+                    return "maybe before write";
+                }));
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            String fresh = coalescer.execute("findAll", () -> "after write");
+            release.countDown();
+
+            assertEquals("after write", fresh);
+            assertEquals("maybe before write", racing.get());
+        }
+    }
+
+    @Test
+    void differentArgumentsAreNotCoalesced() {
+        assertEquals(1L, (long) coalescer.execute("findByCourtId", () -> 1L, 1L));
+        assertEquals(2L, (long) coalescer.execute("findByCourtId", () -> 2L, 2L));
+    }
+
+    @Test
+    void failureIsPropagated() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("findAll", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals("ok", coalescer.execute("findAll", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
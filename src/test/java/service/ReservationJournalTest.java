@@ -0,0 +1,181 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantContext;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.CourtSchedule;
+import com.IQproject.court.service.CourtScheduleRegistry;
+import com.IQproject.court.service.ReservationJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ReservationJournalTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0, 0, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    private AppConfig config;
+    private final List<Runnable> background = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        config = new AppConfig();
+        config.getJournal().setEnabled(true);
+        config.getJournal().setDirectory(directory.toString());
+    }
+
+    private static ReservationChangedEvent change(ReservationChange.Type type, long id, long courtId, int hour) {
+        return ReservationChangedEvent.of(new ReservationChange(type, id, courtId,
+                START.plusHours(hour), START.plusHours(hour + 1), BigDecimal.TEN, Reservation.Status.CONFIRMED,
+                TenantContext.DEFAULT_TENANT, null));
+    }
+
+    private static Reservation reservation(long id, long courtId, int hour) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setCourtId(courtId);
+        reservation.setStartTime(START.plusHours(hour));
+        reservation.setEndTime(START.plusHours(hour + 1));
+        return reservation;
+    }
+
+    /**
+     * Simulates a running application: changes go to the registry first, then to the journal.
+     */
+    private static void publish(CourtScheduleRegistry registry, ReservationJournal journal, ReservationChangedEvent event) {
+        registry.onReservationChanged(event);
+        journal.onReservationChanged(event);
+    }
+
+    private ReservationJournal journal(CourtScheduleRegistry registry) throws Exception {
+        ReservationJournal journal = new ReservationJournal(config, registry, background::add);
+        journal.open();
+        return journal;
+    }
+
+    @Test
+    void restartRestoresSnapshotAndJournalTailWithoutDatabase() throws Exception {
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findByCourtId(1L)).thenReturn(List.of(reservation(10, 1, 0)));
+        when(repository.findByCourtId(2L)).thenReturn(List.of());
+        CourtScheduleRegistry registry = new CourtScheduleRegistry(repository, new TenantRegistry(config));
+        ReservationJournal journal = journal(registry);
+        registry.get(1L);
+        registry.get(2L);
+
+        publish(registry, journal, change(ReservationChange.Type.CREATED, 11, 1, 2));
+        journal.snapshot();
+        publish(registry, journal, change(ReservationChange.Type.CREATED, 12, 2, 4));
+        publish(registry, journal, change(ReservationChange.Type.UPDATED, 10, 2, 6));
+        publish(registry, journal, change(ReservationChange.Type.DELETED, 11, 1, 2));
+        assertEquals(4, journal.getSequence());
+
+        // restart without closing, as after a crash
+        ReservationRepository fresh = mock(ReservationRepository.class);
+        CourtScheduleRegistry restored = new CourtScheduleRegistry(fresh, new TenantRegistry(config));
+        ReservationJournal reopened = journal(restored);
+
+        assertEquals(2, reopened.getRestoredCourts());
+        assertEquals(4, reopened.getSequence());
+        assertEquals(List.of(), restored.get(1L).slots());
+        assertEquals(List.of(12L, 10L), restored.get(2L).slots().stream().map(CourtSchedule.Slot::id).toList());
+        assertEquals(START.plusHours(6), restored.get(2L).slots().get(1).start());
+        verifyNoInteractions(fresh);
+    }
+
+    @Test
+    void verificationReplacesSchedulesThatDifferFromDatabase() throws Exception {
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findByCourtId(anyLong())).thenReturn(List.of());
+        CourtScheduleRegistry registry = new CourtScheduleRegistry(repository, new TenantRegistry(config));
+        ReservationJournal journal = journal(registry);
+        registry.get(1L);
+        registry.get(2L);
+        publish(registry, journal, change(ReservationChange.Type.CREATED, 20, 1, 0));
+        publish(registry, journal, change(ReservationChange.Type.CREATED, 21, 2, 0));
+        journal.close();
+
+        ReservationRepository database = mock(ReservationRepository.class);
+        when(database.findByCourtId(1L)).thenReturn(List.of(reservation(20, 1, 0)));
+        when(database.findByCourtId(2L)).thenReturn(List.of(reservation(21, 2, 0), reservation(22, 2, 3)));
+        CourtScheduleRegistry restored = new CourtScheduleRegistry(database, new TenantRegistry(config));
+        background.clear();
+        ReservationJournal reopened = journal(restored);
+
+        assertEquals(1, restored.get(2L).slots().size());
+        assertEquals(1, background.size());
+        background.forEach(Runnable::run);
+
+        assertEquals(1, reopened.getMismatches());
+        assertEquals(List.of(21L, 22L), restored.get(2L).slots().stream().map(CourtSchedule.Slot::id).toList());
+        verify(database).findByCourtId(1L);
+        verify(database).findByCourtId(2L);
+    }
+
+    @Test
+    void fullJournalTriggersSnapshot() throws Exception {
+        config.getJournal().setSize(DataSize.ofBytes(2 * 53));
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findByCourtId(anyLong())).thenReturn(List.of());
+        CourtScheduleRegistry registry = new CourtScheduleRegistry(repository, new TenantRegistry(config));
+        ReservationJournal journal = journal(registry);
+        registry.get(1L);
+
+        for (int i = 0; i < 5; i++) {
+            publish(registry, journal, change(ReservationChange.Type.CREATED, 30 + i, 1, i));
+        }
+        assertTrue(Files.exists(directory.resolve("reservations.snapshot")));
+
+        CourtScheduleRegistry restored = new CourtScheduleRegistry(mock(ReservationRepository.class),
+                new TenantRegistry(config));
+        journal(restored);
+        assertEquals(5, restored.get(1L).slots().size());
+    }
+
+    @Test
+    void corruptSnapshotFallsBackToDatabase() throws Exception {
+        Files.write(directory.resolve("reservations.snapshot"), new byte[]{1, 2, 3});
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findByCourtId(1L)).thenReturn(List.of(reservation(40, 1, 0)));
+        CourtScheduleRegistry registry = new CourtScheduleRegistry(repository, new TenantRegistry(config));
+
+        ReservationJournal journal = journal(registry);
+
+        assertEquals(0, journal.getRestoredCourts());
+        assertEquals(1, registry.get(1L).slots().size());
+        verify(repository).findByCourtId(1L);
+    }
+
+    @Test
+    void disabledJournalCreatesNoFiles() throws Exception {
+        config.getJournal().setEnabled(false);
+        CourtScheduleRegistry registry = new CourtScheduleRegistry(mock(ReservationRepository.class),
+                new TenantRegistry(config));
+        ReservationJournal journal = journal(registry);
+
+        journal.onReservationChanged(change(ReservationChange.Type.CREATED, 1, 1, 0));
+        journal.snapshot();
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -1,43 +1,94 @@
 package service;
 
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
 import com.IQproject.court.model.Court;
 import com.IQproject.court.model.Customer;
 import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.ReservationView;
 import com.IQproject.court.model.SurfaceType;
 import com.IQproject.court.repository.CourtRepository;
 import com.IQproject.court.repository.CustomerRepository;
 import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.ReservationViewRepository;
 import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.BlackoutService;
+import com.IQproject.court.service.BookingRules;
+import com.IQproject.court.service.CourtSchedule;
+import com.IQproject.court.service.CourtScheduleRegistry;
+import com.IQproject.court.service.QueryCoalescer;
 import com.IQproject.court.service.ReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
 
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class ReservationServiceTest {
 
     private ReservationRepository reservationRepo;
+    private ReservationViewRepository viewRepo;
     private CourtRepository courtRepo;
     private CustomerRepository customerRepo;
     private SurfaceTypeRepository surfaceRepo;
+    private CourtScheduleRegistry scheduleRegistry;
+    private BlackoutService blackoutService;
     private ReservationService reservationService;
 
     @BeforeEach
     void setUp() {
         reservationRepo = mock(ReservationRepository.class);
+        viewRepo = mock(ReservationViewRepository.class);
         courtRepo = mock(CourtRepository.class);
         customerRepo = mock(CustomerRepository.class);
         surfaceRepo = mock(SurfaceTypeRepository.class);
+        scheduleRegistry = mock(CourtScheduleRegistry.class);
+        blackoutService = mock(BlackoutService.class);
+        when(blackoutService.isFree(any(), any(), any())).thenReturn(true);
 
         reservationService = new ReservationService(
-                reservationRepo, courtRepo, customerRepo, surfaceRepo
+                reservationRepo, viewRepo, courtRepo, customerRepo, surfaceRepo,
+                new QueryCoalescer(new SimpleMeterRegistry()), scheduleRegistry, blackoutService,
+                new BookingRules(new AppConfig(), courtRepo, new TenantRegistry(new AppConfig())),
+                mock(PlatformTransactionManager.class)
         );
     }
 
+    @Test
+    void listsAreReadFromTheReadModelInTheReservationShape() {
+        Customer customer = new Customer("123", "Alice");
+        customer.setId(4L);
+        Reservation reservation = new Reservation();
+        reservation.setId(9L);
+        reservation.setCourtId(3L);
+        reservation.setCustomer(customer);
+        reservation.setStartTime(LocalDateTime.of(2030, 1, 1, 10, 0));
+        reservation.setEndTime(LocalDateTime.of(2030, 1, 1, 11, 0));
+        reservation.setPrice(BigDecimal.TEN);
+        ReservationView row = new ReservationView();
+        row.copyReservation(reservation);
+        when(viewRepo.findByCourtId(3L)).thenReturn(List.of(row));
+        when(viewRepo.findFutureByPhoneNumber("123")).thenReturn(List.of(row));
+
+        Reservation listed = reservationService.getReservationsByCourtId(3L).getFirst();
+        assertEquals(9L, listed.getId());
+        assertEquals(reservation.getStartTime(), listed.getStartTime());
+        assertEquals(BigDecimal.TEN, listed.getPrice());
+        assertEquals(4L, listed.getCustomer().getId());
+        assertEquals("Alice", listed.getCustomer().getName());
+        assertEquals("123", listed.getCustomer().getPhoneNumber());
+        assertEquals(1, reservationService.getReservationsByPhone("123", true).size());
+        verifyNoInteractions(reservationRepo);
+    }
+
     @Test
     void createShouldCreateNewCustomerAndSaveReservation() {
         long courtId = 1L;
@@ -126,6 +177,43 @@ public class ReservationServiceTest {
         });
     }
 
+    @Test
+    void createShouldThrowWhenCourtIsClosed() {
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(1L);
+        reservation.setStartTime(LocalDateTime.now());
+        reservation.setEndTime(LocalDateTime.now().plusHours(1));
+
+        Court court = new Court();
+        court.setId(1L);
+        when(courtRepo.findById(1L)).thenReturn(court);
+        when(blackoutService.isFree(eq(1L), any(), any())).thenReturn(false);
+
+        Exception ex = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.createReservation(reservation));
+
+        assertEquals("Court is closed at the requested time", ex.getMessage());
+        verify(reservationRepo, never()).isOverlapping(any(), any(), any());
+    }
+
+    @Test
+    void createShouldCheckBookingRulesBeforeDatabaseAccess() {
+        AppConfig config = new AppConfig();
+        config.getRules().setSlotMinutes(15);
+        ReservationService strict = new ReservationService(reservationRepo, viewRepo, courtRepo, customerRepo, surfaceRepo,
+                new QueryCoalescer(new SimpleMeterRegistry()), scheduleRegistry, blackoutService,
+                new BookingRules(config, courtRepo, new TenantRegistry(config)),
+                mock(PlatformTransactionManager.class));
+
+        Reservation reservation = new Reservation();
+        reservation.setCourtId(1L);
+        reservation.setStartTime(LocalDateTime.of(2030, 1, 1, 3, 0));
+        reservation.setEndTime(LocalDateTime.of(2030, 1, 1, 3, 7));
+
+        assertThrows(IllegalArgumentException.class, () -> strict.createReservation(reservation));
+        verifyNoInteractions(courtRepo, reservationRepo);
+    }
+
     @Test
     void updateShouldThrowWhenReservationDoesNotExist() {
         when(reservationRepo.findById(1L)).thenReturn(null);
@@ -171,16 +259,29 @@ public class ReservationServiceTest {
         existing.setId(reservationId);
 
         Reservation updated = new Reservation();
+        Customer customer = new Customer("123", "Alice");
+        customer.setId(2L);
         updated.setCourtId(1L);
-        updated.setCustomer(new Customer("123", "Alice"));
+        updated.setCustomer(customer);
         updated.setStartTime(LocalDateTime.now());
         updated.setEndTime(LocalDateTime.now().plusHours(1));
 
+        Court court = new Court();
+        court.setId(1L);
+        court.setSurfaceTypeId(10L);
+        SurfaceType surface = new SurfaceType();
+        surface.setPricePerMinute(BigDecimal.ONE);
+
         when(reservationRepo.findById(reservationId)).thenReturn(existing);
+        when(courtRepo.findById(1L)).thenReturn(court);
+        when(customerRepo.findById(2L)).thenReturn(customer);
+        when(surfaceRepo.findById(10L)).thenReturn(surface);
         when(reservationRepo.isOverlapping(eq(reservationId), any(), any())).thenReturn(true);
 
-        assertThrows(IllegalArgumentException.class,
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> reservationService.updateReservation(reservationId, updated));
+
+        assertEquals("Reservation time is overlapping with another reservation", ex.getMessage());
     }
 
     @Test
@@ -231,4 +332,101 @@ public class ReservationServiceTest {
         assertThrows(IllegalArgumentException.class,
                 () -> reservationService.updateReservation(1L, updated));
     }
-}
\ No newline at end of file
+
+    private void mockAnyCourtSetup(Map<Long, CourtSchedule> schedules) {
+        long surfaceId = 10L;
+        SurfaceType surface = new SurfaceType();
+        surface.setId(surfaceId);
+        surface.setPricePerMinute(BigDecimal.ONE);
+
+        List<Court> courts = schedules.keySet().stream().sorted().map(id -> {
+            Court court = new Court();
+            court.setId(id);
+            court.setSurfaceTypeId(surfaceId);
+            when(courtRepo.findById(id)).thenReturn(court);
+            return court;
+        }).toList();
+
+        when(courtRepo.findBySurfaceTypeId(surfaceId)).thenReturn(courts);
+        when(scheduleRegistry.getAll(anyCollection())).thenReturn(schedules);
+        when(surfaceRepo.findById(surfaceId)).thenReturn(surface);
+        when(customerRepo.findByPhoneNumber(any())).thenReturn(new Customer("123", "Alice"));
+        when(reservationRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static Reservation anyCourtReservation(LocalDateTime start, LocalDateTime end) {
+        Reservation reservation = new Reservation();
+        reservation.setCustomer(new Customer("123", "Alice"));
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        return reservation;
+    }
+
+    @Test
+    void createOnAnyCourtShouldPickBestFittingGap() {
+        LocalDateTime nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        // court 1 is empty, court 2 leaves a 15 minute sliver, court 3 has an exactly fitting gap
+        mockAnyCourtSetup(Map.of(
+                1L, CourtSchedule.empty(),
+                2L, CourtSchedule.of(List.of(new CourtSchedule.Slot(20, nine.minusHours(1), nine.minusMinutes(15)))),
+                3L, CourtSchedule.of(List.of(
+                        new CourtSchedule.Slot(30, nine.minusHours(1), nine),
+                        new CourtSchedule.Slot(31, nine.plusHours(1), nine.plusHours(2))))));
+
+        Reservation saved = reservationService.createReservationOnAnyCourt(10L,
+                anyCourtReservation(nine, nine.plusHours(1)));
+
+        assertEquals(3L, saved.getCourtId());
+        verify(courtRepo, never()).findById(1L);
+    }
+
+    @Test
+    void createOnAnyCourtShouldFallBackWhenCourtWasTakenConcurrently() {
+        LocalDateTime nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        mockAnyCourtSetup(Map.of(
+                1L, CourtSchedule.empty(),
+                2L, CourtSchedule.of(List.of(new CourtSchedule.Slot(20, nine.minusHours(1), nine)))));
+        when(reservationRepo.isOverlapping(eq(2L), any(), any())).thenReturn(true);
+
+        Reservation saved = reservationService.createReservationOnAnyCourt(10L,
+                anyCourtReservation(nine, nine.plusHours(1)));
+
+        assertEquals(1L, saved.getCourtId());
+        verify(scheduleRegistry).invalidate(2L);
+    }
+
+    @Test
+    void createOnAnyCourtShouldTreatBlackoutsAsBusy() {
+        LocalDateTime nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        // court 2 would fit exactly, but it is closed for the reservation's hour
+        mockAnyCourtSetup(Map.of(
+                1L, CourtSchedule.empty(),
+                2L, CourtSchedule.of(List.of(new CourtSchedule.Slot(20, nine.minusHours(1), nine)))));
+        when(blackoutService.occurrences(eq(2L), any(), any()))
+                .thenReturn(List.of(new CourtSchedule.Slot(-5, nine, nine.plusHours(1))));
+
+        Reservation saved = reservationService.createReservationOnAnyCourt(10L,
+                anyCourtReservation(nine, nine.plusHours(1)));
+
+        assertEquals(1L, saved.getCourtId());
+    }
+
+    @Test
+    void createOnAnyCourtShouldThrowWhenNoCourtIsFree() {
+        LocalDateTime nine = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        mockAnyCourtSetup(Map.of(
+                1L, CourtSchedule.of(List.of(new CourtSchedule.Slot(10, nine, nine.plusHours(2))))));
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.createReservationOnAnyCourt(10L,
+                anyCourtReservation(nine.plusMinutes(30), nine.plusHours(1))));
+        verify(reservationRepo, never()).save(any());
+    }
+
+    @Test
+    void deleteShouldSoftDeleteTheReservation() {
+        reservationService.deleteReservation(5L);
+
+        verify(reservationRepo).softDelete(5L);
+    }
+}
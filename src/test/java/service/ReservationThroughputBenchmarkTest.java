@@ -0,0 +1,104 @@
+package service;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.ReservationService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput benchmarks. Skipped unless run with {@code -Dbenchmark=true}, e.g.
+ * {@code mvn test -Dtest=ReservationThroughputBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class,
+        properties = "spring.datasource.hikari.maximum-pool-size=" + ReservationThroughputBenchmarkTest.POOL_SIZE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReservationThroughputBenchmarkTest {
+    static final int POOL_SIZE = 50;
+    private static final int REQUESTS = 5_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long DB_LATENCY_MILLIS = 20;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    /**
+     * Stands in for a slow database round trip: sleeps inside the database, on the caller's
+     * connection. Called through the {@code SLEEP} alias.
+     *
+     * @param millis the time to sleep
+     * @throws InterruptedException if interrupted while sleeping
+     */
+    public static void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    /**
+     * Compares a Tomcat-sized platform thread pool with virtual threads when every request
+     * makes a slow database round trip in its transaction before reading a court schedule. The
+     * round trip holds a pooled connection, so both are bounded by the connection pool as well.
+     */
+    @Test
+    void platformVersusVirtualThreadsUnderSlowDatabase() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> em.createNativeQuery(
+                "CREATE ALIAS IF NOT EXISTS SLEEP FOR '" + getClass().getName() + ".sleep'").executeUpdate());
+        SurfaceType surface = surfaceTypeRepository.save(new SurfaceType("Benchmark", new BigDecimal(5)));
+        Court court = courtRepository.save(new Court("Benchmark Court", surface.getId()));
+
+        run("warm-up", Executors.newVirtualThreadPerTaskExecutor(), transactionTemplate, court.getId());
+        double platform = run("platform", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), transactionTemplate,
+                court.getId());
+        double virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor(), transactionTemplate,
+                court.getId());
+
+        System.out.printf("virtual/platform throughput ratio: %.2f%n", virtual / platform);
+    }
+
+    private double run(String name, ExecutorService executor, TransactionTemplate transactionTemplate,
+                       long courtId) throws Exception {
+        long started = System.nanoTime();
+        try (executor) {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    em.createNativeQuery("CALL SLEEP(" + DB_LATENCY_MILLIS + ")").getSingleResult();
+                    return reservationService.getReservationsByCourtId(courtId);
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        double throughput = REQUESTS / seconds;
+        System.out.printf("%-8s %,d requests in %.2f s = %,.0f req/s%n", name, REQUESTS, seconds, throughput);
+        return throughput;
+    }
+}
@@ -0,0 +1,63 @@
+package service;
+
+import com.IQproject.court.config.AppConfig;
+import com.IQproject.court.config.TenantRegistry;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.RuleAuditReport;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.service.BookingRules;
+import com.IQproject.court.service.RuleAuditService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class RuleAuditServiceTest {
+
+    private static Reservation reservation(long id, LocalDateTime start, long minutes) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setCourtId(1L);
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusMinutes(minutes));
+        return reservation;
+    }
+
+    @Test
+    void auditReportsUpcomingViolationsAcrossSlices() {
+        AppConfig config = new AppConfig();
+        config.getRules().setSlotMinutes(30);
+        ReservationRepository reservationRepo = mock(ReservationRepository.class);
+        TenantRegistry tenants = new TenantRegistry(config);
+        RuleAuditService service = new RuleAuditService(reservationRepo,
+                new BookingRules(config, mock(CourtRepository.class), tenants), tenants);
+
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+        List<Reservation> stored = new ArrayList<>();
+        stored.add(reservation(1, tomorrow, 60));
+        stored.add(reservation(2, tomorrow.plusMinutes(7), 60));
+        stored.add(reservation(3, LocalDateTime.now().minusDays(1).withMinute(7), 60));
+        stored.add(reservation(2500, tomorrow.plusHours(3), 45));
+        when(reservationRepo.findIdBounds()).thenReturn(new long[]{1, 2500});
+        when(reservationRepo.findByIdRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            return stored.stream().filter(r -> r.getId() >= from && r.getId() <= to).toList();
+        });
+
+        assertNull(service.getLastReport());
+        RuleAuditReport report = service.audit();
+
+        assertEquals(3, report.scanned());
+        assertEquals(List.of(2L, 2500L), report.violations().stream().map(RuleAuditReport.Violation::reservationId).toList());
+        assertSame(report, service.getLastReport());
+        verify(reservationRepo, times(3)).findByIdRange(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,80 @@
+package service;
+
+import com.IQproject.court.service.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+    private static final long TICK = 100;
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    void firesAtFirstAdvanceAtOrAfterDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.schedule("a", START + 250);
+
+        assertTrue(wheel.advance(START + 200).isEmpty());
+        assertTrue(wheel.advance(START + 299).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireAtNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.schedule("late", START - 10_000);
+
+        assertEquals(List.of("late"), wheel.advance(START + TICK));
+    }
+
+    @Test
+    void cancelledDeadlinesNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", START + 500);
+        wheel.schedule("b", START + 500);
+        timeout.cancel();
+
+        assertEquals(List.of("b"), wheel.advance(START + 1_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesDeadlinesFromHigherLevelsInOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // spread over about 11 hours, so every level of the wheel is used
+            long deadline = START + (long) (random.nextDouble() * 40_000_000L);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = START; now <= START + 40_000_000L + TICK; now += 7 * TICK + 13) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "fired before its deadline");
+                assertTrue(now - deadline < 7 * TICK + 13 + TICK, "fired too late");
+                fired.add(deadline);
+            }
+        }
+
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void keepsDeadlinesBeyondTopLevelInOverflow() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long farAway = 64L * 64 * 64 * 64 * 3 + 5;
+        wheel.schedule("far", farAway);
+
+        assertTrue(wheel.advance(farAway - 1).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(farAway));
+    }
+}
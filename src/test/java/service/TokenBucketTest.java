@@ -0,0 +1,35 @@
+package service;
+
+import com.IQproject.court.service.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void burstIsAllowedThenLimitedToRate() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        long wait = bucket.tryConsume(0);
+        assertTrue(wait > 0 && wait <= SECOND);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertTrue(bucket.tryConsume(SECOND) > 0);
+    }
+
+    @Test
+    void bucketRefillsUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0);
+        bucket.tryConsume(0);
+
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(100 * SECOND));
+    }
+}
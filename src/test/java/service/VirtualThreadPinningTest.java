@@ -0,0 +1,81 @@
+package service;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.ReservationService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the booking path on virtual threads and uses JFR to detect carrier thread pinning.
+ */
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class)
+public class VirtualThreadPinningTest {
+    private static final int BOOKINGS = 100;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    @Test
+    void bookingOnVirtualThreadsDoesNotPinCarrierThreads() throws Exception {
+        SurfaceType surface = surfaceTypeRepository.save(new SurfaceType("Pinning", new BigDecimal(5)));
+        Court court = courtRepository.save(new Court("Pinning Court", surface.getId()));
+        LocalDateTime base = LocalDateTime.of(2099, 1, 1, 8, 0);
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            stream.startAsync();
+
+            List<Future<List<Reservation>>> futures = new ArrayList<>(BOOKINGS);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < BOOKINGS; i++) {
+                    LocalDateTime start = base.plusHours(i);
+                    String phone = "900" + i;
+                    futures.add(executor.submit(() -> {
+                        Reservation reservation = new Reservation();
+                        reservation.setCourtId(court.getId());
+                        reservation.setCustomer(new Customer(phone, "Virtual"));
+                        reservation.setStartTime(start);
+                        reservation.setEndTime(start.plusMinutes(30));
+                        reservationService.createReservation(reservation);
+                        return reservationService.getReservationsByCourtId(court.getId());
+                    }));
+                }
+            }
+            stream.stop();
+            for (Future<List<Reservation>> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(BOOKINGS, reservationService.getReservationsByCourtId(court.getId()).size());
+        assertTrue(pinned.isEmpty(), () -> "Virtual threads were pinned:\n" + pinned.get(0));
+    }
+}
@@ -0,0 +1,70 @@
+package service;
+
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.SurfaceType;
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.SurfaceTypeRepository;
+import com.IQproject.court.service.ReservationService;
+import com.IQproject.court.service.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cancels a reservation through the service and checks that the waiter is promoted after the commit.
+ */
+@SpringBootTest(classes = com.IQproject.court.CourtApplication.class)
+public class WaitlistPromotionTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private SurfaceTypeRepository surfaceTypeRepository;
+
+    @Test
+    void cancellationPromotesWaiter() throws Exception {
+        SurfaceType surface = surfaceTypeRepository.save(new SurfaceType("Waitlist", new BigDecimal(2)));
+        Court court = courtRepository.save(new Court("Waitlist Court", surface.getId()));
+        LocalDateTime start = LocalDateTime.of(2098, 6, 1, 18, 0);
+
+        Reservation booked = new Reservation();
+        booked.setCourtId(court.getId());
+        booked.setCustomer(new Customer("700000001", "Owner"));
+        booked.setStartTime(start);
+        booked.setEndTime(start.plusHours(1));
+        booked = reservationService.createReservation(booked);
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCourtId(court.getId());
+        entry.setCustomer(new Customer("700000002", "Waiter"));
+        entry.setStartTime(start);
+        entry.setEndTime(start.plusHours(1));
+        Long entryId = waitlistService.join(entry).getId();
+
+        reservationService.deleteReservation(booked.getId());
+
+        WaitlistEntry promoted = waitlistService.getEntry(entryId);
+        for (int i = 0; i < 100 && promoted.getStatus() == WaitlistEntry.Status.WAITING; i++) {
+            Thread.sleep(50);
+            promoted = waitlistService.getEntry(entryId);
+        }
+        assertEquals(WaitlistEntry.Status.PROMOTED, promoted.getStatus());
+        Reservation reservation = reservationService.getReservationById(promoted.getReservationId());
+        assertEquals("700000002", reservation.getCustomer().getPhoneNumber());
+    }
+}
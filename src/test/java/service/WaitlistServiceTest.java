@@ -0,0 +1,172 @@
+package service;
+
+import com.IQproject.court.event.ReservationChange;
+import com.IQproject.court.event.ReservationChangedEvent;
+import com.IQproject.court.model.Court;
+import com.IQproject.court.model.Customer;
+import com.IQproject.court.model.Reservation;
+import com.IQproject.court.model.WaitlistEntry;
+import com.IQproject.court.repository.CourtRepository;
+import com.IQproject.court.repository.CustomerRepository;
+import com.IQproject.court.repository.ReservationRepository;
+import com.IQproject.court.repository.WaitlistEntryRepository;
+import com.IQproject.court.service.ReservationService;
+import com.IQproject.court.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WaitlistServiceTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+    private static final LocalDateTime END = START.plusHours(1);
+
+    private WaitlistEntryRepository waitlistRepo;
+    private ReservationService reservationService;
+    private ReservationRepository reservationRepo;
+    private CourtRepository courtRepo;
+    private CustomerRepository customerRepo;
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepo = mock(WaitlistEntryRepository.class);
+        reservationService = mock(ReservationService.class);
+        reservationRepo = mock(ReservationRepository.class);
+        courtRepo = mock(CourtRepository.class);
+        customerRepo = mock(CustomerRepository.class);
+        waitlistService = new WaitlistService(waitlistRepo, reservationService, reservationRepo, courtRepo,
+                customerRepo, mock(PlatformTransactionManager.class), Runnable::run);
+
+        Court court = new Court();
+        court.setId(1L);
+        when(courtRepo.findById(1L)).thenReturn(court);
+        when(waitlistRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static WaitlistEntry entry(Long id) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setCourtId(1L);
+        entry.setCustomer(new Customer("600100" + id, "Waiter " + id));
+        entry.setStartTime(START);
+        entry.setEndTime(END);
+        return entry;
+    }
+
+    @Test
+    void joinShouldRejectFreeSlot() {
+        when(reservationRepo.isOverlapping(1L, START, END)).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> waitlistService.join(entry(null)));
+
+        assertEquals("The slot is free, book it directly", ex.getMessage());
+    }
+
+    @Test
+    void joinShouldRejectSlotsLongerThanOneDay() {
+        WaitlistEntry entry = entry(null);
+        entry.setEndTime(START.plusDays(2));
+
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.join(entry));
+    }
+
+    @Test
+    void joinShouldSaveWaitingEntryWithExistingCustomer() {
+        Customer existing = new Customer("6001001", "Waiter");
+        when(reservationRepo.isOverlapping(1L, START, END)).thenReturn(true);
+        when(customerRepo.findByPhoneNumber(anyString())).thenReturn(existing);
+
+        WaitlistEntry saved = waitlistService.join(entry(null));
+
+        assertEquals(WaitlistEntry.Status.WAITING, saved.getStatus());
+        assertSame(existing, saved.getCustomer());
+        verify(customerRepo, never()).save(any());
+    }
+
+    @Test
+    void promoteShouldSkipWaitersWhoseSlotIsStillTaken() {
+        WaitlistEntry first = entry(1L);
+        WaitlistEntry second = entry(2L);
+        when(waitlistRepo.findWaiting(eq(1L), eq(START), eq(END), any())).thenReturn(List.of(first, second));
+        when(waitlistRepo.lockById(1L)).thenReturn(first);
+        when(waitlistRepo.lockById(2L)).thenReturn(second);
+        Reservation created = new Reservation();
+        created.setId(77L);
+        when(reservationService.createReservation(any()))
+                .thenThrow(new IllegalArgumentException("Reservation time is overlapping with another reservation"))
+                .thenReturn(created);
+
+        int promoted = waitlistService.promote(1L, START, END);
+
+        assertEquals(1, promoted);
+        assertEquals(WaitlistEntry.Status.WAITING, first.getStatus());
+        assertEquals(WaitlistEntry.Status.PROMOTED, second.getStatus());
+        assertEquals(77L, second.getReservationId());
+    }
+
+    @Test
+    void promoteShouldIgnoreEntriesNoLongerWaiting() {
+        WaitlistEntry cancelled = entry(1L);
+        cancelled.setStatus(WaitlistEntry.Status.CANCELLED);
+        when(waitlistRepo.findWaiting(eq(1L), eq(START), eq(END), any())).thenReturn(List.of(cancelled));
+        when(waitlistRepo.lockById(1L)).thenReturn(cancelled);
+
+        assertEquals(0, waitlistService.promote(1L, START, END));
+        verify(reservationService, never()).createReservation(any());
+    }
+
+    @Test
+    void deletedReservationsPromoteWaitersAndFailuresDoNotStopTheRest() {
+        WaitlistEntry first = entry(1L);
+        WaitlistEntry second = entry(2L);
+        LocalDateTime later = START.plusHours(3);
+        when(waitlistRepo.findWaiting(eq(1L), eq(START), eq(END), any())).thenReturn(List.of(first));
+        when(waitlistRepo.findWaiting(eq(1L), eq(later), eq(later.plusHours(1)), any())).thenReturn(List.of(second));
+        when(waitlistRepo.lockById(1L)).thenReturn(first);
+        when(waitlistRepo.lockById(2L)).thenReturn(second);
+        Reservation created = new Reservation();
+        created.setId(78L);
+        when(reservationService.createReservation(any()))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(created);
+
+        waitlistService.onReservationChanged(new ReservationChangedEvent(List.of(
+                new ReservationChange(ReservationChange.Type.UPDATED, 9L, 1L, START, END, null, null, null, null),
+                new ReservationChange(ReservationChange.Type.DELETED, 10L, 1L, START, END, null, null, null, null),
+                new ReservationChange(ReservationChange.Type.DELETED, 11L, 1L, later, later.plusHours(1), null, null, null, null))));
+
+        assertEquals(WaitlistEntry.Status.WAITING, first.getStatus());
+        assertEquals(WaitlistEntry.Status.PROMOTED, second.getStatus());
+        verify(waitlistRepo, times(2)).findWaiting(any(), any(), any(), any());
+    }
+
+    @Test
+    void changesWithoutDeletionsPromoteNobody() {
+        waitlistService.onReservationChanged(new ReservationChangedEvent(List.of(
+                new ReservationChange(ReservationChange.Type.CREATED, 9L, 1L, START, END, null, null, null, null))));
+
+        verifyNoInteractions(waitlistRepo);
+    }
+
+    @Test
+    void leaveShouldCancelOnlyWaitingEntries() {
+        WaitlistEntry waiting = entry(1L);
+        WaitlistEntry promoted = entry(2L);
+        promoted.setStatus(WaitlistEntry.Status.PROMOTED);
+        when(waitlistRepo.lockById(1L)).thenReturn(waiting);
+        when(waitlistRepo.lockById(2L)).thenReturn(promoted);
+
+        assertTrue(waitlistService.leave(1L));
+        assertEquals(WaitlistEntry.Status.CANCELLED, waiting.getStatus());
+        assertFalse(waitlistService.leave(2L));
+        assertFalse(waitlistService.leave(3L));
+    }
+}